@@ -165,10 +165,14 @@ def _sulong_gate_runner(args, tasks):
             if t: mx_testsuites.runSuite('gcc_fortran')
         with Task("TestSulong", tasks, tags=['sulong', 'sulongBasic']) as t:
             if t: mx_unittest.unittest(['SulongSuite'])
+        with Task("TestSizeClassAllocator", tasks, tags=['sulong', 'sulongBasic']) as t:
+            if t: mx_unittest.unittest(['SizeClassAllocatorSuite'])
         with Task("TestInterop", tasks, tags=['interop', 'sulongBasic']) as t:
             if t: mx_unittest.unittest(['com.oracle.truffle.llvm.test.interop'])
+        with Task("TestRuntime", tasks, tags=['runtime', 'sulongBasic']) as t:
+            if t: mx_unittest.unittest(['com.oracle.truffle.llvm.test.runtime'])
         with Task("TestDebug", tasks, tags=['debug', 'sulongBasic']) as t:
-            if t: mx_unittest.unittest(['LLVMDebugTest'])
+            if t: mx_unittest.unittest(['LLVMDebugTest', 'LLVMLazyLVIDebugTest'])
         with Task("TestIRDebug", tasks, tags=['irdebug', 'sulongBasic']) as t:
             if t: mx_unittest.unittest(['LLVMIRDebugTest'])
         with Task('TestAssembly', tasks, tags=['assembly', 'sulongMisc']) as t:
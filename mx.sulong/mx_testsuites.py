@@ -135,7 +135,7 @@ def runParserTortureSuite(vmArgs):
 
 def runTypeTests(vmArgs):
     """runs the Type test suite"""
-    return run(vmArgs, "com.oracle.truffle.llvm.types.floating.test")
+    return run(vmArgs, "com.oracle.truffle.llvm.types")
 
 def runPipeTests(vmArgs):
     """runs the Pipe test suite"""
@@ -113,6 +113,44 @@ suite = {
       "license" : "BSD-new",
     },
 
+    "com.oracle.truffle.llvm.parser.benchmark" : {
+      "subDir" : "projects",
+      "sourceDirs" : ["src"],
+      "dependencies" : [
+        "com.oracle.truffle.llvm.parser",
+        "mx:JMH_1_21",
+      ],
+      "javaProperties" : {
+        "sulong.benchmark.bitcode" : "<path:SULONG_LIBS>/libsulong.bc",
+        "sulong.benchmark.testSuites" : "<path:SULONG_TEST_SUITES>",
+      },
+      "checkstyle" : "com.oracle.truffle.llvm.runtime",
+      "javaCompliance" : "1.8",
+      "annotationProcessors" : ["mx:JMH_1_21"],
+      "workingSets" : "Truffle, LLVM",
+      "license" : "BSD-new",
+      "testProject" : True,
+    },
+
+    "com.oracle.truffle.llvm.runtime.benchmark" : {
+      "subDir" : "projects",
+      "sourceDirs" : ["src"],
+      "dependencies" : [
+        "com.oracle.truffle.llvm",
+        "mx:JMH_1_21",
+      ],
+      "javaProperties" : {
+        "llvm.home" : "<path:SULONG_LIBS>",
+        "sulong.benchmark.testSuites" : "<path:SULONG_TEST_SUITES>",
+      },
+      "checkstyle" : "com.oracle.truffle.llvm.runtime",
+      "javaCompliance" : "1.8",
+      "annotationProcessors" : ["mx:JMH_1_21"],
+      "workingSets" : "Truffle, LLVM",
+      "license" : "BSD-new",
+      "testProject" : True,
+    },
+
     "com.oracle.truffle.llvm.spi" : {
       "subDir" : "projects",
       "sourceDirs" : ["src"],
@@ -347,6 +385,13 @@ suite = {
       ],
       "testProject" : True,
     },
+    "com.oracle.truffle.llvm.tests.runtime" : {
+      "subDir" : "tests",
+      "class" : "SulongTestSuite",
+      "variants" : ["O0"],
+      "buildRef" : False,
+      "testProject" : True,
+    },
     "com.oracle.truffle.llvm.tests.sulong" : {
       "subDir" : "tests",
       "class" : "SulongTestSuite",
@@ -490,6 +535,7 @@ suite = {
         "com.oracle.truffle.llvm.tests.irdebug",
         "com.oracle.truffle.llvm.tests.interop",
         "com.oracle.truffle.llvm.tests.nfi",
+        "com.oracle.truffle.llvm.tests.runtime",
         "com.oracle.truffle.llvm.tests.sulong",
         "com.oracle.truffle.llvm.tests.sulongavx",
         "com.oracle.truffle.llvm.tests.sulongcpp",
@@ -55,7 +55,7 @@ public abstract class LLVMAMD64PopNode extends LLVMExpressionNode {
             long sp = basePointer.get(memory);
             short value = memory.getI16(sp);
             sp += LLVMExpressionNode.I16_SIZE_IN_BYTES;
-            basePointer.set(sp);
+            basePointer.set(sp, this);
             return value;
         }
     }
@@ -69,7 +69,7 @@ public abstract class LLVMAMD64PopNode extends LLVMExpressionNode {
             long sp = basePointer.get(memory);
             int value = memory.getI32(sp);
             sp += LLVMExpressionNode.I32_SIZE_IN_BYTES;
-            basePointer.set(sp);
+            basePointer.set(sp, this);
             return value;
         }
     }
@@ -83,7 +83,7 @@ public abstract class LLVMAMD64PopNode extends LLVMExpressionNode {
             long sp = basePointer.get(memory);
             long value = memory.getI64(sp);
             sp += LLVMExpressionNode.I64_SIZE_IN_BYTES;
-            basePointer.set(sp);
+            basePointer.set(sp, this);
             return value;
         }
     }
@@ -57,7 +57,7 @@ public abstract class LLVMAMD64PushNode extends LLVMStatementNode {
             StackPointer basePointer = (StackPointer) FrameUtil.getObjectSafe(frame, slot);
             long sp = basePointer.get(memory);
             sp -= LLVMExpressionNode.I16_SIZE_IN_BYTES;
-            basePointer.set(sp);
+            basePointer.set(sp, this);
             memory.putI16(sp, value);
         }
     }
@@ -70,7 +70,7 @@ public abstract class LLVMAMD64PushNode extends LLVMStatementNode {
             StackPointer basePointer = (StackPointer) FrameUtil.getObjectSafe(frame, slot);
             long sp = basePointer.get(memory);
             sp -= LLVMExpressionNode.I32_SIZE_IN_BYTES;
-            basePointer.set(sp);
+            basePointer.set(sp, this);
             memory.putI32(sp, value);
         }
     }
@@ -83,7 +83,7 @@ public abstract class LLVMAMD64PushNode extends LLVMStatementNode {
             StackPointer basePointer = (StackPointer) FrameUtil.getObjectSafe(frame, slot);
             long sp = basePointer.get(memory);
             sp -= LLVMExpressionNode.I64_SIZE_IN_BYTES;
-            basePointer.set(sp);
+            basePointer.set(sp, this);
             memory.putI64(sp, value);
         }
     }
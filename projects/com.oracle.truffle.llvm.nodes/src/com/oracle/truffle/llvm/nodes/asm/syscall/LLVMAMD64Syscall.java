@@ -74,6 +74,8 @@ public class LLVMAMD64Syscall {
     public static final int SYS_exit = 60;
     public static final int SYS_uname = 63;
     public static final int SYS_fcntl = 72;
+    public static final int SYS_fsync = 74;
+    public static final int SYS_fdatasync = 75;
     public static final int SYS_ftruncate = 77;
     public static final int SYS_getcwd = 79;
     public static final int SYS_rename = 82;
@@ -107,5 +109,6 @@ public class LLVMAMD64Syscall {
     public static final int SYS_renameat = 264;
     public static final int SYS_faccessat = 269;
     public static final int SYS_utimensat = 280;
+    public static final int SYS_dup3 = 292;
     public static final int SYS_pipe2 = 293;
 }
@@ -31,6 +31,8 @@ package com.oracle.truffle.llvm.nodes.asm.syscall;
 
 import com.oracle.truffle.llvm.nodes.asm.syscall.posix.LLVMAMD64PosixCallNode;
 import com.oracle.truffle.llvm.nodes.asm.syscall.posix.LLVMAMD64PosixCallNodeGen;
+import com.oracle.truffle.llvm.runtime.LLVMContext;
+import com.oracle.truffle.llvm.runtime.LLVMStdioBuffer;
 import com.oracle.truffle.llvm.runtime.memory.LLVMSyscallOperationNode;
 
 public class LLVMAMD64SyscallCloseNode extends LLVMSyscallOperationNode {
@@ -48,6 +50,15 @@ public class LLVMAMD64SyscallCloseNode extends LLVMSyscallOperationNode {
     @Override
     public long execute(Object rdi, Object rsi, Object rdx, Object r10, Object r8, Object r9) {
         int fd = (int) ((long) rdi);
+        if (LLVMStdioBuffer.isStdio(fd)) {
+            LLVMContext context = getContextReference().get();
+            context.flushStdioBuffer();
+            int result = (int) close.execute(fd);
+            if (result >= 0) {
+                context.releaseStdioDescriptor(fd);
+            }
+            return result;
+        }
         return (int) close.execute(fd);
     }
 }
@@ -31,6 +31,8 @@ package com.oracle.truffle.llvm.nodes.asm.syscall;
 
 import com.oracle.truffle.llvm.nodes.asm.syscall.posix.LLVMAMD64PosixCallNode;
 import com.oracle.truffle.llvm.nodes.asm.syscall.posix.LLVMAMD64PosixCallNodeGen;
+import com.oracle.truffle.llvm.runtime.LLVMContext;
+import com.oracle.truffle.llvm.runtime.LLVMStdioBuffer;
 import com.oracle.truffle.llvm.runtime.memory.LLVMSyscallOperationNode;
 
 public class LLVMAMD64SyscallDup2Node extends LLVMSyscallOperationNode {
@@ -49,6 +51,15 @@ public class LLVMAMD64SyscallDup2Node extends LLVMSyscallOperationNode {
     public long execute(Object rdi, Object rsi, Object rdx, Object r10, Object r8, Object r9) {
         int fd = (int) ((long) rdi);
         int fd2 = (int) ((long) rsi);
+        if (fd != fd2 && LLVMStdioBuffer.isStdio(fd2)) {
+            LLVMContext context = getContextReference().get();
+            context.flushStdioBuffer();
+            int result = (int) dup2.execute(fd, fd2);
+            if (result >= 0) {
+                context.releaseStdioDescriptor(fd2);
+            }
+            return result;
+        }
         return (int) dup2.execute(fd, fd2);
     }
 }
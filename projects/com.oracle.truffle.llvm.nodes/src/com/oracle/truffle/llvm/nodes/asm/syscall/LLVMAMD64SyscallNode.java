@@ -45,13 +45,17 @@ import com.oracle.truffle.llvm.runtime.options.SulongEngineOption;
 
 @NodeChildren({@NodeChild("rax"), @NodeChild("rdi"), @NodeChild("rsi"), @NodeChild("rdx"), @NodeChild("r10"), @NodeChild("r8"), @NodeChild("r9")})
 public abstract class LLVMAMD64SyscallNode extends LLVMExpressionNode {
-    protected static final int NUM_SYSCALLS = 332;
+    /**
+     * Most syscall sites always see the same syscall number. Sites that see more numbers, e.g., the
+     * generic {@code syscall()} function of libc, use the {@linkplain #doI64 shared nodes}.
+     */
+    protected static final int CACHED_SYSCALLS = 4;
 
     protected LLVMSyscallOperationNode createNode(long rax) {
         return getContextReference().get().getContextExtension(SystemContextExtension.class).createSyscallNode(rax);
     }
 
-    @Specialization(guards = "rax == cachedRax", limit = "NUM_SYSCALLS")
+    @Specialization(guards = "rax == cachedRax", limit = "CACHED_SYSCALLS")
     protected long cachedSyscall(@SuppressWarnings("unused") long rax, Object rdi, Object rsi, Object rdx, Object r10, Object r8, Object r9,
                     @Cached("rax") @SuppressWarnings("unused") long cachedRax,
                     @Cached("createNode(rax)") LLVMSyscallOperationNode node) {
@@ -67,9 +71,21 @@ public abstract class LLVMAMD64SyscallNode extends LLVMExpressionNode {
 
     @Specialization(replaces = "cachedSyscall")
     protected long doI64(long rax, Object rdi, Object rsi, Object rdx, Object r10, Object r8, Object r9) {
-        // TODO: implement big switch with type casts + logic + ...?
-        CompilerDirectives.transferToInterpreter();
-        return createNode(rax).execute(rdi, rsi, rdx, r10, r8, r9);
+        return executeShared(rax, rdi, rsi, rdx, r10, r8, r9, traceEnabled());
+    }
+
+    @TruffleBoundary
+    private long executeShared(long rax, Object rdi, Object rsi, Object rdx, Object r10, Object r8, Object r9, boolean trace) {
+        SystemContextExtension extension = getContextReference().get().getContextExtension(SystemContextExtension.class);
+        LLVMSyscallOperationNode node = extension.getSharedSyscallNode(getLLVMLanguage(), rax);
+        if (trace) {
+            trace("[sulong] shared syscall: %s (%s, %s, %s, %s, %s, %s)\n", node.getName(), rdi, rsi, rdx, r10, r8, r9);
+        }
+        long result = node.execute(rdi, rsi, rdx, r10, r8, r9);
+        if (trace) {
+            trace("         result: %d\n", result);
+        }
+        return result;
     }
 
     @CompilationFinal private boolean traceEnabledFlag;
@@ -29,9 +29,13 @@
  */
 package com.oracle.truffle.llvm.nodes.asm.syscall;
 
+import com.oracle.truffle.api.TruffleLanguage.ContextReference;
+import com.oracle.truffle.api.dsl.Cached;
 import com.oracle.truffle.api.dsl.Specialization;
 import com.oracle.truffle.llvm.nodes.asm.syscall.posix.LLVMAMD64PosixCallNode;
 import com.oracle.truffle.llvm.nodes.asm.syscall.posix.LLVMAMD64PosixCallNodeGen;
+import com.oracle.truffle.llvm.runtime.LLVMContext;
+import com.oracle.truffle.llvm.runtime.LLVMStdioBuffer;
 import com.oracle.truffle.llvm.runtime.memory.LLVMSyscallOperationNode;
 import com.oracle.truffle.llvm.runtime.pointer.LLVMNativePointer;
 
@@ -48,12 +52,18 @@ public abstract class LLVMAMD64SyscallReadNode extends LLVMSyscallOperationNode
     }
 
     @Specialization
-    protected long doOp(long fd, LLVMNativePointer ptr, long size) {
+    protected long doOp(long fd, LLVMNativePointer ptr, long size,
+                    @Cached("getContextReference()") ContextReference<LLVMContext> context) {
+        if (fd == LLVMStdioBuffer.STDIN) {
+            // a prompt must be visible before the program waits for the input
+            context.get().flushStdioBuffer();
+        }
         return (long) read.execute((int) fd, ptr.asNative(), size);
     }
 
     @Specialization
-    protected long doOp(long fd, long ptr, long size) {
-        return doOp(fd, LLVMNativePointer.create(ptr), size);
+    protected long doOp(long fd, long ptr, long size,
+                    @Cached("getContextReference()") ContextReference<LLVMContext> context) {
+        return doOp(fd, LLVMNativePointer.create(ptr), size, context);
     }
 }
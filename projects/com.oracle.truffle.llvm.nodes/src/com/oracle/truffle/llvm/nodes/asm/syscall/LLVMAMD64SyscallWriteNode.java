@@ -29,9 +29,16 @@
  */
 package com.oracle.truffle.llvm.nodes.asm.syscall;
 
+import java.io.IOException;
+
+import com.oracle.truffle.api.TruffleLanguage.ContextReference;
+import com.oracle.truffle.api.dsl.Cached;
 import com.oracle.truffle.api.dsl.Specialization;
 import com.oracle.truffle.llvm.nodes.asm.syscall.posix.LLVMAMD64PosixCallNode;
 import com.oracle.truffle.llvm.nodes.asm.syscall.posix.LLVMAMD64PosixCallNodeGen;
+import com.oracle.truffle.llvm.runtime.LLVMContext;
+import com.oracle.truffle.llvm.runtime.LLVMStdioBuffer;
+import com.oracle.truffle.llvm.runtime.memory.LLVMMemory;
 import com.oracle.truffle.llvm.runtime.memory.LLVMSyscallOperationNode;
 import com.oracle.truffle.llvm.runtime.pointer.LLVMNativePointer;
 
@@ -48,12 +55,24 @@ public abstract class LLVMAMD64SyscallWriteNode extends LLVMSyscallOperationNode
     }
 
     @Specialization
-    protected long doOp(long fd, LLVMNativePointer ptr, long size) {
+    protected long doOp(long fd, LLVMNativePointer ptr, long size,
+                    @Cached("getContextReference()") ContextReference<LLVMContext> context,
+                    @Cached("getLLVMMemory()") LLVMMemory memory) {
+        LLVMStdioBuffer stdioBuffer = context.get().getStdioBuffer();
+        if (stdioBuffer != null && stdioBuffer.isBuffered(fd)) {
+            try {
+                return stdioBuffer.write(memory, fd, ptr.asNative(), size);
+            } catch (IOException e) {
+                return -LLVMAMD64Error.EIO;
+            }
+        }
         return (long) write.execute((int) fd, ptr.asNative(), size);
     }
 
     @Specialization
-    protected long doOp(long fd, long ptr, long size) {
-        return doOp(fd, LLVMNativePointer.create(ptr), size);
+    protected long doOp(long fd, long ptr, long size,
+                    @Cached("getContextReference()") ContextReference<LLVMContext> context,
+                    @Cached("getLLVMMemory()") LLVMMemory memory) {
+        return doOp(fd, LLVMNativePointer.create(ptr), size, context, memory);
     }
 }
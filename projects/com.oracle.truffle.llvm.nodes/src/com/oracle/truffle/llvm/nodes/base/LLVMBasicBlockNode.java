@@ -29,6 +29,8 @@
  */
 package com.oracle.truffle.llvm.nodes.base;
 
+import java.util.Arrays;
+
 import com.oracle.truffle.api.CompilerAsserts;
 import com.oracle.truffle.api.CompilerDirectives.CompilationFinal;
 import com.oracle.truffle.api.frame.VirtualFrame;
@@ -51,6 +53,9 @@ public class LLVMBasicBlockNode extends LLVMStatementNode {
 
     public static final int RETURN_FROM_FUNCTION = -1;
 
+    private static final int HOT_SUCCESSOR_COUNT = 4;
+    private static final int[] NO_HOT_SUCCESSORS = new int[0];
+
     @Children private final LLVMStatementNode[] statements;
     @Child public LLVMControlFlowNode termInstruction;
 
@@ -61,6 +66,7 @@ public class LLVMBasicBlockNode extends LLVMStatementNode {
     private final BranchProfile blockEntered = BranchProfile.create();
 
     @CompilationFinal(dimensions = 1) private final long[] successorExecutionCount;
+    @CompilationFinal(dimensions = 1) private int[] hotSuccessors = NO_HOT_SUCCESSORS;
 
     public LLVMBasicBlockNode(LLVMStatementNode[] statements, LLVMControlFlowNode termInstruction, int blockId, String blockName) {
         this.statements = statements;
@@ -157,5 +163,54 @@ public class LLVMBasicBlockNode extends LLVMStatementNode {
     private void incrementCountAtIndex(int successorIndex) {
         assert termInstruction.needsBranchProfiling();
         successorExecutionCount[successorIndex]++;
+        if (successorExecutionCount.length > HOT_SUCCESSOR_COUNT) {
+            updateHotSuccessors(successorIndex);
+        }
+    }
+
+    /**
+     * Gets the most frequently taken successors of a terminator with many successors, ordered by
+     * decreasing frequency. Switch dispatch tests these first in compiled code.
+     *
+     * The result is replaced rather than modified when the order changes, so it is always safe to
+     * read it during compilation.
+     */
+    public int[] getHotSuccessors() {
+        return hotSuccessors;
+    }
+
+    private void updateHotSuccessors(int successorIndex) {
+        long count = successorExecutionCount[successorIndex];
+        int[] hot = hotSuccessors;
+        int position = -1;
+        for (int i = 0; i < hot.length; i++) {
+            if (hot[i] == successorIndex) {
+                position = i;
+                break;
+            }
+        }
+
+        if (position == -1) {
+            if (hot.length < HOT_SUCCESSOR_COUNT) {
+                hot = Arrays.copyOf(hot, hot.length + 1);
+            } else if (count > successorExecutionCount[hot[hot.length - 1]]) {
+                hot = hot.clone();
+            } else {
+                return;
+            }
+            position = hot.length - 1;
+            hot[position] = successorIndex;
+        } else if (position > 0 && count > successorExecutionCount[hot[position - 1]]) {
+            hot = hot.clone();
+        } else {
+            return;
+        }
+
+        while (position > 0 && count > successorExecutionCount[hot[position - 1]]) {
+            hot[position] = hot[position - 1];
+            hot[position - 1] = successorIndex;
+            position--;
+        }
+        hotSuccessors = hot;
     }
 }
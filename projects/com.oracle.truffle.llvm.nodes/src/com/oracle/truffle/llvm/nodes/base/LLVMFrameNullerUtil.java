@@ -34,6 +34,7 @@ import com.oracle.truffle.api.CompilerDirectives;
 import com.oracle.truffle.api.frame.FrameSlot;
 import com.oracle.truffle.api.frame.FrameSlotKind;
 import com.oracle.truffle.api.frame.VirtualFrame;
+import com.oracle.truffle.llvm.runtime.LLVMI128;
 import com.oracle.truffle.llvm.runtime.LLVMIVarBit;
 import com.oracle.truffle.llvm.runtime.floating.LLVM80BitFloat;
 import com.oracle.truffle.llvm.runtime.pointer.LLVMNativePointer;
@@ -93,6 +94,10 @@ public final class LLVMFrameNullerUtil {
         frame.setObject(frameSlot, LLVMNativePointer.createNull());
     }
 
+    private static void nullI128(VirtualFrame frame, FrameSlot frameSlot) {
+        frame.setObject(frameSlot, LLVMI128.createNull());
+    }
+
     private static void nullIVarBit(VirtualFrame frame, FrameSlot frameSlot) {
         frame.setObject(frameSlot, LLVMIVarBit.createNull());
     }
@@ -113,7 +118,11 @@ public final class LLVMFrameNullerUtil {
                 nullVector(frame, frameSlot, (VectorType) type);
                 return;
             } else if (type instanceof VariableBitWidthType) {
-                nullIVarBit(frame, frameSlot);
+                if (type.getBitSize() == LLVMI128.BIT_WIDTH) {
+                    nullI128(frame, frameSlot);
+                } else {
+                    nullIVarBit(frame, frameSlot);
+                }
                 return;
             } else if (type instanceof PrimitiveType && ((PrimitiveType) type).getPrimitiveKind() == PrimitiveKind.X86_FP80) {
                 null80BitFloat(frame, frameSlot);
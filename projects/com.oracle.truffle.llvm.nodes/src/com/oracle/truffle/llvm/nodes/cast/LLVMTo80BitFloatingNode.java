@@ -32,6 +32,7 @@ package com.oracle.truffle.llvm.nodes.cast;
 import com.oracle.truffle.api.dsl.NodeChild;
 import com.oracle.truffle.api.dsl.Specialization;
 import com.oracle.truffle.api.nodes.ExplodeLoop;
+import com.oracle.truffle.llvm.runtime.LLVMI128;
 import com.oracle.truffle.llvm.runtime.LLVMIVarBit;
 import com.oracle.truffle.llvm.runtime.floating.LLVM80BitFloat;
 import com.oracle.truffle.llvm.runtime.nodes.api.LLVMExpressionNode;
@@ -83,6 +84,11 @@ public abstract class LLVMTo80BitFloatingNode extends LLVMExpressionNode {
         protected LLVM80BitFloat doLLVM80BitFloatNode(LLVMIVarBit from) {
             return LLVM80BitFloat.fromBytesBigEndian(from.getBytes());
         }
+
+        @Specialization
+        protected LLVM80BitFloat doLLVM80BitFloatNode(LLVMI128 from) {
+            return LLVM80BitFloat.fromI128(from);
+        }
     }
 
     @NodeChild(value = "fromNode", type = LLVMExpressionNode.class)
@@ -122,6 +128,11 @@ public abstract class LLVMTo80BitFloatingNode extends LLVMExpressionNode {
         protected LLVM80BitFloat doLLVM80BitFloatNode(LLVMIVarBit from) {
             return LLVM80BitFloat.fromBytesBigEndian(from.getBytes());
         }
+
+        @Specialization
+        protected LLVM80BitFloat doLLVM80BitFloatNode(LLVMI128 from) {
+            return LLVM80BitFloat.fromUnsignedI128(from);
+        }
     }
 
     @NodeChild(value = "fromNode", type = LLVMExpressionNode.class)
@@ -0,0 +1,179 @@
+/*
+ * Copyright (c) 2018, Oracle and/or its affiliates.
+ *
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification, are
+ * permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this list of
+ * conditions and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice, this list of
+ * conditions and the following disclaimer in the documentation and/or other materials provided
+ * with the distribution.
+ *
+ * 3. Neither the name of the copyright holder nor the names of its contributors may be used to
+ * endorse or promote products derived from this software without specific prior written
+ * permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY EXPRESS
+ * OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE
+ * COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ * EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE
+ * GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED
+ * AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED
+ * OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.oracle.truffle.llvm.nodes.cast;
+
+import com.oracle.truffle.api.dsl.NodeChild;
+import com.oracle.truffle.api.dsl.Specialization;
+import com.oracle.truffle.api.nodes.ExplodeLoop;
+import com.oracle.truffle.llvm.runtime.LLVMI128;
+import com.oracle.truffle.llvm.runtime.LLVMIVarBit;
+import com.oracle.truffle.llvm.runtime.floating.LLVM80BitFloat;
+import com.oracle.truffle.llvm.runtime.nodes.api.LLVMExpressionNode;
+import com.oracle.truffle.llvm.runtime.vector.LLVMDoubleVector;
+import com.oracle.truffle.llvm.runtime.vector.LLVMI32Vector;
+import com.oracle.truffle.llvm.runtime.vector.LLVMI64Vector;
+import com.oracle.truffle.llvm.runtime.vector.LLVMI8Vector;
+
+public abstract class LLVMToI128Node extends LLVMExpressionNode {
+
+    @NodeChild(value = "fromNode", type = LLVMExpressionNode.class)
+    public abstract static class LLVMSignedCastToI128Node extends LLVMToI128Node {
+
+        @Specialization
+        protected LLVMI128 doI1(boolean from) {
+            return LLVMI128.fromLong(from ? -1 : 0);
+        }
+
+        @Specialization
+        protected LLVMI128 doI8(byte from) {
+            return LLVMI128.fromLong(from);
+        }
+
+        @Specialization
+        protected LLVMI128 doI16(short from) {
+            return LLVMI128.fromLong(from);
+        }
+
+        @Specialization
+        protected LLVMI128 doI32(int from) {
+            return LLVMI128.fromLong(from);
+        }
+
+        @Specialization
+        protected LLVMI128 doI64(long from) {
+            return LLVMI128.fromLong(from);
+        }
+
+        @Specialization
+        protected LLVMI128 doI128(LLVMI128 from) {
+            return from;
+        }
+
+        @Specialization
+        protected LLVMI128 doIVarBit(LLVMIVarBit from) {
+            return LLVMI128.fromBigInteger(from.asBigInteger());
+        }
+
+        @Specialization
+        protected LLVMI128 do80BitFloat(LLVM80BitFloat from) {
+            return from.getI128Value();
+        }
+    }
+
+    @NodeChild(value = "fromNode", type = LLVMExpressionNode.class)
+    public abstract static class LLVMUnsignedCastToI128Node extends LLVMToI128Node {
+
+        @Specialization
+        protected LLVMI128 doI1(boolean from) {
+            return LLVMI128.fromBoolean(from);
+        }
+
+        @Specialization
+        protected LLVMI128 doI8(byte from) {
+            return LLVMI128.createZeroExt(from);
+        }
+
+        @Specialization
+        protected LLVMI128 doI16(short from) {
+            return LLVMI128.createZeroExt(from);
+        }
+
+        @Specialization
+        protected LLVMI128 doI32(int from) {
+            return LLVMI128.createZeroExt(from);
+        }
+
+        @Specialization
+        protected LLVMI128 doI64(long from) {
+            return LLVMI128.createZeroExt(from);
+        }
+
+        @Specialization
+        protected LLVMI128 doI128(LLVMI128 from) {
+            return from;
+        }
+
+        @Specialization
+        protected LLVMI128 doIVarBit(LLVMIVarBit from) {
+            return LLVMI128.fromBigInteger(from.asUnsignedBigInteger());
+        }
+
+        @Specialization
+        protected LLVMI128 do80BitFloat(LLVM80BitFloat from) {
+            return from.getI128Value();
+        }
+    }
+
+    @NodeChild(value = "fromNode", type = LLVMExpressionNode.class)
+    public abstract static class LLVMBitcastToI128Node extends LLVMToI128Node {
+
+        @Specialization
+        protected LLVMI128 doI128(LLVMI128 from) {
+            return from;
+        }
+
+        @Specialization
+        protected LLVMI128 doIVarBit(LLVMIVarBit from) {
+            assert from.getBitSize() == LLVMI128.BIT_WIDTH;
+            return LLVMI128.fromBigInteger(from.asBigInteger());
+        }
+
+        @Specialization
+        @ExplodeLoop
+        protected LLVMI128 doI8Vector(LLVMI8Vector from) {
+            assert from.getLength() == LLVMI128.BYTE_WIDTH : "invalid vector size";
+            byte[] bytes = new byte[LLVMI128.BYTE_WIDTH];
+            for (int i = 0; i < LLVMI128.BYTE_WIDTH; i++) {
+                bytes[i] = from.getValue(i);
+            }
+            return LLVMI128.fromBytes(bytes);
+        }
+
+        @Specialization
+        protected LLVMI128 doI32Vector(LLVMI32Vector from) {
+            assert from.getLength() == LLVMI128.BIT_WIDTH / Integer.SIZE : "invalid vector size";
+            long low = Integer.toUnsignedLong(from.getValue(0)) | ((long) from.getValue(1) << Integer.SIZE);
+            long high = Integer.toUnsignedLong(from.getValue(2)) | ((long) from.getValue(3) << Integer.SIZE);
+            return LLVMI128.create(high, low);
+        }
+
+        @Specialization
+        protected LLVMI128 doI64Vector(LLVMI64Vector from) {
+            assert from.getLength() == LLVMI128.BIT_WIDTH / Long.SIZE : "invalid vector size";
+            return LLVMI128.create(from.getValue(1), from.getValue(0));
+        }
+
+        @Specialization
+        protected LLVMI128 doDoubleVector(LLVMDoubleVector from) {
+            assert from.getLength() == LLVMI128.BIT_WIDTH / Long.SIZE : "invalid vector size";
+            return LLVMI128.create(Double.doubleToRawLongBits(from.getValue(1)), Double.doubleToRawLongBits(from.getValue(0)));
+        }
+    }
+}
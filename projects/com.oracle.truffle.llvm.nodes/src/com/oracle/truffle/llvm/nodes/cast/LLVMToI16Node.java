@@ -40,6 +40,7 @@ import com.oracle.truffle.api.interop.UnsupportedMessageException;
 import com.oracle.truffle.api.nodes.Node;
 import com.oracle.truffle.llvm.nodes.cast.LLVMToI64Node.LLVMBitcastToI64Node;
 import com.oracle.truffle.llvm.runtime.LLVMBoxedPrimitive;
+import com.oracle.truffle.llvm.runtime.LLVMI128;
 import com.oracle.truffle.llvm.runtime.LLVMIVarBit;
 import com.oracle.truffle.llvm.runtime.floating.LLVM80BitFloat;
 import com.oracle.truffle.llvm.runtime.interop.convert.ForeignToLLVM;
@@ -138,6 +139,11 @@ public abstract class LLVMToI16Node extends LLVMExpressionNode {
         protected short doI16(LLVMIVarBit from) {
             return from.getShortValue();
         }
+
+        @Specialization
+        protected short doI128(LLVMI128 from) {
+            return from.getShortValue();
+        }
     }
 
     public abstract static class LLVMUnsignedCastToI16Node extends LLVMToI16Node {
@@ -162,6 +168,11 @@ public abstract class LLVMToI16Node extends LLVMExpressionNode {
             return from.getZeroExtendedShortValue();
         }
 
+        @Specialization
+        protected short doI128(LLVMI128 from) {
+            return from.getShortValue();
+        }
+
         @Specialization
         protected short doFloat(float from) {
             return (short) from;
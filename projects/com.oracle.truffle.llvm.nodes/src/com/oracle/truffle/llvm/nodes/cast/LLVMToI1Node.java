@@ -39,6 +39,7 @@ import com.oracle.truffle.api.interop.TruffleObject;
 import com.oracle.truffle.api.interop.UnsupportedMessageException;
 import com.oracle.truffle.api.nodes.Node;
 import com.oracle.truffle.llvm.runtime.LLVMBoxedPrimitive;
+import com.oracle.truffle.llvm.runtime.LLVMI128;
 import com.oracle.truffle.llvm.runtime.LLVMIVarBit;
 import com.oracle.truffle.llvm.runtime.floating.LLVM80BitFloat;
 import com.oracle.truffle.llvm.runtime.interop.convert.ForeignToLLVM;
@@ -120,6 +121,11 @@ public abstract class LLVMToI1Node extends LLVMExpressionNode {
             return doI1(from.getByteValue());
         }
 
+        @Specialization
+        protected boolean doI128(LLVMI128 from) {
+            return from.getBooleanValue();
+        }
+
         @Specialization
         protected boolean doI1(float from) {
             return from != 0;
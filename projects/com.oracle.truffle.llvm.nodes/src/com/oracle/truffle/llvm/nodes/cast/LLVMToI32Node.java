@@ -35,6 +35,7 @@ import com.oracle.truffle.api.dsl.NodeChild;
 import com.oracle.truffle.api.dsl.Specialization;
 import com.oracle.truffle.llvm.nodes.cast.LLVMToI64Node.LLVMBitcastToI64Node;
 import com.oracle.truffle.llvm.runtime.LLVMBoxedPrimitive;
+import com.oracle.truffle.llvm.runtime.LLVMI128;
 import com.oracle.truffle.llvm.runtime.LLVMIVarBit;
 import com.oracle.truffle.llvm.runtime.floating.LLVM80BitFloat;
 import com.oracle.truffle.llvm.runtime.interop.convert.ForeignToLLVM;
@@ -106,6 +107,11 @@ public abstract class LLVMToI32Node extends LLVMExpressionNode {
             return from.getIntValue();
         }
 
+        @Specialization
+        protected int doI128(LLVMI128 from) {
+            return from.getIntValue();
+        }
+
         @Specialization
         protected int doI32(float from) {
             return (int) from;
@@ -151,6 +157,11 @@ public abstract class LLVMToI32Node extends LLVMExpressionNode {
             return from.getZeroExtendedIntValue();
         }
 
+        @Specialization
+        protected int doI128(LLVMI128 from) {
+            return from.getIntValue();
+        }
+
         @Specialization(guards = "fitsIntoSignedInt(from)")
         protected int doFloat(float from) {
             return (int) from;
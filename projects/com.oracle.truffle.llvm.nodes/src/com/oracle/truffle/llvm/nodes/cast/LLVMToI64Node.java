@@ -36,6 +36,7 @@ import com.oracle.truffle.api.dsl.NodeChild;
 import com.oracle.truffle.api.dsl.Specialization;
 import com.oracle.truffle.api.nodes.ExplodeLoop;
 import com.oracle.truffle.llvm.runtime.LLVMBoxedPrimitive;
+import com.oracle.truffle.llvm.runtime.LLVMI128;
 import com.oracle.truffle.llvm.runtime.LLVMIVarBit;
 import com.oracle.truffle.llvm.runtime.floating.LLVM80BitFloat;
 import com.oracle.truffle.llvm.runtime.interop.convert.ForeignToLLVM;
@@ -130,6 +131,11 @@ public abstract class LLVMToI64Node extends LLVMExpressionNode {
             return from.getLongValue();
         }
 
+        @Specialization
+        protected long doI128(LLVMI128 from) {
+            return from.getLongValue();
+        }
+
         @Specialization
         protected long doI64(float from) {
             return (long) from;
@@ -177,6 +183,11 @@ public abstract class LLVMToI64Node extends LLVMExpressionNode {
             return from.getZeroExtendedLongValue();
         }
 
+        @Specialization
+        protected long doI128(LLVMI128 from) {
+            return from.getLongValue();
+        }
+
         @Specialization(guards = "fitsIntoSignedLong(from)")
         protected long doFloat(float from) {
             return (long) from;
@@ -35,6 +35,7 @@ import com.oracle.truffle.api.dsl.NodeChild;
 import com.oracle.truffle.api.dsl.Specialization;
 import com.oracle.truffle.llvm.nodes.cast.LLVMToI64Node.LLVMBitcastToI64Node;
 import com.oracle.truffle.llvm.runtime.LLVMBoxedPrimitive;
+import com.oracle.truffle.llvm.runtime.LLVMI128;
 import com.oracle.truffle.llvm.runtime.LLVMIVarBit;
 import com.oracle.truffle.llvm.runtime.floating.LLVM80BitFloat;
 import com.oracle.truffle.llvm.runtime.interop.convert.ForeignToLLVM;
@@ -103,6 +104,11 @@ public abstract class LLVMToI8Node extends LLVMExpressionNode {
             return from.getByteValue();
         }
 
+        @Specialization
+        protected byte doI128(LLVMI128 from) {
+            return from.getByteValue();
+        }
+
         @Specialization
         protected byte doI8(float from) {
             return (byte) from;
@@ -136,6 +142,11 @@ public abstract class LLVMToI8Node extends LLVMExpressionNode {
             return from.getZeroExtendedByteValue();
         }
 
+        @Specialization
+        protected byte doI128(LLVMI128 from) {
+            return from.getByteValue();
+        }
+
         @Specialization
         protected byte doFloat(float from) {
             return (byte) from;
@@ -32,6 +32,7 @@ package com.oracle.truffle.llvm.nodes.cast;
 import com.oracle.truffle.api.dsl.NodeChild;
 import com.oracle.truffle.api.dsl.NodeField;
 import com.oracle.truffle.api.dsl.Specialization;
+import com.oracle.truffle.llvm.runtime.LLVMI128;
 import com.oracle.truffle.llvm.runtime.LLVMIVarBit;
 import com.oracle.truffle.llvm.runtime.floating.LLVM80BitFloat;
 import com.oracle.truffle.llvm.runtime.nodes.api.LLVMExpressionNode;
@@ -69,6 +70,11 @@ public abstract class LLVMToVarINode extends LLVMExpressionNode {
             return LLVMIVarBit.create(getBits(), from.getSignExtendedBytes(), from.getBitSize(), true);
         }
 
+        @Specialization
+        protected LLVMIVarBit doI128(LLVMI128 from) {
+            return LLVMIVarBit.fromBigInteger(getBits(), from.asBigInteger());
+        }
+
         @Specialization
         protected LLVMIVarBit do80BitFloat(LLVM80BitFloat from) {
             return LLVMIVarBit.create(getBits(), from.getBytesBigEndian(), LLVM80BitFloat.BIT_WIDTH, true);
@@ -105,6 +111,11 @@ public abstract class LLVMToVarINode extends LLVMExpressionNode {
         protected LLVMIVarBit doIVarBit(LLVMIVarBit from) {
             return LLVMIVarBit.create(getBits(), from.getBytes(), from.getBitSize(), false);
         }
+
+        @Specialization
+        protected LLVMIVarBit doI128(LLVMI128 from) {
+            return LLVMIVarBit.fromBigInteger(getBits(), from.asUnsignedBigInteger());
+        }
     }
 
     @NodeChild(value = "fromNode", type = LLVMExpressionNode.class)
@@ -0,0 +1,280 @@
+/*
+ * Copyright (c) 2018, Oracle and/or its affiliates.
+ *
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification, are
+ * permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this list of
+ * conditions and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice, this list of
+ * conditions and the following disclaimer in the documentation and/or other materials provided
+ * with the distribution.
+ *
+ * 3. Neither the name of the copyright holder nor the names of its contributors may be used to
+ * endorse or promote products derived from this software without specific prior written
+ * permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY EXPRESS
+ * OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE
+ * COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ * EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE
+ * GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED
+ * AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED
+ * OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.oracle.truffle.llvm.nodes.control;
+
+import com.oracle.truffle.api.CompilerAsserts;
+import com.oracle.truffle.api.CompilerDirectives;
+import com.oracle.truffle.api.CompilerDirectives.CompilationFinal;
+import com.oracle.truffle.api.frame.FrameSlot;
+import com.oracle.truffle.api.frame.VirtualFrame;
+import com.oracle.truffle.api.nodes.ExplodeLoop;
+import com.oracle.truffle.api.nodes.ExplodeLoop.LoopExplosionKind;
+import com.oracle.truffle.llvm.nodes.base.LLVMBasicBlockNode;
+import com.oracle.truffle.llvm.nodes.base.LLVMFrameNullerUtil;
+import com.oracle.truffle.llvm.nodes.func.LLVMInvokeNode;
+import com.oracle.truffle.llvm.nodes.func.LLVMResumeNode;
+import com.oracle.truffle.llvm.nodes.others.LLVMUnreachableNode;
+import com.oracle.truffle.llvm.runtime.except.LLVMUserException;
+import com.oracle.truffle.llvm.runtime.nodes.api.LLVMControlFlowNode;
+import com.oracle.truffle.llvm.runtime.nodes.api.LLVMNode;
+import com.oracle.truffle.llvm.runtime.nodes.api.LLVMStatementNode;
+
+/**
+ * Executes a set of basic blocks, starting with the first one, and dispatches to the successor
+ * chosen by the terminator of each block. Subclasses decide which successors are executed by this
+ * node and what happens when control flow leaves it.
+ */
+abstract class LLVMAbstractDispatchNode extends LLVMNode {
+
+    private final FrameSlot exceptionValueSlot;
+    @Children private final LLVMBasicBlockNode[] bodyNodes;
+    @CompilationFinal(dimensions = 2) private final FrameSlot[][] beforeBlockNuller;
+    @CompilationFinal(dimensions = 2) private final FrameSlot[][] afterBlockNuller;
+
+    LLVMAbstractDispatchNode(FrameSlot exceptionValueSlot, LLVMBasicBlockNode[] bodyNodes, FrameSlot[][] beforeBlockNuller, FrameSlot[][] afterBlockNuller) {
+        this.exceptionValueSlot = exceptionValueSlot;
+        this.bodyNodes = bodyNodes;
+        this.beforeBlockNuller = beforeBlockNuller;
+        this.afterBlockNuller = afterBlockNuller;
+    }
+
+    /**
+     * Returns the index of the block with the given id in the body nodes, or a negative value if
+     * the dispatch should be left instead of executing the block. The result must be a partial
+     * evaluation constant if {@code successor} is one.
+     */
+    protected abstract int getSuccessorIndex(VirtualFrame frame, int successor);
+
+    /**
+     * Called once control flow leaves the dispatch.
+     *
+     * @param exitCode the negative value returned by {@link #getSuccessorIndex}
+     * @param returnValue the value of the executed return instruction, if any
+     * @param backEdgeCount the number of executed back edges (only counted in the interpreter)
+     */
+    protected abstract Object leave(int exitCode, Object returnValue, int backEdgeCount);
+
+    protected final void nullDeadSlotsBefore(VirtualFrame frame, int successor) {
+        nullDeadSlots(frame, successor, beforeBlockNuller);
+    }
+
+    @ExplodeLoop(kind = LoopExplosionKind.MERGE_EXPLODE)
+    protected final Object dispatch(VirtualFrame frame) {
+        Object returnValue = null;
+
+        CompilerAsserts.compilationConstant(bodyNodes.length);
+        int basicBlockIndex = 0;
+        int backEdgeCounter = 0;
+        outer: while (basicBlockIndex >= 0) {
+            CompilerAsserts.partialEvaluationConstant(basicBlockIndex);
+            LLVMBasicBlockNode bb = bodyNodes[basicBlockIndex];
+            int blockId = bb.getBlockId();
+
+            // execute all statements
+            bb.execute(frame);
+
+            // execute control flow node, write phis, null stack frame slots, and dispatch to
+            // the correct successor block
+            LLVMControlFlowNode controlFlowNode = bb.termInstruction;
+            if (controlFlowNode instanceof LLVMConditionalBranchNode) {
+                LLVMConditionalBranchNode conditionalBranchNode = (LLVMConditionalBranchNode) controlFlowNode;
+                boolean condition = conditionalBranchNode.executeCondition(frame);
+                if (CompilerDirectives.injectBranchProbability(bb.getBranchProbability(LLVMConditionalBranchNode.TRUE_SUCCESSOR), condition)) {
+                    if (CompilerDirectives.inInterpreter()) {
+                        bb.increaseBranchProbability(LLVMConditionalBranchNode.TRUE_SUCCESSOR);
+                        backEdgeCounter = countBackEdge(backEdgeCounter, blockId, conditionalBranchNode.getTrueSuccessor());
+                    }
+                    basicBlockIndex = enterSuccessor(frame, blockId, conditionalBranchNode, LLVMConditionalBranchNode.TRUE_SUCCESSOR, conditionalBranchNode.getTrueSuccessor());
+                    continue outer;
+                } else {
+                    if (CompilerDirectives.inInterpreter()) {
+                        bb.increaseBranchProbability(LLVMConditionalBranchNode.FALSE_SUCCESSOR);
+                        backEdgeCounter = countBackEdge(backEdgeCounter, blockId, conditionalBranchNode.getFalseSuccessor());
+                    }
+                    basicBlockIndex = enterSuccessor(frame, blockId, conditionalBranchNode, LLVMConditionalBranchNode.FALSE_SUCCESSOR, conditionalBranchNode.getFalseSuccessor());
+                    continue outer;
+                }
+            } else if (controlFlowNode instanceof LLVMSwitchNode || controlFlowNode instanceof LLVMIndirectBranchNode) {
+                int[] successors;
+                int selected;
+                if (controlFlowNode instanceof LLVMSwitchNode) {
+                    LLVMSwitchNode switchNode = (LLVMSwitchNode) controlFlowNode;
+                    selected = switchNode.executeCaseIndex(frame);
+                    successors = switchNode.getSuccessors();
+                } else {
+                    LLVMIndirectBranchNode indirectBranchNode = (LLVMIndirectBranchNode) controlFlowNode;
+                    selected = indirectBranchNode.executeSuccessorIndex(frame);
+                    successors = indirectBranchNode.getSuccessors();
+                }
+                if (CompilerDirectives.inInterpreter()) {
+                    // jump to the target directly, the explicit dispatch below is only needed
+                    // for partial evaluation
+                    bb.increaseBranchProbability(selected);
+                    backEdgeCounter = countBackEdge(backEdgeCounter, blockId, successors[selected]);
+                    basicBlockIndex = enterSuccessor(frame, blockId, controlFlowNode, selected, successors[selected]);
+                    continue outer;
+                }
+
+                // test the most frequent targets first, then fall back to all targets
+                int[] hotSuccessors = bb.getHotSuccessors();
+                for (int h = 0; h < hotSuccessors.length; h++) {
+                    int i = hotSuccessors[h];
+                    if (CompilerDirectives.injectBranchProbability(bb.getBranchProbability(i), selected == i)) {
+                        basicBlockIndex = enterSuccessor(frame, blockId, controlFlowNode, i, successors[i]);
+                        continue outer;
+                    }
+                }
+                for (int i = 0; i < successors.length - 1; i++) {
+                    if (CompilerDirectives.injectBranchProbability(bb.getBranchProbability(i), selected == i)) {
+                        basicBlockIndex = enterSuccessor(frame, blockId, controlFlowNode, i, successors[i]);
+                        continue outer;
+                    }
+                }
+
+                int i = successors.length - 1;
+                basicBlockIndex = enterSuccessor(frame, blockId, controlFlowNode, i, successors[i]);
+                continue outer;
+            } else if (controlFlowNode instanceof LLVMBrUnconditionalNode) {
+                LLVMBrUnconditionalNode unconditionalNode = (LLVMBrUnconditionalNode) controlFlowNode;
+                if (CompilerDirectives.inInterpreter()) {
+                    backEdgeCounter = countBackEdge(backEdgeCounter, blockId, unconditionalNode.getSuccessor());
+                }
+                unconditionalNode.execute(frame); // required for instrumentation
+                basicBlockIndex = enterSuccessor(frame, blockId, unconditionalNode, 0, unconditionalNode.getSuccessor());
+                continue outer;
+            } else if (controlFlowNode instanceof LLVMInvokeNode) {
+                LLVMInvokeNode invokeNode = (LLVMInvokeNode) controlFlowNode;
+                try {
+                    invokeNode.execute(frame);
+                    if (CompilerDirectives.inInterpreter()) {
+                        backEdgeCounter = countBackEdge(backEdgeCounter, blockId, invokeNode.getNormalSuccessor());
+                    }
+                    basicBlockIndex = enterSuccessor(frame, blockId, invokeNode, LLVMInvokeNode.NORMAL_SUCCESSOR, invokeNode.getNormalSuccessor());
+                    continue outer;
+                } catch (LLVMUserException e) {
+                    frame.setObject(exceptionValueSlot, e);
+                    if (CompilerDirectives.inInterpreter()) {
+                        backEdgeCounter = countBackEdge(backEdgeCounter, blockId, invokeNode.getUnwindSuccessor());
+                    }
+                    basicBlockIndex = enterSuccessor(frame, blockId, invokeNode, LLVMInvokeNode.UNWIND_SUCCESSOR, invokeNode.getUnwindSuccessor());
+                    continue outer;
+                }
+            } else if (controlFlowNode instanceof LLVMLoopNode) {
+                // the loop exits already wrote the phis and nulled the slots that are dead after
+                // the last executed block of the loop
+                LLVMLoopNode loopNode = (LLVMLoopNode) controlFlowNode;
+                loopNode.executeLoop(frame);
+                int[] successors = loopNode.getSuccessors();
+                int successorBasicBlockIndex = loopNode.getSuccessorIndex(frame);
+                for (int i = 0; i < successors.length - 1; i++) {
+                    if (CompilerDirectives.injectBranchProbability(bb.getBranchProbability(i), successors[i] == successorBasicBlockIndex)) {
+                        if (CompilerDirectives.inInterpreter()) {
+                            bb.increaseBranchProbability(i);
+                            backEdgeCounter = countBackEdge(backEdgeCounter, blockId, successors[i]);
+                        }
+                        basicBlockIndex = getSuccessorIndex(frame, successors[i]);
+                        continue outer;
+                    }
+                }
+
+                int i = successors.length - 1;
+                assert successorBasicBlockIndex == successors[i];
+                if (CompilerDirectives.inInterpreter()) {
+                    bb.increaseBranchProbability(i);
+                    backEdgeCounter = countBackEdge(backEdgeCounter, blockId, successors[i]);
+                }
+                basicBlockIndex = getSuccessorIndex(frame, successors[i]);
+                continue outer;
+            } else if (controlFlowNode instanceof LLVMRetNode) {
+                LLVMRetNode retNode = (LLVMRetNode) controlFlowNode;
+                returnValue = retNode.execute(frame);
+                assert noPhisNecessary(retNode);
+                nullDeadSlots(frame, blockId, afterBlockNuller);
+                basicBlockIndex = getSuccessorIndex(frame, retNode.getSuccessor());
+                continue outer;
+            } else if (controlFlowNode instanceof LLVMResumeNode) {
+                LLVMResumeNode resumeNode = (LLVMResumeNode) controlFlowNode;
+                assert noPhisNecessary(resumeNode);
+                nullDeadSlots(frame, blockId, afterBlockNuller);
+                resumeNode.execute(frame);
+                CompilerAsserts.neverPartOfCompilation();
+                throw new IllegalStateException("must not reach here");
+            } else if (controlFlowNode instanceof LLVMUnreachableNode) {
+                LLVMUnreachableNode unreachableNode = (LLVMUnreachableNode) controlFlowNode;
+                assert noPhisNecessary(unreachableNode);
+                unreachableNode.execute();
+                CompilerAsserts.neverPartOfCompilation();
+                throw new IllegalStateException("must not reach here");
+            } else {
+                CompilerAsserts.neverPartOfCompilation();
+                throw new UnsupportedOperationException("unexpected controlFlowNode type: " + controlFlowNode);
+            }
+        }
+        assert backEdgeCounter >= 0;
+        return leave(basicBlockIndex, returnValue, backEdgeCounter);
+    }
+
+    /**
+     * Writes the phis of the given successor, nulls the slots that are dead after the current
+     * block, and returns the result of {@link #getSuccessorIndex} for the successor.
+     */
+    private int enterSuccessor(VirtualFrame frame, int blockId, LLVMControlFlowNode controlFlowNode, int successorIndex, int successor) {
+        executePhis(frame, controlFlowNode, successorIndex);
+        nullDeadSlots(frame, blockId, afterBlockNuller);
+        return getSuccessorIndex(frame, successor);
+    }
+
+    private static int countBackEdge(int backEdgeCounter, int blockId, int successor) {
+        return successor <= blockId ? backEdgeCounter + 1 : backEdgeCounter;
+    }
+
+    @ExplodeLoop
+    private static void executePhis(VirtualFrame frame, LLVMControlFlowNode controlFlowNode, int successorIndex) {
+        LLVMStatementNode phi = controlFlowNode.getPhiNode(successorIndex);
+        if (phi != null) {
+            phi.execute(frame);
+        }
+    }
+
+    @ExplodeLoop
+    private static void nullDeadSlots(VirtualFrame frame, int bci, FrameSlot[][] blockNullers) {
+        FrameSlot[] frameSlotsToNull = blockNullers[bci];
+        if (frameSlotsToNull != null) {
+            assert frameSlotsToNull.length > 0;
+            for (int i = 0; i < frameSlotsToNull.length; i++) {
+                LLVMFrameNullerUtil.nullFrameSlot(frame, frameSlotsToNull[i], false);
+            }
+        }
+    }
+
+    private static boolean noPhisNecessary(LLVMControlFlowNode controlFlowNode) {
+        return controlFlowNode.getSuccessorCount() == 0 || controlFlowNode.getSuccessorCount() == 1 && controlFlowNode.getPhiNode(0) == null;
+    }
+}
@@ -29,6 +29,8 @@
  */
 package com.oracle.truffle.llvm.nodes.control;
 
+import java.util.Arrays;
+
 import com.oracle.truffle.api.CompilerDirectives;
 import com.oracle.truffle.api.CompilerDirectives.CompilationFinal;
 import com.oracle.truffle.api.frame.VirtualFrame;
@@ -67,7 +69,11 @@ public abstract class LLVMIndirectBranchNode extends LLVMControlFlowNode impleme
         return getSourceLocation() != null;
     }
 
-    public abstract int executeCondition(VirtualFrame frame);
+    /**
+     * Evaluates the branch address and returns the index of the target block in
+     * {@link #getSuccessors()}.
+     */
+    public abstract int executeSuccessorIndex(VirtualFrame frame);
 
     public abstract int[] getSuccessors();
 
@@ -76,15 +82,34 @@ public abstract class LLVMIndirectBranchNode extends LLVMControlFlowNode impleme
         @Child private LLVMBranchAddressNode branchAddress;
         @Children private final LLVMStatementNode[] phiWriteNodes;
         @CompilationFinal(dimensions = 1) private final int[] successors;
+        @CompilationFinal(dimensions = 1) private final int[] successorIndices;
 
         private LLVMIndirectBranchNodeImpl(LLVMBranchAddressNode branchAddress, int[] indices, LLVMStatementNode[] phiWriteNodes, LLVMSourceLocation sourceSection) {
             super(sourceSection);
             assert indices.length > 1;
             this.successors = indices;
+            this.successorIndices = createSuccessorIndices(indices);
             this.branchAddress = branchAddress;
             this.phiWriteNodes = phiWriteNodes;
         }
 
+        /**
+         * A block address is the index of the block in its function, so the position of the
+         * target in the successors can be looked up directly.
+         */
+        private static int[] createSuccessorIndices(int[] successors) {
+            int maxBlockIndex = 0;
+            for (int successor : successors) {
+                maxBlockIndex = Math.max(maxBlockIndex, successor);
+            }
+            int[] result = new int[maxBlockIndex + 1];
+            Arrays.fill(result, -1);
+            for (int i = successors.length - 1; i >= 0; i--) {
+                result[successors[i]] = i;
+            }
+            return result;
+        }
+
         @Override
         public int getSuccessorCount() {
             return successors.length;
@@ -96,8 +121,13 @@ public abstract class LLVMIndirectBranchNode extends LLVMControlFlowNode impleme
         }
 
         @Override
-        public int executeCondition(VirtualFrame frame) {
-            return branchAddress.branchAddress(frame);
+        public int executeSuccessorIndex(VirtualFrame frame) {
+            int blockIndex = branchAddress.branchAddress(frame);
+            if (blockIndex >= 0 && blockIndex < successorIndices.length && successorIndices[blockIndex] != -1) {
+                return successorIndices[blockIndex];
+            }
+            CompilerDirectives.transferToInterpreter();
+            throw new IllegalStateException("indirect branch to a block that is not a possible successor: " + blockIndex);
         }
 
         @Override
@@ -0,0 +1,97 @@
+/*
+ * Copyright (c) 2017, 2018, Oracle and/or its affiliates.
+ *
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification, are
+ * permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this list of
+ * conditions and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice, this list of
+ * conditions and the following disclaimer in the documentation and/or other materials provided
+ * with the distribution.
+ *
+ * 3. Neither the name of the copyright holder nor the names of its contributors may be used to
+ * endorse or promote products derived from this software without specific prior written
+ * permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY EXPRESS
+ * OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE
+ * COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ * EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE
+ * GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED
+ * AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED
+ * OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.oracle.truffle.llvm.nodes.control;
+
+import com.oracle.truffle.api.CompilerDirectives.CompilationFinal;
+import com.oracle.truffle.api.frame.FrameSlot;
+import com.oracle.truffle.api.frame.VirtualFrame;
+import com.oracle.truffle.api.nodes.RepeatingNode;
+import com.oracle.truffle.llvm.nodes.base.LLVMBasicBlockNode;
+
+/**
+ * Executes one iteration of a natural loop, starting at the loop header. The iteration ends when
+ * control flow either returns to the header or leaves the loop. In the latter case, the index of
+ * the block outside of the loop is stored in the successor frame slot.
+ *
+ * Blocks outside of the loop are never executed by this node, and the frame slots that are dead
+ * before the successor block are nulled by the enclosing dispatch node.
+ */
+public final class LLVMLoopDispatchNode extends LLVMAbstractDispatchNode implements RepeatingNode {
+
+    private static final int REPEAT_LOOP = -2;
+    private static final int EXIT_LOOP = -3;
+
+    private final FrameSlot successorSlot;
+    private final int headerId;
+    @CompilationFinal(dimensions = 1) private final int[] indexMapping;
+
+    /**
+     * @param bodyNodes the blocks of the loop, starting with the header
+     * @param indexMapping maps the index of a block in the function to its index in
+     *            {@code bodyNodes}, or to -1 if the block does not belong to the loop
+     */
+    public LLVMLoopDispatchNode(FrameSlot exceptionValueSlot, FrameSlot successorSlot, LLVMBasicBlockNode[] bodyNodes, int[] indexMapping, FrameSlot[][] beforeBlockNuller,
+                    FrameSlot[][] afterBlockNuller) {
+        super(exceptionValueSlot, bodyNodes, beforeBlockNuller, afterBlockNuller);
+        assert indexMapping[bodyNodes[0].getBlockId()] == 0;
+        this.successorSlot = successorSlot;
+        this.headerId = bodyNodes[0].getBlockId();
+        this.indexMapping = indexMapping;
+    }
+
+    @Override
+    public boolean executeRepeating(VirtualFrame frame) {
+        return (boolean) dispatch(frame);
+    }
+
+    /**
+     * Returns the index of the successor in the loop body, or one of {@link #REPEAT_LOOP} and
+     * {@link #EXIT_LOOP} if the successor is the loop header or lies outside of the loop.
+     */
+    @Override
+    protected int getSuccessorIndex(VirtualFrame frame, int successor) {
+        // blocks that leave the function cannot be part of a loop
+        assert successor != LLVMBasicBlockNode.RETURN_FROM_FUNCTION;
+        int index = indexMapping[successor];
+        if (index == -1) {
+            frame.setInt(successorSlot, successor);
+            return EXIT_LOOP;
+        }
+        nullDeadSlotsBefore(frame, successor);
+        return successor == headerId ? REPEAT_LOOP : index;
+    }
+
+    @Override
+    protected Object leave(int exitCode, Object returnValue, int backEdgeCount) {
+        // the iterations are counted by the enclosing loop node
+        assert exitCode == REPEAT_LOOP || exitCode == EXIT_LOOP;
+        return exitCode == REPEAT_LOOP;
+    }
+}
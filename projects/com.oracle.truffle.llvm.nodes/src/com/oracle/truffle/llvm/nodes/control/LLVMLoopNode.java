@@ -0,0 +1,90 @@
+/*
+ * Copyright (c) 2018, Oracle and/or its affiliates.
+ *
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification, are
+ * permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this list of
+ * conditions and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice, this list of
+ * conditions and the following disclaimer in the documentation and/or other materials provided
+ * with the distribution.
+ *
+ * 3. Neither the name of the copyright holder nor the names of its contributors may be used to
+ * endorse or promote products derived from this software without specific prior written
+ * permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY EXPRESS
+ * OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE
+ * COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ * EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE
+ * GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED
+ * AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED
+ * OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.oracle.truffle.llvm.nodes.control;
+
+import com.oracle.truffle.api.CompilerDirectives;
+import com.oracle.truffle.api.CompilerDirectives.CompilationFinal;
+import com.oracle.truffle.api.Truffle;
+import com.oracle.truffle.api.frame.FrameSlot;
+import com.oracle.truffle.api.frame.FrameSlotTypeException;
+import com.oracle.truffle.api.frame.VirtualFrame;
+import com.oracle.truffle.api.nodes.LoopNode;
+import com.oracle.truffle.api.nodes.RepeatingNode;
+import com.oracle.truffle.llvm.runtime.nodes.api.LLVMControlFlowNode;
+import com.oracle.truffle.llvm.runtime.nodes.api.LLVMStatementNode;
+
+/**
+ * Terminates the basic block that replaces the header of a natural loop. The loop body is executed
+ * by a {@link LLVMLoopDispatchNode} inside a Truffle {@link LoopNode}, so that long running loops
+ * can be compiled with on-stack replacement. After the loop has been left, the index of the block
+ * to continue with is available via {@link #getSuccessorIndex}.
+ */
+public final class LLVMLoopNode extends LLVMControlFlowNode {
+
+    @Child private LoopNode loop;
+    private final FrameSlot successorSlot;
+    @CompilationFinal(dimensions = 1) private final int[] successors;
+
+    public LLVMLoopNode(RepeatingNode body, FrameSlot successorSlot, int[] successors) {
+        super(null);
+        assert successors.length > 0;
+        this.loop = Truffle.getRuntime().createLoopNode(body);
+        this.successorSlot = successorSlot;
+        this.successors = successors;
+    }
+
+    public void executeLoop(VirtualFrame frame) {
+        loop.executeLoop(frame);
+    }
+
+    public int getSuccessorIndex(VirtualFrame frame) {
+        try {
+            return frame.getInt(successorSlot);
+        } catch (FrameSlotTypeException e) {
+            CompilerDirectives.transferToInterpreter();
+            throw new IllegalStateException(e);
+        }
+    }
+
+    public int[] getSuccessors() {
+        return successors;
+    }
+
+    @Override
+    public int getSuccessorCount() {
+        return successors.length;
+    }
+
+    @Override
+    public LLVMStatementNode getPhiNode(int successorIndex) {
+        // the phis of the loop exits are written by the loop body
+        return null;
+    }
+}
@@ -39,6 +39,7 @@ import com.oracle.truffle.api.instrumentation.ProbeNode;
 import com.oracle.truffle.llvm.nodes.base.LLVMBasicBlockNode;
 import com.oracle.truffle.llvm.nodes.func.LLVMArgNode;
 import com.oracle.truffle.llvm.nodes.func.LLVMArgNodeGen;
+import com.oracle.truffle.llvm.runtime.LLVMI128;
 import com.oracle.truffle.llvm.runtime.LLVMIVarBit;
 import com.oracle.truffle.llvm.runtime.debug.scope.LLVMSourceLocation;
 import com.oracle.truffle.llvm.runtime.floating.LLVM80BitFloat;
@@ -168,6 +169,19 @@ public abstract class LLVMRetNode extends LLVMControlFlowNode implements Instrum
         }
     }
 
+    @NodeChild(value = "retResult", type = LLVMExpressionNode.class)
+    public abstract static class LLVMI128RetNode extends LLVMRetNode {
+
+        public LLVMI128RetNode(LLVMSourceLocation sourceSection) {
+            super(sourceSection);
+        }
+
+        @Specialization
+        protected Object doOp(LLVMI128 retResult) {
+            return retResult;
+        }
+    }
+
     @NodeChild(value = "retResult", type = LLVMExpressionNode.class)
     public abstract static class LLVMIVarBitRetNode extends LLVMRetNode {
 
@@ -29,16 +29,22 @@
  */
 package com.oracle.truffle.llvm.nodes.control;
 
+import java.util.Arrays;
+
+import com.oracle.truffle.api.CompilerDirectives;
 import com.oracle.truffle.api.CompilerDirectives.CompilationFinal;
 import com.oracle.truffle.api.frame.VirtualFrame;
 import com.oracle.truffle.api.instrumentation.GenerateWrapper;
 import com.oracle.truffle.api.instrumentation.InstrumentableNode;
 import com.oracle.truffle.api.instrumentation.ProbeNode;
+import com.oracle.truffle.api.nodes.ExplodeLoop;
+import com.oracle.truffle.api.nodes.UnexpectedResultException;
 import com.oracle.truffle.api.profiles.ValueProfile;
 import com.oracle.truffle.llvm.runtime.debug.scope.LLVMSourceLocation;
 import com.oracle.truffle.llvm.runtime.nodes.api.LLVMControlFlowNode;
 import com.oracle.truffle.llvm.runtime.nodes.api.LLVMExpressionNode;
 import com.oracle.truffle.llvm.runtime.nodes.api.LLVMStatementNode;
+import com.oracle.truffle.llvm.runtime.pointer.LLVMNativePointer;
 
 @GenerateWrapper
 public abstract class LLVMSwitchNode extends LLVMControlFlowNode implements InstrumentableNode {
@@ -66,12 +72,14 @@ public abstract class LLVMSwitchNode extends LLVMControlFlowNode implements Inst
         return getSourceLocation() != null;
     }
 
-    public abstract Object executeCondition(VirtualFrame frame);
+    /**
+     * Evaluates the condition and returns the index of the matching case in
+     * {@link #getSuccessors()}. The last index stands for the default case.
+     */
+    public abstract int executeCaseIndex(VirtualFrame frame);
 
     public abstract int[] getSuccessors();
 
-    public abstract LLVMExpressionNode getCase(int i);
-
     public static class LLVMSwitchNodeImpl extends LLVMSwitchNode {
         @Children private final LLVMStatementNode[] phiNodes;
         @Child protected LLVMExpressionNode cond;
@@ -90,8 +98,166 @@ public abstract class LLVMSwitchNode extends LLVMControlFlowNode implements Inst
         }
 
         @Override
-        public Object executeCondition(VirtualFrame frame) {
-            return conditionValueClass.profile(cond.executeGeneric(frame));
+        @ExplodeLoop
+        public int executeCaseIndex(VirtualFrame frame) {
+            Object condition = conditionValueClass.profile(cond.executeGeneric(frame));
+            for (int i = 0; i < cases.length; i++) {
+                Object caseValue = cases[i].executeGeneric(frame);
+                assert caseValue.getClass() == condition.getClass() : "must be the same type - otherwise equals might wrongly return false";
+                if (condition.equals(caseValue)) {
+                    return i;
+                }
+            }
+            return cases.length;
+        }
+
+        @Override
+        public int[] getSuccessors() {
+            return successors;
+        }
+
+        @Override
+        public int getSuccessorCount() {
+            return successors.length;
+        }
+
+        @Override
+        public LLVMStatementNode getPhiNode(int successorIndex) {
+            return phiNodes[successorIndex];
+        }
+    }
+
+    /**
+     * A switch over an integer condition with constant cases. The cases are looked up in a jump
+     * table if they are dense, and with a binary search otherwise, so no case needs to be evaluated
+     * and nothing is boxed.
+     */
+    public abstract static class LLVMPrimitiveSwitchNode extends LLVMSwitchNode {
+
+        private static final int MIN_JUMP_TABLE_SIZE = 16;
+
+        @Children private final LLVMStatementNode[] phiNodes;
+        @Child protected LLVMExpressionNode cond;
+        @CompilationFinal(dimensions = 1) private final int[] successors;
+
+        private final int bits;
+        @CompilationFinal private boolean genericCondition;
+
+        private final long minValue;
+        @CompilationFinal(dimensions = 1) private final int[] jumpTable;
+        @CompilationFinal(dimensions = 1) private final long[] sortedValues;
+        @CompilationFinal(dimensions = 1) private final int[] sortedCaseIndices;
+
+        /**
+         * @param caseValues the case constants, which are truncated to {@code bits} and then sign
+         *            extended (zero extended for i1) to match the condition value
+         */
+        protected LLVMPrimitiveSwitchNode(int[] successors, LLVMStatementNode[] phiNodes, LLVMExpressionNode cond, long[] caseValues, int bits, LLVMSourceLocation sourceSection) {
+            super(sourceSection);
+            assert successors.length == caseValues.length + 1 : "the last entry of the successors array must be the default case";
+            this.successors = successors;
+            this.phiNodes = phiNodes;
+            this.cond = cond;
+            this.bits = bits;
+
+            long[] values = new long[caseValues.length];
+            Integer[] order = new Integer[caseValues.length];
+            for (int i = 0; i < values.length; i++) {
+                values[i] = normalize(caseValues[i], bits);
+                order[i] = i;
+            }
+            Arrays.sort(order, (a, b) -> Long.compare(values[a], values[b]));
+            this.sortedValues = new long[order.length];
+            this.sortedCaseIndices = new int[order.length];
+            for (int i = 0; i < order.length; i++) {
+                sortedValues[i] = values[order[i]];
+                sortedCaseIndices[i] = order[i];
+            }
+
+            if (order.length > 0 && isDense(sortedValues)) {
+                this.minValue = sortedValues[0];
+                this.jumpTable = new int[(int) (sortedValues[order.length - 1] - minValue + 1)];
+                Arrays.fill(jumpTable, values.length);
+                // LLVM does not allow duplicate cases, but let the first one win anyway
+                for (int i = values.length - 1; i >= 0; i--) {
+                    jumpTable[(int) (values[i] - minValue)] = i;
+                }
+            } else {
+                this.minValue = 0;
+                this.jumpTable = null;
+            }
+        }
+
+        private static long normalize(long value, int bits) {
+            if (bits == 1) {
+                return value & 1;
+            }
+            return (value << (Long.SIZE - bits)) >> (Long.SIZE - bits);
+        }
+
+        private static boolean isDense(long[] sortedValues) {
+            long range = sortedValues[sortedValues.length - 1] - sortedValues[0];
+            // the subtraction may overflow for cases that span the whole range of long
+            return range >= 0 && range < Math.max(MIN_JUMP_TABLE_SIZE, 2L * sortedValues.length);
+        }
+
+        protected abstract long executeConditionValue(VirtualFrame frame) throws UnexpectedResultException;
+
+        @Override
+        public int executeCaseIndex(VirtualFrame frame) {
+            if (!genericCondition) {
+                try {
+                    return findCaseIndex(executeConditionValue(frame));
+                } catch (UnexpectedResultException e) {
+                    // e.g., a pointer that was converted to an integer
+                    CompilerDirectives.transferToInterpreterAndInvalidate();
+                    genericCondition = true;
+                    return findGenericCaseIndex(e.getResult());
+                }
+            }
+            return findGenericCaseIndex(cond.executeGeneric(frame));
+        }
+
+        /**
+         * Converts a condition value that is not a primitive of the expected type. Values that have
+         * no integer representation, such as managed pointers, cannot match any case constant and
+         * go to the default case.
+         */
+        private int findGenericCaseIndex(Object condition) {
+            if (condition instanceof Boolean) {
+                return findCaseIndex((boolean) condition ? 1 : 0);
+            } else if (condition instanceof Number) {
+                return findCaseIndex(normalize(((Number) condition).longValue(), bits));
+            } else if (LLVMNativePointer.isInstance(condition)) {
+                return findCaseIndex(normalize(LLVMNativePointer.cast(condition).asNative(), bits));
+            } else {
+                return sortedValues.length;
+            }
+        }
+
+        private int findCaseIndex(long value) {
+            if (jumpTable != null) {
+                long offset = value - minValue;
+                if (offset >= 0 && offset < jumpTable.length) {
+                    return jumpTable[(int) offset];
+                }
+                return sortedValues.length;
+            }
+
+            int low = 0;
+            int high = sortedValues.length - 1;
+            while (low <= high) {
+                int mid = (low + high) >>> 1;
+                long midValue = sortedValues[mid];
+                if (midValue < value) {
+                    low = mid + 1;
+                } else if (midValue > value) {
+                    high = mid - 1;
+                } else {
+                    return sortedCaseIndices[mid];
+                }
+            }
+            return sortedValues.length;
         }
 
         @Override
@@ -108,10 +274,75 @@ public abstract class LLVMSwitchNode extends LLVMControlFlowNode implements Inst
         public LLVMStatementNode getPhiNode(int successorIndex) {
             return phiNodes[successorIndex];
         }
+    }
+
+    public static final class LLVMI1SwitchNode extends LLVMPrimitiveSwitchNode {
+
+        private static final int BITS = 1;
+
+        public LLVMI1SwitchNode(int[] successors, LLVMStatementNode[] phiNodes, LLVMExpressionNode cond, long[] caseValues, LLVMSourceLocation sourceSection) {
+            super(successors, phiNodes, cond, caseValues, BITS, sourceSection);
+        }
+
+        @Override
+        protected long executeConditionValue(VirtualFrame frame) throws UnexpectedResultException {
+            return cond.executeI1(frame) ? 1 : 0;
+        }
+    }
+
+    public static final class LLVMI8SwitchNode extends LLVMPrimitiveSwitchNode {
+
+        private static final int BITS = 8;
+
+        public LLVMI8SwitchNode(int[] successors, LLVMStatementNode[] phiNodes, LLVMExpressionNode cond, long[] caseValues, LLVMSourceLocation sourceSection) {
+            super(successors, phiNodes, cond, caseValues, BITS, sourceSection);
+        }
+
+        @Override
+        protected long executeConditionValue(VirtualFrame frame) throws UnexpectedResultException {
+            return cond.executeI8(frame);
+        }
+    }
+
+    public static final class LLVMI16SwitchNode extends LLVMPrimitiveSwitchNode {
+
+        private static final int BITS = 16;
+
+        public LLVMI16SwitchNode(int[] successors, LLVMStatementNode[] phiNodes, LLVMExpressionNode cond, long[] caseValues, LLVMSourceLocation sourceSection) {
+            super(successors, phiNodes, cond, caseValues, BITS, sourceSection);
+        }
+
+        @Override
+        protected long executeConditionValue(VirtualFrame frame) throws UnexpectedResultException {
+            return cond.executeI16(frame);
+        }
+    }
+
+    public static final class LLVMI32SwitchNode extends LLVMPrimitiveSwitchNode {
+
+        private static final int BITS = 32;
+
+        public LLVMI32SwitchNode(int[] successors, LLVMStatementNode[] phiNodes, LLVMExpressionNode cond, long[] caseValues, LLVMSourceLocation sourceSection) {
+            super(successors, phiNodes, cond, caseValues, BITS, sourceSection);
+        }
+
+        @Override
+        protected long executeConditionValue(VirtualFrame frame) throws UnexpectedResultException {
+            return cond.executeI32(frame);
+        }
+    }
+
+    public static final class LLVMI64SwitchNode extends LLVMPrimitiveSwitchNode {
+
+        private static final int BITS = 64;
+
+        public LLVMI64SwitchNode(int[] successors, LLVMStatementNode[] phiNodes, LLVMExpressionNode cond, long[] caseValues, LLVMSourceLocation sourceSection) {
+            super(successors, phiNodes, cond, caseValues, BITS, sourceSection);
+        }
 
         @Override
-        public LLVMExpressionNode getCase(int i) {
-            return cases[i];
+        protected long executeConditionValue(VirtualFrame frame) throws UnexpectedResultException {
+            return cond.executeI64(frame);
         }
     }
 }
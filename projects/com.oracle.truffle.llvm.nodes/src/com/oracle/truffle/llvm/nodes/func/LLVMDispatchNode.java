@@ -158,7 +158,7 @@ public abstract class LLVMDispatchNode extends LLVMNode {
     protected TruffleObject bindSymbol(LLVMFunctionDescriptor descriptor) {
         CompilerAsserts.neverPartOfCompilation();
         assert descriptor.getNativeFunction() != null : descriptor.getName();
-        return LLVMNativeCallUtils.bindNativeSymbol(LLVMNativeCallUtils.getBindNode(), descriptor.getNativeFunction(), getSignature());
+        return descriptor.getBoundNativeFunction(getSignature());
     }
 
     @Specialization(replaces = "doCachedNative", guards = "descriptor.isNativeFunction()")
@@ -166,12 +166,12 @@ public abstract class LLVMDispatchNode extends LLVMNode {
                     @Cached("createToNativeNodes()") LLVMNativeConvertNode[] toNative,
                     @Cached("createFromNativeNode()") LLVMNativeConvertNode fromNative,
                     @Cached("createNativeCallNode()") Node nativeCall,
-                    @Cached("getBindNode()") Node bindNode,
                     @Cached("getContextReference()") ContextReference<LLVMContext> context,
                     @Cached("nativeCallStatisticsEnabled(context)") boolean statistics) {
 
         Object[] nativeArgs = prepareNativeArguments(arguments, toNative);
-        TruffleObject boundSymbol = LLVMNativeCallUtils.bindNativeSymbol(bindNode, descriptor.getNativeFunction(), getSignature());
+        // the descriptor caches the bound symbol, so only the first call through it binds it
+        TruffleObject boundSymbol = descriptor.getBoundNativeFunction(getSignature());
         Object returnValue;
         try (StackPointer save = ((StackPointer) arguments[0]).newFrame()) {
             returnValue = LLVMNativeCallUtils.callNativeFunction(statistics, context, nativeCall, boundSymbol, nativeArgs, descriptor);
@@ -188,11 +188,6 @@ public abstract class LLVMDispatchNode extends LLVMNode {
         return nativeArgs;
     }
 
-    protected Node getBindNode() {
-        CompilerAsserts.neverPartOfCompilation();
-        return LLVMNativeCallUtils.getBindNode();
-    }
-
     protected Node createNativeCallNode() {
         CompilerAsserts.neverPartOfCompilation();
         return Message.EXECUTE.createNode();
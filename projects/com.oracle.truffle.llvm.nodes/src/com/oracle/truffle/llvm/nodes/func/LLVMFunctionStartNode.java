@@ -32,6 +32,7 @@ package com.oracle.truffle.llvm.nodes.func;
 import java.util.HashMap;
 import java.util.Map;
 
+import com.oracle.truffle.api.CompilerAsserts;
 import com.oracle.truffle.api.CompilerDirectives.CompilationFinal;
 import com.oracle.truffle.api.CompilerDirectives.TruffleBoundary;
 import com.oracle.truffle.api.frame.FrameDescriptor;
@@ -54,6 +55,8 @@ public class LLVMFunctionStartNode extends RootNode {
     private final int explicitArgumentsCount;
     private final DebugInformation debugInformation;
 
+    private Runnable deferredDebugInfo;
+
     public LLVMFunctionStartNode(LLVMLanguage language, LLVMExpressionNode node, FrameDescriptor frameDescriptor, String name, int explicitArgumentsCount, String originalName, Source bcSource,
                     LLVMSourceLocation location) {
         super(language, frameDescriptor);
@@ -76,6 +79,38 @@ public class LLVMFunctionStartNode extends RootNode {
         return result;
     }
 
+    /**
+     * Replaces the body with another conversion of the same function that uses the same frame
+     * descriptor. Compiled code of the function is invalidated, and activations that are already
+     * running finish in the old body.
+     */
+    public void replaceBody(LLVMExpressionNode newBody) {
+        CompilerAsserts.neverPartOfCompilation();
+        // the new body may have added slots to the frame descriptor
+        frameSlotsToInitialize = getFrameDescriptor().getSlots().toArray(new FrameSlot[0]);
+        // the instrumentation only visits the new body if it is told about it, e.g., to keep the
+        // breakpoints of a debugger
+        notifyInserted(node.replace(newBody));
+    }
+
+    public synchronized void deferDebugInfo(Runnable materialization) {
+        deferredDebugInfo = materialization;
+    }
+
+    /**
+     * Builds the debug information that the conversion of this function deferred, if it has not
+     * been built yet. Until then, this node only keeps the means to parse the function again, which
+     * are dropped together with the function.
+     */
+    @TruffleBoundary
+    public synchronized void materializeDebugInfo() {
+        if (deferredDebugInfo != null) {
+            final Runnable materialization = deferredDebugInfo;
+            deferredDebugInfo = null;
+            materialization.run();
+        }
+    }
+
     @ExplodeLoop
     private void nullStack(VirtualFrame frame) {
         for (FrameSlot frameSlot : frameSlotsToInitialize) {
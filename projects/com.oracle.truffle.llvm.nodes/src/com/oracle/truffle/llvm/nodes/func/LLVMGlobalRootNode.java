@@ -90,6 +90,8 @@ public class LLVMGlobalRootNode extends RootNode {
             } finally {
                 // if not done already, we want at least call a shutdown command
                 getContext().shutdownThreads();
+                // the embedder should see the output of the program as soon as it returns
+                getContext().flushStdioBuffer();
             }
         }
     }
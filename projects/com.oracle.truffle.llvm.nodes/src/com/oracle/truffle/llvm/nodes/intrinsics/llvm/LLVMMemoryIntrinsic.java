@@ -30,25 +30,54 @@
 package com.oracle.truffle.llvm.nodes.intrinsics.llvm;
 
 import com.oracle.truffle.api.CompilerDirectives;
+import com.oracle.truffle.api.TruffleLanguage.ContextReference;
 import com.oracle.truffle.api.dsl.Cached;
 import com.oracle.truffle.api.dsl.NodeChild;
 import com.oracle.truffle.api.dsl.NodeChildren;
 import com.oracle.truffle.api.dsl.Specialization;
+import com.oracle.truffle.llvm.runtime.LLVMContext;
 import com.oracle.truffle.llvm.runtime.memory.LLVMMemSetNode;
 import com.oracle.truffle.llvm.runtime.memory.LLVMMemory;
+import com.oracle.truffle.llvm.runtime.memory.LLVMSizeClassAllocator;
 import com.oracle.truffle.llvm.runtime.nodes.api.LLVMExpressionNode;
+import com.oracle.truffle.llvm.runtime.options.SulongEngineOption;
 import com.oracle.truffle.llvm.runtime.pointer.LLVMNativePointer;
 
 public abstract class LLVMMemoryIntrinsic extends LLVMExpressionNode {
 
+    /**
+     * Returns {@code null} if the system allocator should be used. Otherwise, the size-class
+     * allocator belongs to the context and is looked up whenever it is needed.
+     */
+    protected ContextReference<LLVMContext> getSizeClassAllocatorContext() {
+        if (getContextReference().get().getEnv().getOptions().get(SulongEngineOption.SIZE_CLASS_ALLOCATOR)) {
+            return getContextReference();
+        }
+        return null;
+    }
+
+    protected static LLVMSizeClassAllocator getSizeClassAllocator(ContextReference<LLVMContext> allocatorContext) {
+        return allocatorContext == null ? null : allocatorContext.get().getSizeClassAllocator();
+    }
+
+    protected static LLVMNativePointer allocate(LLVMMemory memory, ContextReference<LLVMContext> allocatorContext, long size) {
+        LLVMSizeClassAllocator allocator = getSizeClassAllocator(allocatorContext);
+        if (allocator != null) {
+            return allocator.allocate(size);
+        } else {
+            return memory.allocateMemory(size);
+        }
+    }
+
     @NodeChildren({@NodeChild(type = LLVMExpressionNode.class)})
     public abstract static class LLVMMalloc extends LLVMMemoryIntrinsic {
 
         @Specialization
         protected LLVMNativePointer doVoid(int size,
-                        @Cached("getLLVMMemory()") LLVMMemory memory) {
+                        @Cached("getLLVMMemory()") LLVMMemory memory,
+                        @Cached("getSizeClassAllocatorContext()") ContextReference<LLVMContext> allocatorContext) {
             try {
-                return memory.allocateMemory(size);
+                return allocate(memory, allocatorContext, size);
             } catch (OutOfMemoryError e) {
                 CompilerDirectives.transferToInterpreter();
                 return LLVMNativePointer.createNull();
@@ -57,9 +86,10 @@ public abstract class LLVMMemoryIntrinsic extends LLVMExpressionNode {
 
         @Specialization
         protected LLVMNativePointer doVoid(long size,
-                        @Cached("getLLVMMemory()") LLVMMemory memory) {
+                        @Cached("getLLVMMemory()") LLVMMemory memory,
+                        @Cached("getSizeClassAllocatorContext()") ContextReference<LLVMContext> allocatorContext) {
             try {
-                return memory.allocateMemory(size);
+                return allocate(memory, allocatorContext, size);
             } catch (OutOfMemoryError e) {
                 CompilerDirectives.transferToInterpreter();
                 return LLVMNativePointer.createNull();
@@ -77,10 +107,11 @@ public abstract class LLVMMemoryIntrinsic extends LLVMExpressionNode {
 
         @Specialization
         protected LLVMNativePointer doVoid(int n, int size,
-                        @Cached("getLLVMMemory()") LLVMMemory memory) {
+                        @Cached("getLLVMMemory()") LLVMMemory memory,
+                        @Cached("getSizeClassAllocatorContext()") ContextReference<LLVMContext> allocatorContext) {
             try {
                 long length = Math.multiplyExact(n, size);
-                LLVMNativePointer address = memory.allocateMemory(length);
+                LLVMNativePointer address = allocate(memory, allocatorContext, length);
                 memSet.executeWithTarget(address, (byte) 0, length);
                 return address;
             } catch (OutOfMemoryError | ArithmeticException e) {
@@ -91,10 +122,11 @@ public abstract class LLVMMemoryIntrinsic extends LLVMExpressionNode {
 
         @Specialization
         protected LLVMNativePointer doVoid(long n, long size,
-                        @Cached("getLLVMMemory()") LLVMMemory memory) {
+                        @Cached("getLLVMMemory()") LLVMMemory memory,
+                        @Cached("getSizeClassAllocatorContext()") ContextReference<LLVMContext> allocatorContext) {
             try {
                 long length = Math.multiplyExact(n, size);
-                LLVMNativePointer address = memory.allocateMemory(length);
+                LLVMNativePointer address = allocate(memory, allocatorContext, length);
                 memSet.executeWithTarget(address, (byte) 0, length);
                 return address;
             } catch (OutOfMemoryError | ArithmeticException e) {
@@ -111,16 +143,23 @@ public abstract class LLVMMemoryIntrinsic extends LLVMExpressionNode {
 
         @Specialization
         protected LLVMNativePointer doVoid(LLVMNativePointer addr, int size,
-                        @Cached("getLLVMMemory()") LLVMMemory memory) {
-            return doVoid(addr, (long) size, memory);
+                        @Cached("getLLVMMemory()") LLVMMemory memory,
+                        @Cached("getSizeClassAllocatorContext()") ContextReference<LLVMContext> allocatorContext) {
+            return doVoid(addr, (long) size, memory, allocatorContext);
         }
 
         @Specialization
         @SuppressWarnings("deprecation")
         protected LLVMNativePointer doVoid(LLVMNativePointer addr, long size,
-                        @Cached("getLLVMMemory()") LLVMMemory memory) {
+                        @Cached("getLLVMMemory()") LLVMMemory memory,
+                        @Cached("getSizeClassAllocatorContext()") ContextReference<LLVMContext> allocatorContext) {
             try {
-                return memory.reallocateMemory(addr, size);
+                LLVMSizeClassAllocator allocator = getSizeClassAllocator(allocatorContext);
+                if (allocator != null) {
+                    return allocator.reallocate(addr, size);
+                } else {
+                    return memory.reallocateMemory(addr, size);
+                }
             } catch (OutOfMemoryError e) {
                 CompilerDirectives.transferToInterpreter();
                 return LLVMNativePointer.createNull();
@@ -133,8 +172,14 @@ public abstract class LLVMMemoryIntrinsic extends LLVMExpressionNode {
 
         @Specialization
         protected Object doVoid(LLVMNativePointer address,
-                        @Cached("getLLVMMemory()") LLVMMemory memory) {
-            memory.free(address);
+                        @Cached("getLLVMMemory()") LLVMMemory memory,
+                        @Cached("getSizeClassAllocatorContext()") ContextReference<LLVMContext> allocatorContext) {
+            LLVMSizeClassAllocator allocator = getSizeClassAllocator(allocatorContext);
+            if (allocator != null) {
+                allocator.free(address);
+            } else {
+                memory.free(address);
+            }
             return null;
         }
     }
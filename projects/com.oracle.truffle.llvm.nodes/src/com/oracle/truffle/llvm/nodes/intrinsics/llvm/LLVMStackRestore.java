@@ -57,7 +57,7 @@ public abstract class LLVMStackRestore extends LLVMBuiltin {
     @Specialization
     protected Object doVoid(VirtualFrame frame, LLVMNativePointer addr) {
         StackPointer pointer = (StackPointer) FrameUtil.getObjectSafe(frame, getStackPointerSlot());
-        pointer.set(addr.asNative());
+        pointer.set(addr.asNative(), this);
         return null;
     }
 }
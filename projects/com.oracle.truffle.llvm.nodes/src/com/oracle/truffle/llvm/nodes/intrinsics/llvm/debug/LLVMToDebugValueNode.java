@@ -34,6 +34,7 @@ import com.oracle.truffle.api.dsl.Fallback;
 import com.oracle.truffle.api.dsl.Specialization;
 import com.oracle.truffle.llvm.runtime.LLVMBoxedPrimitive;
 import com.oracle.truffle.llvm.runtime.LLVMFunctionDescriptor;
+import com.oracle.truffle.llvm.runtime.LLVMI128;
 import com.oracle.truffle.llvm.runtime.LLVMIVarBit;
 import com.oracle.truffle.llvm.runtime.debug.scope.LLVMDebugGlobalVariable;
 import com.oracle.truffle.llvm.runtime.debug.value.LLVMDebugTypeConstants;
@@ -89,6 +90,11 @@ public abstract class LLVMToDebugValueNode extends LLVMNode implements LLVMDebug
         return new LLVMConstantValueProvider.Integer(Long.SIZE, value);
     }
 
+    @Specialization
+    protected LLVMDebugValue fromI128(LLVMI128 value) {
+        return new LLVMConstantValueProvider.IVarBit(value.toIVarBit());
+    }
+
     @Specialization
     protected LLVMDebugValue fromIVarBit(LLVMIVarBit value) {
         return new LLVMConstantValueProvider.IVarBit(value);
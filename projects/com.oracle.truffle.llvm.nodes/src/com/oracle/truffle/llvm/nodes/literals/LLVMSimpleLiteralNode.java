@@ -30,6 +30,7 @@
 package com.oracle.truffle.llvm.nodes.literals;
 
 import com.oracle.truffle.api.frame.VirtualFrame;
+import com.oracle.truffle.llvm.runtime.LLVMI128;
 import com.oracle.truffle.llvm.runtime.LLVMIVarBit;
 import com.oracle.truffle.llvm.runtime.floating.LLVM80BitFloat;
 import com.oracle.truffle.llvm.runtime.nodes.api.LLVMExpressionNode;
@@ -38,6 +39,25 @@ import com.oracle.truffle.llvm.runtime.pointer.LLVMNativePointer;
 
 public class LLVMSimpleLiteralNode {
 
+    public static final class LLVMI128LiteralNode extends LLVMExpressionNode {
+
+        private final LLVMI128 literal;
+
+        public LLVMI128LiteralNode(LLVMI128 literal) {
+            this.literal = literal;
+        }
+
+        @Override
+        public LLVMI128 executeLLVMI128(VirtualFrame frame) {
+            return literal;
+        }
+
+        @Override
+        public Object executeGeneric(VirtualFrame frame) {
+            return executeLLVMI128(frame);
+        }
+    }
+
     public static final class LLVMIVarBitLiteralNode extends LLVMExpressionNode {
 
         private final LLVMIVarBit literal;
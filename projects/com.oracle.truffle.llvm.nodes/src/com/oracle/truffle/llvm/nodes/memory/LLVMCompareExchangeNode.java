@@ -234,7 +234,7 @@ public abstract class LLVMCompareExchangeNode extends LLVMExpressionNode {
         }
 
         private LLVMNativePointer allocateResult(VirtualFrame frame, LLVMMemory memory) {
-            LLVMNativePointer allocation = LLVMNativePointer.create(LLVMStack.allocateStackMemory(frame, memory, getStackPointerSlot(), resultSize, 8));
+            LLVMNativePointer allocation = LLVMNativePointer.create(LLVMStack.allocateStackMemory(this, frame, memory, getStackPointerSlot(), resultSize, 8));
             return allocation;
         }
 
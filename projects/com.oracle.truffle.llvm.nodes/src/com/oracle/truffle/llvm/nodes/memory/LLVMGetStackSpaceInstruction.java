@@ -96,7 +96,7 @@ public abstract class LLVMGetStackSpaceInstruction extends LLVMExpressionNode {
         @Specialization
         protected LLVMNativePointer doOp(VirtualFrame frame,
                         @Cached("getLLVMMemory()") LLVMMemory memory) {
-            return LLVMNativePointer.create(LLVMStack.allocateStackMemory(frame, memory, getStackPointerSlot(), getSize(), getAlignment()));
+            return LLVMNativePointer.create(LLVMStack.allocateStackMemory(this, frame, memory, getStackPointerSlot(), getSize(), getAlignment()));
         }
     }
 
@@ -117,13 +117,13 @@ public abstract class LLVMGetStackSpaceInstruction extends LLVMExpressionNode {
         @Specialization
         protected LLVMNativePointer doOp(VirtualFrame frame, int nr,
                         @Cached("getLLVMMemory()") LLVMMemory memory) {
-            return LLVMNativePointer.create(LLVMStack.allocateStackMemory(frame, memory, getStackPointerSlot(), getSize() * nr, getAlignment()));
+            return LLVMNativePointer.create(LLVMStack.allocateStackMemory(this, frame, memory, getStackPointerSlot(), getSize() * nr, getAlignment()));
         }
 
         @Specialization
         protected LLVMNativePointer doOp(VirtualFrame frame, long nr,
                         @Cached("getLLVMMemory()") LLVMMemory memory) {
-            return LLVMNativePointer.create(LLVMStack.allocateStackMemory(frame, memory, getStackPointerSlot(), (int) (getSize() * nr), getAlignment()));
+            return LLVMNativePointer.create(LLVMStack.allocateStackMemory(this, frame, memory, getStackPointerSlot(), (int) (getSize() * nr), getAlignment()));
         }
     }
 }
@@ -56,6 +56,6 @@ public abstract class LLVMNativeVarargsAreaStackAllocationNode extends LLVMNode
     @Specialization
     protected LLVMNativePointer alloc(VirtualFrame frame, long size,
                     @Cached("getLLVMMemory()") LLVMMemory memory) {
-        return LLVMNativePointer.create(LLVMStack.allocateStackMemory(frame, memory, getStackPointerSlot(), size, 8));
+        return LLVMNativePointer.create(LLVMStack.allocateStackMemory(this, frame, memory, getStackPointerSlot(), size, 8));
     }
 }
@@ -35,6 +35,7 @@ import com.oracle.truffle.api.dsl.NodeField;
 import com.oracle.truffle.api.dsl.Specialization;
 import com.oracle.truffle.api.nodes.ExplodeLoop;
 import com.oracle.truffle.llvm.runtime.LLVMBoxedPrimitive;
+import com.oracle.truffle.llvm.runtime.LLVMI128;
 import com.oracle.truffle.llvm.runtime.LLVMIVarBit;
 import com.oracle.truffle.llvm.runtime.LLVMVirtualAllocationAddress;
 import com.oracle.truffle.llvm.runtime.floating.LLVM80BitFloat;
@@ -46,6 +47,36 @@ import com.oracle.truffle.llvm.runtime.pointer.LLVMPointer;
 
 public abstract class LLVMDirectLoadNode {
 
+    public abstract static class LLVMI128DirectLoadNode extends LLVMAbstractLoadNode {
+
+        @Specialization(guards = "!isAutoDerefHandle(addr)")
+        protected LLVMI128 doI128Native(LLVMNativePointer addr) {
+            return getLLVMMemoryCached().getI128(addr);
+        }
+
+        @Specialization(guards = "isAutoDerefHandle(addr)")
+        protected LLVMI128 doI128DerefHandle(LLVMNativePointer addr) {
+            return doForeign(getDerefHandleGetReceiverNode().execute(addr));
+        }
+
+        @Specialization
+        @ExplodeLoop
+        protected LLVMI128 doForeign(LLVMManagedPointer addr) {
+            byte[] result = new byte[LLVMI128.BYTE_WIDTH];
+            LLVMManagedPointer currentPtr = addr;
+            for (int i = 0; i < result.length; i++) {
+                result[i] = (byte) getForeignReadNode().execute(currentPtr);
+                currentPtr = currentPtr.increment(I8_SIZE_IN_BYTES);
+            }
+            return LLVMI128.fromBytes(result);
+        }
+
+        @Override
+        protected LLVMForeignReadNode createForeignRead() {
+            return new LLVMForeignReadNode(ForeignToLLVMType.I8);
+        }
+    }
+
     @NodeField(name = "bitWidth", type = int.class)
     public abstract static class LLVMIVarBitDirectLoadNode extends LLVMAbstractLoadNode {
 
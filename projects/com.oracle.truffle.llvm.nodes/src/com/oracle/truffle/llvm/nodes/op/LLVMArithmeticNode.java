@@ -37,6 +37,7 @@ import com.oracle.truffle.api.dsl.NodeChildren;
 import com.oracle.truffle.api.dsl.Specialization;
 import com.oracle.truffle.api.interop.InteropException;
 import com.oracle.truffle.llvm.nodes.op.arith.floating.LLVMArithmeticFactory;
+import com.oracle.truffle.llvm.runtime.LLVMI128;
 import com.oracle.truffle.llvm.runtime.LLVMIVarBit;
 import com.oracle.truffle.llvm.runtime.floating.LLVM80BitFloat;
 import com.oracle.truffle.llvm.runtime.nodes.api.LLVMArithmetic.LLVMArithmeticOpNode;
@@ -77,6 +78,11 @@ public abstract class LLVMArithmeticNode extends LLVMExpressionNode {
             return left + right;
         }
 
+        @Specialization
+        protected LLVMI128 add(LLVMI128 left, LLVMI128 right) {
+            return left.add(right);
+        }
+
         @Specialization
         protected LLVMIVarBit add(LLVMIVarBit left, LLVMIVarBit right) {
             return left.add(right);
@@ -134,6 +140,11 @@ public abstract class LLVMArithmeticNode extends LLVMExpressionNode {
             return left * right;
         }
 
+        @Specialization
+        protected LLVMI128 mul(LLVMI128 left, LLVMI128 right) {
+            return left.mul(right);
+        }
+
         @Specialization
         protected LLVMIVarBit mul(LLVMIVarBit left, LLVMIVarBit right) {
             return left.mul(right);
@@ -191,6 +202,11 @@ public abstract class LLVMArithmeticNode extends LLVMExpressionNode {
             return left - right;
         }
 
+        @Specialization
+        protected LLVMI128 sub(LLVMI128 left, LLVMI128 right) {
+            return left.sub(right);
+        }
+
         @Specialization
         protected LLVMIVarBit sub(LLVMIVarBit left, LLVMIVarBit right) {
             return left.sub(right);
@@ -252,6 +268,11 @@ public abstract class LLVMArithmeticNode extends LLVMExpressionNode {
             return left / right;
         }
 
+        @Specialization
+        protected LLVMI128 div(LLVMI128 left, LLVMI128 right) {
+            return left.div(right);
+        }
+
         @Specialization
         protected LLVMIVarBit div(LLVMIVarBit left, LLVMIVarBit right) {
             return left.div(right);
@@ -314,6 +335,11 @@ public abstract class LLVMArithmeticNode extends LLVMExpressionNode {
             return Long.divideUnsigned(left, right);
         }
 
+        @Specialization
+        protected LLVMI128 udiv(LLVMI128 left, LLVMI128 right) {
+            return left.unsignedDiv(right);
+        }
+
         @Specialization
         protected LLVMIVarBit udiv(LLVMIVarBit left, LLVMIVarBit right) {
             return left.unsignedDiv(right);
@@ -350,6 +376,11 @@ public abstract class LLVMArithmeticNode extends LLVMExpressionNode {
             return left % right;
         }
 
+        @Specialization
+        protected LLVMI128 rem(LLVMI128 left, LLVMI128 right) {
+            return left.rem(right);
+        }
+
         @Specialization
         protected LLVMIVarBit rem(LLVMIVarBit left, LLVMIVarBit right) {
             return left.rem(right);
@@ -412,6 +443,11 @@ public abstract class LLVMArithmeticNode extends LLVMExpressionNode {
             return Long.remainderUnsigned(left, right);
         }
 
+        @Specialization
+        protected LLVMI128 urem(LLVMI128 left, LLVMI128 right) {
+            return left.unsignedRem(right);
+        }
+
         @Specialization
         protected LLVMIVarBit urem(LLVMIVarBit left, LLVMIVarBit right) {
             return left.unsignedRem(right);
@@ -445,6 +481,11 @@ public abstract class LLVMArithmeticNode extends LLVMExpressionNode {
             return left & right;
         }
 
+        @Specialization
+        protected LLVMI128 and(LLVMI128 left, LLVMI128 right) {
+            return left.and(right);
+        }
+
         @Specialization
         protected LLVMIVarBit and(LLVMIVarBit left, LLVMIVarBit right) {
             return left.and(right);
@@ -477,6 +518,11 @@ public abstract class LLVMArithmeticNode extends LLVMExpressionNode {
             return (byte) (left | right);
         }
 
+        @Specialization
+        protected LLVMI128 or(LLVMI128 left, LLVMI128 right) {
+            return left.or(right);
+        }
+
         @Specialization
         protected LLVMIVarBit or(LLVMIVarBit left, LLVMIVarBit right) {
             return left.or(right);
@@ -509,6 +555,11 @@ public abstract class LLVMArithmeticNode extends LLVMExpressionNode {
             return (byte) (left ^ right);
         }
 
+        @Specialization
+        protected LLVMI128 xor(LLVMI128 left, LLVMI128 right) {
+            return left.xor(right);
+        }
+
         @Specialization
         protected LLVMIVarBit xor(LLVMIVarBit left, LLVMIVarBit right) {
             return left.xor(right);
@@ -536,6 +587,11 @@ public abstract class LLVMArithmeticNode extends LLVMExpressionNode {
             return (byte) (left << right);
         }
 
+        @Specialization
+        protected LLVMI128 shl(LLVMI128 left, LLVMI128 right) {
+            return left.leftShift(right);
+        }
+
         @Specialization
         protected LLVMIVarBit shl(LLVMIVarBit left, LLVMIVarBit right) {
             return left.leftShift(right);
@@ -563,6 +619,11 @@ public abstract class LLVMArithmeticNode extends LLVMExpressionNode {
             return (byte) ((left & LLVMExpressionNode.I8_MASK) >>> right);
         }
 
+        @Specialization
+        protected LLVMI128 ashr(LLVMI128 left, LLVMI128 right) {
+            return left.logicalRightShift(right);
+        }
+
         @Specialization
         protected LLVMIVarBit ashr(LLVMIVarBit left, LLVMIVarBit right) {
             return left.logicalRightShift(right);
@@ -590,6 +651,11 @@ public abstract class LLVMArithmeticNode extends LLVMExpressionNode {
             return (byte) (left >> right);
         }
 
+        @Specialization
+        protected LLVMI128 ashr(LLVMI128 left, LLVMI128 right) {
+            return left.arithmeticRightShift(right);
+        }
+
         @Specialization
         protected LLVMIVarBit ashr(LLVMIVarBit left, LLVMIVarBit right) {
             return left.arithmeticRightShift(right);
@@ -32,6 +32,7 @@ package com.oracle.truffle.llvm.nodes.op;
 import com.oracle.truffle.api.dsl.NodeChild;
 import com.oracle.truffle.api.dsl.NodeChildren;
 import com.oracle.truffle.api.dsl.Specialization;
+import com.oracle.truffle.llvm.runtime.LLVMI128;
 import com.oracle.truffle.llvm.runtime.LLVMIVarBit;
 import com.oracle.truffle.llvm.runtime.floating.LLVM80BitFloat;
 import com.oracle.truffle.llvm.runtime.nodes.api.LLVMExpressionNode;
@@ -69,6 +70,11 @@ public abstract class LLVMCompareNode extends LLVMAbstractCompareNode {
         protected boolean eq(LLVMIVarBit val1, LLVMIVarBit val2) {
             return val1.compare(val2) == 0;
         }
+
+        @Specialization
+        protected boolean eq(LLVMI128 val1, LLVMI128 val2) {
+            return val1.equals(val2);
+        }
     }
 
     public abstract static class LLVMNeNode extends LLVMCompareNode {
@@ -101,6 +107,11 @@ public abstract class LLVMCompareNode extends LLVMAbstractCompareNode {
         protected boolean nq(LLVMIVarBit val1, LLVMIVarBit val2) {
             return val1.compare(val2) != 0;
         }
+
+        @Specialization
+        protected boolean nq(LLVMI128 val1, LLVMI128 val2) {
+            return !val1.equals(val2);
+        }
     }
 
     public abstract static class LLVMSignedLtNode extends LLVMCompareNode {
@@ -114,6 +125,11 @@ public abstract class LLVMCompareNode extends LLVMAbstractCompareNode {
             return val1.signedCompare(val2) < 0;
         }
 
+        @Specialization
+        protected boolean slt(LLVMI128 val1, LLVMI128 val2) {
+            return val1.signedCompare(val2) < 0;
+        }
+
         @Specialization
         protected boolean slt(int val1, int val2) {
             return val1 < val2;
@@ -141,6 +157,11 @@ public abstract class LLVMCompareNode extends LLVMAbstractCompareNode {
             return val1.signedCompare(val2) <= 0;
         }
 
+        @Specialization
+        protected boolean sle(LLVMI128 val1, LLVMI128 val2) {
+            return val1.signedCompare(val2) <= 0;
+        }
+
         @Specialization
         protected boolean sle(int val1, int val2) {
             return val1 <= val2;
@@ -168,6 +189,11 @@ public abstract class LLVMCompareNode extends LLVMAbstractCompareNode {
             return val1.unsignedCompare(val2) < 0;
         }
 
+        @Specialization
+        protected boolean ult(LLVMI128 val1, LLVMI128 val2) {
+            return val1.unsignedCompare(val2) < 0;
+        }
+
         @Specialization
         protected boolean ult(int val1, int val2) {
             return Integer.compareUnsigned(val1, val2) < 0;
@@ -195,6 +221,11 @@ public abstract class LLVMCompareNode extends LLVMAbstractCompareNode {
             return val1.unsignedCompare(val2) <= 0;
         }
 
+        @Specialization
+        protected boolean ule(LLVMI128 val1, LLVMI128 val2) {
+            return val1.unsignedCompare(val2) <= 0;
+        }
+
         @Specialization
         protected boolean ule(int val1, int val2) {
             return Integer.compareUnsigned(val1, val2) <= 0;
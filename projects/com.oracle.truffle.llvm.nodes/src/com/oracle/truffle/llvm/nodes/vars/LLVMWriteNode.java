@@ -40,6 +40,7 @@ import com.oracle.truffle.api.frame.VirtualFrame;
 import com.oracle.truffle.api.nodes.NodeUtil;
 import com.oracle.truffle.llvm.nodes.base.LLVMBasicBlockNode;
 import com.oracle.truffle.llvm.nodes.func.LLVMFunctionStartNode;
+import com.oracle.truffle.llvm.runtime.LLVMI128;
 import com.oracle.truffle.llvm.runtime.LLVMIVarBit;
 import com.oracle.truffle.llvm.runtime.debug.scope.LLVMSourceLocation;
 import com.oracle.truffle.llvm.runtime.floating.LLVM80BitFloat;
@@ -132,6 +133,13 @@ public abstract class LLVMWriteNode extends LLVMStatementNode {
         }
     }
 
+    public abstract static class LLVMWriteI128Node extends LLVMWriteNode {
+        @Specialization
+        protected void writeI128(VirtualFrame frame, LLVMI128 value) {
+            frame.setObject(getSlot(), value);
+        }
+    }
+
     public abstract static class LLVMWriteIVarBitNode extends LLVMWriteNode {
         @Specialization
         protected void writeIVarBit(VirtualFrame frame, LLVMIVarBit value) {
@@ -0,0 +1,136 @@
+/*
+ * Copyright (c) 2018, Oracle and/or its affiliates.
+ *
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification, are
+ * permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this list of
+ * conditions and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice, this list of
+ * conditions and the following disclaimer in the documentation and/or other materials provided
+ * with the distribution.
+ *
+ * 3. Neither the name of the copyright holder nor the names of its contributors may be used to
+ * endorse or promote products derived from this software without specific prior written
+ * permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY EXPRESS
+ * OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE
+ * COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ * EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE
+ * GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED
+ * AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED
+ * OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.oracle.truffle.llvm.parser.benchmark;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import com.oracle.truffle.api.frame.FrameDescriptor;
+import com.oracle.truffle.api.source.Source;
+import com.oracle.truffle.llvm.parser.LLVMLivenessAnalysis;
+import com.oracle.truffle.llvm.parser.LLVMPhiManager;
+import com.oracle.truffle.llvm.parser.StackManager;
+import com.oracle.truffle.llvm.parser.model.ModelModule;
+import com.oracle.truffle.llvm.parser.model.blocks.InstructionBlock;
+import com.oracle.truffle.llvm.parser.model.functions.FunctionDefinition;
+import com.oracle.truffle.llvm.parser.scanner.LLVMScanner;
+import com.oracle.truffle.llvm.runtime.LLVMLanguage;
+
+/**
+ * Measures the liveness analysis of the largest functions in the bitcode files below the directory
+ * of the {@code sulong.benchmark.testSuites} property, which are the functions for which the
+ * analysis shows up when converting them.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 10)
+@Measurement(iterations = 10)
+@Fork(1)
+public class LLVMLivenessAnalysisBenchmark {
+
+    @Param({"10"})
+    public int functionCount;
+
+    private FunctionDefinition[] functions;
+    private FrameDescriptor[] frames;
+    private List<Map<InstructionBlock, List<LLVMPhiManager.Phi>>> phis;
+
+    @Setup
+    public void setup() throws IOException {
+        final PriorityQueue<FunctionDefinition> largest = new PriorityQueue<>(Comparator.comparingInt(LLVMLivenessAnalysisBenchmark::getSize));
+        for (Path path : findBitcodeFiles(Paths.get(System.getProperty("sulong.benchmark.testSuites")))) {
+            final ByteBuffer bytes = ByteBuffer.wrap(Files.readAllBytes(path));
+            final Source source = Source.newBuilder(path.toString()).mimeType(LLVMLanguage.LLVM_BITCODE_MIME_TYPE).name(path.getFileName().toString()).build();
+            final ModelModule model = LLVMScanner.scan(bytes, source).getIncompleteModel();
+            for (FunctionDefinition function : model.getDefinedFunctions()) {
+                model.getFunctionParser(function).parseInstructions();
+                largest.add(function);
+                if (largest.size() > functionCount) {
+                    // drop the instructions of functions that are too small to be measured
+                    largest.poll().onAfterParse();
+                }
+            }
+        }
+
+        functions = largest.toArray(new FunctionDefinition[largest.size()]);
+        frames = new FrameDescriptor[functions.length];
+        phis = new ArrayList<>(functions.length);
+        for (int i = 0; i < functions.length; i++) {
+            frames[i] = StackManager.createFrame(functions[i]);
+            phis.add(LLVMPhiManager.getPhis(functions[i]));
+        }
+    }
+
+    private static List<Path> findBitcodeFiles(Path directory) throws IOException {
+        try (Stream<Path> files = Files.walk(directory)) {
+            return files.filter(path -> path.getFileName().toString().endsWith(".bc")).sorted().collect(Collectors.toList());
+        }
+    }
+
+    private static int getSize(FunctionDefinition function) {
+        int size = 0;
+        for (InstructionBlock block : function.getBlocks()) {
+            size += block.getInstructionCount();
+        }
+        return size;
+    }
+
+    @Benchmark
+    public void computeLiveness(Blackhole blackhole) {
+        for (int i = 0; i < functions.length; i++) {
+            blackhole.consume(LLVMLivenessAnalysis.computeLiveness(frames[i], phis.get(i), functions[i]));
+        }
+    }
+}
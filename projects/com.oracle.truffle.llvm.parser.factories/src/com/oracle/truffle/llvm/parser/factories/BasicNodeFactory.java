@@ -36,6 +36,7 @@ import java.util.List;
 import com.oracle.truffle.api.Truffle;
 import com.oracle.truffle.api.frame.FrameDescriptor;
 import com.oracle.truffle.api.frame.FrameSlot;
+import com.oracle.truffle.api.nodes.RepeatingNode;
 import com.oracle.truffle.api.nodes.RootNode;
 import com.oracle.truffle.api.source.Source;
 import com.oracle.truffle.llvm.asm.amd64.InlineAssemblyParser;
@@ -48,6 +49,8 @@ import com.oracle.truffle.llvm.nodes.control.LLVMBrUnconditionalNode;
 import com.oracle.truffle.llvm.nodes.control.LLVMConditionalBranchNode;
 import com.oracle.truffle.llvm.nodes.control.LLVMDispatchBasicBlockNode;
 import com.oracle.truffle.llvm.nodes.control.LLVMIndirectBranchNode;
+import com.oracle.truffle.llvm.nodes.control.LLVMLoopDispatchNode;
+import com.oracle.truffle.llvm.nodes.control.LLVMLoopNode;
 import com.oracle.truffle.llvm.nodes.control.LLVMRetNodeFactory.LLVM80BitFloatRetNodeGen;
 import com.oracle.truffle.llvm.nodes.control.LLVMRetNodeFactory.LLVMAddressRetNodeGen;
 import com.oracle.truffle.llvm.nodes.control.LLVMRetNodeFactory.LLVMDoubleRetNodeGen;
@@ -57,10 +60,16 @@ import com.oracle.truffle.llvm.nodes.control.LLVMRetNodeFactory.LLVMI1RetNodeGen
 import com.oracle.truffle.llvm.nodes.control.LLVMRetNodeFactory.LLVMI32RetNodeGen;
 import com.oracle.truffle.llvm.nodes.control.LLVMRetNodeFactory.LLVMI64RetNodeGen;
 import com.oracle.truffle.llvm.nodes.control.LLVMRetNodeFactory.LLVMI8RetNodeGen;
+import com.oracle.truffle.llvm.nodes.control.LLVMRetNodeFactory.LLVMI128RetNodeGen;
 import com.oracle.truffle.llvm.nodes.control.LLVMRetNodeFactory.LLVMIVarBitRetNodeGen;
 import com.oracle.truffle.llvm.nodes.control.LLVMRetNodeFactory.LLVMStructRetNodeGen;
 import com.oracle.truffle.llvm.nodes.control.LLVMRetNodeFactory.LLVMVectorRetNodeGen;
 import com.oracle.truffle.llvm.nodes.control.LLVMRetNodeFactory.LLVMVoidReturnNodeGen;
+import com.oracle.truffle.llvm.nodes.control.LLVMSwitchNode.LLVMI16SwitchNode;
+import com.oracle.truffle.llvm.nodes.control.LLVMSwitchNode.LLVMI1SwitchNode;
+import com.oracle.truffle.llvm.nodes.control.LLVMSwitchNode.LLVMI32SwitchNode;
+import com.oracle.truffle.llvm.nodes.control.LLVMSwitchNode.LLVMI64SwitchNode;
+import com.oracle.truffle.llvm.nodes.control.LLVMSwitchNode.LLVMI8SwitchNode;
 import com.oracle.truffle.llvm.nodes.control.LLVMSwitchNode.LLVMSwitchNodeImpl;
 import com.oracle.truffle.llvm.nodes.control.LLVMWritePhisNode;
 import com.oracle.truffle.llvm.nodes.func.LLVMArgNodeGen;
@@ -143,6 +152,7 @@ import com.oracle.truffle.llvm.nodes.literals.LLVMSimpleLiteralNode.LLVMI1Litera
 import com.oracle.truffle.llvm.nodes.literals.LLVMSimpleLiteralNode.LLVMI32LiteralNode;
 import com.oracle.truffle.llvm.nodes.literals.LLVMSimpleLiteralNode.LLVMI64LiteralNode;
 import com.oracle.truffle.llvm.nodes.literals.LLVMSimpleLiteralNode.LLVMI8LiteralNode;
+import com.oracle.truffle.llvm.nodes.literals.LLVMSimpleLiteralNode.LLVMI128LiteralNode;
 import com.oracle.truffle.llvm.nodes.literals.LLVMSimpleLiteralNode.LLVMIVarBitLiteralNode;
 import com.oracle.truffle.llvm.nodes.literals.LLVMSimpleLiteralNode.LLVMManagedPointerLiteralNode;
 import com.oracle.truffle.llvm.nodes.literals.LLVMSimpleLiteralNode.LLVMNativePointerLiteralNode;
@@ -180,6 +190,7 @@ import com.oracle.truffle.llvm.nodes.memory.literal.LLVMPointerArrayLiteralNode;
 import com.oracle.truffle.llvm.nodes.memory.literal.LLVMPointerArrayLiteralNodeGen;
 import com.oracle.truffle.llvm.nodes.memory.literal.LLVMStructArrayLiteralNodeGen;
 import com.oracle.truffle.llvm.nodes.memory.load.LLVMDirectLoadNodeFactory.LLVM80BitFloatDirectLoadNodeGen;
+import com.oracle.truffle.llvm.nodes.memory.load.LLVMDirectLoadNodeFactory.LLVMI128DirectLoadNodeGen;
 import com.oracle.truffle.llvm.nodes.memory.load.LLVMDirectLoadNodeFactory.LLVMIVarBitDirectLoadNodeGen;
 import com.oracle.truffle.llvm.nodes.memory.load.LLVMDirectLoadNodeFactory.LLVMPointerDirectLoadNodeGen;
 import com.oracle.truffle.llvm.nodes.memory.load.LLVMDirectLoadNodeFactory.LLVMStructDirectLoadNodeGen;
@@ -211,6 +222,7 @@ import com.oracle.truffle.llvm.nodes.memory.store.LLVMI1StoreNodeGen;
 import com.oracle.truffle.llvm.nodes.memory.store.LLVMI32StoreNodeGen;
 import com.oracle.truffle.llvm.nodes.memory.store.LLVMI64StoreNodeGen;
 import com.oracle.truffle.llvm.nodes.memory.store.LLVMI8StoreNodeGen;
+import com.oracle.truffle.llvm.nodes.memory.store.LLVMI128StoreNodeGen;
 import com.oracle.truffle.llvm.nodes.memory.store.LLVMIVarBitStoreNodeGen;
 import com.oracle.truffle.llvm.nodes.memory.store.LLVMPointerStoreNodeGen;
 import com.oracle.truffle.llvm.nodes.memory.store.LLVMStoreVectorNodeGen;
@@ -303,6 +315,7 @@ import com.oracle.truffle.llvm.nodes.vars.LLVMWriteNodeFactory.LLVMWriteI1NodeGe
 import com.oracle.truffle.llvm.nodes.vars.LLVMWriteNodeFactory.LLVMWriteI32NodeGen;
 import com.oracle.truffle.llvm.nodes.vars.LLVMWriteNodeFactory.LLVMWriteI64NodeGen;
 import com.oracle.truffle.llvm.nodes.vars.LLVMWriteNodeFactory.LLVMWriteI8NodeGen;
+import com.oracle.truffle.llvm.nodes.vars.LLVMWriteNodeFactory.LLVMWriteI128NodeGen;
 import com.oracle.truffle.llvm.nodes.vars.LLVMWriteNodeFactory.LLVMWriteIVarBitNodeGen;
 import com.oracle.truffle.llvm.nodes.vars.LLVMWriteNodeFactory.LLVMWritePointerNodeGen;
 import com.oracle.truffle.llvm.nodes.vars.LLVMWriteNodeFactory.LLVMWriteVectorNodeGen;
@@ -339,6 +352,7 @@ import com.oracle.truffle.llvm.runtime.LLVMContext;
 import com.oracle.truffle.llvm.runtime.LLVMContext.ExternalLibrary;
 import com.oracle.truffle.llvm.runtime.LLVMFunctionDescriptor;
 import com.oracle.truffle.llvm.runtime.LLVMFunctionDescriptor.LLVMIRFunction;
+import com.oracle.truffle.llvm.runtime.LLVMI128;
 import com.oracle.truffle.llvm.runtime.LLVMIVarBit;
 import com.oracle.truffle.llvm.runtime.LLVMUnsupportedException;
 import com.oracle.truffle.llvm.runtime.LLVMUnsupportedException.UnsupportedReason;
@@ -671,7 +685,13 @@ public class BasicNodeFactory implements NodeFactory {
     public LLVMExpressionNode createSimpleConstantNoArray(Object constant, Type type) {
         if (type instanceof VariableBitWidthType) {
             Number c = (Number) constant;
-            if (type.getBitSize() <= Long.SIZE) {
+            if (LLVMCastsFactory.isI128(type)) {
+                if (c instanceof BigInteger) {
+                    return new LLVMI128LiteralNode(LLVMI128.fromBigInteger((BigInteger) c));
+                } else {
+                    return new LLVMI128LiteralNode(LLVMI128.fromLong(c.longValue()));
+                }
+            } else if (type.getBitSize() <= Long.SIZE) {
                 return new LLVMIVarBitLiteralNode(LLVMIVarBit.fromLong(type.getBitSize(), c.longValue()));
             } else {
                 return new LLVMIVarBitLiteralNode(LLVMIVarBit.fromBigInteger(type.getBitSize(), (BigInteger) c));
@@ -761,6 +781,8 @@ public class BasicNodeFactory implements NodeFactory {
         }
         if (type instanceof VectorType) {
             return LLVMVectorRetNodeGen.create(source, retValue);
+        } else if (LLVMCastsFactory.isI128(type)) {
+            return LLVMI128RetNodeGen.create(source, retValue);
         } else if (type instanceof VariableBitWidthType) {
             return LLVMIVarBitRetNodeGen.create(source, retValue);
         } else if (type instanceof PointerType || type instanceof FunctionType) {
@@ -894,6 +916,8 @@ public class BasicNodeFactory implements NodeFactory {
                 default:
                     throw new AssertionError(llvmType);
             }
+        } else if (LLVMCastsFactory.isI128(llvmType)) {
+            return LLVMWriteI128NodeGen.create(result, slot, sourceSection);
         } else if (llvmType instanceof VariableBitWidthType) {
             return LLVMWriteIVarBitNodeGen.create(result, slot, sourceSection);
         } else if (llvmType instanceof PointerType || llvmType instanceof FunctionType) {
@@ -1271,6 +1295,24 @@ public class BasicNodeFactory implements NodeFactory {
         return new LLVMSwitchNodeImpl(successors, phiWriteNodes, cond, caseNodes, source);
     }
 
+    @Override
+    public LLVMControlFlowNode createSwitch(LLVMExpressionNode cond, int[] successors, long[] caseValues, PrimitiveType llvmType, LLVMStatementNode[] phiWriteNodes, LLVMSourceLocation source) {
+        switch (llvmType.getPrimitiveKind()) {
+            case I1:
+                return new LLVMI1SwitchNode(successors, phiWriteNodes, cond, caseValues, source);
+            case I8:
+                return new LLVMI8SwitchNode(successors, phiWriteNodes, cond, caseValues, source);
+            case I16:
+                return new LLVMI16SwitchNode(successors, phiWriteNodes, cond, caseValues, source);
+            case I32:
+                return new LLVMI32SwitchNode(successors, phiWriteNodes, cond, caseValues, source);
+            case I64:
+                return new LLVMI64SwitchNode(successors, phiWriteNodes, cond, caseValues, source);
+            default:
+                throw new AssertionError(llvmType);
+        }
+    }
+
     @Override
     public LLVMControlFlowNode createConditionalBranch(int trueIndex, int falseIndex, LLVMExpressionNode conditionNode, LLVMStatementNode truePhiWriteNodes,
                     LLVMStatementNode falsePhiWriteNodes, LLVMSourceLocation sourceSection) {
@@ -1465,6 +1507,8 @@ public class BasicNodeFactory implements NodeFactory {
                 default:
                     throw new AssertionError(resolvedType);
             }
+        } else if (LLVMCastsFactory.isI128(resolvedType)) {
+            return LLVMI128StoreNodeGen.create(null, null);
         } else if (resolvedType instanceof PointerType || resolvedType instanceof FunctionType) {
             return LLVMPointerStoreNodeGen.create(null, null);
         }
@@ -1487,12 +1531,33 @@ public class BasicNodeFactory implements NodeFactory {
                         copyArgumentsToFrame);
     }
 
+    @Override
+    public RepeatingNode createLoopDispatchNode(FrameSlot exceptionValueSlot, FrameSlot successorSlot, List<? extends LLVMStatementNode> bodyNodes, int[] indexMapping,
+                    FrameSlot[][] beforeBlockNuller, FrameSlot[][] afterBlockNuller) {
+        return new LLVMLoopDispatchNode(exceptionValueSlot, successorSlot, bodyNodes.toArray(new LLVMBasicBlockNode[bodyNodes.size()]), indexMapping, beforeBlockNuller, afterBlockNuller);
+    }
+
+    @Override
+    public LLVMControlFlowNode createLoop(RepeatingNode body, FrameSlot successorSlot, int[] successors) {
+        return new LLVMLoopNode(body, successorSlot, successors);
+    }
+
     @Override
     public RootNode createFunctionStartNode(LLVMExpressionNode functionBodyNode, FrameDescriptor frame, String name, String originalName,
                     int argumentCount, Source bcSource, LLVMSourceLocation location) {
         return new LLVMFunctionStartNode(context.getLanguage(), functionBodyNode, frame, name, argumentCount, originalName, bcSource, location);
     }
 
+    @Override
+    public void replaceFunctionBody(RootNode functionStartNode, LLVMExpressionNode functionBodyNode) {
+        ((LLVMFunctionStartNode) functionStartNode).replaceBody(functionBodyNode);
+    }
+
+    @Override
+    public void deferFunctionDebugInfo(RootNode functionStartNode, Runnable materialization) {
+        ((LLVMFunctionStartNode) functionStartNode).deferDebugInfo(materialization);
+    }
+
     @Override
     public LLVMExpressionNode createInlineAssemblerExpression(ExternalLibrary library, String asmExpression, String asmFlags, LLVMExpressionNode[] args, Type[] argTypes,
                     Type retType, LLVMSourceLocation sourceSection) {
@@ -2110,6 +2175,8 @@ public class BasicNodeFactory implements NodeFactory {
                 default:
                     throw new AssertionError(resultType);
             }
+        } else if (LLVMCastsFactory.isI128(resultType)) {
+            return LLVMI128DirectLoadNodeGen.create(loadTarget);
         } else if (resultType instanceof VariableBitWidthType) {
             return LLVMIVarBitDirectLoadNodeGen.create(loadTarget, bits);
         } else if (resultType instanceof StructureType || resultType instanceof ArrayType) {
@@ -2167,6 +2234,8 @@ public class BasicNodeFactory implements NodeFactory {
                 default:
                     throw new AssertionError(type);
             }
+        } else if (LLVMCastsFactory.isI128(type)) {
+            return LLVMI128StoreNodeGen.create(source, pointerNode, valueNode);
         } else if (type instanceof VariableBitWidthType) {
             return LLVMIVarBitStoreNodeGen.create(source, pointerNode, valueNode);
         } else if (type instanceof StructureType || type instanceof ArrayType) {
@@ -41,12 +41,14 @@ import com.oracle.truffle.llvm.nodes.asm.syscall.LLVMAMD64SyscallClockGetTimeNod
 import com.oracle.truffle.llvm.nodes.asm.syscall.LLVMAMD64SyscallCloseNode;
 import com.oracle.truffle.llvm.nodes.asm.syscall.LLVMAMD64SyscallConnectNodeGen;
 import com.oracle.truffle.llvm.nodes.asm.syscall.LLVMAMD64SyscallDup2Node;
+import com.oracle.truffle.llvm.nodes.asm.syscall.LLVMAMD64SyscallDup3Node;
 import com.oracle.truffle.llvm.nodes.asm.syscall.LLVMAMD64SyscallDupNode;
 import com.oracle.truffle.llvm.nodes.asm.syscall.LLVMAMD64SyscallExitNode;
 import com.oracle.truffle.llvm.nodes.asm.syscall.LLVMAMD64SyscallFaccessatNodeGen;
 import com.oracle.truffle.llvm.nodes.asm.syscall.LLVMAMD64SyscallFcntlNodeGen;
 import com.oracle.truffle.llvm.nodes.asm.syscall.LLVMAMD64SyscallFstatNodeGen;
 import com.oracle.truffle.llvm.nodes.asm.syscall.LLVMAMD64SyscallFstatfsNodeGen;
+import com.oracle.truffle.llvm.nodes.asm.syscall.LLVMAMD64SyscallFsyncNode;
 import com.oracle.truffle.llvm.nodes.asm.syscall.LLVMAMD64SyscallFtruncateNode;
 import com.oracle.truffle.llvm.nodes.asm.syscall.LLVMAMD64SyscallFutexNodeGen;
 import com.oracle.truffle.llvm.nodes.asm.syscall.LLVMAMD64SyscallGetPpidNode;
@@ -186,6 +188,10 @@ public class BasicSystemContextExtension extends SystemContextExtension {
                 return LLVMAMD64SyscallUnameNodeGen.create();
             case LLVMAMD64Syscall.SYS_fcntl:
                 return LLVMAMD64SyscallFcntlNodeGen.create();
+            case LLVMAMD64Syscall.SYS_fsync:
+                return new LLVMAMD64SyscallFsyncNode(index, "fsync");
+            case LLVMAMD64Syscall.SYS_fdatasync:
+                return new LLVMAMD64SyscallFsyncNode(index, "fdatasync");
             case LLVMAMD64Syscall.SYS_ftruncate:
                 return new LLVMAMD64SyscallFtruncateNode();
             case LLVMAMD64Syscall.SYS_getcwd:
@@ -240,6 +246,8 @@ public class BasicSystemContextExtension extends SystemContextExtension {
                 return LLVMAMD64SyscallFaccessatNodeGen.create();
             case LLVMAMD64Syscall.SYS_utimensat:
                 return LLVMAMD64SyscallUtimensatNodeGen.create();
+            case LLVMAMD64Syscall.SYS_dup3:
+                return new LLVMAMD64SyscallDup3Node();
             case LLVMAMD64Syscall.SYS_pipe2:
                 return LLVMAMD64SyscallPipe2NodeGen.create();
             default:
@@ -39,6 +39,9 @@ import com.oracle.truffle.llvm.nodes.cast.LLVMToDoubleNodeGen.LLVMUnsignedCastTo
 import com.oracle.truffle.llvm.nodes.cast.LLVMToFloatNodeGen.LLVMBitcastToFloatNodeGen;
 import com.oracle.truffle.llvm.nodes.cast.LLVMToFloatNodeGen.LLVMSignedCastToFloatNodeGen;
 import com.oracle.truffle.llvm.nodes.cast.LLVMToFloatNodeGen.LLVMUnsignedCastToFloatNodeGen;
+import com.oracle.truffle.llvm.nodes.cast.LLVMToI128NodeFactory.LLVMBitcastToI128NodeGen;
+import com.oracle.truffle.llvm.nodes.cast.LLVMToI128NodeFactory.LLVMSignedCastToI128NodeGen;
+import com.oracle.truffle.llvm.nodes.cast.LLVMToI128NodeFactory.LLVMUnsignedCastToI128NodeGen;
 import com.oracle.truffle.llvm.nodes.cast.LLVMToI16NodeGen.LLVMBitcastToI16NodeGen;
 import com.oracle.truffle.llvm.nodes.cast.LLVMToI16NodeGen.LLVMSignedCastToI16NodeGen;
 import com.oracle.truffle.llvm.nodes.cast.LLVMToI16NodeGen.LLVMUnsignedCastToI16NodeGen;
@@ -72,6 +75,7 @@ import com.oracle.truffle.llvm.nodes.cast.LLVMToVectorZeroExtNodeFactory.LLVMUns
 import com.oracle.truffle.llvm.nodes.cast.LLVMToVectorZeroExtNodeFactory.LLVMUnsignedCastToI32VectorNodeGen;
 import com.oracle.truffle.llvm.nodes.cast.LLVMToVectorZeroExtNodeFactory.LLVMUnsignedCastToI64VectorNodeGen;
 import com.oracle.truffle.llvm.nodes.cast.LLVMToVectorZeroExtNodeFactory.LLVMUnsignedCastToI8VectorNodeGen;
+import com.oracle.truffle.llvm.runtime.LLVMI128;
 import com.oracle.truffle.llvm.runtime.nodes.api.LLVMExpressionNode;
 import com.oracle.truffle.llvm.runtime.types.FunctionType;
 import com.oracle.truffle.llvm.runtime.types.PointerType;
@@ -108,6 +112,8 @@ final class LLVMCastsFactory {
                 case X86_FP80:
                     return LLVMSignedCastToLLVM80BitFloatNodeGen.create(fromNode);
             }
+        } else if (isI128(targetType)) {
+            return LLVMSignedCastToI128NodeGen.create(fromNode);
         } else if (targetType instanceof VariableBitWidthType) {
             return LLVMSignedCastToIVarNodeGen.create(fromNode, getBits(targetType));
         } else if (targetType instanceof VectorType) {
@@ -164,6 +170,8 @@ final class LLVMCastsFactory {
             }
         } else if (targetType instanceof PointerType || targetType instanceof FunctionType) {
             return LLVMToAddressNodeGen.create(fromNode);
+        } else if (isI128(targetType)) {
+            return LLVMUnsignedCastToI128NodeGen.create(fromNode);
         } else if (targetType instanceof VariableBitWidthType) {
             return LLVMUnsignedCastToIVarNodeGen.create(fromNode, getBits(targetType));
         } else if (targetType instanceof VectorType) {
@@ -213,6 +221,8 @@ final class LLVMCastsFactory {
             }
         } else if (targetType instanceof PointerType || targetType instanceof FunctionType) {
             return LLVMToAddressNodeGen.create(fromNode);
+        } else if (isI128(targetType)) {
+            return LLVMBitcastToI128NodeGen.create(fromNode);
         } else if (targetType instanceof VariableBitWidthType) {
             return LLVMBitcastToIVarNodeGen.create(fromNode, targetType.getBitSize());
         } else if (targetType instanceof VectorType) {
@@ -249,4 +259,8 @@ final class LLVMCastsFactory {
     private static int getBits(Type targetType) {
         return targetType.getBitSize();
     }
+
+    static boolean isI128(Type type) {
+        return type instanceof VariableBitWidthType && type.getBitSize() == LLVMI128.BIT_WIDTH;
+    }
 }
@@ -762,6 +762,12 @@ final class LLVMBitcodeInstructionVisitor implements SymbolVisitor {
         successors[successors.length - 1] = zwitch.getDefaultBlock().getBlockIndex();
 
         Type llvmType = zwitch.getCondition().getType();
+        long[] caseValues = getIntegerCaseValues(zwitch);
+        if (llvmType instanceof PrimitiveType && caseValues != null) {
+            setControlFlowNode(nodeFactory.createSwitch(cond, successors, caseValues, (PrimitiveType) llvmType, getPhiWriteNodes(zwitch), getSourceLocation(zwitch)));
+            return;
+        }
+
         LLVMExpressionNode[] cases = new LLVMExpressionNode[zwitch.getCaseCount()];
         for (int i = 0; i < cases.length; i++) {
             cases[i] = symbols.resolve(zwitch.getCaseValue(i));
@@ -771,6 +777,18 @@ final class LLVMBitcodeInstructionVisitor implements SymbolVisitor {
         setControlFlowNode(node);
     }
 
+    private static long[] getIntegerCaseValues(SwitchInstruction zwitch) {
+        long[] caseValues = new long[zwitch.getCaseCount()];
+        for (int i = 0; i < caseValues.length; i++) {
+            SymbolImpl caseValue = zwitch.getCaseValue(i);
+            if (!(caseValue instanceof IntegerConstant)) {
+                return null;
+            }
+            caseValues[i] = ((IntegerConstant) caseValue).getValue();
+        }
+        return caseValues;
+    }
+
     private LLVMStatementNode[] getPhiWriteNodes(TerminatingInstruction terminatingInstruction) {
         if (blockPhis != null) {
             ArrayList<Phi>[] phisPerSuccessor = LLVMPhiManager.getPhisForSuccessors(terminatingInstruction, blockPhis);
@@ -811,26 +829,14 @@ final class LLVMBitcodeInstructionVisitor implements SymbolVisitor {
         successors[successors.length - 1] = zwitch.getDefaultBlock().getBlockIndex();
 
         final PrimitiveType llvmType = (PrimitiveType) zwitch.getCondition().getType();
-        final LLVMExpressionNode[] cases = new LLVMExpressionNode[zwitch.getCaseCount()];
-        for (int i = 0; i < cases.length; i++) {
-            // the case value is always a long here regardless of the values actual type, implicit
-            // casts to smaller types in the factoryfacade won't work
-            switch (llvmType.getPrimitiveKind()) {
-                case I8:
-                    cases[i] = nodeFactory.createLiteral((byte) zwitch.getCaseValue(i), llvmType);
-                    break;
-                case I16:
-                    cases[i] = nodeFactory.createLiteral((short) zwitch.getCaseValue(i), llvmType);
-                    break;
-                case I32:
-                    cases[i] = nodeFactory.createLiteral((int) zwitch.getCaseValue(i), llvmType);
-                    break;
-                default:
-                    cases[i] = nodeFactory.createLiteral(zwitch.getCaseValue(i), llvmType);
-            }
+        final long[] caseValues = new long[zwitch.getCaseCount()];
+        for (int i = 0; i < caseValues.length; i++) {
+            // the case value is always a long here regardless of the values actual type, the
+            // switch node truncates it to the width of the condition
+            caseValues[i] = zwitch.getCaseValue(i);
         }
 
-        LLVMControlFlowNode node = nodeFactory.createSwitch(cond, successors, cases, llvmType, getPhiWriteNodes(zwitch), getSourceLocation(zwitch));
+        LLVMControlFlowNode node = nodeFactory.createSwitch(cond, successors, caseValues, llvmType, getPhiWriteNodes(zwitch), getSourceLocation(zwitch));
         setControlFlowNode(node);
     }
 
@@ -76,7 +76,6 @@ import com.oracle.truffle.llvm.parser.model.visitors.SymbolVisitor;
 import com.oracle.truffle.llvm.runtime.LLVMContext;
 import com.oracle.truffle.llvm.runtime.options.SulongEngineOption;
 
-import java.util.ArrayDeque;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.BitSet;
@@ -90,11 +89,23 @@ public final class LLVMLivenessAnalysis {
     }
 
     public static LLVMLivenessAnalysisResult computeLiveness(FrameDescriptor frame, LLVMContext context, Map<InstructionBlock, List<LLVMPhiManager.Phi>> phis, FunctionDefinition functionDefinition) {
+        boolean printStatistics = SulongEngineOption.isTrue(context.getEnv().getOptions().get(SulongEngineOption.PRINT_LIFE_TIME_ANALYSIS_STATS));
+        return computeLiveness(frame, context, phis, functionDefinition, printStatistics);
+    }
+
+    /**
+     * Computes the liveness without printing any statistics, which does not need a context.
+     */
+    public static LLVMLivenessAnalysisResult computeLiveness(FrameDescriptor frame, Map<InstructionBlock, List<LLVMPhiManager.Phi>> phis, FunctionDefinition functionDefinition) {
+        return computeLiveness(frame, null, phis, functionDefinition, false);
+    }
+
+    private static LLVMLivenessAnalysisResult computeLiveness(FrameDescriptor frame, LLVMContext context, Map<InstructionBlock, List<LLVMPhiManager.Phi>> phis, FunctionDefinition functionDefinition,
+                    boolean printStatistics) {
         List<InstructionBlock> blocks = functionDefinition.getBlocks();
         BlockInfo[] blockInfos = initializeGenKill(frame, phis, functionDefinition, blocks);
         ArrayList<InstructionBlock>[] predecessors = computePredecessors(blocks);
-        int processedBlocks = iterateToFixedPoint(blocks, frame, blockInfos, predecessors);
-        boolean printStatistics = SulongEngineOption.isTrue(context.getEnv().getOptions().get(SulongEngineOption.PRINT_LIFE_TIME_ANALYSIS_STATS));
+        int processedBlocks = iterateToFixedPoint(blocks, blockInfos, predecessors);
         if (printStatistics) {
             printIntermediateResult(context, frame, functionDefinition, blocks, blockInfos, processedBlocks);
         }
@@ -137,46 +148,86 @@ public final class LLVMLivenessAnalysis {
         return result;
     }
 
-    private static int iterateToFixedPoint(List<InstructionBlock> blocks, FrameDescriptor frame, BlockInfo[] blockInfos, ArrayList<InstructionBlock>[] predecessors) {
-        // by processing the graph bottom-up, we may reach a fixed point more quickly
-        ArrayDeque<InstructionBlock> workList = new ArrayDeque<>(blocks);
-        BitSet blockOnWorkList = new BitSet(blocks.size());
-        blockOnWorkList.set(0, blockOnWorkList.size());
-
-        BitSet newPredecessorOut = new BitSet(frame.getSize());
-        BitSet newIn = new BitSet(frame.getSize());
+    private static int iterateToFixedPoint(List<InstructionBlock> blocks, BlockInfo[] blockInfos, ArrayList<InstructionBlock>[] predecessors) {
+        // liveness flows backwards, so we process a block before its predecessors, i.e., in
+        // postorder of the CFG. the work list is a set of positions in that order, which we sweep
+        // until it is empty. apart from loops, every block is only processed once.
+        InstructionBlock[] order = computePostOrder(blocks);
+        int[] positionInOrder = new int[blocks.size()];
+        for (int i = 0; i < order.length; i++) {
+            positionInOrder[order[i].getBlockIndex()] = i;
+        }
+        LivenessBitSet workList = new LivenessBitSet(order.length);
+        workList.setAll(order.length);
 
         int processedBlocks = 0;
-        while (!workList.isEmpty()) {
+        int position = workList.nextSetBit(0);
+        while (position >= 0) {
             processedBlocks++;
-            InstructionBlock block = removeBlockFromWorkList(workList, blockOnWorkList);
+            workList.clear(position);
+            InstructionBlock block = order[position];
             BlockInfo blockInfo = blockInfos[block.getBlockIndex()];
 
-            newIn.clear();
-            newIn.or(blockInfo.out);
-            newIn.andNot(blockInfo.defs);
-            newIn.or(blockInfo.gen);
-            newIn.or(blockInfo.phiDefs);
-
-            blockInfo.in.clear();
-            blockInfo.in.or(newIn);
+            blockInfo.in.setTransfer(blockInfo.out, blockInfo.defs, blockInfo.gen, blockInfo.phiDefs);
 
             for (InstructionBlock predecessor : predecessors[block.getBlockIndex()]) {
                 BlockInfo predecessorBlockInfo = blockInfos[predecessor.getBlockIndex()];
-                newPredecessorOut.clear();
-                newPredecessorOut.or(blockInfo.in);
-                newPredecessorOut.andNot(blockInfo.phiDefs);
-                newPredecessorOut.or(predecessorBlockInfo.phiUses);
-
-                boolean changed = or(predecessorBlockInfo.out, newPredecessorOut);
+                boolean changed = predecessorBlockInfo.out.orTransfer(blockInfo.in, blockInfo.phiDefs, predecessorBlockInfo.phiUses);
                 if (changed) {
-                    addBlockToWorkList(workList, blockOnWorkList, predecessor);
+                    workList.set(positionInOrder[predecessor.getBlockIndex()]);
                 }
             }
+
+            position = workList.nextSetBit(position + 1);
+            if (position < 0) {
+                // start the next sweep
+                position = workList.nextSetBit(0);
+            }
         }
         return processedBlocks;
     }
 
+    /**
+     * Orders the blocks so that every block comes after the blocks it reaches in a depth-first
+     * traversal of the CFG. Unreachable blocks do not influence the reachable ones and come last.
+     */
+    private static InstructionBlock[] computePostOrder(List<InstructionBlock> blocks) {
+        InstructionBlock[] order = new InstructionBlock[blocks.size()];
+        int orderSize = 0;
+        boolean[] visited = new boolean[blocks.size()];
+        int[] nextSuccessor = new int[blocks.size()];
+        InstructionBlock[] stack = new InstructionBlock[blocks.size()];
+        int stackSize = 0;
+
+        if (!blocks.isEmpty()) {
+            stack[stackSize++] = blocks.get(0);
+            visited[0] = true;
+        }
+        while (stackSize > 0) {
+            InstructionBlock block = stack[stackSize - 1];
+            TerminatingInstruction terminatingInstruction = block.getTerminatingInstruction();
+            int successorIndex = nextSuccessor[block.getBlockIndex()]++;
+            if (successorIndex < terminatingInstruction.getSuccessorCount()) {
+                InstructionBlock successor = terminatingInstruction.getSuccessor(successorIndex);
+                if (!visited[successor.getBlockIndex()]) {
+                    visited[successor.getBlockIndex()] = true;
+                    stack[stackSize++] = successor;
+                }
+            } else {
+                stackSize--;
+                order[orderSize++] = block;
+            }
+        }
+
+        for (InstructionBlock block : blocks) {
+            if (!visited[block.getBlockIndex()]) {
+                order[orderSize++] = block;
+            }
+        }
+        assert orderSize == order.length;
+        return order;
+    }
+
     private static LLVMLivenessAnalysisResult computeLivenessAnalysisResult(FunctionDefinition functionDefinition, List<InstructionBlock> blocks, FrameDescriptor frame, BlockInfo[] blockInfos,
                     ArrayList<InstructionBlock>[] predecessors) {
         @SuppressWarnings("unchecked")
@@ -232,7 +283,7 @@ public final class LLVMLivenessAnalysis {
             blockInfo.defs.andNot(blockInfo.out);
 
             int terminatingInstructionIndex = block.getInstructionCount() - 1;
-            BitSet valuesThatDieInBlock = blockInfo.defs;
+            LivenessBitSet valuesThatDieInBlock = blockInfo.defs;
             int bitIndex = -1;
             while ((bitIndex = valuesThatDieInBlock.nextSetBit(bitIndex + 1)) >= 0) {
                 assert lastInstructionIndexTouchingLocal[bitIndex] >= 0 : "must have a last usage, otherwise the value would not be alive in this block";
@@ -255,8 +306,8 @@ public final class LLVMLivenessAnalysis {
             // collect the results
             Collections.sort(blockNullers);
             nullableWithinBlock[i] = blockNullers;
-            nullableBeforeBlock[i] = blockInfo.kill;
-            nullableAfterBlock[i] = blockInfo.phiDefs;
+            nullableBeforeBlock[i] = blockInfo.kill.toBitSet();
+            nullableAfterBlock[i] = blockInfo.phiDefs.toBitSet();
         }
         return new LLVMLivenessAnalysisResult(nullableWithinBlock, nullableBeforeBlock, nullableAfterBlock);
     }
@@ -300,40 +351,6 @@ public final class LLVMLivenessAnalysis {
         return result;
     }
 
-    private static void addBlockToWorkList(ArrayDeque<InstructionBlock> workList, BitSet blockOnWorkList, InstructionBlock predecessorBlock) {
-        boolean predecessorBlockIndex = blockOnWorkList.get(predecessorBlock.getBlockIndex());
-        if (!predecessorBlockIndex) {
-            workList.addLast(predecessorBlock);
-            blockOnWorkList.set(predecessorBlock.getBlockIndex());
-        }
-    }
-
-    private static InstructionBlock removeBlockFromWorkList(ArrayDeque<InstructionBlock> workList, BitSet blockOnWorkList) {
-        InstructionBlock block = workList.removeLast();
-        blockOnWorkList.clear(block.getBlockIndex());
-        return block;
-    }
-
-    private static boolean or(BitSet dest, BitSet source) {
-        assert dest.size() == source.size();
-        if (isChangeForOrNecessary(dest, source)) {
-            dest.or(source);
-            return true;
-        }
-        return false;
-    }
-
-    private static boolean isChangeForOrNecessary(BitSet dest, BitSet source) {
-        // this could be far faster if we had direct access to the words in the BitSet
-        int bitIndex = -1;
-        while ((bitIndex = source.nextSetBit(bitIndex + 1)) >= 0) {
-            if (!dest.get(bitIndex)) {
-                return true;
-            }
-        }
-        return false;
-    }
-
     private static void processReads(LLVMLivenessReadVisitor readVisitor, Instruction instruction) {
         instruction.accept(readVisitor);
     }
@@ -461,6 +478,10 @@ public final class LLVMLivenessAnalysis {
         SulongEngineOption.getStream(context.getEnv().getOptions().get(SulongEngineOption.PRINT_LIFE_TIME_ANALYSIS_STATS)).println(builder.toString());
     }
 
+    private static String formatLocals(FrameDescriptor frame, LivenessBitSet slots) {
+        return formatLocals(frame, slots.toBitSet());
+    }
+
     private static String formatLocals(FrameDescriptor frame, BitSet bitSet) {
         StringBuilder result = new StringBuilder();
         int bitIndex = -1;
@@ -722,24 +743,119 @@ public final class LLVMLivenessAnalysis {
     }
 
     private static class BlockInfo {
-        public final BitSet in;
-        public final BitSet out;
+        public final LivenessBitSet in;
+        public final LivenessBitSet out;
 
-        public final BitSet gen;
-        public final BitSet kill;
-        public final BitSet defs;
-        public final BitSet phiDefs;
-        public final BitSet phiUses;
+        public final LivenessBitSet gen;
+        public final LivenessBitSet kill;
+        public final LivenessBitSet defs;
+        public final LivenessBitSet phiDefs;
+        public final LivenessBitSet phiUses;
 
         BlockInfo(int frameSlots) {
-            this.in = new BitSet(frameSlots);
-            this.out = new BitSet(frameSlots);
-
-            this.gen = new BitSet(frameSlots);
-            this.kill = new BitSet(frameSlots);
-            this.defs = new BitSet(frameSlots);
-            this.phiDefs = new BitSet(frameSlots);
-            this.phiUses = new BitSet(frameSlots);
+            this.in = new LivenessBitSet(frameSlots);
+            this.out = new LivenessBitSet(frameSlots);
+
+            this.gen = new LivenessBitSet(frameSlots);
+            this.kill = new LivenessBitSet(frameSlots);
+            this.defs = new LivenessBitSet(frameSlots);
+            this.phiDefs = new LivenessBitSet(frameSlots);
+            this.phiUses = new LivenessBitSet(frameSlots);
+        }
+    }
+
+    /**
+     * A fixed-size bit set, e.g., over the frame slots of a function. Unlike {@link BitSet}, it
+     * gives the fixed-point iteration direct access to the words, so that the transfer functions
+     * and the detection of changes are computed in a single pass.
+     */
+    private static final class LivenessBitSet {
+        private final long[] words;
+
+        LivenessBitSet(int size) {
+            this.words = new long[(size + Long.SIZE - 1) / Long.SIZE];
+        }
+
+        boolean get(int index) {
+            return (words[index / Long.SIZE] & (1L << index)) != 0;
+        }
+
+        void set(int index) {
+            words[index / Long.SIZE] |= 1L << index;
+        }
+
+        void clear(int index) {
+            words[index / Long.SIZE] &= ~(1L << index);
+        }
+
+        void setAll(int size) {
+            Arrays.fill(words, -1L);
+            if (size % Long.SIZE != 0) {
+                words[words.length - 1] = (1L << size) - 1;
+            }
+        }
+
+        void clear() {
+            Arrays.fill(words, 0L);
+        }
+
+        void or(LivenessBitSet other) {
+            for (int i = 0; i < words.length; i++) {
+                words[i] |= other.words[i];
+            }
+        }
+
+        void andNot(LivenessBitSet other) {
+            for (int i = 0; i < words.length; i++) {
+                words[i] &= ~other.words[i];
+            }
+        }
+
+        /**
+         * this = (out - defs) + gen + phiDefs, i.e., the values that are alive when entering a
+         * block.
+         */
+        void setTransfer(LivenessBitSet out, LivenessBitSet defs, LivenessBitSet gen, LivenessBitSet phiDefs) {
+            for (int i = 0; i < words.length; i++) {
+                words[i] = (out.words[i] & ~defs.words[i]) | gen.words[i] | phiDefs.words[i];
+            }
+        }
+
+        /**
+         * this += (in - phiDefs) + phiUses, i.e., adds the values that a successor needs to the
+         * values that are alive when leaving a block.
+         *
+         * @return true if this set changed
+         */
+        boolean orTransfer(LivenessBitSet in, LivenessBitSet phiDefs, LivenessBitSet phiUses) {
+            long changed = 0;
+            for (int i = 0; i < words.length; i++) {
+                long value = (in.words[i] & ~phiDefs.words[i]) | phiUses.words[i];
+                changed |= value & ~words[i];
+                words[i] |= value;
+            }
+            return changed != 0;
+        }
+
+        int nextSetBit(int fromIndex) {
+            int wordIndex = fromIndex / Long.SIZE;
+            if (wordIndex >= words.length) {
+                return -1;
+            }
+            long word = words[wordIndex] & (-1L << fromIndex);
+            while (true) {
+                if (word != 0) {
+                    return wordIndex * Long.SIZE + Long.numberOfTrailingZeros(word);
+                }
+                if (++wordIndex == words.length) {
+                    return -1;
+                }
+                word = words[wordIndex];
+            }
+        }
+
+        BitSet toBitSet() {
+            return BitSet.valueOf(words);
         }
     }
 
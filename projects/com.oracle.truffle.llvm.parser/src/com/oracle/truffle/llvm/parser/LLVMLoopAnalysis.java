@@ -0,0 +1,290 @@
+/*
+ * Copyright (c) 2018, Oracle and/or its affiliates.
+ *
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification, are
+ * permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this list of
+ * conditions and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice, this list of
+ * conditions and the following disclaimer in the documentation and/or other materials provided
+ * with the distribution.
+ *
+ * 3. Neither the name of the copyright holder nor the names of its contributors may be used to
+ * endorse or promote products derived from this software without specific prior written
+ * permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY EXPRESS
+ * OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE
+ * COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ * EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE
+ * GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED
+ * AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED
+ * OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.oracle.truffle.llvm.parser;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.List;
+
+import com.oracle.truffle.llvm.parser.model.blocks.InstructionBlock;
+import com.oracle.truffle.llvm.parser.model.functions.FunctionDefinition;
+import com.oracle.truffle.llvm.parser.model.symbols.instructions.TerminatingInstruction;
+
+/**
+ * Finds the natural loops of a function, i.e., the loops that are entered through a single header
+ * block which dominates all blocks of the loop. Irreducible control flow is ignored and remains
+ * handled by the function's block dispatch.
+ */
+public final class LLVMLoopAnalysis {
+
+    private LLVMLoopAnalysis() {
+    }
+
+    public static final class LLVMLoop {
+        private final int header;
+        private final BitSet body;
+        private final int[] successors;
+
+        private LLVMLoop(int header, BitSet body, int[] successors) {
+            this.header = header;
+            this.body = body;
+            this.successors = successors;
+        }
+
+        public int getHeader() {
+            return header;
+        }
+
+        /**
+         * The indices of all blocks in the loop, including the header and the blocks of nested
+         * loops.
+         */
+        public BitSet getBody() {
+            return body;
+        }
+
+        /**
+         * The indices of the blocks outside of the loop that the loop can exit to.
+         */
+        public int[] getSuccessors() {
+            return successors;
+        }
+    }
+
+    /**
+     * Computes the natural loops of a function. Loops that share a header are merged into one. The
+     * result is ordered so that every loop comes after all loops that are nested inside of it.
+     * Loops without an exit are omitted.
+     */
+    public static List<LLVMLoop> computeLoops(FunctionDefinition functionDefinition) {
+        List<InstructionBlock> blocks = functionDefinition.getBlocks();
+        int[][] successors = computeSuccessors(blocks);
+        int[][] predecessors = computePredecessors(successors);
+        int[] postOrder = computePostOrder(successors);
+        int[] dominators = computeDominators(postOrder, predecessors, blocks.size());
+
+        BitSet[] loopBodies = new BitSet[blocks.size()];
+        for (int block = 0; block < successors.length; block++) {
+            if (dominators[block] == -1) {
+                // unreachable
+                continue;
+            }
+            for (int header : successors[block]) {
+                if (dominates(dominators, header, block)) {
+                    if (loopBodies[header] == null) {
+                        loopBodies[header] = new BitSet(blocks.size());
+                        loopBodies[header].set(header);
+                    }
+                    addLoopBody(loopBodies[header], predecessors, dominators, block);
+                }
+            }
+        }
+
+        List<LLVMLoop> loops = new ArrayList<>();
+        for (int header = 0; header < loopBodies.length; header++) {
+            BitSet body = loopBodies[header];
+            if (body != null) {
+                int[] exits = computeExits(body, successors);
+                if (exits.length > 0) {
+                    loops.add(new LLVMLoop(header, body, exits));
+                }
+            }
+        }
+
+        // nested loops are strict subsets of their enclosing loops
+        Collections.sort(loops, (a, b) -> Integer.compare(a.body.cardinality(), b.body.cardinality()));
+        return loops;
+    }
+
+    private static int[][] computeSuccessors(List<InstructionBlock> blocks) {
+        int[][] result = new int[blocks.size()][];
+        for (InstructionBlock block : blocks) {
+            assert blocks.get(block.getBlockIndex()) == block;
+            TerminatingInstruction terminatingInstruction = block.getTerminatingInstruction();
+            int[] successors = new int[terminatingInstruction.getSuccessorCount()];
+            for (int i = 0; i < successors.length; i++) {
+                successors[i] = terminatingInstruction.getSuccessor(i).getBlockIndex();
+            }
+            result[block.getBlockIndex()] = successors;
+        }
+        return result;
+    }
+
+    private static int[][] computePredecessors(int[][] successors) {
+        int[] counts = new int[successors.length];
+        for (int[] blockSuccessors : successors) {
+            for (int successor : blockSuccessors) {
+                counts[successor]++;
+            }
+        }
+        int[][] result = new int[successors.length][];
+        for (int i = 0; i < successors.length; i++) {
+            result[i] = new int[counts[i]];
+        }
+        for (int block = 0; block < successors.length; block++) {
+            for (int successor : successors[block]) {
+                result[successor][--counts[successor]] = block;
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Returns the blocks reachable from the entry block in post order.
+     */
+    private static int[] computePostOrder(int[][] successors) {
+        int[] postOrder = new int[successors.length];
+        int postOrderCount = 0;
+
+        BitSet visited = new BitSet(successors.length);
+        int[] blockStack = new int[successors.length];
+        int[] successorStack = new int[successors.length];
+        int stackTop = 0;
+
+        blockStack[0] = 0;
+        visited.set(0);
+        while (stackTop >= 0) {
+            int block = blockStack[stackTop];
+            int successorIndex = successorStack[stackTop];
+            if (successorIndex < successors[block].length) {
+                successorStack[stackTop]++;
+                int successor = successors[block][successorIndex];
+                if (!visited.get(successor)) {
+                    visited.set(successor);
+                    stackTop++;
+                    blockStack[stackTop] = successor;
+                    successorStack[stackTop] = 0;
+                }
+            } else {
+                postOrder[postOrderCount++] = block;
+                stackTop--;
+            }
+        }
+        return Arrays.copyOf(postOrder, postOrderCount);
+    }
+
+    /**
+     * Computes the immediate dominator of each block (see Cooper, Harvey, Kennedy: "A Simple, Fast
+     * Dominance Algorithm"). The entry block is its own dominator, unreachable blocks get -1.
+     */
+    private static int[] computeDominators(int[] postOrder, int[][] predecessors, int blockCount) {
+        int[] postOrderNumber = new int[blockCount];
+        Arrays.fill(postOrderNumber, -1);
+        for (int i = 0; i < postOrder.length; i++) {
+            postOrderNumber[postOrder[i]] = i;
+        }
+
+        int[] dominators = new int[blockCount];
+        Arrays.fill(dominators, -1);
+        dominators[0] = 0;
+
+        boolean changed = true;
+        while (changed) {
+            changed = false;
+            // reverse post order, skipping the entry block
+            for (int i = postOrder.length - 2; i >= 0; i--) {
+                int block = postOrder[i];
+                int newDominator = -1;
+                for (int predecessor : predecessors[block]) {
+                    if (dominators[predecessor] == -1) {
+                        continue;
+                    }
+                    newDominator = newDominator == -1 ? predecessor : intersect(dominators, postOrderNumber, predecessor, newDominator);
+                }
+                if (dominators[block] != newDominator) {
+                    dominators[block] = newDominator;
+                    changed = true;
+                }
+            }
+        }
+        return dominators;
+    }
+
+    private static int intersect(int[] dominators, int[] postOrderNumber, int block1, int block2) {
+        int finger1 = block1;
+        int finger2 = block2;
+        while (finger1 != finger2) {
+            while (postOrderNumber[finger1] < postOrderNumber[finger2]) {
+                finger1 = dominators[finger1];
+            }
+            while (postOrderNumber[finger2] < postOrderNumber[finger1]) {
+                finger2 = dominators[finger2];
+            }
+        }
+        return finger1;
+    }
+
+    private static boolean dominates(int[] dominators, int dominator, int block) {
+        int current = block;
+        while (current != dominator) {
+            if (current == 0) {
+                return false;
+            }
+            current = dominators[current];
+        }
+        return true;
+    }
+
+    /**
+     * Adds all blocks that reach the source of the back edge without passing the loop header.
+     */
+    private static void addLoopBody(BitSet body, int[][] predecessors, int[] dominators, int backEdgeSource) {
+        if (body.get(backEdgeSource)) {
+            return;
+        }
+        int[] workList = new int[predecessors.length];
+        int workListSize = 0;
+        body.set(backEdgeSource);
+        workList[workListSize++] = backEdgeSource;
+        while (workListSize > 0) {
+            int block = workList[--workListSize];
+            for (int predecessor : predecessors[block]) {
+                if (!body.get(predecessor) && dominators[predecessor] != -1) {
+                    body.set(predecessor);
+                    workList[workListSize++] = predecessor;
+                }
+            }
+        }
+    }
+
+    private static int[] computeExits(BitSet body, int[][] successors) {
+        BitSet exits = new BitSet(successors.length);
+        for (int block = body.nextSetBit(0); block >= 0; block = body.nextSetBit(block + 1)) {
+            for (int successor : successors[block]) {
+                if (!body.get(successor)) {
+                    exits.set(successor);
+                }
+            }
+        }
+        return exits.stream().toArray();
+    }
+}
@@ -31,6 +31,7 @@ package com.oracle.truffle.llvm.parser;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 
 import com.oracle.truffle.api.source.Source;
 import com.oracle.truffle.llvm.parser.model.ModelModule;
@@ -53,6 +54,8 @@ import com.oracle.truffle.llvm.runtime.LLVMFunctionDescriptor.LazyLLVMIRFunction
 import com.oracle.truffle.llvm.runtime.LLVMSymbol;
 import com.oracle.truffle.llvm.runtime.datalayout.DataLayout;
 import com.oracle.truffle.llvm.runtime.debug.LLVMSourceContext;
+import com.oracle.truffle.llvm.runtime.debug.scope.LLVMSourceSymbol;
+import com.oracle.truffle.llvm.runtime.debug.type.LLVMSourceStaticMemberType;
 import com.oracle.truffle.llvm.runtime.debug.value.LLVMDebugObjectBuilder;
 import com.oracle.truffle.llvm.runtime.except.LLVMLinkerException;
 import com.oracle.truffle.llvm.runtime.global.LLVMGlobal;
@@ -230,18 +233,29 @@ public final class LLVMParser {
     private void createDebugInfo(ModelModule model, LLVMSymbolReadResolver symbolResolver) {
         if (context.getEnv().getOptions().get(SulongEngineOption.ENABLE_LVI)) {
             final LLVMSourceContext sourceContext = context.getSourceContext();
-
-            model.getSourceGlobals().forEach((symbol, irValue) -> {
-                final LLVMExpressionNode node = symbolResolver.resolve(irValue);
-                final LLVMDebugObjectBuilder value = context.getNodeFactory().createDebugStaticValue(node, irValue instanceof GlobalVariable);
-                sourceContext.registerStatic(symbol, value);
-            });
-
-            model.getSourceStaticMembers().forEach(((type, symbol) -> {
-                final LLVMExpressionNode node = symbolResolver.resolve(symbol);
-                final LLVMDebugObjectBuilder value = context.getNodeFactory().createDebugStaticValue(node, symbol instanceof GlobalVariable);
-                type.setValue(value);
-            }));
+            final Map<LLVMSourceSymbol, SymbolImpl> sourceGlobals = model.getSourceGlobals();
+            final Map<LLVMSourceStaticMemberType, SymbolImpl> sourceStaticMembers = model.getSourceStaticMembers();
+            if (sourceContext.isDebugInfoDeferred()) {
+                sourceContext.deferStatics(() -> createDebugInfo(sourceGlobals, sourceStaticMembers, symbolResolver));
+            } else {
+                createDebugInfo(sourceGlobals, sourceStaticMembers, symbolResolver);
+            }
         }
     }
+
+    private void createDebugInfo(Map<LLVMSourceSymbol, SymbolImpl> sourceGlobals, Map<LLVMSourceStaticMemberType, SymbolImpl> sourceStaticMembers, LLVMSymbolReadResolver symbolResolver) {
+        final LLVMSourceContext sourceContext = context.getSourceContext();
+
+        sourceGlobals.forEach((symbol, irValue) -> {
+            final LLVMExpressionNode node = symbolResolver.resolve(irValue);
+            final LLVMDebugObjectBuilder value = context.getNodeFactory().createDebugStaticValue(node, irValue instanceof GlobalVariable);
+            sourceContext.registerStatic(symbol, value);
+        });
+
+        sourceStaticMembers.forEach(((type, symbol) -> {
+            final LLVMExpressionNode node = symbolResolver.resolve(symbol);
+            final LLVMDebugObjectBuilder value = context.getNodeFactory().createDebugStaticValue(node, symbol instanceof GlobalVariable);
+            type.setValue(value);
+        }));
+    }
 }
@@ -64,7 +64,6 @@ import com.oracle.truffle.llvm.runtime.debug.value.LLVMDebugObjectBuilder;
 import com.oracle.truffle.llvm.runtime.debug.value.LLVMFrameValueAccess;
 import com.oracle.truffle.llvm.runtime.nodes.api.LLVMExpressionNode;
 import com.oracle.truffle.llvm.runtime.nodes.api.LLVMStatementNode;
-import com.oracle.truffle.llvm.runtime.options.SulongEngineOption;
 import com.oracle.truffle.llvm.runtime.types.FunctionType;
 import com.oracle.truffle.llvm.runtime.types.MetaType;
 import com.oracle.truffle.llvm.runtime.types.PointerType;
@@ -79,12 +78,12 @@ final class LLVMRuntimeDebugInformation {
     private final boolean isEnabled;
     private final StaticValueAccessVisitor staticValueAccessVisitor;
 
-    LLVMRuntimeDebugInformation(FrameDescriptor frame, LLVMContext context, List<FrameSlot> notNullableSlots, LLVMSymbolReadResolver symbols) {
+    LLVMRuntimeDebugInformation(FrameDescriptor frame, LLVMContext context, List<FrameSlot> notNullableSlots, LLVMSymbolReadResolver symbols, boolean isEnabled) {
         this.frame = frame;
         this.context = context;
         this.notNullableSlots = notNullableSlots;
         this.symbols = symbols;
-        this.isEnabled = context.getEnv().getOptions().get(SulongEngineOption.ENABLE_LVI);
+        this.isEnabled = isEnabled;
         this.staticValueAccessVisitor = new StaticValueAccessVisitor();
     }
 
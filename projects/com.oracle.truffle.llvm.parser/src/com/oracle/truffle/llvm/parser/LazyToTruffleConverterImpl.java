@@ -30,49 +30,70 @@
 package com.oracle.truffle.llvm.parser;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.BitSet;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 import com.oracle.truffle.api.CompilerAsserts;
 import com.oracle.truffle.api.RootCallTarget;
 import com.oracle.truffle.api.Truffle;
 import com.oracle.truffle.api.frame.FrameDescriptor;
 import com.oracle.truffle.api.frame.FrameSlot;
+import com.oracle.truffle.api.frame.FrameSlotKind;
+import com.oracle.truffle.api.nodes.RepeatingNode;
 import com.oracle.truffle.api.nodes.RootNode;
 import com.oracle.truffle.api.source.Source;
 import com.oracle.truffle.llvm.parser.LLVMLivenessAnalysis.LLVMLivenessAnalysisResult;
+import com.oracle.truffle.llvm.parser.LLVMLoopAnalysis.LLVMLoop;
 import com.oracle.truffle.llvm.parser.LLVMPhiManager.Phi;
 import com.oracle.truffle.llvm.parser.metadata.debuginfo.DebugInfoFunctionProcessor;
+import com.oracle.truffle.llvm.parser.model.SymbolImpl;
 import com.oracle.truffle.llvm.parser.model.attributes.Attribute;
 import com.oracle.truffle.llvm.parser.model.attributes.Attribute.Kind;
 import com.oracle.truffle.llvm.parser.model.attributes.Attribute.KnownAttribute;
 import com.oracle.truffle.llvm.parser.model.blocks.InstructionBlock;
 import com.oracle.truffle.llvm.parser.model.functions.FunctionDefinition;
 import com.oracle.truffle.llvm.parser.model.functions.FunctionParameter;
+import com.oracle.truffle.llvm.parser.model.functions.FunctionSymbol;
 import com.oracle.truffle.llvm.parser.model.functions.LazyFunctionParser;
+import com.oracle.truffle.llvm.parser.model.symbols.instructions.FunctionStart;
+import com.oracle.truffle.llvm.parser.model.symbols.instructions.Instruction;
 import com.oracle.truffle.llvm.parser.nodes.LLVMSymbolReadResolver;
 import com.oracle.truffle.llvm.runtime.GetStackSpaceFactory;
+import com.oracle.truffle.llvm.runtime.LLVMFunctionDescriptor;
 import com.oracle.truffle.llvm.runtime.LLVMFunctionDescriptor.LazyToTruffleConverter;
+import com.oracle.truffle.llvm.runtime.LLVMParsingStatistics;
+import com.oracle.truffle.llvm.runtime.LLVMParsingStatistics.Measurement;
+import com.oracle.truffle.llvm.runtime.LLVMSymbol;
+import com.oracle.truffle.llvm.runtime.NodeFactory;
 import com.oracle.truffle.llvm.runtime.debug.scope.LLVMSourceLocation;
 import com.oracle.truffle.llvm.runtime.debug.type.LLVMSourceFunctionType;
 import com.oracle.truffle.llvm.runtime.except.LLVMUserException;
 import com.oracle.truffle.llvm.runtime.memory.LLVMStack;
 import com.oracle.truffle.llvm.runtime.memory.LLVMStack.UniquesRegion;
+import com.oracle.truffle.llvm.runtime.nodes.api.LLVMControlFlowNode;
 import com.oracle.truffle.llvm.runtime.nodes.api.LLVMExpressionNode;
 import com.oracle.truffle.llvm.runtime.nodes.api.LLVMStatementNode;
+import com.oracle.truffle.llvm.runtime.options.SulongEngineOption;
 import com.oracle.truffle.llvm.runtime.types.PointerType;
 import com.oracle.truffle.llvm.runtime.types.PrimitiveType;
 import com.oracle.truffle.llvm.runtime.types.StructureType;
 import com.oracle.truffle.llvm.runtime.types.Type;
 
 public class LazyToTruffleConverterImpl implements LazyToTruffleConverter {
+    private static final String LOOP_SUCCESSOR_FRAME_ID = "<loop successor>";
+
     private final LLVMParserRuntime runtime;
     private final FunctionDefinition method;
     private final Source source;
     private final LazyFunctionParser parser;
     private final DebugInfoFunctionProcessor diProcessor;
 
+    private volatile LLVMFunctionDescriptor[] callees;
+
     LazyToTruffleConverterImpl(LLVMParserRuntime runtime, FunctionDefinition method, Source source, LazyFunctionParser parser,
                     DebugInfoFunctionProcessor diProcessor) {
         this.runtime = runtime;
@@ -85,16 +106,56 @@ public class LazyToTruffleConverterImpl implements LazyToTruffleConverter {
     @Override
     public RootCallTarget convert() {
         CompilerAsserts.neverPartOfCompilation();
+        LLVMParsingStatistics statistics = runtime.getContext().getParsingStatistics();
+        Measurement measurement = statistics.start();
 
         // parse the function block
         parser.parse(diProcessor, source, runtime);
 
-        // prepare the phis
-        final Map<InstructionBlock, List<Phi>> phis = LLVMPhiManager.getPhis(method);
-
         // setup the frameDescriptor
         final FrameDescriptor frame = StackManager.createFrame(method);
 
+        boolean deferDebugInfo = runtime.getContext().getSourceContext().isDebugInfoDeferred();
+        boolean isLVIEnabled = runtime.getContext().getEnv().getOptions().get(SulongEngineOption.ENABLE_LVI) && !deferDebugInfo;
+        LLVMExpressionNode body = createBody(frame, isLVIEnabled);
+        LLVMSourceLocation location = method.getLexicalScope();
+
+        NodeFactory nodeFactory = runtime.getContext().getNodeFactory();
+        RootNode rootNode = nodeFactory.createFunctionStartNode(body, frame, method.getName(), method.getSourceName(), method.getParameters().size(), source, location);
+        callees = collectCallees();
+        if (deferDebugInfo) {
+            // only the offsets of the function block are kept, it is parsed again once a debugger
+            // asks for the debug information
+            nodeFactory.deferFunctionDebugInfo(rootNode, () -> materializeDebugInfo(rootNode));
+        }
+        method.onAfterParse();
+
+        RootCallTarget callTarget = Truffle.getRuntime().createCallTarget(rootNode);
+        statistics.recordFunction(runtime.getLibrary().getName(), method.getName(), measurement);
+        return callTarget;
+    }
+
+    /**
+     * Parses the function block again and converts it, this time with the runtime debug
+     * information, and replaces the body of the function with it. The new body uses the same frame
+     * descriptor and only adds slots to it, so the frames of activations that are already running
+     * stay valid. Their source-level variables can be inspected as far as they are backed by IR
+     * values that the old body has not cleared yet.
+     */
+    private void materializeDebugInfo(RootNode rootNode) {
+        CompilerAsserts.neverPartOfCompilation();
+        // the parsed function was dropped after the first conversion
+        parser.reset();
+        parser.parse(diProcessor, source, runtime);
+        LLVMExpressionNode body = createBody(rootNode.getFrameDescriptor(), true);
+        runtime.getContext().getNodeFactory().replaceFunctionBody(rootNode, body);
+        method.onAfterParse();
+    }
+
+    private LLVMExpressionNode createBody(FrameDescriptor frame, boolean isLVIEnabled) {
+        // prepare the phis
+        final Map<InstructionBlock, List<Phi>> phis = LLVMPhiManager.getPhis(method);
+
         // setup the uniquesRegion
         UniquesRegion uniquesRegion = new UniquesRegion();
         GetStackSpaceFactory getStackSpaceFactory = GetStackSpaceFactory.createGetUniqueStackSpaceFactory(uniquesRegion);
@@ -103,7 +164,7 @@ public class LazyToTruffleConverterImpl implements LazyToTruffleConverter {
         LLVMSymbolReadResolver symbols = new LLVMSymbolReadResolver(runtime, frame, getStackSpaceFactory);
         List<FrameSlot> notNullable = new ArrayList<>();
 
-        LLVMRuntimeDebugInformation dbgInfoHandler = new LLVMRuntimeDebugInformation(frame, runtime.getContext(), notNullable, symbols);
+        LLVMRuntimeDebugInformation dbgInfoHandler = new LLVMRuntimeDebugInformation(frame, runtime.getContext(), notNullable, symbols, isLVIEnabled);
         dbgInfoHandler.registerStaticDebugSymbols(method);
 
         LLVMBitcodeFunctionVisitor visitor = new LLVMBitcodeFunctionVisitor(runtime.getContext(), runtime.getLibrary(), frame, uniquesRegion, phis, method.getParameters().size(), symbols, method,
@@ -115,14 +176,12 @@ public class LazyToTruffleConverterImpl implements LazyToTruffleConverter {
 
         List<LLVMStatementNode> copyArgumentsToFrame = copyArgumentsToFrame(frame);
         LLVMStatementNode[] copyArgumentsToFrameArray = copyArgumentsToFrame.toArray(new LLVMStatementNode[copyArgumentsToFrame.size()]);
-        LLVMExpressionNode body = runtime.getContext().getNodeFactory().createFunctionBlockNode(frame.findFrameSlot(LLVMUserException.FRAME_SLOT_ID), visitor.getBlocks(), uniquesRegion.build(),
+        List<LLVMStatementNode> blocks = visitor.getBlocks();
+        if (runtime.getContext().getEnv().getOptions().get(SulongEngineOption.LOOP_OSR)) {
+            blocks = resolveLoops(frame, blocks, nullableBeforeBlock, nullableAfterBlock);
+        }
+        return runtime.getContext().getNodeFactory().createFunctionBlockNode(frame.findFrameSlot(LLVMUserException.FRAME_SLOT_ID), blocks, uniquesRegion.build(),
                         nullableBeforeBlock, nullableAfterBlock, location, copyArgumentsToFrameArray);
-
-        RootNode rootNode = runtime.getContext().getNodeFactory().createFunctionStartNode(body, frame, method.getName(), method.getSourceName(),
-                        method.getParameters().size(), source, location);
-        method.onAfterParse();
-
-        return Truffle.getRuntime().createCallTarget(rootNode);
     }
 
     @Override
@@ -130,6 +189,72 @@ public class LazyToTruffleConverterImpl implements LazyToTruffleConverter {
         return method.getSourceFunction().getSourceType();
     }
 
+    @Override
+    public LLVMFunctionDescriptor[] getCallees() {
+        return callees;
+    }
+
+    private LLVMFunctionDescriptor[] collectCallees() {
+        Set<LLVMFunctionDescriptor> result = new LinkedHashSet<>();
+        for (InstructionBlock block : method.getBlocks()) {
+            for (int i = 0; i < block.getInstructionCount(); i++) {
+                Instruction instruction = block.getInstruction(i);
+                if (instruction instanceof FunctionStart) {
+                    SymbolImpl target = ((FunctionStart) instruction).getCallTarget();
+                    if (target instanceof FunctionSymbol) {
+                        LLVMSymbol symbol = runtime.getFileScope().get(((FunctionSymbol) target).getName());
+                        if (symbol != null && symbol.isFunction()) {
+                            result.add(symbol.asFunction());
+                        }
+                    }
+                }
+            }
+        }
+        return result.toArray(new LLVMFunctionDescriptor[result.size()]);
+    }
+
+    /**
+     * Replaces the header of every natural loop with a block that executes the whole loop in a
+     * Truffle loop node. The blocks of a loop are moved into the loop node, so the returned list
+     * contains {@code null} for every block that is only reachable from within a loop.
+     */
+    private List<LLVMStatementNode> resolveLoops(FrameDescriptor frame, List<LLVMStatementNode> blocks, FrameSlot[][] nullableBeforeBlock, FrameSlot[][] nullableAfterBlock) {
+        List<LLVMLoop> loops = LLVMLoopAnalysis.computeLoops(method);
+        if (loops.isEmpty()) {
+            return blocks;
+        }
+
+        NodeFactory nodeFactory = runtime.getContext().getNodeFactory();
+        FrameSlot exceptionValueSlot = frame.findFrameSlot(LLVMUserException.FRAME_SLOT_ID);
+        FrameSlot successorSlot = frame.findOrAddFrameSlot(LOOP_SUCCESSOR_FRAME_ID, PrimitiveType.I32, FrameSlotKind.Int);
+
+        // inner loops come first, so their blocks are already replaced when the enclosing loop is
+        // processed
+        LLVMStatementNode[] nodes = blocks.toArray(new LLVMStatementNode[blocks.size()]);
+        for (LLVMLoop loop : loops) {
+            int header = loop.getHeader();
+            int[] indexMapping = new int[nodes.length];
+            Arrays.fill(indexMapping, -1);
+            List<LLVMStatementNode> bodyNodes = new ArrayList<>();
+            bodyNodes.add(nodes[header]);
+            indexMapping[header] = 0;
+
+            BitSet body = loop.getBody();
+            for (int block = body.nextSetBit(0); block >= 0; block = body.nextSetBit(block + 1)) {
+                if (block != header && nodes[block] != null) {
+                    indexMapping[block] = bodyNodes.size();
+                    bodyNodes.add(nodes[block]);
+                    nodes[block] = null;
+                }
+            }
+
+            RepeatingNode loopBody = nodeFactory.createLoopDispatchNode(exceptionValueSlot, successorSlot, bodyNodes, indexMapping, nullableBeforeBlock, nullableAfterBlock);
+            LLVMControlFlowNode loopNode = nodeFactory.createLoop(loopBody, successorSlot, loop.getSuccessors());
+            nodes[header] = nodeFactory.createBasicBlockNode(new LLVMStatementNode[0], loopNode, header, method.getBlocks().get(header).getName());
+        }
+        return Arrays.asList(nodes);
+    }
+
     private static FrameSlot[][] getNullableFrameSlots(FrameDescriptor frame, BitSet[] nullablePerBlock, List<FrameSlot> notNullable) {
         List<? extends FrameSlot> frameSlots = frame.getSlots();
         FrameSlot[][] result = new FrameSlot[nullablePerBlock.length][];
@@ -84,9 +84,23 @@ public class ValueList<V extends ValueList.Value<V, C>, C extends ValueList.Valu
 
     private final ArrayList<V> valueList;
 
+    // the values of the parent list precede the own ones and must not change anymore
+    private final ValueList<V, C> parent;
+    private final int parentSize;
+
     public ValueList(PlaceholderFactory<V, C> placeholderFactory) {
+        this(placeholderFactory, null);
+    }
+
+    /**
+     * Creates a list that starts with the values of the given list without copying them. This
+     * allows to parse a local scope in a list of its own instead of in the shared parent list.
+     */
+    protected ValueList(PlaceholderFactory<V, C> placeholderFactory, ValueList<V, C> parent) {
         this.placeholderFactory = placeholderFactory;
         this.valueList = new ArrayList<>();
+        this.parent = parent;
+        this.parentSize = parent != null ? parent.size() : 0;
         this.forwardReferences = new HashMap<>();
         this.nextUnresolved = NO_UNRESOLVED_VALUES;
         this.unresolvedIndices = new LinkedList<>();
@@ -141,8 +155,16 @@ public class ValueList<V extends ValueList.Value<V, C>, C extends ValueList.Valu
         }
     }
 
+    private V get(int index) {
+        if (index < parentSize) {
+            return parent.get(index);
+        } else {
+            return valueList.get(index - parentSize);
+        }
+    }
+
     public void add(V newValue) {
-        final int valueIndex = valueList.size();
+        final int valueIndex = size();
 
         valueList.add(newValue);
 
@@ -152,8 +174,8 @@ public class ValueList<V extends ValueList.Value<V, C>, C extends ValueList.Valu
     }
 
     public V getForwardReferenced(int index, V dependent) {
-        if (index >= 0 && index < valueList.size()) {
-            return valueList.get(index);
+        if (index >= 0 && index < size()) {
+            return get(index);
         } else {
             final ForwardReference ref = getReference(index);
             ref.addDependent(dependent);
@@ -162,16 +184,16 @@ public class ValueList<V extends ValueList.Value<V, C>, C extends ValueList.Valu
     }
 
     public V getOrNull(int index) {
-        if (index >= 0 && index < valueList.size()) {
-            return valueList.get(index);
+        if (index >= 0 && index < size()) {
+            return get(index);
         } else {
             return null;
         }
     }
 
     public void onParse(int index, Consumer<V> action) {
-        if (index < valueList.size()) {
-            action.accept(valueList.get(index));
+        if (index < size()) {
+            action.accept(get(index));
         } else {
             getReference(index).addCallBack(action);
         }
@@ -187,10 +209,13 @@ public class ValueList<V extends ValueList.Value<V, C>, C extends ValueList.Valu
     }
 
     public int size() {
-        return valueList.size();
+        return parentSize + valueList.size();
     }
 
     public void accept(C visitor) {
+        if (parent != null) {
+            parent.accept(visitor);
+        }
         for (V value : valueList) {
             value.accept(visitor);
         }
@@ -42,12 +42,16 @@ public final class ElfFile {
     private final ElfHeader header;
     private final ElfSectionHeaderTable sectionHeaderTable;
     private final ElfDynamicSection dynamicSection;
+    private final ByteBuffer data;
+    private final boolean is64Bit;
 
-    private ElfFile(ElfHeader header, ElfSectionHeaderTable sectionHeaderTable, ElfDynamicSection dynamicSection) {
+    private ElfFile(ElfHeader header, ElfSectionHeaderTable sectionHeaderTable, ElfDynamicSection dynamicSection, ByteBuffer data, boolean is64Bit) {
         super();
         this.header = header;
         this.sectionHeaderTable = sectionHeaderTable;
         this.dynamicSection = dynamicSection;
+        this.data = data;
+        this.is64Bit = is64Bit;
     }
 
     public static ElfFile create(ByteBuffer data) {
@@ -59,7 +63,7 @@ public final class ElfFile {
         ElfHeader header = ElfHeader.create(data, is64Bit);
         ElfSectionHeaderTable sectionHeaderTable = ElfSectionHeaderTable.create(header, data, is64Bit);
         ElfDynamicSection dynamicSection = ElfDynamicSection.create(sectionHeaderTable, data, is64Bit);
-        return new ElfFile(header, sectionHeaderTable, dynamicSection);
+        return new ElfFile(header, sectionHeaderTable, dynamicSection, data.duplicate().order(order), is64Bit);
     }
 
     public ElfHeader getHeader() {
@@ -74,6 +78,16 @@ public final class ElfFile {
         return sectionHeaderTable;
     }
 
+    /**
+     * Reads the dynamic symbol table. Unlike the other parts of the file, it is only read on
+     * demand, because most files are only inspected for their bitcode section.
+     *
+     * @return The dynamic symbol table, or {@code null} if the file does not have one.
+     */
+    public ElfSymbolTable getDynamicSymbolTable() {
+        return ElfSymbolTable.createDynamic(sectionHeaderTable, data, is64Bit);
+    }
+
     private static boolean isBigEndian(ByteBuffer ident) {
         return ident.get(EI_DATA) == ELFDATA2MSB;
     }
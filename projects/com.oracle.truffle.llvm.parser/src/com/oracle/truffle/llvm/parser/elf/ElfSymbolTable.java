@@ -0,0 +1,162 @@
+/*
+ * Copyright (c) 2018, Oracle and/or its affiliates.
+ *
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification, are
+ * permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this list of
+ * conditions and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice, this list of
+ * conditions and the following disclaimer in the documentation and/or other materials provided
+ * with the distribution.
+ *
+ * 3. Neither the name of the copyright holder nor the names of its contributors may be used to
+ * endorse or promote products derived from this software without specific prior written
+ * permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY EXPRESS
+ * OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE
+ * COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ * EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE
+ * GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED
+ * AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED
+ * OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.oracle.truffle.llvm.parser.elf;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * The dynamic symbol table ({@code .dynsym}) of an ELF file, i.e., the symbols that the dynamic
+ * linker can see.
+ */
+public final class ElfSymbolTable {
+
+    private static final int SHT_DYNSYM = 11;
+
+    private static final int ELF32_SYM_SIZE = 16;
+    private static final int ELF64_SYM_SIZE = 24;
+
+    private static final int SHN_UNDEF = 0;
+
+    private static final int STB_GLOBAL = 1;
+    private static final int STB_WEAK = 2;
+    private static final int STB_GNU_UNIQUE = 10;
+
+    private static final int STV_HIDDEN = 2;
+    private static final int STV_INTERNAL = 1;
+
+    private static final class Entry {
+        private final int name;
+        private final byte info;
+        private final byte other;
+        private final short shndx;
+
+        private Entry(int name, byte info, byte other, short shndx) {
+            this.name = name;
+            this.info = info;
+            this.other = other;
+            this.shndx = shndx;
+        }
+
+        private int getBinding() {
+            return (info & 0xff) >>> 4;
+        }
+
+        private int getVisibility() {
+            return other & 0x3;
+        }
+
+        private boolean isExported() {
+            int binding = getBinding();
+            int visibility = getVisibility();
+            return (shndx & 0xffff) != SHN_UNDEF && (binding == STB_GLOBAL || binding == STB_WEAK || binding == STB_GNU_UNIQUE) && visibility != STV_HIDDEN &&
+                            visibility != STV_INTERNAL;
+        }
+    }
+
+    private final Entry[] entries;
+    private final ByteBuffer stringTable;
+
+    private ElfSymbolTable(Entry[] entries, ByteBuffer stringTable) {
+        this.entries = entries;
+        this.stringTable = stringTable;
+    }
+
+    public static ElfSymbolTable createDynamic(ElfSectionHeaderTable sht, ByteBuffer buffer, boolean is64Bit) {
+        ElfSectionHeaderTable.Entry[] sections = sht.getEntries();
+        for (ElfSectionHeaderTable.Entry e : sections) {
+            if (e.getType() == SHT_DYNSYM && e.getLink() >= 0 && e.getLink() < sections.length) {
+                ElfSectionHeaderTable.Entry strTab = sections[e.getLink()];
+                ByteBuffer data = buffer.duplicate();
+                data.position((int) strTab.getOffset());
+                data.limit((int) (strTab.getOffset() + strTab.getSize()));
+                return new ElfSymbolTable(readEntries(buffer, is64Bit, e.getOffset(), e.getSize()), data.slice());
+            }
+        }
+        return null;
+    }
+
+    private static Entry[] readEntries(ByteBuffer buffer, boolean is64Bit, long offset, long size) {
+        int entrySize = is64Bit ? ELF64_SYM_SIZE : ELF32_SYM_SIZE;
+        Entry[] entries = new Entry[(int) (size / entrySize)];
+        buffer.position((int) offset);
+        for (int i = 0; i < entries.length; i++) {
+            int name = buffer.getInt();
+            if (is64Bit) {
+                byte info = buffer.get();
+                byte other = buffer.get();
+                short shndx = buffer.getShort();
+                // value, size
+                buffer.position(buffer.position() + 2 * Long.BYTES);
+                entries[i] = new Entry(name, info, other, shndx);
+            } else {
+                // value, size
+                buffer.position(buffer.position() + 2 * Integer.BYTES);
+                byte info = buffer.get();
+                byte other = buffer.get();
+                short shndx = buffer.getShort();
+                entries[i] = new Entry(name, info, other, shndx);
+            }
+        }
+        return entries;
+    }
+
+    /**
+     * @return The names of the symbols that are defined in this file and visible to other files.
+     */
+    public List<String> getExportedSymbols() {
+        List<String> result = new ArrayList<>();
+        for (Entry e : entries) {
+            if (e.isExported()) {
+                String name = getString(e.name);
+                if (!name.isEmpty()) {
+                    result.add(name);
+                }
+            }
+        }
+        return result;
+    }
+
+    private String getString(int offset) {
+        if (offset < 0 || offset >= stringTable.limit()) {
+            return "";
+        }
+        StringBuilder sb = new StringBuilder();
+        for (int i = offset; i < stringTable.limit(); i++) {
+            byte b = stringTable.get(i);
+            if (b == 0) {
+                break;
+            }
+            sb.append((char) b);
+        }
+        return sb.toString();
+    }
+}
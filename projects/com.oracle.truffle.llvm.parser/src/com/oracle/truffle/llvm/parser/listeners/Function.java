@@ -107,10 +107,12 @@ public final class Function implements ParserListener {
 
     private final ParameterAttributes paramAttributes;
 
-    private final IRScope scope;
+    private final IRScope moduleScope;
 
-    Function(IRScope scope, Types types, FunctionDefinition function, int mode, ParameterAttributes paramAttributes) {
-        this.scope = scope;
+    private IRScope scope;
+
+    Function(IRScope moduleScope, Types types, FunctionDefinition function, int mode, ParameterAttributes paramAttributes) {
+        this.moduleScope = moduleScope;
         this.types = types;
         this.function = function;
         this.mode = mode;
@@ -118,7 +120,14 @@ public final class Function implements ParserListener {
     }
 
     public void setupScope() {
+        // functions are parsed after the module, the local values go to a scope of their own so
+        // that different functions of the module can be parsed concurrently
+        scope = moduleScope.createFunctionScope();
         scope.startLocalScope(function);
+        instructionBlock = null;
+        isLastBlockTerminated = true;
+        lastLocation = null;
+        implicitIndices.clear();
         final FunctionType functionType = function.getType();
         for (Type argType : functionType.getArgumentTypes()) {
             scope.addSymbol(function.createParameter(argType), argType);
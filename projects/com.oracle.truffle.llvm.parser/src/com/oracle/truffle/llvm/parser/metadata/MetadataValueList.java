@@ -56,7 +56,7 @@ public final class MetadataValueList extends ValueList<MDBaseNode, MetadataVisit
     };
 
     private final Map<String, MDNamedNode> namedNodes;
-    private final Map<String, MDCompositeType> mdTypeRegistry = new HashMap<>();
+    private final Map<String, MDCompositeType> mdTypeRegistry;
     private final List<MDKind> kinds;
     private final List<MDLocalVariable> locals;
     private final List<MDBaseNode> exportedScopes;
@@ -64,11 +64,26 @@ public final class MetadataValueList extends ValueList<MDBaseNode, MetadataVisit
     public MetadataValueList() {
         super(PLACEHOLDER_FACTORY);
         this.namedNodes = new HashMap<>();
+        this.mdTypeRegistry = new HashMap<>();
         this.kinds = new ArrayList<>();
         this.locals = new ArrayList<>();
         this.exportedScopes = new ArrayList<>();
     }
 
+    /**
+     * Creates the list of a function's local metadata. Named nodes and kinds only occur at module
+     * level and are shared with the module's list, just like the registry of identified types
+     * that the debug information of all functions uses.
+     */
+    public MetadataValueList(MetadataValueList parent) {
+        super(PLACEHOLDER_FACTORY, parent);
+        this.namedNodes = parent.namedNodes;
+        this.mdTypeRegistry = parent.mdTypeRegistry;
+        this.kinds = parent.kinds;
+        this.locals = new ArrayList<>();
+        this.exportedScopes = new ArrayList<>();
+    }
+
     public void addKind(MDKind newKind) {
         kinds.add(newKind);
     }
@@ -126,11 +141,15 @@ public final class MetadataValueList extends ValueList<MDBaseNode, MetadataVisit
     }
 
     public MDCompositeType identifyType(String name) {
-        return mdTypeRegistry.get(name);
+        synchronized (mdTypeRegistry) {
+            return mdTypeRegistry.get(name);
+        }
     }
 
     public void registerType(String identifier, MDCompositeType type) {
-        mdTypeRegistry.put(identifier, type);
+        synchronized (mdTypeRegistry) {
+            mdTypeRegistry.put(identifier, type);
+        }
     }
 
     public void registerLocal(MDLocalVariable mdLocal) {
@@ -91,7 +91,11 @@ public final class DebugInfoFunctionProcessor {
         this.cache = cache;
     }
 
-    public void process(FunctionDefinition function, IRScope scope, Source bitcodeSource, LLVMContext context) {
+    /**
+     * The debug information of all functions of a module shares one cache, so functions that are
+     * parsed concurrently are processed one at a time.
+     */
+    public synchronized void process(FunctionDefinition function, IRScope scope, Source bitcodeSource, LLVMContext context) {
         ImportsProcessor.process(scope.getMetadata(), context, cache);
         initSourceFunction(function, bitcodeSource);
         function.accept((FunctionVisitor) new SymbolProcessor(function.getSourceFunction()));
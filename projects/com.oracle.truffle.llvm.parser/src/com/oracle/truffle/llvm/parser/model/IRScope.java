@@ -48,6 +48,9 @@ public final class IRScope {
     private final List<Instruction> instructions;
     private final MetadataValueList metadata;
 
+    private final IRScope parent;
+    private final int parentValueCount;
+
     private FunctionDefinition currentFunction;
     private int valueTypesScopeStart;
 
@@ -56,26 +59,50 @@ public final class IRScope {
         valueTypes = new ArrayList<>();
         instructions = new ArrayList<>();
         metadata = new MetadataValueList();
+        parent = null;
+        parentValueCount = 0;
         currentFunction = null;
         valueTypesScopeStart = GLOBAL_SCOPE_START;
     }
 
+    private IRScope(IRScope parent) {
+        symbols = new SymbolTable(parent.symbols);
+        valueTypes = new ArrayList<>();
+        instructions = new ArrayList<>();
+        metadata = new MetadataValueList(parent.metadata);
+        this.parent = parent;
+        parentValueCount = parent.getNextValueIndex();
+        currentFunction = null;
+        valueTypesScopeStart = GLOBAL_SCOPE_START;
+    }
+
+    /**
+     * Creates a scope for parsing a function that sees all values of this scope but adds the
+     * local ones to lists of its own. This scope must not change anymore, but can then be shared
+     * by functions that are parsed concurrently.
+     */
+    public IRScope createFunctionScope() {
+        return new IRScope(this);
+    }
+
     public void addSymbol(SymbolImpl symbol, Type type) {
         symbols.add(symbol);
         valueTypes.add(type);
     }
 
     public boolean isValueForwardRef(long index) {
-        return index >= valueTypes.size();
+        return index >= getNextValueIndex();
     }
 
     public int getNextValueIndex() {
-        return valueTypes.size();
+        return parentValueCount + valueTypes.size();
     }
 
     public Type getValueType(int i) {
-        if (i < valueTypes.size()) {
-            return valueTypes.get(i);
+        if (i < parentValueCount) {
+            return parent.getValueType(i);
+        } else if (i < getNextValueIndex()) {
+            return valueTypes.get(i - parentValueCount);
         } else {
             return null;
         }
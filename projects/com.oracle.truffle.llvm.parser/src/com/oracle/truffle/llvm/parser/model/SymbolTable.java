@@ -65,6 +65,10 @@ public final class SymbolTable extends ValueList<SymbolImpl, SymbolVisitor> {
         super(PLACEHOLDER_FACTORY);
     }
 
+    SymbolTable(SymbolTable parent) {
+        super(PLACEHOLDER_FACTORY, parent);
+    }
+
     public void nameSymbol(int index, String name) {
         final SymbolImpl symbol = getOrNull(index);
         if (symbol instanceof ValueSymbol) {
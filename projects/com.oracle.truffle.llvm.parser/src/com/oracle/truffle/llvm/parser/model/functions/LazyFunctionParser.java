@@ -29,9 +29,13 @@
  */
 package com.oracle.truffle.llvm.parser.model.functions;
 
+import java.util.ArrayList;
+import java.util.List;
+
 import com.oracle.truffle.api.source.Source;
 import com.oracle.truffle.llvm.parser.LLVMParserRuntime;
 import com.oracle.truffle.llvm.parser.listeners.Function;
+import com.oracle.truffle.llvm.parser.metadata.MDAttachment;
 import com.oracle.truffle.llvm.parser.metadata.debuginfo.DebugInfoFunctionProcessor;
 import com.oracle.truffle.llvm.parser.scanner.LLVMScanner;
 import com.oracle.truffle.llvm.parser.text.LLSourceBuilder;
@@ -44,6 +48,7 @@ public final class LazyFunctionParser {
     private final LLSourceBuilder llSource;
 
     private boolean isParsed;
+    private List<MDAttachment> moduleAttachments;
 
     public LazyFunctionParser(LLVMScanner.LazyScanner scanner, Function parser, LLSourceBuilder llSource) {
         this.scanner = scanner;
@@ -52,10 +57,9 @@ public final class LazyFunctionParser {
         this.isParsed = false;
     }
 
-    public void parse(DebugInfoFunctionProcessor diProcessor, Source bitcodeSource, LLVMParserRuntime runtime) {
+    public synchronized void parse(DebugInfoFunctionProcessor diProcessor, Source bitcodeSource, LLVMParserRuntime runtime) {
         if (!isParsed) {
-            parser.setupScope();
-            scanner.scanBlock(parser);
+            scanInstructions();
             diProcessor.process(parser.getFunction(), parser.getScope(), bitcodeSource, runtime.getContext());
             if (runtime.getContext().getEnv().getOptions().get(SulongEngineOption.LL_DEBUG)) {
                 llSource.applySourceLocations(parser.getFunction(), runtime);
@@ -63,4 +67,38 @@ public final class LazyFunctionParser {
             isParsed = true;
         }
     }
+
+    /**
+     * Parses only the instructions of the function, without its debug information and source
+     * locations. This does not need a context, e.g., to analyze the function in a benchmark.
+     */
+    public synchronized void parseInstructions() {
+        if (!isParsed) {
+            scanInstructions();
+            isParsed = true;
+        }
+    }
+
+    /**
+     * Allows the function block to be parsed again after its symbols were dropped.
+     */
+    public synchronized void reset() {
+        isParsed = false;
+    }
+
+    private void scanInstructions() {
+        restoreModuleAttachments();
+        parser.setupScope();
+        scanner.scanBlock(parser);
+    }
+
+    private void restoreModuleAttachments() {
+        // attachments of the module are dropped together with those of the function block
+        final FunctionDefinition function = parser.getFunction();
+        if (moduleAttachments == null) {
+            moduleAttachments = function.hasAttachedMetadata() ? new ArrayList<>(function.getAttachedMetadata()) : new ArrayList<>();
+        } else if (!moduleAttachments.isEmpty()) {
+            function.getAttachedMetadata().addAll(moduleAttachments);
+        }
+    }
 }
@@ -30,34 +30,55 @@
 package com.oracle.truffle.llvm.parser.scanner;
 
 import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
 
+/**
+ * Random access to the bits of a bitcode stream. The scanner mostly reads sequentially, so the
+ * stream keeps a window of up to 64 bits that were fetched with a single word-sized load and
+ * serves reads from it until they leave the window.
+ */
 public final class BitStream {
 
     private static final int BYTE_BITS_SHIFT = 3;
     private static final int BYTE_BITS_MASK = 0x7;
 
+    /*
+     * A window starts at an arbitrary bit offset and thus always holds at least this many bits,
+     * unless it reaches the end of the stream. Wider fields are read in two halves.
+     */
+    private static final int MIN_WINDOW_BITS = Long.SIZE - Byte.SIZE + 1;
+    private static final int HALF_WORD_BITS = Integer.SIZE;
+
     private static final long BYTE_MASK = 0xffL;
     private final ByteBuffer bitstream;
+    private final long size;
+
+    private long window;
+    private long windowOffset;
+    private int windowBits;
 
     private BitStream(ByteBuffer bitstream) {
-        this.bitstream = bitstream;
+        // a duplicate does not change the byte order of the caller's buffer
+        this.bitstream = bitstream.duplicate().order(ByteOrder.LITTLE_ENDIAN);
+        this.size = (long) bitstream.limit() * Byte.SIZE;
     }
 
     public static BitStream create(ByteBuffer bytes) {
-
         return new BitStream(bytes);
     }
 
+    /**
+     * Creates a stream over the same bits that has its own window, so that both streams can be
+     * read by different threads.
+     */
+    BitStream duplicate() {
+        return new BitStream(bitstream);
+    }
+
     public static BitStream createFromBlob(long[] args, int blobStartIndex) {
-        final byte[] blob = new byte[(args.length - blobStartIndex) * Long.BYTES];
-        int to = 0;
-        for (int from = blobStartIndex; from < args.length; from++) {
-            final long l = args[from];
-            for (int i = 0; i < Long.BYTES; i++) {
-                blob[to++] = (byte) ((l >> (Byte.SIZE * i)) & BYTE_MASK);
-            }
-        }
-        return new BitStream(ByteBuffer.wrap(blob));
+        final ByteBuffer blob = ByteBuffer.allocate((args.length - blobStartIndex) * Long.BYTES).order(ByteOrder.LITTLE_ENDIAN);
+        blob.asLongBuffer().put(args, blobStartIndex, args.length - blobStartIndex);
+        return new BitStream(blob);
     }
 
     public static long widthVBR(long value, long width) {
@@ -71,35 +92,35 @@ public final class BitStream {
     }
 
     public long read(long offset, int bits) {
-        int byteIndex = (int) (offset >> BYTE_BITS_SHIFT);
-        int bitOffsetInByte = (int) (offset & BYTE_BITS_MASK);
-        int availableBits = Byte.SIZE - bitOffsetInByte;
-
-        long value = (bitstream.get(byteIndex++) & BYTE_MASK) >> bitOffsetInByte;
-        if (bits <= availableBits) {
-            return value & (BYTE_MASK >> (8 - bits));
+        if (bits > MIN_WINDOW_BITS) {
+            final long low = read(offset, HALF_WORD_BITS);
+            return low | (read(offset + HALF_WORD_BITS, bits - HALF_WORD_BITS) << HALF_WORD_BITS);
         }
-        int remainingBits = bits - availableBits;
-        int shift = availableBits;
-        while (true) {
-            byte byteValue = bitstream.get(byteIndex++);
-
-            if (remainingBits > Byte.SIZE) {
-                value = value | ((byteValue & BYTE_MASK) << shift);
-                remainingBits -= Byte.SIZE;
-                shift += Byte.SIZE;
-            } else {
-                return value | ((byteValue & (BYTE_MASK >> (Byte.SIZE - remainingBits))) << shift);
+
+        long relativeOffset = offset - windowOffset;
+        if (relativeOffset < 0 || relativeOffset + bits > windowBits) {
+            fill(offset);
+            if (bits > windowBits) {
+                throw new IndexOutOfBoundsException("Cannot read " + bits + " bits at offset " + offset);
             }
+            relativeOffset = 0;
         }
+
+        final long value = window >>> relativeOffset;
+        return value & ((1L << bits) - 1);
     }
 
     public long readVBR(long offset, int width) {
-        long value = 0;
-        long shift = 0;
-        long datum;
-        long o = offset;
-        long dmask = 1 << (width - 1);
+        long dmask = 1L << (width - 1);
+        long datum = read(offset, width);
+        if ((datum & dmask) == 0) {
+            // most values fit into a single chunk
+            return datum;
+        }
+
+        long value = datum & (dmask - 1);
+        long shift = width - 1;
+        long o = offset + width;
         do {
             datum = read(o, width);
             o += width;
@@ -109,8 +130,31 @@ public final class BitStream {
         return value;
     }
 
+    private void fill(long offset) {
+        final int byteIndex = (int) (offset >>> BYTE_BITS_SHIFT);
+        final int bitOffsetInByte = (int) (offset & BYTE_BITS_MASK);
+
+        long word;
+        int wordBytes;
+        if (byteIndex <= bitstream.limit() - Long.BYTES) {
+            word = bitstream.getLong(byteIndex);
+            wordBytes = Long.BYTES;
+        } else {
+            // the end of the stream is not a full word
+            word = 0;
+            wordBytes = Math.max(bitstream.limit() - byteIndex, 0);
+            for (int i = 0; i < wordBytes; i++) {
+                word |= (bitstream.get(byteIndex + i) & BYTE_MASK) << (i * Byte.SIZE);
+            }
+        }
+
+        window = word >>> bitOffsetInByte;
+        windowOffset = offset;
+        windowBits = wordBytes * Byte.SIZE - bitOffsetInByte;
+    }
+
     public long size() {
-        return bitstream.limit() * Byte.SIZE;
+        return size;
     }
 
     public ByteBuffer getBitstream() {
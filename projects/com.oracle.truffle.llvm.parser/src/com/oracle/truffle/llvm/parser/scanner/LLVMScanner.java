@@ -80,6 +80,8 @@ public final class LLVMScanner {
 
     private long offset;
 
+    private ScanRecording recording;
+
     private LLVMScanner(BitStream bitstream, ParserListener listener) {
         this.bitstream = bitstream;
         this.parser = listener;
@@ -89,13 +91,62 @@ public final class LLVMScanner {
     }
 
     public static ModelModule parse(ByteBuffer bytes, Source bcSource, LLVMContext context) {
+        ScanResult result = scan(bytes, bcSource);
+        return result == null ? null : result.complete(context);
+    }
+
+    /**
+     * Scans a bitcode file into its model without accessing the {@link LLVMContext}, so that
+     * independent files can be scanned concurrently. The returned result still needs to be
+     * {@linkplain ScanResult#complete completed}, which must happen in linking order.
+     *
+     * @return {@code null} if the input does not contain bitcode
+     */
+    public static ScanResult scan(ByteBuffer bytes, Source bcSource) {
+        return scan(bytes, bcSource, null);
+    }
+
+    /**
+     * Scans a bitcode file like {@link #scan(ByteBuffer, Source)} and additionally writes the
+     * events of the scan to the given recording, if there is one.
+     */
+    static ScanResult scan(ByteBuffer bytes, Source bcSource, ScanRecording recording) {
         assert bytes != null;
         if (!isSupportedFile(bytes)) {
             return null;
         }
 
         final ModelModule model = new ModelModule();
+        final ByteBuffer bitcode = getBitcode(bytes, model);
+        if (bitcode == null) {
+            return null;
+        }
 
+        BCFileRoot fileParser = parseBitcodeBlock(bitcode, model, bcSource, recording);
+        return new ScanResult(model, fileParser);
+    }
+
+    /**
+     * Builds the model of a bitcode file from the events of an earlier scan of the same file
+     * instead of decoding its bitstream. Lazily parsed blocks are still read from the file.
+     */
+    static ScanResult replay(ByteBuffer bytes, Source bcSource, ScanRecording recording) {
+        final ModelModule model = new ModelModule();
+        final ByteBuffer bitcode = getBitcode(bytes, model);
+        if (bitcode == null) {
+            return null;
+        }
+
+        final BCFileRoot fileParser = new BCFileRoot(model, bcSource);
+        final LLVMScanner scanner = new LLVMScanner(BitStream.create(bitcode), fileParser);
+        scanner.replay(recording);
+        return new ScanResult(model, fileParser);
+    }
+
+    /**
+     * @return the bitcode within the file, or {@code null} if it is an ELF file without bitcode
+     */
+    private static ByteBuffer getBitcode(ByteBuffer bytes, ModelModule model) {
         ByteBuffer b = bytes.duplicate();
         b.order(ByteOrder.LITTLE_ENDIAN);
         ByteBuffer bitcode;
@@ -134,10 +185,7 @@ public final class LLVMScanner {
         } else {
             throw new LLVMParserException("Not a valid input file!");
         }
-
-        parseBitcodeBlock(bitcode, model, bcSource, context);
-
-        return model;
+        return bitcode;
     }
 
     private static boolean isSupportedFile(ByteBuffer bytes) {
@@ -147,7 +195,7 @@ public final class LLVMScanner {
         return magicWord == BC_MAGIC_WORD || magicWord == WRAPPER_MAGIC_WORD || magicWord == ELF_MAGIC_WORD;
     }
 
-    private static void parseBitcodeBlock(ByteBuffer bitcode, ModelModule model, Source bcSource, LLVMContext context) {
+    private static BCFileRoot parseBitcodeBlock(ByteBuffer bitcode, ModelModule model, Source bcSource, ScanRecording recording) {
         final BitStream bitstream = BitStream.create(bitcode);
         final BCFileRoot fileParser = new BCFileRoot(model, bcSource);
         final LLVMScanner scanner = new LLVMScanner(bitstream, fileParser);
@@ -156,11 +204,87 @@ public final class LLVMScanner {
             throw new LLVMParserException("Not a valid Bitcode File!");
         }
 
+        scanner.recording = recording;
         scanner.scanToEnd();
+        // lazily parsed blocks are not part of the recording
+        scanner.recording = null;
+        if (recording != null) {
+            recording.end();
+        }
+        return fileParser;
+    }
+
+    private void replay(ScanRecording events) {
+        final Deque<ParserListener> listeners = new ArrayDeque<>();
+        ParserListener listener = parser;
+        while (true) {
+            final int event = events.nextEvent();
+            switch (event) {
+                case ScanRecording.ENTER_BLOCK:
+                    listeners.push(listener);
+                    listener = listener.enter(Block.lookup(events.next()));
+                    break;
+
+                case ScanRecording.EXIT_BLOCK:
+                    listener.exit();
+                    listener = listeners.pop();
+                    break;
+
+                case ScanRecording.RECORD: {
+                    final long id = events.next();
+                    listener.record(id, events.nextOps());
+                    break;
+                }
+
+                case ScanRecording.LAZY_BLOCK: {
+                    final Block lazyBlock = Block.lookup(events.next());
+                    final long startingOffset = events.next();
+                    final long endingOffset = events.next();
+                    final int startingIdSize = checkIdSize(events.next());
+                    checkOffsets(startingOffset, endingOffset);
+                    listener.skip(lazyBlock, new LazyScanner(bitstream, new HashMap<>(defaultAbbreviations), startingOffset, endingOffset, startingIdSize, lazyBlock));
+                    break;
+                }
+
+                case ScanRecording.BLOCKINFO_BLOCK: {
+                    // the abbreviations that are defined in here are needed by the lazy scanners,
+                    // so the block is scanned again
+                    offset = events.next();
+                    final long endingOffset = events.next();
+                    idSize = checkIdSize(events.next());
+                    checkOffsets(offset, endingOffset);
+                    parser = listener;
+                    scanToOffset(endingOffset);
+                    break;
+                }
 
-        // the root block does not exist in the LLVM file and is therefore never exited by the
-        // scanner
-        fileParser.exit(context);
+                case ScanRecording.END:
+                    if (!listeners.isEmpty()) {
+                        throw new LLVMParserException("Unexpected end of scan recording");
+                    }
+                    return;
+
+                default:
+                    throw new LLVMParserException("Unknown event in scan recording: " + event);
+            }
+        }
+    }
+
+    /**
+     * The offsets of a recording are only used after the replay has finished, when a lazy block is
+     * parsed, so they are checked in advance.
+     */
+    private void checkOffsets(long startingOffset, long endingOffset) {
+        if (startingOffset < 0 || startingOffset > endingOffset || endingOffset > bitstream.size()) {
+            throw new LLVMParserException("Invalid block offsets in scan recording: " + startingOffset + " - " + endingOffset);
+        }
+    }
+
+    private static int checkIdSize(long size) {
+        if (size <= 0 || size > Long.SIZE) {
+            throw new LLVMParserException("Invalid abbreviation id size in scan recording: " + size);
+        }
+        return (int) size;
     }
 
     private static <V> List<V> subList(List<V> original, int from) {
@@ -233,7 +357,7 @@ public final class LLVMScanner {
         AbbreviatedRecord[] records = abbreviationDefinitions.get(recordId - BuiltinIDs.CUSTOM_ABBREV_OFFSET);
         for (AbbreviatedRecord record : records) {
             if (record != null) {
-                record.scan();
+                record.scan(this);
             }
         }
         passRecordToParser();
@@ -259,7 +383,7 @@ public final class LLVMScanner {
             final boolean isLiteral = read(Primitive.USER_OPERAND_LITERALBIT) == 1;
             if (isLiteral) {
                 final long fixedValue = read(Primitive.USER_OPERAND_LITERAL);
-                operandScanners[i] = () -> recordBuffer.addOp(fixedValue);
+                operandScanners[i] = scanner -> scanner.recordBuffer.addOp(fixedValue);
 
             } else {
 
@@ -268,18 +392,18 @@ public final class LLVMScanner {
                 switch ((int) recordType) {
                     case AbbrevRecordId.FIXED: {
                         final int width = (int) read(Primitive.USER_OPERAND_DATA);
-                        operandScanners[i] = () -> {
-                            final long op = read(width);
-                            recordBuffer.addOp(op);
+                        operandScanners[i] = scanner -> {
+                            final long op = scanner.read(width);
+                            scanner.recordBuffer.addOp(op);
                         };
                         break;
                     }
 
                     case AbbrevRecordId.VBR: {
                         final int width = (int) read(Primitive.USER_OPERAND_DATA);
-                        operandScanners[i] = () -> {
-                            final long op = readVBR(width);
-                            recordBuffer.addOp(op);
+                        operandScanners[i] = scanner -> {
+                            final long op = scanner.readVBR(width);
+                            scanner.recordBuffer.addOp(op);
                         };
                         break;
                     }
@@ -292,25 +416,25 @@ public final class LLVMScanner {
                         break;
 
                     case AbbrevRecordId.CHAR6:
-                        operandScanners[i] = () -> {
-                            final long op = readChar();
-                            recordBuffer.addOp(op);
+                        operandScanners[i] = scanner -> {
+                            final long op = scanner.readChar();
+                            scanner.recordBuffer.addOp(op);
                         };
                         break;
 
                     case AbbrevRecordId.BLOB:
-                        operandScanners[i] = () -> {
-                            long blobLength = read(Primitive.USER_OPERAND_BLOB_LENGTH);
-                            alignInt();
+                        operandScanners[i] = scanner -> {
+                            long blobLength = scanner.read(Primitive.USER_OPERAND_BLOB_LENGTH);
+                            scanner.alignInt();
                             final long maxBlobPartLength = Long.SIZE / Primitive.USER_OPERAND_LITERAL.getBits();
-                            recordBuffer.ensureFits(blobLength / maxBlobPartLength);
+                            scanner.recordBuffer.ensureFits(blobLength / maxBlobPartLength);
                             while (blobLength > 0) {
                                 final long l = blobLength <= maxBlobPartLength ? blobLength : maxBlobPartLength;
-                                final long blobValue = read((int) (Primitive.USER_OPERAND_LITERAL.getBits() * l));
-                                recordBuffer.addOp(blobValue);
+                                final long blobValue = scanner.read((int) (Primitive.USER_OPERAND_LITERAL.getBits() * l));
+                                scanner.recordBuffer.addOp(blobValue);
                                 blobLength -= l;
                             }
-                            alignInt();
+                            scanner.alignInt();
                         };
                         break;
 
@@ -324,11 +448,11 @@ public final class LLVMScanner {
 
         if (containsArrayOperand) {
             final AbbreviatedRecord elementScanner = operandScanners[operandScanners.length - 1];
-            final AbbreviatedRecord arrayScanner = () -> {
-                final long arrayLength = read(Primitive.USER_OPERAND_ARRAY_LENGTH);
-                recordBuffer.ensureFits(arrayLength);
+            final AbbreviatedRecord arrayScanner = scanner -> {
+                final long arrayLength = scanner.read(Primitive.USER_OPERAND_ARRAY_LENGTH);
+                scanner.recordBuffer.ensureFits(arrayLength);
                 for (int j = 0; j < arrayLength; j++) {
-                    elementScanner.scan();
+                    elementScanner.scan(scanner);
                 }
             };
             operandScanners[operandScanners.length - 1] = arrayScanner;
@@ -338,6 +462,7 @@ public final class LLVMScanner {
     }
 
     private void enterSubBlock() {
+        final long blockIdOffset = offset - idSize;
         final long blockId = read(Primitive.SUBBLOCK_ID);
         final long newIdSize = read(Primitive.SUBBLOCK_ID_SIZE);
         alignInt();
@@ -349,11 +474,21 @@ public final class LLVMScanner {
 
         } else if (subBlock.parseLazily()) {
             final long endingOffset = offset + (numWords * Integer.SIZE);
-            final LazyScanner lazyScanner = new LazyScanner(new HashMap<>(defaultAbbreviations), offset, endingOffset, (int) newIdSize, subBlock);
+            final LazyScanner lazyScanner = new LazyScanner(bitstream, new HashMap<>(defaultAbbreviations), offset, endingOffset, (int) newIdSize, subBlock);
+            if (recording != null) {
+                recording.lazyBlock(blockId, offset, endingOffset, newIdSize);
+            }
             offset = endingOffset;
             parser.skip(subBlock, lazyScanner);
 
         } else {
+            if (recording != null) {
+                if (subBlock == Block.BLOCKINFO) {
+                    recording.blockInfoBlock(blockIdOffset, offset + (numWords * Integer.SIZE), idSize);
+                } else {
+                    recording.enterBlock(blockId);
+                }
+            }
             final int localAbbreviationDefinitionsOffset = defaultAbbreviations.getOrDefault(block, Collections.emptyList()).size();
             parents.push(new ScannerState(subList(abbreviationDefinitions, localAbbreviationDefinitionsOffset), block, idSize, parser));
             parser = parser.enter(subBlock);
@@ -410,6 +545,9 @@ public final class LLVMScanner {
     private void exitBlock() {
         alignInt();
         parser.exit();
+        if (recording != null && block != Block.BLOCKINFO) {
+            recording.exitBlock();
+        }
 
         if (parents.isEmpty()) {
             // after lazily parsed block
@@ -428,7 +566,12 @@ public final class LLVMScanner {
     }
 
     private void passRecordToParser() {
-        parser.record(recordBuffer.getId(), recordBuffer.getOps());
+        final long id = recordBuffer.getId();
+        final long[] ops = recordBuffer.getOps();
+        parser.record(id, ops);
+        if (recording != null && block != Block.BLOCKINFO) {
+            recording.record(id, ops);
+        }
         recordBuffer.invalidate();
     }
 
@@ -447,15 +590,22 @@ public final class LLVMScanner {
         passRecordToParser();
     }
 
-    public final class LazyScanner {
+    /**
+     * Scans a lazily parsed block. Every scan uses a scanner of its own, so that different blocks
+     * of the same file can be scanned concurrently.
+     */
+    public static final class LazyScanner {
 
+        private final BitStream bitstream;
         private final Map<Block, List<AbbreviatedRecord[]>> oldDefaultAbbreviations;
         private final long startingOffset;
         private final long endingOffset;
         private final int startingIdSize;
         private final Block startingBlock;
 
-        private LazyScanner(Map<Block, List<AbbreviatedRecord[]>> oldDefaultAbbreviations, long startingOffset, long endingOffset, int startingIdSize, Block startingBlock) {
+        private LazyScanner(BitStream bitstream, Map<Block, List<AbbreviatedRecord[]>> oldDefaultAbbreviations, long startingOffset, long endingOffset, int startingIdSize,
+                        Block startingBlock) {
+            this.bitstream = bitstream;
             this.oldDefaultAbbreviations = oldDefaultAbbreviations;
             this.startingOffset = startingOffset;
             this.endingOffset = endingOffset;
@@ -464,13 +614,41 @@ public final class LLVMScanner {
         }
 
         public void scanBlock(ParserListener lazyParser) {
-            assert parents.isEmpty();
-            defaultAbbreviations.clear();
-            defaultAbbreviations.putAll(oldDefaultAbbreviations);
-            offset = startingOffset;
-            parser = lazyParser;
-            startSubBlock(startingBlock, startingIdSize);
-            scanToOffset(endingOffset);
+            final LLVMScanner scanner = new LLVMScanner(bitstream.duplicate(), lazyParser);
+            scanner.defaultAbbreviations.putAll(oldDefaultAbbreviations);
+            scanner.offset = startingOffset;
+            scanner.startSubBlock(startingBlock, startingIdSize);
+            scanner.scanToOffset(endingOffset);
+        }
+    }
+
+    public static final class ScanResult {
+
+        private final ModelModule model;
+        private final BCFileRoot fileParser;
+
+        private ScanResult(ModelModule model, BCFileRoot fileParser) {
+            this.model = model;
+            this.fileParser = fileParser;
+        }
+
+        /**
+         * Gets the model without the steps that depend on the {@link LLVMContext}. It is complete
+         * enough to parse and analyze the functions, but not to execute them.
+         */
+        public ModelModule getIncompleteModel() {
+            return model;
+        }
+
+        /**
+         * Finishes the model with the steps that depend on the {@link LLVMContext}, e.g., the
+         * import of debug scopes that other files exported.
+         */
+        public ModelModule complete(LLVMContext context) {
+            // the root block does not exist in the LLVM file and is therefore never exited by the
+            // scanner
+            fileParser.exit(context);
+            return model;
         }
     }
 }
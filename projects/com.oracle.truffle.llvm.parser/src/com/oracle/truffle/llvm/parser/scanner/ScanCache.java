@@ -0,0 +1,192 @@
+/*
+ * Copyright (c) 2018, Oracle and/or its affiliates.
+ *
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification, are
+ * permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this list of
+ * conditions and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice, this list of
+ * conditions and the following disclaimer in the documentation and/or other materials provided
+ * with the distribution.
+ *
+ * 3. Neither the name of the copyright holder nor the names of its contributors may be used to
+ * endorse or promote products derived from this software without specific prior written
+ * permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY EXPRESS
+ * OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE
+ * COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ * EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE
+ * GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED
+ * AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED
+ * OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.oracle.truffle.llvm.parser.scanner;
+
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.UUID;
+import java.util.zip.CRC32;
+
+import com.oracle.truffle.api.TruffleFile;
+import com.oracle.truffle.api.source.Source;
+import com.oracle.truffle.llvm.parser.scanner.LLVMScanner.ScanResult;
+
+/**
+ * A persistent cache of {@linkplain ScanRecording scan recordings}, so that later runs can build
+ * the model of a bitcode file without decoding its bitstream. Entries are keyed by a SHA-256 hash
+ * of the bitcode and the Sulong version, so that an entry can only be replayed for exactly the
+ * bitcode it was recorded from, no matter where the bitcode comes from. Failing to read, write or
+ * replay an entry is not an error, the file is then scanned as usual.
+ */
+public final class ScanCache {
+
+    private static final int MAGIC_WORD = 0x53434e43;
+    private static final int FORMAT_VERSION = 2;
+
+    private static final String ENTRY_SUFFIX = ".scan";
+    private static final String TEMPORARY_SUFFIX = ".tmp";
+
+    private final TruffleFile directory;
+    private final byte[] version;
+
+    public ScanCache(TruffleFile directory, String version) {
+        this.directory = directory;
+        this.version = version.getBytes(StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Same as {@link LLVMScanner#scan(ByteBuffer, Source)}, but replays the cached scan of the file
+     * if there is one and caches the scan otherwise.
+     */
+    public ScanResult scan(ByteBuffer bytes, Source bcSource) {
+        final String key = computeKey(bytes);
+        final TruffleFile entry = directory.resolve(key + ENTRY_SUFFIX);
+
+        final ByteBuffer cached = load(entry);
+        if (cached != null) {
+            final ScanResult result = replay(bytes, bcSource, cached);
+            if (result != null) {
+                return result;
+            }
+            // the entry does not fit the file, scan the file again and replace the entry
+        }
+
+        final ScanRecording recording = ScanRecording.create();
+        final ScanResult result = LLVMScanner.scan(bytes, bcSource, recording);
+        if (result != null) {
+            store(key, directory, entry, recording);
+        }
+        return result;
+    }
+
+    /**
+     * Scans the bitcode and returns the recording of the scan, which {@link #replay} turns into
+     * the same result. This allows to compare a replay with a scan without persisting an entry.
+     */
+    public static ByteBuffer record(ByteBuffer bytes, Source bcSource) {
+        final ScanRecording recording = ScanRecording.create();
+        LLVMScanner.scan(bytes, bcSource, recording);
+        return recording.toBytes();
+    }
+
+    /**
+     * Replays a recording, or returns {@code null} if that fails. The recording is validated while
+     * it is replayed, but an entry that was damaged without breaking its checksum can still contain
+     * records that the listeners reject. Therefore, any failure falls back to a scan of the file,
+     * which reports the errors that the file really contains.
+     */
+    public static ScanResult replay(ByteBuffer bytes, Source bcSource, ByteBuffer recorded) {
+        try {
+            return LLVMScanner.replay(bytes, bcSource, ScanRecording.fromBytes(recorded));
+        } catch (RuntimeException | OutOfMemoryError e) {
+            return null;
+        }
+    }
+
+    private String computeKey(ByteBuffer bytes) {
+        final MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            // every Java platform supports SHA-256
+            throw new IllegalStateException(e);
+        }
+        digest.update(version);
+        digest.update((byte) FORMAT_VERSION);
+        // hashing the bitcode is much cheaper than scanning it
+        digest.update(bytes.duplicate());
+
+        final StringBuilder key = new StringBuilder();
+        for (byte b : digest.digest()) {
+            key.append(String.format("%02x", b));
+        }
+        return key.toString();
+    }
+
+    private static ByteBuffer load(TruffleFile entry) {
+        try {
+            if (!entry.exists()) {
+                return null;
+            }
+            final ByteBuffer bytes = ByteBuffer.wrap(entry.readAllBytes());
+            if (bytes.remaining() < 4 * Integer.BYTES || bytes.getInt() != MAGIC_WORD || bytes.getInt() != FORMAT_VERSION) {
+                return null;
+            }
+            final int length = bytes.getInt();
+            final int checksum = bytes.getInt();
+            if (length != bytes.remaining()) {
+                return null;
+            }
+            final ByteBuffer recorded = bytes.slice();
+            if (computeChecksum(recorded) != checksum) {
+                return null;
+            }
+            return recorded;
+        } catch (IOException | SecurityException e) {
+            return null;
+        }
+    }
+
+    private static int computeChecksum(ByteBuffer recorded) {
+        final CRC32 crc = new CRC32();
+        crc.update(recorded.duplicate());
+        return (int) crc.getValue();
+    }
+
+    private static void store(String key, TruffleFile directory, TruffleFile entry, ScanRecording recording) {
+        // entries are written to a temporary file first, so that concurrent runs never see a
+        // partially written entry
+        final TruffleFile temporary = directory.resolve(key + "-" + UUID.randomUUID() + TEMPORARY_SUFFIX);
+        try {
+            directory.createDirectories();
+            final ByteBuffer recorded = recording.toBytes();
+            try (DataOutputStream out = new DataOutputStream(temporary.newOutputStream(StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE))) {
+                out.writeInt(MAGIC_WORD);
+                out.writeInt(FORMAT_VERSION);
+                out.writeInt(recorded.remaining());
+                out.writeInt(computeChecksum(recorded));
+                recording.writeTo(out);
+            }
+            temporary.move(entry, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } catch (IOException | SecurityException | UnsupportedOperationException e) {
+            try {
+                temporary.delete();
+            } catch (IOException | SecurityException | UnsupportedOperationException ignored) {
+                // nothing left to clean up
+            }
+        }
+    }
+}
@@ -0,0 +1,180 @@
+/*
+ * Copyright (c) 2018, Oracle and/or its affiliates.
+ *
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification, are
+ * permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this list of
+ * conditions and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice, this list of
+ * conditions and the following disclaimer in the documentation and/or other materials provided
+ * with the distribution.
+ *
+ * 3. Neither the name of the copyright holder nor the names of its contributors may be used to
+ * endorse or promote products derived from this software without specific prior written
+ * permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY EXPRESS
+ * OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE
+ * COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ * EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE
+ * GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED
+ * AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED
+ * OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.oracle.truffle.llvm.parser.scanner;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+
+/**
+ * The events of a scan in a compact binary form, i.e., the blocks that were entered and exited
+ * and the records in between with their abbreviations already expanded. All values are stored as
+ * unsigned LEB128 numbers. Replaying the events is cheaper than decoding the bitstream again.
+ */
+final class ScanRecording {
+
+    static final int ENTER_BLOCK = 0;
+    static final int EXIT_BLOCK = 1;
+    static final int RECORD = 2;
+    static final int LAZY_BLOCK = 3;
+    static final int BLOCKINFO_BLOCK = 4;
+    static final int END = 5;
+
+    private static final int INITIAL_BUFFER_SIZE = 1 << 16;
+    private static final int MAX_VALUE_BYTES = 10;
+
+    private static final int VALUE_BITS = 7;
+    private static final long VALUE_MASK = 0x7fL;
+    private static final int CONTINUATION_BIT = 0x80;
+
+    private ByteBuffer buffer;
+
+    private ScanRecording(ByteBuffer buffer) {
+        this.buffer = buffer;
+    }
+
+    static ScanRecording create() {
+        return new ScanRecording(ByteBuffer.allocate(INITIAL_BUFFER_SIZE));
+    }
+
+    static ScanRecording fromBytes(ByteBuffer bytes) {
+        return new ScanRecording(bytes.slice());
+    }
+
+    void enterBlock(long blockId) {
+        ensureFits(2);
+        put(ENTER_BLOCK);
+        put(blockId);
+    }
+
+    void exitBlock() {
+        ensureFits(1);
+        put(EXIT_BLOCK);
+    }
+
+    void record(long id, long[] ops) {
+        ensureFits(ops.length + 3);
+        put(RECORD);
+        put(id);
+        put(ops.length);
+        for (long op : ops) {
+            put(op);
+        }
+    }
+
+    void lazyBlock(long blockId, long startingOffset, long endingOffset, long idSize) {
+        ensureFits(5);
+        put(LAZY_BLOCK);
+        put(blockId);
+        put(startingOffset);
+        put(endingOffset);
+        put(idSize);
+    }
+
+    /**
+     * @param startingOffset the offset of the abbreviation id that starts the block
+     * @param idSize the abbreviation id size of the enclosing block
+     */
+    void blockInfoBlock(long startingOffset, long endingOffset, long idSize) {
+        ensureFits(4);
+        put(BLOCKINFO_BLOCK);
+        put(startingOffset);
+        put(endingOffset);
+        put(idSize);
+    }
+
+    void end() {
+        ensureFits(1);
+        put(END);
+    }
+
+    /**
+     * @return the events that were recorded so far, which can be replayed any number of times by
+     *         creating new recordings {@linkplain #fromBytes(ByteBuffer) from them}
+     */
+    ByteBuffer toBytes() {
+        return ByteBuffer.wrap(buffer.array(), buffer.arrayOffset(), buffer.position()).slice().asReadOnlyBuffer();
+    }
+
+    void writeTo(OutputStream out) throws IOException {
+        out.write(buffer.array(), buffer.arrayOffset(), buffer.position());
+    }
+
+    int nextEvent() {
+        return (int) next();
+    }
+
+    long next() {
+        long value = 0;
+        int shift = 0;
+        byte b;
+        do {
+            if (shift >= Long.SIZE) {
+                throw new IllegalStateException("Invalid value in scan recording");
+            }
+            b = buffer.get();
+            value |= (b & VALUE_MASK) << shift;
+            shift += VALUE_BITS;
+        } while ((b & CONTINUATION_BIT) != 0);
+        return value;
+    }
+
+    long[] nextOps() {
+        final long length = next();
+        // every value takes at least one byte
+        if (length > buffer.remaining()) {
+            throw new IllegalStateException("Invalid number of operands in scan recording: " + length);
+        }
+        final long[] ops = new long[(int) length];
+        for (int i = 0; i < ops.length; i++) {
+            ops[i] = next();
+        }
+        return ops;
+    }
+
+    private void ensureFits(int values) {
+        final int bytes = values * MAX_VALUE_BYTES;
+        if (buffer.remaining() < bytes) {
+            final ByteBuffer newBuffer = ByteBuffer.allocate(Math.max(buffer.capacity() * 2, buffer.position() + bytes));
+            buffer.flip();
+            newBuffer.put(buffer);
+            buffer = newBuffer;
+        }
+    }
+
+    private void put(long value) {
+        long v = value;
+        while ((v & ~VALUE_MASK) != 0) {
+            buffer.put((byte) ((v & VALUE_MASK) | CONTINUATION_BIT));
+            v >>>= VALUE_BITS;
+        }
+        buffer.put((byte) v);
+    }
+}
@@ -51,7 +51,8 @@ public final class LLSourceBuilder {
         this.bcPath = bcPath;
     }
 
-    public void applySourceLocations(FunctionDefinition function, LLVMParserRuntime runtime) {
+    // the source map is shared by all functions of the module, which may be parsed concurrently
+    public synchronized void applySourceLocations(FunctionDefinition function, LLVMParserRuntime runtime) {
         // to include the map in the LazyFunctionParser we need to instantiate this object during
         // module parsing but we only get an LLVMContext to check whether we will actually need it
         // during function parsing, with this we build the map only on-demand and cache the result
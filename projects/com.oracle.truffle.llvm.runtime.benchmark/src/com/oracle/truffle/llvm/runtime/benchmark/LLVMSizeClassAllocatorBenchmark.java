@@ -0,0 +1,130 @@
+/*
+ * Copyright (c) 2018, Oracle and/or its affiliates.
+ *
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification, are
+ * permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this list of
+ * conditions and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice, this list of
+ * conditions and the following disclaimer in the documentation and/or other materials provided
+ * with the distribution.
+ *
+ * 3. Neither the name of the copyright holder nor the names of its contributors may be used to
+ * endorse or promote products derived from this software without specific prior written
+ * permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY EXPRESS
+ * OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE
+ * COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ * EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE
+ * GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED
+ * AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED
+ * OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.oracle.truffle.llvm.runtime.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.oracle.truffle.llvm.runtime.memory.LLVMNativeMemory;
+import com.oracle.truffle.llvm.runtime.memory.LLVMSizeClassAllocator;
+import com.oracle.truffle.llvm.runtime.pointer.LLVMNativePointer;
+
+/**
+ * Compares the size-class allocator with the system allocator that the {@code malloc} intrinsics
+ * use by default. Every operation allocates a batch of blocks of the same size and frees them in
+ * reverse order, on one thread and on four threads that share the allocator.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 10)
+@Measurement(iterations = 10)
+@Fork(1)
+public class LLVMSizeClassAllocatorBenchmark {
+
+    private static final int BATCH = 256;
+
+    @Param({"16", "100", "1024", "16384"}) public long size;
+
+    private LLVMSizeClassAllocator sizeClassAllocator;
+    private LLVMNativeMemory nativeMemory;
+
+    @State(Scope.Thread)
+    public static class Blocks {
+        final LLVMNativePointer[] pointers = new LLVMNativePointer[BATCH];
+    }
+
+    @Setup
+    @SuppressWarnings("deprecation")
+    public void setup() {
+        sizeClassAllocator = new LLVMSizeClassAllocator();
+        nativeMemory = LLVMNativeMemory.getInstance();
+    }
+
+    @TearDown
+    public void tearDown() {
+        sizeClassAllocator.dispose();
+    }
+
+    @Benchmark
+    public void sizeClassAllocator(Blocks blocks) {
+        churnSizeClassAllocator(blocks);
+    }
+
+    @Benchmark
+    public void systemAllocator(Blocks blocks) {
+        churnSystemAllocator(blocks);
+    }
+
+    @Benchmark
+    @Threads(4)
+    public void sizeClassAllocatorThreads(Blocks blocks) {
+        churnSizeClassAllocator(blocks);
+    }
+
+    @Benchmark
+    @Threads(4)
+    public void systemAllocatorThreads(Blocks blocks) {
+        churnSystemAllocator(blocks);
+    }
+
+    private void churnSizeClassAllocator(Blocks blocks) {
+        LLVMNativePointer[] pointers = blocks.pointers;
+        for (int i = 0; i < BATCH; i++) {
+            pointers[i] = sizeClassAllocator.allocate(size);
+        }
+        for (int i = BATCH - 1; i >= 0; i--) {
+            sizeClassAllocator.free(pointers[i]);
+        }
+    }
+
+    private void churnSystemAllocator(Blocks blocks) {
+        LLVMNativePointer[] pointers = blocks.pointers;
+        for (int i = 0; i < BATCH; i++) {
+            pointers[i] = nativeMemory.allocateMemory(size);
+        }
+        for (int i = BATCH - 1; i >= 0; i--) {
+            nativeMemory.free(pointers[i]);
+        }
+    }
+}
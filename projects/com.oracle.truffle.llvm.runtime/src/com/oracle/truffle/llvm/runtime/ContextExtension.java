@@ -29,6 +29,8 @@
  */
 package com.oracle.truffle.llvm.runtime;
 
+import com.oracle.truffle.api.TruffleLanguage.Env;
+
 /**
  * Context extensions encapsulate optional functionality that has a state and which therefore needs
  * to live on the context-level.
@@ -38,4 +40,13 @@ public interface ContextExtension {
     default Class<?> extensionClass() {
         return this.getClass();
     }
+
+    /**
+     * Returns the extension that replaces this one when a context that was pre-initialized while
+     * building a native image is patched with the environment of the image's process. Extensions
+     * that hold native state or the old environment must create a new extension.
+     */
+    default ContextExtension patchContext(@SuppressWarnings("unused") Env newEnv) {
+        return this;
+    }
 }
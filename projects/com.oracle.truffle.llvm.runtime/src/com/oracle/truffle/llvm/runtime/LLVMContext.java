@@ -29,9 +29,11 @@
  */
 package com.oracle.truffle.llvm.runtime;
 
+import java.io.IOException;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.LinkedHashMap;
@@ -40,6 +42,9 @@ import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Random;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReferenceArray;
 import java.util.function.Predicate;
 import java.util.stream.Collectors;
 
@@ -61,6 +66,8 @@ import com.oracle.truffle.llvm.runtime.global.LLVMGlobal;
 import com.oracle.truffle.llvm.runtime.global.LLVMGlobalContainer;
 import com.oracle.truffle.llvm.runtime.interop.LLVMTypedForeignObject;
 import com.oracle.truffle.llvm.runtime.memory.LLVMMemory;
+import com.oracle.truffle.llvm.runtime.memory.LLVMNativeMemory;
+import com.oracle.truffle.llvm.runtime.memory.LLVMSizeClassAllocator;
 import com.oracle.truffle.llvm.runtime.memory.LLVMStack.StackPointer;
 import com.oracle.truffle.llvm.runtime.memory.LLVMThreadingStack;
 import com.oracle.truffle.llvm.runtime.options.SulongEngineOption;
@@ -84,32 +91,73 @@ public final class LLVMContext {
 
     private final List<LLVMThread> runningThreads = new ArrayList<>();
     private final LLVMThreadingStack threadingStack;
-    private final Object[] mainArguments;
-    private final Map<String, String> environment;
     private final LinkedList<LLVMNativePointer> caughtExceptionStack = new LinkedList<>();
     private final HashMap<String, Integer> nativeCallStatistics;
 
     private static final class Handle {
 
-        private int refcnt;
+        private final AtomicInteger refcnt;
         private final LLVMNativePointer pointer;
         private final TruffleObject managed;
 
         private Handle(LLVMNativePointer pointer, TruffleObject managed) {
-            this.refcnt = 0;
+            this.refcnt = new AtomicInteger(0);
             this.pointer = pointer;
             this.managed = managed;
         }
     }
 
+    /**
+     * Deref handles indexed by {@link LLVMNativeMemory#getDerefHandleIndex(long)}. Reads are
+     * lock-free, writes happen while holding {@link LLVMContext#handlesLock}.
+     */
+    private static final class DerefHandleTable {
+
+        private static final int CHUNK_BITS = 12;
+        private static final int CHUNK_SIZE = 1 << CHUNK_BITS;
+        private static final int CHUNK_MASK = CHUNK_SIZE - 1;
+
+        private volatile Object[] chunks = new Object[0];
+
+        @SuppressWarnings("unchecked")
+        Handle get(int index) {
+            Object[] c = chunks;
+            int chunk = index >>> CHUNK_BITS;
+            if (chunk >= c.length || c[chunk] == null) {
+                return null;
+            }
+            return ((AtomicReferenceArray<Handle>) c[chunk]).get(index & CHUNK_MASK);
+        }
+
+        @SuppressWarnings("unchecked")
+        void set(int index, Handle handle) {
+            int chunk = index >>> CHUNK_BITS;
+            Object[] c = chunks;
+            if (chunk >= c.length || c[chunk] == null) {
+                if (handle == null) {
+                    return;
+                }
+                c = Arrays.copyOf(c, Math.max(chunk + 1, c.length * 2));
+                c[chunk] = new AtomicReferenceArray<Handle>(CHUNK_SIZE);
+                chunks = c;
+            }
+            ((AtomicReferenceArray<Handle>) c[chunk]).set(index & CHUNK_MASK, handle);
+        }
+    }
+
     private final Object handlesLock;
     private final EconomicMap<TruffleObject, Handle> handleFromManaged;
-    private final EconomicMap<LLVMNativePointer, Handle> handleFromPointer;
+    private final ConcurrentHashMap<LLVMNativePointer, Handle> handleFromPointer;
+    private final DerefHandleTable derefHandles;
 
     private final LLVMSourceContext sourceContext;
+    private final LLVMParsingStatistics parsingStatistics;
+    private final LLVMStdioBuffer stdioBuffer;
+    private final LLVMSizeClassAllocator sizeClassAllocator;
 
     private final LLVMLanguage language;
-    private final Env env;
+    // only replaced when a pre-initialized context is patched, before any code runs
+    @CompilationFinal private Env env;
     private final Configuration activeConfiguration;
     private final LLVMScope globalScope;
     private final DynamicLinkChain dynamicLinkChain;
@@ -155,7 +203,7 @@ public final class LLVMContext {
         this.env = env;
         this.activeConfiguration = activeConfiguration;
         this.nodeFactory = activeConfiguration.createNodeFactory(this);
-        this.contextExtensions = activeConfiguration.createContextExtensions(this);
+        this.contextExtensions = new ArrayList<>(activeConfiguration.createContextExtensions(this));
         this.initialized = false;
         this.cleanupNecessary = false;
         this.defaultLibrariesLoaded = false;
@@ -168,17 +216,18 @@ public final class LLVMContext {
         this.sigIgn = LLVMNativePointer.create(1);
         this.sigErr = LLVMNativePointer.create(-1);
         this.handleFromManaged = EconomicMap.create(ForeignEquivalence.INSTANCE);
-        this.handleFromPointer = EconomicMap.create();
+        this.handleFromPointer = new ConcurrentHashMap<>();
+        this.derefHandles = new DerefHandleTable();
         this.handlesLock = new Object();
         this.functionPointerRegistry = new LLVMFunctionPointerRegistry();
-        this.sourceContext = new LLVMSourceContext();
+        this.parsingStatistics = new LLVMParsingStatistics(env.getOptions().get(SulongEngineOption.PRINT_PARSING_STATS));
+        this.sourceContext = new LLVMSourceContext(env.getOptions().get(SulongEngineOption.ENABLE_LVI) && env.getOptions().get(SulongEngineOption.LAZY_LVI));
+        int stdioBufferSize = env.getOptions().get(SulongEngineOption.STDIO_BUFFER_SIZE);
+        this.stdioBuffer = stdioBufferSize > 0 ? new LLVMStdioBuffer(this, stdioBufferSize) : null;
 
         this.globalScope = new LLVMScope();
         this.dynamicLinkChain = new DynamicLinkChain();
-
-        Object mainArgs = env.getConfig().get(LLVMLanguage.MAIN_ARGS_KEY);
-        this.mainArguments = mainArgs == null ? env.getApplicationArguments() : (Object[]) mainArgs;
-        this.environment = System.getenv();
+        this.sizeClassAllocator = env.getOptions().get(SulongEngineOption.SIZE_CLASS_ALLOCATOR) ? new LLVMSizeClassAllocator() : null;
 
         addLibraryPaths(SulongEngineOption.getPolyglotOptionSearchPaths(env));
         if (languageHome != null) {
@@ -186,6 +235,27 @@ public final class LLVMContext {
         }
     }
 
+    /**
+     * Adapts a context that was pre-initialized while building a native image to the environment
+     * of the process that runs the image. The options of both environments are the same, so only
+     * the environment itself, the main thread, the library search paths and the context extensions
+     * that hold native handles need to be replaced. The default libraries were parsed and linked
+     * in the image, but no code has run yet.
+     */
+    public void patchContext(Env newEnv, String languageHome) {
+        CompilerAsserts.neverPartOfCompilation();
+        assert !initialized;
+        this.env = newEnv;
+        threadingStack.setMainThread(Thread.currentThread());
+        contextExtensions.replaceAll(extension -> extension.patchContext(newEnv));
+
+        libraryPaths.clear();
+        addLibraryPaths(SulongEngineOption.getPolyglotOptionSearchPaths(newEnv));
+        if (languageHome != null) {
+            addLibraryPath(languageHome);
+        }
+    }
+
     public void initialize() {
         // we can't do the initialization in the LLVMContext constructor nor in
         // Sulong.createContext() because Truffle is not properly initialized there. So, we need to
@@ -213,6 +283,8 @@ public final class LLVMContext {
     }
 
     private LLVMManagedPointer getApplicationArguments() {
+        Object mainArgs = env.getConfig().get(LLVMLanguage.MAIN_ARGS_KEY);
+        Object[] mainArguments = mainArgs == null ? env.getApplicationArguments() : (Object[]) mainArgs;
         int mainArgsCount = mainArguments == null ? 0 : mainArguments.length;
         String[] result = new String[mainArgsCount + 1];
         // we don't have an application path at this point in time. it will be overwritten when
@@ -225,7 +297,7 @@ public final class LLVMContext {
     }
 
     private LLVMManagedPointer getEnvironmentVariables() {
-        String[] result = environment.entrySet().stream().map((e) -> e.getKey() + "=" + e.getValue()).toArray(String[]::new);
+        String[] result = System.getenv().entrySet().stream().map((e) -> e.getKey() + "=" + e.getValue()).toArray(String[]::new);
         return toTruffleObjects(result);
     }
 
@@ -257,6 +329,7 @@ public final class LLVMContext {
 
     public void dispose(LLVMMemory memory) {
         printNativeCallStatistic();
+        parsingStatistics.print(env);
 
         // the following cases exist for cleanup:
         // - exit() or interop: execute all atexit functions, shutdown stdlib, flush IO, and execute
@@ -273,6 +346,10 @@ public final class LLVMContext {
             }
         }
 
+        // the buffered output was already written from the program's point of view, so it must
+        // not get lost, not even after _exit() or abort()
+        flushStdioBuffer();
+
         threadingStack.freeMainStack(memory);
 
         // free the space allocated for non-pointer globals
@@ -294,6 +371,10 @@ public final class LLVMContext {
                 }
             }
         }
+
+        if (sizeClassAllocator != null) {
+            sizeClassAllocator.dispose();
+        }
     }
 
     public NodeFactory getNodeFactory() {
@@ -469,24 +550,30 @@ public final class LLVMContext {
         return sigErr;
     }
 
+    private Handle getHandle(LLVMNativePointer address) {
+        int derefIndex = LLVMNativeMemory.getDerefHandleIndex(address.asNative());
+        if (derefIndex >= 0) {
+            Handle handle = derefHandles.get(derefIndex);
+            // deref handles can only be accessed via their base address
+            return handle != null && handle.pointer.asNative() == address.asNative() ? handle : null;
+        }
+        return handleFromPointer.get(address);
+    }
+
     @TruffleBoundary
     public boolean isHandle(LLVMNativePointer address) {
-        synchronized (handlesLock) {
-            return handleFromPointer.containsKey(address);
-        }
+        return getHandle(address) != null;
     }
 
     @TruffleBoundary
     public TruffleObject getManagedObjectForHandle(LLVMNativePointer address) {
-        synchronized (handlesLock) {
-            final Handle handle = handleFromPointer.get(address);
+        final Handle handle = getHandle(address);
 
-            if (handle == null) {
-                throw new UnsupportedOperationException("Cannot resolve native handle: " + address);
-            }
-
-            return handle.managed;
+        if (handle == null) {
+            throw new UnsupportedOperationException("Cannot resolve native handle: " + address);
         }
+
+        return handle.managed;
     }
 
     private static class ForeignEquivalence extends Equivalence {
@@ -514,16 +601,19 @@ public final class LLVMContext {
 
     @TruffleBoundary
     public void releaseHandle(LLVMMemory memory, LLVMNativePointer address) {
-        synchronized (handlesLock) {
-            Handle handle = handleFromPointer.get(address);
-            if (handle == null) {
-                throw new UnsupportedOperationException("Cannot resolve native handle: " + address);
-            }
-
-            if (--handle.refcnt == 0) {
-                handleFromPointer.removeKey(address);
-                handleFromManaged.removeKey(handle.managed);
-                memory.free(address);
+        Handle handle = getHandle(address);
+        if (handle == null) {
+            throw new UnsupportedOperationException("Cannot resolve native handle: " + address);
+        }
+
+        if (handle.refcnt.decrementAndGet() == 0) {
+            synchronized (handlesLock) {
+                // the handle might have been acquired again in the meantime
+                if (handle.refcnt.get() == 0 && handleFromManaged.get(handle.managed) == handle) {
+                    handleFromManaged.removeKey(handle.managed);
+                    removeHandle(handle);
+                    memory.free(address);
+                }
             }
         }
     }
@@ -537,10 +627,10 @@ public final class LLVMContext {
                 memory.putI64(allocatedMemory, 0xdeadbeef);
                 handle = new Handle(allocatedMemory, object);
                 handleFromManaged.put(object, handle);
-                handleFromPointer.put(allocatedMemory, handle);
+                addHandle(handle);
             }
 
-            handle.refcnt++;
+            handle.refcnt.incrementAndGet();
             return handle.pointer;
         }
     }
@@ -553,14 +643,34 @@ public final class LLVMContext {
                 LLVMNativePointer allocatedMemory = memory.allocateDerefMemory();
                 handle = new Handle(allocatedMemory, object);
                 handleFromManaged.put(object, handle);
-                handleFromPointer.put(allocatedMemory, handle);
+                addHandle(handle);
             }
 
-            handle.refcnt++;
+            handle.refcnt.incrementAndGet();
             return handle.pointer;
         }
     }
 
+    private void addHandle(Handle handle) {
+        assert Thread.holdsLock(handlesLock);
+        int derefIndex = LLVMNativeMemory.getDerefHandleIndex(handle.pointer.asNative());
+        if (derefIndex >= 0) {
+            derefHandles.set(derefIndex, handle);
+        } else {
+            handleFromPointer.put(handle.pointer, handle);
+        }
+    }
+
+    private void removeHandle(Handle handle) {
+        assert Thread.holdsLock(handlesLock);
+        int derefIndex = LLVMNativeMemory.getDerefHandleIndex(handle.pointer.asNative());
+        if (derefIndex >= 0) {
+            derefHandles.set(derefIndex, null);
+        } else {
+            handleFromPointer.remove(handle.pointer);
+        }
+    }
+
     @TruffleBoundary
     public void registerNativeCall(LLVMFunctionDescriptor descriptor) {
         if (nativeCallStatistics != null) {
@@ -637,6 +747,51 @@ public final class LLVMContext {
         return sourceContext;
     }
 
+    public LLVMParsingStatistics getParsingStatistics() {
+        return parsingStatistics;
+    }
+
+    /**
+     * @return The buffer for stdout and stderr, or {@code null} if the program writes to the
+     *         native file descriptors.
+     */
+    public LLVMStdioBuffer getStdioBuffer() {
+        return stdioBuffer;
+    }
+
+    /**
+     * @return The allocator for the {@code malloc} family of intrinsics, or {@code null} if they
+     *         use the system allocator.
+     */
+    public LLVMSizeClassAllocator getSizeClassAllocator() {
+        return sizeClassAllocator;
+    }
+
+    @TruffleBoundary
+    public void flushStdioBuffer() {
+        if (stdioBuffer != null) {
+            try {
+                stdioBuffer.flush();
+            } catch (IOException e) {
+                // the output streams of the engine are closed, there is nothing left to do
+            }
+        }
+    }
+
+    /**
+     * Stops buffering the writes to {@code fd} after the program has replaced or closed it.
+     */
+    @TruffleBoundary
+    public void releaseStdioDescriptor(long fd) {
+        if (stdioBuffer != null && LLVMStdioBuffer.isStdio(fd)) {
+            try {
+                stdioBuffer.release(fd);
+            } catch (IOException e) {
+                // the output streams of the engine are closed, there is nothing left to do
+            }
+        }
+    }
+
     @TruffleBoundary
     public LLVMGlobal findGlobal(LLVMPointer pointer) {
         LLVMGlobal result = globalsReverseMap.get(pointer);
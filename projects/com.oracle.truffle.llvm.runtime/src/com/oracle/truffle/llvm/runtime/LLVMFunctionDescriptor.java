@@ -183,9 +183,20 @@ public final class LLVMFunctionDescriptor implements LLVMSymbol, LLVMInternalTru
 
         @Override
         void resolve(LLVMFunctionDescriptor descriptor) {
-            final RootCallTarget callTarget = converter.convert();
-            final LLVMSourceFunctionType sourceType = converter.getSourceType();
-            descriptor.setFunction(new LLVMIRFunction(callTarget, sourceType));
+            // functions can be converted by several threads, but each of them only once
+            synchronized (descriptor) {
+                if (descriptor.getFunction() != this) {
+                    // another thread converted the function in the meantime
+                    return;
+                }
+                final RootCallTarget callTarget = converter.convert();
+                final LLVMSourceFunctionType sourceType = converter.getSourceType();
+                descriptor.setFunction(new LLVMIRFunction(callTarget, sourceType));
+            }
+        }
+
+        public LLVMFunctionDescriptor[] getCallees() {
+            return converter.getCallees();
         }
     }
 
@@ -241,17 +252,52 @@ public final class LLVMFunctionDescriptor implements LLVMSymbol, LLVMInternalTru
 
     public static final class NativeFunction extends Function {
         private final TruffleObject nativeFunction;
+        private volatile BoundNativeFunction boundFunctions;
 
         public NativeFunction(TruffleObject nativeFunction) {
             this.nativeFunction = nativeFunction;
         }
 
+        private TruffleObject getBoundFunction(String signature) {
+            for (BoundNativeFunction bound = boundFunctions; bound != null; bound = bound.next) {
+                if (bound.signature.equals(signature)) {
+                    return bound.function;
+                }
+            }
+            synchronized (this) {
+                for (BoundNativeFunction bound = boundFunctions; bound != null; bound = bound.next) {
+                    if (bound.signature.equals(signature)) {
+                        return bound.function;
+                    }
+                }
+                TruffleObject function = NFIContextExtension.bindNativeFunction(nativeFunction, signature);
+                boundFunctions = new BoundNativeFunction(signature, function, boundFunctions);
+                return function;
+            }
+        }
+
         @Override
         TruffleObject createNativeWrapper(LLVMFunctionDescriptor descriptor) {
             return nativeFunction;
         }
     }
 
+    /**
+     * A native function that is bound to an NFI signature. Almost all native functions are only
+     * called with one signature, so a list is sufficient.
+     */
+    private static final class BoundNativeFunction {
+        private final String signature;
+        private final TruffleObject function;
+        private final BoundNativeFunction next;
+
+        private BoundNativeFunction(String signature, TruffleObject function, BoundNativeFunction next) {
+            this.signature = signature;
+            this.function = function;
+            this.next = next;
+        }
+    }
+
     static final class NullFunction extends Function {
         @Override
         TruffleObject createNativeWrapper(LLVMFunctionDescriptor descriptor) {
@@ -298,6 +344,13 @@ public final class LLVMFunctionDescriptor implements LLVMSymbol, LLVMInternalTru
          * @return the function's source-level type
          */
         LLVMSourceFunctionType getSourceType();
+
+        /**
+         * Get the functions that the already converted function calls directly.
+         *
+         * @return the callees, or {@code null} if the function is not converted yet
+         */
+        LLVMFunctionDescriptor[] getCallees();
     }
 
     public void resolveIfLazyLLVMIRFunction() {
@@ -369,6 +422,17 @@ public final class LLVMFunctionDescriptor implements LLVMSymbol, LLVMInternalTru
         return nativeFunction;
     }
 
+    /**
+     * @return The native function bound to the given NFI signature. The bound function is cached,
+     *         so that call sites that are not specialized on the descriptor do not bind it again for
+     *         every call.
+     */
+    @TruffleBoundary
+    public TruffleObject getBoundNativeFunction(String signature) {
+        getNativeFunction();
+        return ((NativeFunction) getFunction()).getBoundFunction(signature);
+    }
+
     @Override
     public String getName() {
         return name;
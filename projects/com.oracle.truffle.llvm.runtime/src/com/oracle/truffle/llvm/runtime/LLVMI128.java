@@ -0,0 +1,370 @@
+/*
+ * Copyright (c) 2018, Oracle and/or its affiliates.
+ *
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification, are
+ * permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this list of
+ * conditions and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice, this list of
+ * conditions and the following disclaimer in the documentation and/or other materials provided
+ * with the distribution.
+ *
+ * 3. Neither the name of the copyright holder nor the names of its contributors may be used to
+ * endorse or promote products derived from this software without specific prior written
+ * permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY EXPRESS
+ * OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE
+ * COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ * EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE
+ * GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED
+ * AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED
+ * OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.oracle.truffle.llvm.runtime;
+
+import java.math.BigInteger;
+
+import com.oracle.truffle.api.CompilerDirectives;
+import com.oracle.truffle.api.CompilerDirectives.TruffleBoundary;
+import com.oracle.truffle.api.CompilerDirectives.ValueType;
+
+/**
+ * A 128 bit integer that is represented as two's-complement in two longs. All arithmetic is done
+ * on the two halves, so that i128 values (e.g. {@code __int128} or the results of 64x64 bit
+ * multiplications) do not have to go through {@link BigInteger} like {@link LLVMIVarBit}.
+ */
+@ValueType
+public final class LLVMI128 {
+
+    public static final int BIT_WIDTH = 128;
+    public static final int BYTE_WIDTH = BIT_WIDTH / Byte.SIZE;
+
+    private static final LLVMI128 ZERO = new LLVMI128(0, 0);
+
+    private final long high;
+    private final long low;
+
+    private LLVMI128(long high, long low) {
+        this.high = high;
+        this.low = low;
+    }
+
+    public static LLVMI128 create(long high, long low) {
+        return new LLVMI128(high, low);
+    }
+
+    public static LLVMI128 createNull() {
+        return ZERO;
+    }
+
+    public static LLVMI128 fromBoolean(boolean from) {
+        return new LLVMI128(0, from ? 1 : 0);
+    }
+
+    public static LLVMI128 fromLong(long from) {
+        return new LLVMI128(from >> (Long.SIZE - 1), from);
+    }
+
+    public static LLVMI128 createZeroExt(byte from) {
+        return new LLVMI128(0, Byte.toUnsignedLong(from));
+    }
+
+    public static LLVMI128 createZeroExt(short from) {
+        return new LLVMI128(0, Short.toUnsignedLong(from));
+    }
+
+    public static LLVMI128 createZeroExt(int from) {
+        return new LLVMI128(0, Integer.toUnsignedLong(from));
+    }
+
+    public static LLVMI128 createZeroExt(long from) {
+        return new LLVMI128(0, from);
+    }
+
+    @TruffleBoundary
+    public static LLVMI128 fromBigInteger(BigInteger from) {
+        return new LLVMI128(from.shiftRight(Long.SIZE).longValue(), from.longValue());
+    }
+
+    /**
+     * Creates a value from its memory representation, i.e., little-endian bytes.
+     */
+    public static LLVMI128 fromBytes(byte[] bytes) {
+        assert bytes.length == BYTE_WIDTH;
+        return new LLVMI128(getLittleEndianLong(bytes, Long.BYTES), getLittleEndianLong(bytes, 0));
+    }
+
+    private static long getLittleEndianLong(byte[] bytes, int offset) {
+        long result = 0;
+        for (int i = Long.BYTES - 1; i >= 0; i--) {
+            result = (result << Byte.SIZE) | Byte.toUnsignedLong(bytes[offset + i]);
+        }
+        return result;
+    }
+
+    public long getHigh() {
+        return high;
+    }
+
+    public long getLow() {
+        return low;
+    }
+
+    public boolean getBooleanValue() {
+        return (low & 1) != 0;
+    }
+
+    public byte getByteValue() {
+        return (byte) low;
+    }
+
+    public short getShortValue() {
+        return (short) low;
+    }
+
+    public int getIntValue() {
+        return (int) low;
+    }
+
+    public long getLongValue() {
+        return low;
+    }
+
+    /**
+     * Returns the memory representation of this value, i.e., little-endian bytes.
+     */
+    public byte[] getBytes() {
+        byte[] bytes = new byte[BYTE_WIDTH];
+        for (int i = 0; i < Long.BYTES; i++) {
+            bytes[i] = (byte) (low >>> (i * Byte.SIZE));
+            bytes[Long.BYTES + i] = (byte) (high >>> (i * Byte.SIZE));
+        }
+        return bytes;
+    }
+
+    @TruffleBoundary
+    public BigInteger asBigInteger() {
+        return BigInteger.valueOf(high).shiftLeft(Long.SIZE).or(asUnsignedBigInteger(low));
+    }
+
+    @TruffleBoundary
+    public BigInteger asUnsignedBigInteger() {
+        return asUnsignedBigInteger(high).shiftLeft(Long.SIZE).or(asUnsignedBigInteger(low));
+    }
+
+    private static BigInteger asUnsignedBigInteger(long value) {
+        BigInteger result = BigInteger.valueOf(value & Long.MAX_VALUE);
+        return value < 0 ? result.setBit(Long.SIZE - 1) : result;
+    }
+
+    @TruffleBoundary
+    public LLVMIVarBit toIVarBit() {
+        return LLVMIVarBit.fromBigInteger(BIT_WIDTH, asBigInteger());
+    }
+
+    public boolean isZero() {
+        return (high | low) == 0;
+    }
+
+    public boolean isNegative() {
+        return high < 0;
+    }
+
+    public LLVMI128 add(LLVMI128 right) {
+        long resultLow = low + right.low;
+        long carry = Long.compareUnsigned(resultLow, low) < 0 ? 1 : 0;
+        return new LLVMI128(high + right.high + carry, resultLow);
+    }
+
+    public LLVMI128 sub(LLVMI128 right) {
+        long borrow = Long.compareUnsigned(low, right.low) < 0 ? 1 : 0;
+        return new LLVMI128(high - right.high - borrow, low - right.low);
+    }
+
+    public LLVMI128 negate() {
+        return ZERO.sub(this);
+    }
+
+    public LLVMI128 mul(LLVMI128 right) {
+        long resultHigh = unsignedMultiplyHigh(low, right.low) + low * right.high + high * right.low;
+        return new LLVMI128(resultHigh, low * right.low);
+    }
+
+    private static long unsignedMultiplyHigh(long x, long y) {
+        long x1 = x >>> 32;
+        long x2 = x & 0xFFFFFFFFL;
+        long y1 = y >>> 32;
+        long y2 = y & 0xFFFFFFFFL;
+
+        long lowProduct = x2 * y2;
+        long middle = x1 * y2 + (lowProduct >>> 32);
+        long middleLow = (middle & 0xFFFFFFFFL) + x2 * y1;
+        return x1 * y1 + (middle >>> 32) + (middleLow >>> 32);
+    }
+
+    public LLVMI128 div(LLVMI128 right) {
+        LLVMI128 quotient = unsignedDivide(abs(), right.abs());
+        return isNegative() != right.isNegative() ? quotient.negate() : quotient;
+    }
+
+    public LLVMI128 rem(LLVMI128 right) {
+        LLVMI128 dividend = abs();
+        LLVMI128 remainder = dividend.sub(unsignedDivide(dividend, right.abs()).mul(right.abs()));
+        return isNegative() ? remainder.negate() : remainder;
+    }
+
+    public LLVMI128 unsignedDiv(LLVMI128 right) {
+        return unsignedDivide(this, right);
+    }
+
+    public LLVMI128 unsignedRem(LLVMI128 right) {
+        return sub(unsignedDivide(this, right).mul(right));
+    }
+
+    private LLVMI128 abs() {
+        return isNegative() ? negate() : this;
+    }
+
+    private static LLVMI128 unsignedDivide(LLVMI128 dividend, LLVMI128 divisor) {
+        if (divisor.isZero()) {
+            CompilerDirectives.transferToInterpreter();
+            throw new ArithmeticException("Division by zero!");
+        }
+        if (dividend.high == 0 && divisor.high == 0) {
+            return new LLVMI128(0, Long.divideUnsigned(dividend.low, divisor.low));
+        }
+        if (dividend.unsignedCompare(divisor) < 0) {
+            return ZERO;
+        }
+
+        // shift-subtract division, starting at the highest quotient bit that can be set
+        int shift = divisor.numberOfLeadingZeros() - dividend.numberOfLeadingZeros();
+        LLVMI128 shiftedDivisor = divisor.leftShift(shift);
+        long remainderHigh = dividend.high;
+        long remainderLow = dividend.low;
+        long divisorHigh = shiftedDivisor.high;
+        long divisorLow = shiftedDivisor.low;
+        long quotientHigh = 0;
+        long quotientLow = 0;
+        for (int i = shift; i >= 0; i--) {
+            quotientHigh = (quotientHigh << 1) | (quotientLow >>> (Long.SIZE - 1));
+            quotientLow <<= 1;
+            int cmp = Long.compareUnsigned(remainderHigh, divisorHigh);
+            if (cmp > 0 || (cmp == 0 && Long.compareUnsigned(remainderLow, divisorLow) >= 0)) {
+                long borrow = Long.compareUnsigned(remainderLow, divisorLow) < 0 ? 1 : 0;
+                remainderLow -= divisorLow;
+                remainderHigh -= divisorHigh + borrow;
+                quotientLow |= 1;
+            }
+            divisorLow = (divisorLow >>> 1) | (divisorHigh << (Long.SIZE - 1));
+            divisorHigh >>>= 1;
+        }
+        return new LLVMI128(quotientHigh, quotientLow);
+    }
+
+    private int numberOfLeadingZeros() {
+        return high != 0 ? Long.numberOfLeadingZeros(high) : Long.SIZE + Long.numberOfLeadingZeros(low);
+    }
+
+    public LLVMI128 and(LLVMI128 right) {
+        return new LLVMI128(high & right.high, low & right.low);
+    }
+
+    public LLVMI128 or(LLVMI128 right) {
+        return new LLVMI128(high | right.high, low | right.low);
+    }
+
+    public LLVMI128 xor(LLVMI128 right) {
+        return new LLVMI128(high ^ right.high, low ^ right.low);
+    }
+
+    public LLVMI128 leftShift(LLVMI128 right) {
+        return leftShift(right.getShiftAmount());
+    }
+
+    public LLVMI128 logicalRightShift(LLVMI128 right) {
+        return logicalRightShift(right.getShiftAmount());
+    }
+
+    public LLVMI128 arithmeticRightShift(LLVMI128 right) {
+        return arithmeticRightShift(right.getShiftAmount());
+    }
+
+    /*
+     * Shifting by the bit width or more is undefined in LLVM, so we only look at the low bits of the
+     * shift amount like the hardware does.
+     */
+    private int getShiftAmount() {
+        return (int) (low & (BIT_WIDTH - 1));
+    }
+
+    public LLVMI128 leftShift(int amount) {
+        if (amount == 0) {
+            return this;
+        } else if (amount < Long.SIZE) {
+            return new LLVMI128((high << amount) | (low >>> (Long.SIZE - amount)), low << amount);
+        } else {
+            return new LLVMI128(low << (amount - Long.SIZE), 0);
+        }
+    }
+
+    public LLVMI128 logicalRightShift(int amount) {
+        if (amount == 0) {
+            return this;
+        } else if (amount < Long.SIZE) {
+            return new LLVMI128(high >>> amount, (low >>> amount) | (high << (Long.SIZE - amount)));
+        } else {
+            return new LLVMI128(0, high >>> (amount - Long.SIZE));
+        }
+    }
+
+    public LLVMI128 arithmeticRightShift(int amount) {
+        if (amount == 0) {
+            return this;
+        } else if (amount < Long.SIZE) {
+            return new LLVMI128(high >> amount, (low >>> amount) | (high << (Long.SIZE - amount)));
+        } else {
+            return new LLVMI128(high >> (Long.SIZE - 1), high >> (amount - Long.SIZE));
+        }
+    }
+
+    public int signedCompare(LLVMI128 other) {
+        int result = Long.compare(high, other.high);
+        return result != 0 ? result : Long.compareUnsigned(low, other.low);
+    }
+
+    public int unsignedCompare(LLVMI128 other) {
+        int result = Long.compareUnsigned(high, other.high);
+        return result != 0 ? result : Long.compareUnsigned(low, other.low);
+    }
+
+    @Override
+    @TruffleBoundary
+    public String toString() {
+        return String.format("i%d %s", BIT_WIDTH, asBigInteger().toString());
+    }
+
+    @Override
+    public int hashCode() {
+        return Long.hashCode(high) * 31 + Long.hashCode(low);
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if (this == obj) {
+            return true;
+        }
+        if (!(obj instanceof LLVMI128)) {
+            return false;
+        }
+        LLVMI128 other = (LLVMI128) obj;
+        return high == other.high && low == other.low;
+    }
+}
@@ -37,6 +37,8 @@ public abstract class LLVMLanguage extends TruffleLanguage<LLVMContext> {
 
     public static final Assumption SINGLE_CONTEXT_ASSUMPTION = Truffle.getRuntime().createAssumption("Single Context");
 
+    public static final String VERSION = "6.0.0";
+
     public static final String LLVM_SULONG_TYPE = "application/x-sulong";
 
     public static final String LLVM_BITCODE_MIME_TYPE = "application/x-llvm-ir-bitcode";
@@ -0,0 +1,264 @@
+/*
+ * Copyright (c) 2018, Oracle and/or its affiliates.
+ *
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification, are
+ * permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this list of
+ * conditions and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice, this list of
+ * conditions and the following disclaimer in the documentation and/or other materials provided
+ * with the distribution.
+ *
+ * 3. Neither the name of the copyright holder nor the names of its contributors may be used to
+ * endorse or promote products derived from this software without specific prior written
+ * permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY EXPRESS
+ * OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE
+ * COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ * EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE
+ * GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED
+ * AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED
+ * OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.oracle.truffle.llvm.runtime;
+
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.PrintStream;
+import java.io.PrintWriter;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.PriorityQueue;
+
+import com.oracle.truffle.api.CompilerDirectives.TruffleBoundary;
+import com.oracle.truffle.api.TruffleLanguage.Env;
+import com.oracle.truffle.llvm.runtime.options.SulongEngineOption;
+
+/**
+ * Records where the startup time of a context goes. The parser measures the wall time and the
+ * bytes that the measuring thread allocated for every phase of every library, and for the
+ * conversion of every function. Functions can be converted concurrently, so the recording is
+ * synchronized.
+ */
+public final class LLVMParsingStatistics {
+
+    private static final int SLOWEST_FUNCTIONS = 20;
+
+    public enum Phase {
+        SCAN("scan"),
+        MODEL("model"),
+        LINK("link"),
+        GLOBALS("globals"),
+        CONSTRUCTORS("constructors"),
+        CONVERSION("conversion");
+
+        private final String name;
+
+        Phase(String name) {
+            this.name = name;
+        }
+    }
+
+    /**
+     * The start of a measurement, taken on the thread that later records it.
+     */
+    public static final class Measurement {
+        private final long startTime;
+        private final long startBytes;
+
+        private Measurement(long startTime, long startBytes) {
+            this.startTime = startTime;
+            this.startBytes = startBytes;
+        }
+    }
+
+    private static final Measurement DISABLED = new Measurement(0, 0);
+
+    private static final class Entry {
+        private final String name;
+        private final String library;
+        private long time;
+        private long bytes;
+
+        private Entry(String name, String library) {
+            this.name = name;
+            this.library = library;
+        }
+    }
+
+    private final String target;
+    private final Map<String, Entry[]> libraries;
+    private final PriorityQueue<Entry> slowestFunctions;
+
+    public LLVMParsingStatistics(String target) {
+        this.target = target;
+        this.libraries = new LinkedHashMap<>();
+        this.slowestFunctions = new PriorityQueue<>(SLOWEST_FUNCTIONS + 1, Comparator.comparingLong(entry -> entry.time));
+    }
+
+    public boolean isEnabled() {
+        return !"false".equalsIgnoreCase(target);
+    }
+
+    public Measurement start() {
+        if (!isEnabled()) {
+            return DISABLED;
+        }
+        return new Measurement(System.nanoTime(), getAllocatedBytes());
+    }
+
+    @TruffleBoundary
+    public void record(String library, Phase phase, Measurement measurement) {
+        if (measurement != DISABLED) {
+            final long time = System.nanoTime() - measurement.startTime;
+            final long bytes = getAllocatedBytes() - measurement.startBytes;
+            synchronized (this) {
+                add(library, phase, time, bytes);
+            }
+        }
+    }
+
+    @TruffleBoundary
+    public void recordFunction(String library, String function, Measurement measurement) {
+        if (measurement != DISABLED) {
+            final Entry entry = new Entry(function, library);
+            entry.time = System.nanoTime() - measurement.startTime;
+            entry.bytes = getAllocatedBytes() - measurement.startBytes;
+            synchronized (this) {
+                add(library, Phase.CONVERSION, entry.time, entry.bytes);
+                slowestFunctions.add(entry);
+                if (slowestFunctions.size() > SLOWEST_FUNCTIONS) {
+                    slowestFunctions.poll();
+                }
+            }
+        }
+    }
+
+    private void add(String library, Phase phase, long time, long bytes) {
+        final Entry[] phases = libraries.computeIfAbsent(library, name -> new Entry[Phase.values().length]);
+        if (phases[phase.ordinal()] == null) {
+            phases[phase.ordinal()] = new Entry(phase.name, library);
+        }
+        phases[phase.ordinal()].time += time;
+        phases[phase.ordinal()].bytes += bytes;
+    }
+
+    private static long getAllocatedBytes() {
+        final ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+        if (bean instanceof com.sun.management.ThreadMXBean) {
+            final com.sun.management.ThreadMXBean allocationBean = (com.sun.management.ThreadMXBean) bean;
+            if (allocationBean.isThreadAllocatedMemorySupported() && allocationBean.isThreadAllocatedMemoryEnabled()) {
+                return allocationBean.getThreadAllocatedBytes(Thread.currentThread().getId());
+            }
+        }
+        return 0;
+    }
+
+    /**
+     * Prints the statistics to stdout or stderr, or writes them as JSON to the file that the
+     * option names.
+     */
+    @TruffleBoundary
+    public synchronized void print(Env env) {
+        if (!isEnabled()) {
+            return;
+        }
+        final List<Entry> functions = new ArrayList<>(slowestFunctions);
+        functions.sort(Comparator.comparingLong((Entry entry) -> entry.time).reversed());
+
+        if (SulongEngineOption.isTrue(target)) {
+            printText(SulongEngineOption.getStream(target), functions);
+        } else {
+            try (PrintWriter out = new PrintWriter(new OutputStreamWriter(env.getTruffleFile(target).newOutputStream(StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING,
+                            StandardOpenOption.WRITE), StandardCharsets.UTF_8))) {
+                printJSON(out, functions);
+            } catch (IOException | SecurityException e) {
+                throw new IllegalStateException("Cannot write the parsing statistics to " + target, e);
+            }
+        }
+    }
+
+    private void printText(PrintStream out, List<Entry> functions) {
+        final StringBuilder builder = new StringBuilder();
+        builder.append("Parsing statistics (wall time in ms, allocated bytes in kB):\n");
+        for (Map.Entry<String, Entry[]> library : libraries.entrySet()) {
+            builder.append("  ").append(library.getKey()).append(":");
+            for (Entry phase : library.getValue()) {
+                if (phase != null) {
+                    builder.append(String.format(Locale.ROOT, " %s %.3f (%d)", phase.name, phase.time / 1e6, phase.bytes / 1024));
+                }
+            }
+            builder.append('\n');
+        }
+        builder.append("Slowest function conversions:\n");
+        for (Entry function : functions) {
+            builder.append(String.format(Locale.ROOT, "  %s (%s): %.3f (%d)\n", function.name, function.library, function.time / 1e6, function.bytes / 1024));
+        }
+        out.print(builder.toString());
+    }
+
+    private void printJSON(PrintWriter out, List<Entry> functions) {
+        out.print("{\"libraries\":[");
+        String separator = "";
+        for (Map.Entry<String, Entry[]> library : libraries.entrySet()) {
+            out.print(separator);
+            out.print("{\"name\":");
+            printString(out, library.getKey());
+            out.print(",\"phases\":{");
+            String phaseSeparator = "";
+            for (Entry phase : library.getValue()) {
+                if (phase != null) {
+                    out.print(phaseSeparator);
+                    printString(out, phase.name);
+                    out.print(":{\"timeNanos\":" + phase.time + ",\"allocatedBytes\":" + phase.bytes + "}");
+                    phaseSeparator = ",";
+                }
+            }
+            out.print("}}");
+            separator = ",";
+        }
+        out.print("],\"slowestFunctions\":[");
+        separator = "";
+        for (Entry function : functions) {
+            out.print(separator);
+            out.print("{\"name\":");
+            printString(out, function.name);
+            out.print(",\"library\":");
+            printString(out, function.library);
+            out.print(",\"timeNanos\":" + function.time + ",\"allocatedBytes\":" + function.bytes + "}");
+            separator = ",";
+        }
+        out.println("]}");
+    }
+
+    private static void printString(PrintWriter out, String value) {
+        out.print('"');
+        for (int i = 0; i < value.length(); i++) {
+            final char c = value.charAt(i);
+            if (c == '"' || c == '\\') {
+                out.print('\\');
+                out.print(c);
+            } else if (c < 0x20) {
+                out.print(String.format("\\u%04x", (int) c));
+            } else {
+                out.print(c);
+            }
+        }
+        out.print('"');
+    }
+}
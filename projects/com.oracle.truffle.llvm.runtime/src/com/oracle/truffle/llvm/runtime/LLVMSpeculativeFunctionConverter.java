@@ -0,0 +1,122 @@
+/*
+ * Copyright (c) 2018, Oracle and/or its affiliates.
+ *
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification, are
+ * permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this list of
+ * conditions and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice, this list of
+ * conditions and the following disclaimer in the documentation and/or other materials provided
+ * with the distribution.
+ *
+ * 3. Neither the name of the copyright holder nor the names of its contributors may be used to
+ * endorse or promote products derived from this software without specific prior written
+ * permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY EXPRESS
+ * OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE
+ * COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ * EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE
+ * GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED
+ * AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED
+ * OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.oracle.truffle.llvm.runtime;
+
+import java.util.ArrayDeque;
+import java.util.HashSet;
+import java.util.Set;
+
+import com.oracle.truffle.llvm.runtime.LLVMFunctionDescriptor.LazyLLVMIRFunction;
+import com.oracle.truffle.llvm.runtime.except.LLVMLinkerException;
+import com.oracle.truffle.llvm.runtime.except.LLVMParserException;
+
+/**
+ * Converts the functions that are statically reachable from an entry point on a background thread,
+ * so that the program does not have to wait for their conversion when they are called for the
+ * first time. The call graph is discovered incrementally: the callees of a function are only known
+ * once the function itself has been converted.
+ *
+ * Conversions do not overlap with the parsing of further libraries, and a descriptor only ever
+ * switches from its lazy function to the fully converted one. A function that fails to parse or
+ * link is left alone, so that the error is reported when the program actually calls it.
+ */
+public final class LLVMSpeculativeFunctionConverter implements LLVMThread, Runnable {
+
+    private final LLVMContext context;
+    private final ArrayDeque<LLVMFunctionDescriptor> worklist = new ArrayDeque<>();
+    private final Set<LLVMFunctionDescriptor> seen = new HashSet<>();
+    private final Thread thread;
+
+    private volatile boolean running = true;
+
+    private LLVMSpeculativeFunctionConverter(LLVMContext context, LLVMFunctionDescriptor entry) {
+        this.context = context;
+        this.thread = new Thread(this, "Sulong speculative function converter");
+        this.thread.setDaemon(true);
+        enqueue(entry);
+    }
+
+    public static void start(LLVMContext context, LLVMFunctionDescriptor entry) {
+        LLVMSpeculativeFunctionConverter converter = new LLVMSpeculativeFunctionConverter(context, entry);
+        context.registerThread(converter);
+        converter.thread.start();
+    }
+
+    private void enqueue(LLVMFunctionDescriptor descriptor) {
+        if (seen.add(descriptor)) {
+            worklist.add(descriptor);
+        }
+    }
+
+    @Override
+    public void run() {
+        while (running && !worklist.isEmpty()) {
+            LLVMFunctionDescriptor descriptor = worklist.poll();
+            if (!(descriptor.getFunction() instanceof LazyLLVMIRFunction)) {
+                // already converted on first call, or not a bitcode function at all
+                continue;
+            }
+            LazyLLVMIRFunction lazy = (LazyLLVMIRFunction) descriptor.getFunction();
+            try {
+                // parsing a library changes the scopes that the conversion reads
+                synchronized (context.getGlobalScope()) {
+                    descriptor.resolveIfLazyLLVMIRFunction();
+                }
+            } catch (LLVMParserException | LLVMLinkerException e) {
+                // leave the function lazy, calling it will report the error
+                continue;
+            }
+            LLVMFunctionDescriptor[] callees = lazy.getCallees();
+            if (callees != null) {
+                for (LLVMFunctionDescriptor callee : callees) {
+                    enqueue(callee);
+                }
+            }
+        }
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+    }
+
+    @Override
+    public void awaitFinish() {
+        stop();
+        try {
+            thread.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            // the worker must not do this itself, awaitThreadTermination holds the context lock
+            context.unregisterThread(this);
+        }
+    }
+}
@@ -0,0 +1,144 @@
+/*
+ * Copyright (c) 2018, Oracle and/or its affiliates.
+ *
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification, are
+ * permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this list of
+ * conditions and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice, this list of
+ * conditions and the following disclaimer in the documentation and/or other materials provided
+ * with the distribution.
+ *
+ * 3. Neither the name of the copyright holder nor the names of its contributors may be used to
+ * endorse or promote products derived from this software without specific prior written
+ * permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY EXPRESS
+ * OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE
+ * COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ * EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE
+ * GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED
+ * AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED
+ * OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.oracle.truffle.llvm.runtime;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+import com.oracle.truffle.api.CompilerDirectives.TruffleBoundary;
+import com.oracle.truffle.api.TruffleLanguage.Env;
+import com.oracle.truffle.llvm.runtime.memory.LLVMMemory;
+
+/**
+ * Buffers what a program writes to stdout and stderr and passes it to the output streams of the
+ * polyglot environment, instead of making a native call for every write. Both file descriptors
+ * share one buffer, which is flushed whenever the program switches between them, so that the
+ * output keeps its order. The buffer is also flushed when the program reads from stdin, calls
+ * {@code fsync} on one of the file descriptors, or exits. Once the program replaces or closes one
+ * of the file descriptors, e.g., with {@code dup2}, its writes go to the native file descriptor
+ * again.
+ */
+public final class LLVMStdioBuffer {
+
+    public static final int STDIN = 0;
+    public static final int STDOUT = 1;
+    public static final int STDERR = 2;
+
+    private final byte[] buffer;
+    private final LLVMContext context;
+
+    private int position;
+    private long bufferedFd;
+
+    private volatile boolean stdoutReleased;
+    private volatile boolean stderrReleased;
+
+    public LLVMStdioBuffer(LLVMContext context, int size) {
+        assert size > 0;
+        this.buffer = new byte[size];
+        this.context = context;
+        this.position = 0;
+        this.bufferedFd = STDOUT;
+    }
+
+    public static boolean isStdio(long fd) {
+        return fd == STDOUT || fd == STDERR;
+    }
+
+    public boolean isBuffered(long fd) {
+        return (fd == STDOUT && !stdoutReleased) || (fd == STDERR && !stderrReleased);
+    }
+
+    /**
+     * Flushes the buffer and passes all later writes to {@code fd} to the native file descriptor,
+     * because the program has made it refer to something else.
+     */
+    @TruffleBoundary
+    public synchronized void release(long fd) throws IOException {
+        assert isStdio(fd);
+        flush();
+        if (fd == STDOUT) {
+            stdoutReleased = true;
+        } else {
+            stderrReleased = true;
+        }
+    }
+
+    /**
+     * Copies {@code size} bytes at {@code address} into the buffer.
+     *
+     * @return The number of bytes written.
+     */
+    @TruffleBoundary
+    public synchronized long write(LLVMMemory memory, long fd, long address, long size) throws IOException {
+        assert isBuffered(fd);
+        if (fd != bufferedFd) {
+            flush();
+            bufferedFd = fd;
+        }
+        long offset = 0;
+        while (offset < size) {
+            if (position == buffer.length) {
+                flush();
+            }
+            int length = (int) Math.min(buffer.length - position, size - offset);
+            memory.getByteArray(address + offset, buffer, position, length);
+            position += length;
+            offset += length;
+        }
+        return size;
+    }
+
+    /**
+     * Same as {@link #write}, but for an array of {@code struct iovec}.
+     */
+    @TruffleBoundary
+    public synchronized long writev(LLVMMemory memory, long fd, long iov, long iovcnt) throws IOException {
+        long written = 0;
+        for (long i = 0; i < iovcnt; i++) {
+            long base = memory.getI64(iov + i * 2 * Long.BYTES);
+            long length = memory.getI64(iov + i * 2 * Long.BYTES + Long.BYTES);
+            written += write(memory, fd, base, length);
+        }
+        return written;
+    }
+
+    @TruffleBoundary
+    public synchronized void flush() throws IOException {
+        if (position > 0) {
+            // the streams of the current environment, which changes if the context is patched
+            Env env = context.getEnv();
+            OutputStream stream = bufferedFd == STDERR ? env.err() : env.out();
+            stream.write(buffer, 0, position);
+            stream.flush();
+            position = 0;
+        }
+    }
+}
@@ -29,6 +29,7 @@
  */
 package com.oracle.truffle.llvm.runtime;
 
+import java.util.ArrayList;
 import java.util.List;
 
 import org.graalvm.collections.EconomicMap;
@@ -36,6 +37,7 @@ import org.graalvm.collections.MapCursor;
 
 import com.oracle.truffle.api.CompilerAsserts;
 import com.oracle.truffle.api.CompilerDirectives.TruffleBoundary;
+import com.oracle.truffle.api.TruffleFile;
 import com.oracle.truffle.api.TruffleLanguage;
 import com.oracle.truffle.api.TruffleLanguage.Env;
 import com.oracle.truffle.api.interop.ForeignAccess;
@@ -61,16 +63,47 @@ public final class NFIContextExtension implements ContextExtension {
     private final ExternalLibrary defaultLibrary;
     // we use an EconomicMap because iteration order must match the insertion order
     private final EconomicMap<ExternalLibrary, TruffleObject> libraryHandles = EconomicMap.create();
+    // the position of each library in the lookup order
+    private final EconomicMap<ExternalLibrary, Integer> libraryOrder = EconomicMap.create();
+    // maps the exported symbols to the first library that exports them
+    private final EconomicMap<String, ExternalLibrary> symbolIndex = EconomicMap.create();
+    // the libraries whose exported symbols are unknown, in the lookup order
+    private final List<ExternalLibrary> unindexedLibraries = new ArrayList<>();
     private final TruffleLanguage.Env env;
+    private final NativeSymbolReader symbolReader;
     private final LLVMNativeFunctions nativeFunctions;
 
+    /**
+     * Reads the names of the symbols that a native library exports, so that symbols can be
+     * resolved without asking every loaded library for them.
+     */
+    public interface NativeSymbolReader {
+
+        /**
+         * @return The names of the exported symbols, or {@code null} if they cannot be determined,
+         *         e.g., because the library is not in a known format.
+         */
+        List<String> readExportedSymbols(TruffleFile library);
+    }
+
     public NFIContextExtension(Env env) {
+        this(env, null);
+    }
+
+    public NFIContextExtension(Env env, NativeSymbolReader symbolReader) {
         this.env = env;
+        this.symbolReader = symbolReader;
         this.defaultLibraryHandle = loadDefaultLibrary();
         this.defaultLibrary = new ExternalLibrary("NativeDefault", true);
         this.nativeFunctions = new LLVMNativeFunctions(this);
     }
 
+    @Override
+    public ContextExtension patchContext(Env newEnv) {
+        // the library handles of the image builder are not valid anymore
+        return new NFIContextExtension(newEnv, symbolReader);
+    }
+
     public static class UnsupportedNativeTypeException extends Exception {
 
         private static final long serialVersionUID = 1L;
@@ -138,7 +171,8 @@ public final class NFIContextExtension implements ContextExtension {
         CompilerAsserts.neverPartOfCompilation();
         if (!libraryHandles.containsKey(lib) && !handleSpecialLibraries(lib)) {
             try {
-                libraryHandles.put(lib, loadLibrary(lib));
+                TruffleObject handle = loadLibrary(lib);
+                registerLibrary(lib, handle, readExportedSymbols(lib));
             } catch (UnsatisfiedLinkError e) {
                 System.err.println(lib.toString() + " not found!\n" + e.getMessage());
                 throw e;
@@ -182,7 +216,8 @@ public final class NFIContextExtension implements ContextExtension {
                 }
             }
             if (cxxlib != null) {
-                libraryHandles.put(lib, cxxlib);
+                // the library was loaded by name, so we don't know which file it is
+                registerLibrary(lib, cxxlib, null);
             }
             return true;
         } else {
@@ -190,6 +225,31 @@ public final class NFIContextExtension implements ContextExtension {
         }
     }
 
+    private void registerLibrary(ExternalLibrary lib, TruffleObject handle, List<String> exportedSymbols) {
+        libraryOrder.put(lib, libraryHandles.size());
+        libraryHandles.put(lib, handle);
+        if (exportedSymbols == null) {
+            unindexedLibraries.add(lib);
+        } else {
+            for (String symbol : exportedSymbols) {
+                if (!symbolIndex.containsKey(symbol)) {
+                    symbolIndex.put(symbol, lib);
+                }
+            }
+        }
+    }
+
+    private List<String> readExportedSymbols(ExternalLibrary lib) {
+        if (symbolReader == null) {
+            return null;
+        }
+        try {
+            return symbolReader.readExportedSymbols(env.getTruffleFile(lib.getPath().toString()));
+        } catch (SecurityException e) {
+            return null;
+        }
+    }
+
     private TruffleObject loadLibrary(ExternalLibrary lib) {
         CompilerAsserts.neverPartOfCompilation();
         String libName = lib.getPath().toString();
@@ -225,9 +285,8 @@ public final class NFIContextExtension implements ContextExtension {
         }
     }
 
-    private static TruffleObject getNativeFunctionOrNull(TruffleObject library, String name) {
+    private static TruffleObject getNativeFunctionOrNull(TruffleObject library, String demangledName) {
         CompilerAsserts.neverPartOfCompilation();
-        String demangledName = name.substring(1);
         if (!KeyInfo.isReadable(ForeignAccess.sendKeyInfo(Message.KEY_INFO.createNode(), library, demangledName))) {
             // try another library
             return null;
@@ -285,40 +344,63 @@ public final class NFIContextExtension implements ContextExtension {
     public NativeLookupResult getNativeFunctionOrNull(LLVMContext context, String name) {
         CompilerAsserts.neverPartOfCompilation();
         addLibraries(context);
-
-        MapCursor<ExternalLibrary, TruffleObject> cursor = libraryHandles.getEntries();
-        while (cursor.advance()) {
-            TruffleObject symbol = getNativeFunctionOrNull(cursor.getValue(), name);
-            if (symbol != null) {
-                return new NativeLookupResult(cursor.getKey(), symbol);
-            }
-        }
-        TruffleObject symbol = getNativeFunctionOrNull(defaultLibraryHandle, name);
-        if (symbol != null) {
-            return new NativeLookupResult(defaultLibrary, symbol);
-        }
-        return null;
+        return lookup(name, false);
     }
 
     private NativeLookupResult getNativeDataObjectOrNull(LLVMContext context, String name) {
         CompilerAsserts.neverPartOfCompilation();
         addLibraries(context);
+        return lookup(name, true);
+    }
 
+    /**
+     * Looks up a symbol in the same order as the dynamic linker, i.e., in the order in which the
+     * libraries were loaded and then in the default library. Libraries whose exported symbols are
+     * known are only asked for the symbols that they export, so that most symbols are resolved with
+     * a single lookup in the index and a single lookup in the native library. The handle of a
+     * library also provides the symbols of its dependencies, so as a last resort, the indexed
+     * libraries are asked for a symbol that nothing else provides.
+     */
+    private NativeLookupResult lookup(String name, boolean isData) {
         String realName = name.substring(1);
-        MapCursor<ExternalLibrary, TruffleObject> cursor = libraryHandles.getEntries();
-        while (cursor.advance()) {
-            TruffleObject symbol = getNativeDataObjectOrNull(cursor.getValue(), realName);
+        ExternalLibrary indexedLibrary = symbolIndex.get(realName);
+        int indexedPosition = indexedLibrary == null ? Integer.MAX_VALUE : libraryOrder.get(indexedLibrary);
+        for (ExternalLibrary lib : unindexedLibraries) {
+            if (libraryOrder.get(lib) > indexedPosition) {
+                break;
+            }
+            TruffleObject symbol = lookup(libraryHandles.get(lib), realName, isData);
             if (symbol != null) {
-                return new NativeLookupResult(cursor.getKey(), symbol);
+                return new NativeLookupResult(lib, symbol);
             }
         }
-        TruffleObject symbol = getNativeDataObjectOrNull(defaultLibraryHandle, realName);
+        if (indexedLibrary != null) {
+            TruffleObject symbol = lookup(libraryHandles.get(indexedLibrary), realName, isData);
+            if (symbol != null) {
+                return new NativeLookupResult(indexedLibrary, symbol);
+            }
+        }
+        TruffleObject symbol = lookup(defaultLibraryHandle, realName, isData);
         if (symbol != null) {
             return new NativeLookupResult(defaultLibrary, symbol);
         }
+
+        MapCursor<ExternalLibrary, TruffleObject> cursor = libraryHandles.getEntries();
+        while (cursor.advance()) {
+            if (cursor.getKey() != indexedLibrary && !unindexedLibraries.contains(cursor.getKey())) {
+                symbol = lookup(cursor.getValue(), realName, isData);
+                if (symbol != null) {
+                    return new NativeLookupResult(cursor.getKey(), symbol);
+                }
+            }
+        }
         return null;
     }
 
+    private static TruffleObject lookup(TruffleObject libraryHandle, String realName, boolean isData) {
+        return isData ? getNativeDataObjectOrNull(libraryHandle, realName) : getNativeFunctionOrNull(libraryHandle, realName);
+    }
+
     private static TruffleObject getNativeDataObjectOrNull(TruffleObject libraryHandle, String name) {
         try {
             TruffleObject symbol = (TruffleObject) ForeignAccess.sendRead(Message.READ.createNode(), libraryHandle, name);
@@ -335,7 +417,7 @@ public final class NFIContextExtension implements ContextExtension {
         }
     }
 
-    private static TruffleObject bindNativeFunction(TruffleObject symbol, String signature) {
+    static TruffleObject bindNativeFunction(TruffleObject symbol, String signature) {
         CompilerAsserts.neverPartOfCompilation();
         try {
             return (TruffleObject) ForeignAccess.sendInvoke(Message.INVOKE.createNode(), symbol, "bind", signature);
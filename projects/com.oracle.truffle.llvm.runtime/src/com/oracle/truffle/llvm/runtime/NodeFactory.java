@@ -33,6 +33,7 @@ import java.util.List;
 
 import com.oracle.truffle.api.frame.FrameDescriptor;
 import com.oracle.truffle.api.frame.FrameSlot;
+import com.oracle.truffle.api.nodes.RepeatingNode;
 import com.oracle.truffle.api.nodes.RootNode;
 import com.oracle.truffle.api.source.Source;
 import com.oracle.truffle.llvm.runtime.LLVMContext.ExternalLibrary;
@@ -57,6 +58,7 @@ import com.oracle.truffle.llvm.runtime.nodes.api.LLVMStatementNode;
 import com.oracle.truffle.llvm.runtime.types.AggregateType;
 import com.oracle.truffle.llvm.runtime.types.ArrayType;
 import com.oracle.truffle.llvm.runtime.types.FunctionType;
+import com.oracle.truffle.llvm.runtime.types.PrimitiveType;
 import com.oracle.truffle.llvm.runtime.types.StructureType;
 import com.oracle.truffle.llvm.runtime.types.Type;
 import com.oracle.truffle.llvm.runtime.types.VectorType;
@@ -148,6 +150,8 @@ public interface NodeFactory extends InteropNodeFactory {
     LLVMControlFlowNode createSwitch(LLVMExpressionNode cond, int[] labels, LLVMExpressionNode[] cases,
                     Type llvmType, LLVMStatementNode[] phiWriteNodes, LLVMSourceLocation source);
 
+    LLVMControlFlowNode createSwitch(LLVMExpressionNode cond, int[] successors, long[] caseValues, PrimitiveType llvmType, LLVMStatementNode[] phiWriteNodes, LLVMSourceLocation source);
+
     LLVMControlFlowNode createConditionalBranch(int trueIndex, int falseIndex, LLVMExpressionNode conditionNode, LLVMStatementNode truePhiWriteNodes,
                     LLVMStatementNode falsePhiWriteNodes, LLVMSourceLocation sourceSection);
 
@@ -183,9 +187,18 @@ public interface NodeFactory extends InteropNodeFactory {
     LLVMExpressionNode createFunctionBlockNode(FrameSlot exceptionValueSlot, List<? extends LLVMStatementNode> basicBlockNodes, UniquesRegionAllocator uniquesRegionAllocator,
                     FrameSlot[][] beforeBlockNuller, FrameSlot[][] afterBlockNuller, LLVMSourceLocation sourceSection, LLVMStatementNode[] copyArgumentsToFrame);
 
+    RepeatingNode createLoopDispatchNode(FrameSlot exceptionValueSlot, FrameSlot successorSlot, List<? extends LLVMStatementNode> bodyNodes, int[] indexMapping, FrameSlot[][] beforeBlockNuller,
+                    FrameSlot[][] afterBlockNuller);
+
+    LLVMControlFlowNode createLoop(RepeatingNode body, FrameSlot successorSlot, int[] successors);
+
     RootNode createFunctionStartNode(LLVMExpressionNode functionBodyNode, FrameDescriptor frameDescriptor, String name, String originalName,
                     int argumentCount, Source bcSource, LLVMSourceLocation location);
 
+    void replaceFunctionBody(RootNode functionStartNode, LLVMExpressionNode functionBodyNode);
+
+    void deferFunctionDebugInfo(RootNode functionStartNode, Runnable materialization);
+
     LLVMExpressionNode createInlineAssemblerExpression(ExternalLibrary library, String asmExpression, String asmFlags, LLVMExpressionNode[] args, Type[] argTypes, Type retType,
                     LLVMSourceLocation sourceSection);
 
@@ -29,14 +29,72 @@
  */
 package com.oracle.truffle.llvm.runtime;
 
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+import com.oracle.truffle.api.CompilerAsserts;
+import com.oracle.truffle.api.frame.VirtualFrame;
+import com.oracle.truffle.api.nodes.RootNode;
 import com.oracle.truffle.llvm.runtime.memory.LLVMSyscallOperationNode;
 
 public abstract class SystemContextExtension implements ContextExtension {
 
+    private static final int SHARED_SYSCALL_NODES = 512;
+
+    private final AtomicReferenceArray<LLVMSyscallOperationNode> sharedSyscallNodes = new AtomicReferenceArray<>(SHARED_SYSCALL_NODES);
+    private SyscallTableRootNode sharedSyscallRoot;
+
     public abstract String[] getSulongDefaultLibraries();
 
     public abstract LLVMSyscallOperationNode createSyscallNode(long index);
 
+    /**
+     * Returns the node of a syscall for the syscall sites that see too many different syscall
+     * numbers to cache a node for each of them, e.g., the generic {@code syscall()} function of
+     * libc. These sites share one node per syscall number, so that they neither create a node nor
+     * deoptimize on every call.
+     */
+    public final LLVMSyscallOperationNode getSharedSyscallNode(LLVMLanguage language, long index) {
+        CompilerAsserts.neverPartOfCompilation();
+        if (index < 0 || index >= SHARED_SYSCALL_NODES) {
+            return createSharedSyscallNode(language, index);
+        }
+        LLVMSyscallOperationNode node = sharedSyscallNodes.get((int) index);
+        if (node == null) {
+            node = createSharedSyscallNode(language, index);
+            if (!sharedSyscallNodes.compareAndSet((int) index, null, node)) {
+                node = sharedSyscallNodes.get((int) index);
+            }
+        }
+        return node;
+    }
+
+    private synchronized LLVMSyscallOperationNode createSharedSyscallNode(LLVMLanguage language, long index) {
+        if (sharedSyscallRoot == null) {
+            sharedSyscallRoot = new SyscallTableRootNode(language);
+        }
+        return sharedSyscallRoot.adopt(createSyscallNode(index));
+    }
+
+    /**
+     * The parent of the shared syscall nodes, which gives them access to the language and the
+     * context. It is never executed.
+     */
+    private static final class SyscallTableRootNode extends RootNode {
+
+        private SyscallTableRootNode(LLVMLanguage language) {
+            super(language);
+        }
+
+        private LLVMSyscallOperationNode adopt(LLVMSyscallOperationNode node) {
+            return insert(node);
+        }
+
+        @Override
+        public Object execute(VirtualFrame frame) {
+            throw new IllegalStateException("The syscall table is not executable.");
+        }
+    }
+
     @Override
     public final Class<?> extensionClass() {
         return SystemContextExtension.class;
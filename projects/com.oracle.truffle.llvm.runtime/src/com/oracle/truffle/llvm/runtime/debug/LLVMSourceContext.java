@@ -35,48 +35,90 @@ import com.oracle.truffle.llvm.runtime.debug.scope.LLVMSourceSymbol;
 import com.oracle.truffle.llvm.runtime.debug.value.LLVMFrameValueAccess;
 import com.oracle.truffle.llvm.runtime.debug.value.LLVMDebugObjectBuilder;
 
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.List;
 
+/**
+ * The debug information of a context. Functions register their values here when they are
+ * converted, which can happen concurrently.
+ *
+ * The information that is only needed to inspect variables at source level can be deferred until a
+ * debugger actually does so. Until then, only the means to build that of the global variables are
+ * kept here.
+ */
 public final class LLVMSourceContext {
 
     private final HashMap<LLVMSourceSymbol, LLVMDebugObjectBuilder> staticValues;
     private final HashMap<LLVMSourceSymbol, LLVMFrameValueAccess> frameValues;
     private final HashMap<String, LLVMSourceLocation> exportedScopes;
 
+    private final boolean deferDebugInfo;
+    private final List<Runnable> deferredStatics;
+
     @TruffleBoundary
-    public LLVMSourceContext() {
+    public LLVMSourceContext(boolean deferDebugInfo) {
         staticValues = new HashMap<>();
         frameValues = new HashMap<>();
         exportedScopes = new HashMap<>();
+        this.deferDebugInfo = deferDebugInfo;
+        deferredStatics = new ArrayList<>();
+    }
+
+    public boolean isDebugInfoDeferred() {
+        return deferDebugInfo;
+    }
+
+    @TruffleBoundary
+    public synchronized void deferStatics(Runnable registration) {
+        deferredStatics.add(registration);
+    }
+
+    /**
+     * Builds the deferred debug information of the global variables. The information of local
+     * variables is deferred by each function.
+     */
+    @TruffleBoundary
+    public void materializeStatics() {
+        final List<Runnable> statics;
+        // the registrations add their values to this context, so they must not run while holding
+        // the lock
+        synchronized (this) {
+            statics = new ArrayList<>(deferredStatics);
+            deferredStatics.clear();
+        }
+        for (Runnable registration : statics) {
+            registration.run();
+        }
     }
 
     @TruffleBoundary
-    public void registerStatic(LLVMSourceSymbol symbol, LLVMDebugObjectBuilder value) {
+    public synchronized void registerStatic(LLVMSourceSymbol symbol, LLVMDebugObjectBuilder value) {
         staticValues.put(symbol, value);
     }
 
     @TruffleBoundary
-    public LLVMDebugObjectBuilder getStatic(LLVMSourceSymbol symbol) {
+    public synchronized LLVMDebugObjectBuilder getStatic(LLVMSourceSymbol symbol) {
         return staticValues.get(symbol);
     }
 
     @TruffleBoundary
-    public void registerFrameValue(LLVMSourceSymbol symbol, LLVMFrameValueAccess value) {
+    public synchronized void registerFrameValue(LLVMSourceSymbol symbol, LLVMFrameValueAccess value) {
         frameValues.put(symbol, value);
     }
 
     @TruffleBoundary
-    public LLVMFrameValueAccess getFrameValue(LLVMSourceSymbol symbol) {
+    public synchronized LLVMFrameValueAccess getFrameValue(LLVMSourceSymbol symbol) {
         return frameValues.get(symbol);
     }
 
     @TruffleBoundary
-    public LLVMSourceLocation getExportedScope(String name) {
+    public synchronized LLVMSourceLocation getExportedScope(String name) {
         return exportedScopes.get(name);
     }
 
     @TruffleBoundary
-    public void exportScope(String name, LLVMSourceLocation scope) {
+    public synchronized void exportScope(String name, LLVMSourceLocation scope) {
         exportedScopes.put(name, scope);
     }
 }
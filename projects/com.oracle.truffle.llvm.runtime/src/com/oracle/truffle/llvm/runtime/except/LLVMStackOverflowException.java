@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2017, Oracle and/or its affiliates.
+ * Copyright (c) 2018, Oracle and/or its affiliates.
  *
  * All rights reserved.
  *
@@ -27,29 +27,18 @@
  * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED
  * OF THE POSSIBILITY OF SUCH DAMAGE.
  */
-#include <math.h>
+package com.oracle.truffle.llvm.runtime.except;
 
-void __sulong_fp80_add(long double* out, long double* x, long double* y)
-{
-	*out = *x + *y;
-}
-
-void __sulong_fp80_sub(long double* out, long double* x, long double* y)
-{
-	*out = *x - *y;
-}
+import com.oracle.truffle.api.nodes.Node;
 
-void __sulong_fp80_mul(long double* out, long double* x, long double* y)
-{
-	*out = *x * *y;
-}
+/**
+ * Exception thrown when the Sulong stack of a thread is exhausted.
+ */
+public final class LLVMStackOverflowException extends LLVMException {
 
-void __sulong_fp80_div(long double* out, long double* x, long double* y)
-{
-	*out = *x / *y;
-}
+    private static final long serialVersionUID = 1L;
 
-void __sulong_fp80_mod(long double* out, long double* x, long double* y)
-{
-	*out = fmodl(*x, *y);
+    public LLVMStackOverflowException(Node location, String message) {
+        super(location, message);
+    }
 }
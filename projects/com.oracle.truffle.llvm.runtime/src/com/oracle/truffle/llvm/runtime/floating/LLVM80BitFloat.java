@@ -36,24 +36,12 @@ import java.util.Arrays;
 import javax.xml.bind.DatatypeConverter;
 
 import com.oracle.truffle.api.CompilerAsserts;
-import com.oracle.truffle.api.CompilerDirectives;
 import com.oracle.truffle.api.CompilerDirectives.TruffleBoundary;
 import com.oracle.truffle.api.CompilerDirectives.ValueType;
-import com.oracle.truffle.api.dsl.Cached;
-import com.oracle.truffle.api.dsl.Specialization;
-import com.oracle.truffle.api.interop.ForeignAccess;
 import com.oracle.truffle.api.interop.InteropException;
-import com.oracle.truffle.api.interop.Message;
-import com.oracle.truffle.api.interop.TruffleObject;
 import com.oracle.truffle.api.nodes.ExplodeLoop;
-import com.oracle.truffle.api.nodes.Node;
-import com.oracle.truffle.llvm.runtime.LLVMContext;
-import com.oracle.truffle.llvm.runtime.NFIContextExtension;
-import com.oracle.truffle.llvm.runtime.floating.LLVM80BitFloatFactory.LLVM80BitFloatNativeCallNodeGen;
-import com.oracle.truffle.llvm.runtime.memory.LLVMMemory;
+import com.oracle.truffle.llvm.runtime.LLVMI128;
 import com.oracle.truffle.llvm.runtime.nodes.api.LLVMArithmetic;
-import com.oracle.truffle.llvm.runtime.nodes.api.LLVMNode;
-import com.oracle.truffle.llvm.runtime.pointer.LLVMNativePointer;
 
 @ValueType
 public final class LLVM80BitFloat implements LLVMArithmetic {
@@ -137,6 +125,15 @@ public final class LLVM80BitFloat implements LLVMArithmetic {
     private static final LLVM80BitFloat POSITIVE_INFINITY = new LLVM80BitFloat(false, ALL_ONE_EXPONENT, bit(63L));
     private static final LLVM80BitFloat NEGATIVE_INFINITY = new LLVM80BitFloat(true, ALL_ONE_EXPONENT, bit(63L));
 
+    private static final long EXPLICIT_INTEGER_BIT = bit(63L);
+    private static final long QUIET_NAN_BIT = bit(62L);
+
+    // the "real indefinite" QNaN that the x87 FPU returns for invalid operations
+    private static final LLVM80BitFloat DEFAULT_NAN = new LLVM80BitFloat(true, ALL_ONE_EXPONENT, EXPLICIT_INTEGER_BIT | QUIET_NAN_BIT);
+
+    // one integer and 66 fraction bits leave at least two guard bits below the 64 result bits
+    private static final int DIVISION_QUOTIENT_BITS = 67;
+
     private static final int EXPLICIT_LEADING_ONE_BITS = 1;
     private static final int EXPONENT_BIAS = 16383;
     private static final int FLOAT_EXPONENT_BIAS = 127;
@@ -198,6 +195,38 @@ public final class LLVM80BitFloat implements LLVMArithmetic {
         return fromLong(val, false);
     }
 
+    public static LLVM80BitFloat fromI128(LLVMI128 val) {
+        boolean sign = val.isNegative();
+        // the negation of the smallest value is the same value, which as unsigned is its magnitude
+        return fromUnsignedI128(sign ? val.negate() : val, sign);
+    }
+
+    public static LLVM80BitFloat fromUnsignedI128(LLVMI128 val) {
+        return fromUnsignedI128(val, false);
+    }
+
+    private static LLVM80BitFloat fromUnsignedI128(LLVMI128 val, boolean sign) {
+        long high = val.getHigh();
+        long low = val.getLow();
+        if (high == 0) {
+            return low == 0 ? new LLVM80BitFloat(POSITIVE_ZERO) : fromLong(low, sign);
+        }
+        int shift = Long.numberOfLeadingZeros(high);
+        long significand = shift == 0 ? high : (high << shift) | (low >>> (Long.SIZE - shift));
+        long remainder = low << shift;
+        int exponent = EXPONENT_BIAS + (LLVMI128.BIT_WIDTH - 1 - shift);
+        // round to nearest-even, a carry out of the significand moves to the next binade
+        int cmp = Long.compareUnsigned(remainder, EXPLICIT_INTEGER_BIT);
+        if (cmp > 0 || (cmp == 0 && (significand & 1) != 0)) {
+            significand++;
+            if (significand == 0) {
+                significand = EXPLICIT_INTEGER_BIT;
+                exponent++;
+            }
+        }
+        return new LLVM80BitFloat(sign, exponent, significand);
+    }
+
     public static LLVM80BitFloat fromUnsignedInt(int val) {
         if (val == 0) {
             return new LLVM80BitFloat(POSITIVE_ZERO);
@@ -255,6 +284,10 @@ public final class LLVM80BitFloat implements LLVMArithmetic {
         } else {
             int rawValue = Float.floatToRawIntBits(val);
             int floatExponent = FloatHelper.getUnbiasedExponent(val);
+            if (floatExponent < Float.MIN_EXPONENT) {
+                // subnormal floats are normal numbers in the extended format
+                return fromSubnormal(sign, rawValue & FloatHelper.FRACTION_MASK, Float.MIN_EXPONENT - FloatHelper.FLOAT_FRACTION_BIT_WIDTH);
+            }
             int biasedExponent = floatExponent + EXPONENT_BIAS;
             long leadingOne = (long) EXPLICIT_LEADING_ONE_BITS << (FRACTION_BIT_WIDTH - 1);
             long floatFraction = rawValue & FloatHelper.FRACTION_MASK;
@@ -279,6 +312,10 @@ public final class LLVM80BitFloat implements LLVMArithmetic {
         } else {
             long rawValue = Double.doubleToRawLongBits(val);
             int doubleExponent = DoubleHelper.getUnbiasedExponent(val);
+            if (doubleExponent < Double.MIN_EXPONENT) {
+                // subnormal doubles are normal numbers in the extended format
+                return fromSubnormal(sign, rawValue & DoubleHelper.FRACTION_MASK, Double.MIN_EXPONENT - (int) DoubleHelper.DOUBLE_FRACTION_BIT_WIDTH);
+            }
             int biasedExponent = doubleExponent + EXPONENT_BIAS;
             long leadingOne = (long) EXPLICIT_LEADING_ONE_BITS << (FRACTION_BIT_WIDTH - 1);
             long doubleFraction = rawValue & DoubleHelper.FRACTION_MASK;
@@ -288,69 +325,19 @@ public final class LLVM80BitFloat implements LLVMArithmetic {
         }
     }
 
-    private long getFractionAsLong() {
-        return fraction >>> (FRACTION_BIT_WIDTH - getUnbiasedExponent() - EXPLICIT_LEADING_ONE_BITS);
+    private static LLVM80BitFloat fromSubnormal(boolean sign, long subnormalFraction, int unbiasedExponentOfLastBit) {
+        int shift = Long.numberOfLeadingZeros(subnormalFraction);
+        int biasedExponent = EXPONENT_BIAS + unbiasedExponentOfLastBit + (FRACTION_BIT_WIDTH - 1 - shift);
+        return LLVM80BitFloat.fromRawValues(sign, biasedExponent, subnormalFraction << shift);
     }
 
-    private long compareNoSign(LLVM80BitFloat val) {
-        if (getExponent() != val.getExponent()) {
-            return getExponent() - val.getExponent();
-        } else {
-            return (getFraction() - val.getFraction());
-        }
-    }
-
-    @SuppressWarnings("unused")
-    private LLVM80BitFloat add2(LLVM80BitFloat right) {
-        int leftExponent = getExponent();
-        int rightExponent = right.getExponent();
-        long leftFraction = getFraction();
-        long rightFraction = right.getFraction();
-
-        int shiftAmount = Math.abs(leftExponent - rightExponent);
-        if (leftExponent < rightExponent) {
-            leftFraction >>>= shiftAmount;
-            leftExponent = rightExponent;
-        } else {
-            rightFraction >>>= shiftAmount;
-            rightExponent = leftExponent;
-        }
-        boolean newSign;
-        if (getSign() == right.getSign()) {
-            newSign = getSign();
-        } else {
-            newSign = compareNoSign(right) < 0 ? right.getSign() : getSign();
-        }
-        boolean addition = getSign() == right.getSign();
-        long resultLo;
-        long resultHi;
-        long leftFractionLowerPart = leftFraction & BinaryHelper.getBitMask(Integer.SIZE);
-        long rightFractionLowerPart = rightFraction & BinaryHelper.getBitMask(Integer.SIZE);
-        long leftFractionHigherPart = leftFraction >>> Integer.SIZE;
-        long rightFractionHigherPart = rightFraction >>> Integer.SIZE;
-        if (addition) {
-            resultLo = -leftFractionLowerPart + rightFractionLowerPart;
-            long overFlowLowerPart = resultLo >>> Integer.SIZE;
-            resultHi = leftFractionHigherPart + rightFractionHigherPart + overFlowLowerPart;
-        } else if (getSign()) { // left is negative
-            resultLo = -leftFractionLowerPart + rightFractionLowerPart;
-            long overFlowLowerPart = resultLo >>> Integer.SIZE;
-            resultHi = -leftFractionHigherPart - rightFractionHigherPart - overFlowLowerPart;
-        } else {
-            resultLo = leftFractionLowerPart - rightFractionLowerPart;
-            long overFlowLowerPart = resultLo >>> Integer.SIZE;
-            resultHi = leftFractionHigherPart - rightFractionHigherPart - overFlowLowerPart;
-        }
-        int overFlow = (int) (resultHi >>> Integer.SIZE);
-        if (overFlow > 0) {
-            resultHi = resultHi >>> overFlow;
-            long lostBits = resultHi & overFlow;
-            long shiftedLostBits = lostBits << Integer.SIZE - overFlow;
-            resultLo = resultLo >>> overFlow | shiftedLostBits;
+    private long getFractionAsLong() {
+        int unbiasedExponent = getUnbiasedExponent();
+        if (unbiasedExponent < 0) {
+            // the magnitude is below one and truncates to zero
+            return 0;
         }
-        int newExponent = leftExponent + overFlow;
-        long newFraction = resultLo + resultHi << Integer.SIZE;
-        return LLVM80BitFloat.fromRawValues(newSign, newExponent, newFraction);
+        return fraction >>> (FRACTION_BIT_WIDTH - unbiasedExponent - EXPLICIT_LEADING_ONE_BITS);
     }
 
     public LLVM80BitFloat abs() {
@@ -406,43 +393,19 @@ public final class LLVM80BitFloat implements LLVMArithmetic {
     }
 
     int compareOrdered(LLVM80BitFloat val) {
-        if (isNegativeInfinity()) {
-            if (val.isNegativeInfinity()) {
-                return 0;
-            } else {
-                return -1;
-            }
+        if (isZero() && val.isZero()) {
+            return 0;
         }
-        if (val.isNegativeInfinity()) {
-            if (isNegativeInfinity()) {
-                return 0;
-            } else {
-                return 1;
-            }
+        if (getSign() != val.getSign()) {
+            return getSign() ? -1 : 1;
         }
-        if (getSign() == val.getSign()) {
-            int expDifference = getExponent() - val.getExponent();
-            if (expDifference == 0) {
-                long fractionDifference = getFraction() - val.getFraction();
-                if (fractionDifference == 0) {
-                    return 0;
-                } else if (fractionDifference < 0) {
-                    return -1;
-                } else {
-                    return 1;
-                }
-            } else {
-                return expDifference;
-            }
+        int magnitude;
+        if (getEffectiveExponent() != val.getEffectiveExponent()) {
+            magnitude = getEffectiveExponent() < val.getEffectiveExponent() ? -1 : 1;
         } else {
-            if (isZero() && val.isZero()) {
-                return 0;
-            } else if (getSign()) {
-                return -1;
-            } else {
-                return 1;
-            }
+            magnitude = Long.compareUnsigned(getFraction(), val.getFraction());
         }
+        return getSign() ? -magnitude : magnitude;
     }
 
     public short getExponent() {
@@ -556,6 +519,29 @@ public final class LLVM80BitFloat implements LLVMArithmetic {
         }
     }
 
+    /**
+     * Truncates this value to a 128 bit integer. The result is also used for unsigned conversions,
+     * which have the same bits for all values in their range.
+     */
+    public LLVMI128 getI128Value() {
+        if (isNaN() || isInfinity()) {
+            return LLVMI128.create(UNDEFINED_FLOAT_TO_LONG_VALUE, 0);
+        }
+        int unbiasedExponent = getUnbiasedExponent();
+        LLVMI128 value;
+        if (unbiasedExponent < 0) {
+            // the magnitude is below one and truncates to zero
+            return LLVMI128.createNull();
+        } else if (unbiasedExponent >= LLVMI128.BIT_WIDTH) {
+            return LLVMI128.create(UNDEFINED_FLOAT_TO_LONG_VALUE, 0);
+        } else if (unbiasedExponent < FRACTION_BIT_WIDTH) {
+            value = LLVMI128.create(0, fraction >>> (FRACTION_BIT_WIDTH - unbiasedExponent - EXPLICIT_LEADING_ONE_BITS));
+        } else {
+            value = LLVMI128.create(0, fraction).leftShift(unbiasedExponent - (FRACTION_BIT_WIDTH - EXPLICIT_LEADING_ONE_BITS));
+        }
+        return sign ? value.negate() : value;
+    }
+
     public float getFloatValue() {
         if (isPositiveZero()) {
             return FloatHelper.POSITIVE_ZERO;
@@ -565,16 +551,12 @@ public final class LLVM80BitFloat implements LLVMArithmetic {
             return FloatHelper.POSITIVE_INFINITY;
         } else if (isNegativeInfinity()) {
             return FloatHelper.NEGATIVE_INFINITY;
-        } else if (isNaN()) {
+        } else if (isNaN() || isInvalidOperand()) {
             return FloatHelper.NaN;
         } else {
-            int floatExponent = getUnbiasedExponent() + FLOAT_EXPONENT_BIAS;
-            long longFraction = (getFractionWithoutImplicitZero()) >>> (FRACTION_BIT_WIDTH - FloatHelper.FLOAT_FRACTION_BIT_WIDTH);
-            int floatFraction = (int) longFraction;
+            long rawVal = roundToBinaryFormat(FloatHelper.FLOAT_FRACTION_BIT_WIDTH, FLOAT_EXPONENT_BIAS);
             int shiftedSignBit = (getSign() ? 1 : 0) << FloatHelper.FLOAT_SIGN_POS;
-            int shiftedExponent = floatExponent << FloatHelper.FLOAT_FRACTION_BIT_WIDTH;
-            int rawVal = floatFraction | shiftedExponent | shiftedSignBit;
-            return Float.intBitsToFloat(rawVal);
+            return Float.intBitsToFloat((int) rawVal | shiftedSignBit);
         }
     }
 
@@ -587,18 +569,56 @@ public final class LLVM80BitFloat implements LLVMArithmetic {
             return DoubleHelper.POSITIVE_INFINITY;
         } else if (isNegativeInfinity()) {
             return DoubleHelper.NEGATIVE_INFINITY;
-        } else if (isNaN()) {
+        } else if (isNaN() || isInvalidOperand()) {
             return DoubleHelper.NaN;
         } else {
-            int doubleExponent = getUnbiasedExponent() + DoubleHelper.DOUBLE_EXPONENT_BIAS;
-            long doubleFraction = (getFractionWithoutImplicitZero()) >>> (FRACTION_BIT_WIDTH - DoubleHelper.DOUBLE_FRACTION_BIT_WIDTH);
+            long rawVal = roundToBinaryFormat((int) DoubleHelper.DOUBLE_FRACTION_BIT_WIDTH, DoubleHelper.DOUBLE_EXPONENT_BIAS);
             long shiftedSignBit = (getSign() ? 1L : 0L) << DoubleHelper.DOUBLE_SIGN_POS;
-            long shiftedExponent = (long) doubleExponent << DoubleHelper.DOUBLE_FRACTION_BIT_WIDTH;
-            long rawVal = doubleFraction | shiftedExponent | shiftedSignBit;
-            return Double.longBitsToDouble(rawVal);
+            return Double.longBitsToDouble(rawVal | shiftedSignBit);
         }
     }
 
+    /**
+     * Rounds the magnitude of this finite value to nearest-even in a binary format with the given
+     * fraction width and exponent bias and returns the raw bits without the sign. Results that are
+     * too large become infinity and results that are too small become subnormal or zero.
+     */
+    private long roundToBinaryFormat(int fractionBitWidth, int exponentBias) {
+        long significand = getFraction();
+        if (significand == 0) {
+            return 0;
+        }
+        int leadingZeros = Long.numberOfLeadingZeros(significand);
+        significand <<= leadingZeros;
+        int exponent = getEffectiveExponent() - EXPONENT_BIAS - leadingZeros;
+        int maxExponentField = 2 * exponentBias + 1;
+        if (exponent > exponentBias) {
+            return (long) maxExponentField << fractionBitWidth;
+        }
+        int shift = FRACTION_BIT_WIDTH - 1 - fractionBitWidth;
+        int exponentField = exponent + exponentBias - 1;
+        if (exponentField < 0) {
+            shift -= exponentField;
+            exponentField = 0;
+        }
+        if (shift > FRACTION_BIT_WIDTH) {
+            return 0;
+        }
+        // adding the rounded significand with its leading one carries into the exponent field,
+        // which also covers rounding up to the next binade, to the smallest normal or to infinity
+        return ((long) exponentField << fractionBitWidth) + roundRightShift(significand, shift);
+    }
+
+    private static long roundRightShift(long value, int shift) {
+        long quotient = shift == Long.SIZE ? 0 : value >>> shift;
+        long remainder = shift == Long.SIZE ? value : value & ((1L << shift) - 1);
+        int cmp = Long.compareUnsigned(remainder, 1L << (shift - 1));
+        if (cmp > 0 || (cmp == 0 && (quotient & 1) != 0)) {
+            return quotient + 1;
+        }
+        return quotient;
+    }
+
     public LLVM80BitFloat negate() {
         return new LLVM80BitFloat(!getSign(), getExponent(), getFraction());
     }
@@ -641,86 +661,320 @@ public final class LLVM80BitFloat implements LLVMArithmetic {
         return fromBytesBigEndian(DatatypeConverter.parseHexBinary(stringValue));
     }
 
-    protected abstract static class LLVM80BitFloatNativeCallNode extends LLVMNode {
-        private final String name;
+    // arithmetic
 
-        @Child private Node nativeExecute = Message.EXECUTE.createNode();
+    /*
+     * The operations below implement x87 extended precision arithmetic with round-to-nearest-even
+     * and gradual underflow. Intermediate significands are kept as unsigned 128 bit values in two
+     * longs (high, low), where the bits below the result precision of the high part serve as guard
+     * bits and the least significant bit of the low part as sticky bit.
+     */
 
-        public LLVM80BitFloatNativeCallNode(String name) {
-            this.name = name;
-        }
+    public LLVM80BitFloat add(LLVM80BitFloat right) {
+        return addOrSub(this, right, right.getSign());
+    }
 
-        protected TruffleObject createFunction() {
-            LLVMContext context = getContextReference().get();
-            NFIContextExtension nfiContextExtension = context.getContextExtensionOrNull(NFIContextExtension.class);
-            return nfiContextExtension == null ? null : nfiContextExtension.getNativeFunction(context, "@__sulong_fp80_" + name, "(UINT64,UINT64,UINT64):VOID");
-        }
+    public LLVM80BitFloat sub(LLVM80BitFloat right) {
+        return addOrSub(this, right, !right.getSign());
+    }
 
-        public abstract LLVM80BitFloat execute(LLVM80BitFloat x, LLVM80BitFloat y);
+    public LLVM80BitFloat mul(LLVM80BitFloat right) {
+        boolean resultSign = getSign() ^ right.getSign();
+        if (!isFiniteOperand() || !right.isFiniteOperand()) {
+            if (isInvalidOperand() || right.isInvalidOperand()) {
+                return new LLVM80BitFloat(DEFAULT_NAN);
+            } else if (isNaN() || right.isNaN()) {
+                return propagateNaN(this, right);
+            } else if (isZero() || right.isZero()) {
+                // zero times infinity
+                return new LLVM80BitFloat(DEFAULT_NAN);
+            }
+            return infinity(resultSign);
+        }
+        long leftSignificand = getFraction();
+        long rightSignificand = right.getFraction();
+        if (leftSignificand == 0 || rightSignificand == 0) {
+            return zero(resultSign);
+        }
+        long high = unsignedMultiplyHigh(leftSignificand, rightSignificand);
+        long low = leftSignificand * rightSignificand;
+        return roundAndPack(resultSign, getEffectiveExponent() + right.getEffectiveExponent() - EXPONENT_BIAS + 1, high, low);
+    }
+
+    public LLVM80BitFloat div(LLVM80BitFloat right) {
+        boolean resultSign = getSign() ^ right.getSign();
+        if (!isFiniteOperand() || !right.isFiniteOperand()) {
+            if (isInvalidOperand() || right.isInvalidOperand()) {
+                return new LLVM80BitFloat(DEFAULT_NAN);
+            } else if (isNaN() || right.isNaN()) {
+                return propagateNaN(this, right);
+            } else if (isInfinity()) {
+                return right.isInfinity() ? new LLVM80BitFloat(DEFAULT_NAN) : infinity(resultSign);
+            }
+            return zero(resultSign);
+        }
+        long dividend = getFraction();
+        long divisor = right.getFraction();
+        if (divisor == 0) {
+            return dividend == 0 ? new LLVM80BitFloat(DEFAULT_NAN) : infinity(resultSign);
+        } else if (dividend == 0) {
+            return zero(resultSign);
+        }
+        int dividendShift = Long.numberOfLeadingZeros(dividend);
+        int divisorShift = Long.numberOfLeadingZeros(divisor);
+        dividend <<= dividendShift;
+        divisor <<= divisorShift;
+        int exponent = (getEffectiveExponent() - dividendShift) - (right.getEffectiveExponent() - divisorShift);
+
+        // restoring division that produces 64 result bits plus at least two guard bits
+        long remainder = dividend;
+        boolean remainderCarry = false;
+        long high = 0;
+        long low = 0;
+        for (int i = 0; i < DIVISION_QUOTIENT_BITS; i++) {
+            long quotientBit = 0;
+            if (remainderCarry || Long.compareUnsigned(remainder, divisor) >= 0) {
+                remainder -= divisor;
+                quotientBit = 1;
+            }
+            high = (high << 1) | (low >>> (Long.SIZE - 1));
+            low = (low << 1) | quotientBit;
+            remainderCarry = remainder < 0;
+            remainder <<= 1;
+        }
+        if (remainderCarry || remainder != 0) {
+            low |= 1;
+        }
+        return roundAndPack(resultSign, exponent + EXPONENT_BIAS + 2 * Long.SIZE - DIVISION_QUOTIENT_BITS, high, low);
+    }
 
-        @Specialization(guards = "function != null")
-        protected LLVM80BitFloat doCall(LLVM80BitFloat x, LLVM80BitFloat y,
-                        @Cached("createFunction()") TruffleObject function,
-                        @Cached("getLLVMMemory()") LLVMMemory memory) {
-            LLVMNativePointer mem = memory.allocateMemory(3 * 16);
-            LLVMNativePointer ptrX = mem;
-            LLVMNativePointer ptrY = ptrX.increment(16);
-            LLVMNativePointer ptrZ = ptrY.increment(16);
-            memory.put80BitFloat(ptrX, x);
-            memory.put80BitFloat(ptrY, y);
-            try {
-                ForeignAccess.sendExecute(nativeExecute, function, ptrZ.asNative(), ptrX.asNative(), ptrY.asNative());
-                LLVM80BitFloat z = memory.get80BitFloat(ptrZ);
-                return z;
-            } catch (InteropException e) {
-                CompilerDirectives.transferToInterpreter();
-                throw new AssertionError(e);
-            } finally {
-                memory.free(mem);
+    /**
+     * Computes the remainder of a division that truncates the quotient, i.e., the result of
+     * {@code fmodl} and the x87 {@code fprem} instruction. The result is always exact.
+     */
+    public LLVM80BitFloat rem(LLVM80BitFloat right) {
+        if (!isFiniteOperand() || !right.isFiniteOperand()) {
+            if (isInvalidOperand() || right.isInvalidOperand()) {
+                return new LLVM80BitFloat(DEFAULT_NAN);
+            } else if (isNaN() || right.isNaN()) {
+                return propagateNaN(this, right);
+            } else if (isInfinity()) {
+                return new LLVM80BitFloat(DEFAULT_NAN);
             }
+            return roundAndPack(getSign(), getEffectiveExponent(), getFraction(), 0);
         }
+        long dividend = getFraction();
+        long divisor = right.getFraction();
+        if (divisor == 0) {
+            return new LLVM80BitFloat(DEFAULT_NAN);
+        } else if (dividend == 0) {
+            return new LLVM80BitFloat(this);
+        }
+        int dividendShift = Long.numberOfLeadingZeros(dividend);
+        int divisorShift = Long.numberOfLeadingZeros(divisor);
+        dividend <<= dividendShift;
+        divisor <<= divisorShift;
+        int dividendExponent = getEffectiveExponent() - dividendShift;
+        int divisorExponent = right.getEffectiveExponent() - divisorShift;
+        if (dividendExponent < divisorExponent) {
+            return roundAndPack(getSign(), getEffectiveExponent(), getFraction(), 0);
+        }
+        long remainder = dividend;
+        for (int i = dividendExponent - divisorExponent; i > 0; i--) {
+            if (Long.compareUnsigned(remainder, divisor) >= 0) {
+                remainder -= divisor;
+            }
+            boolean remainderCarry = remainder < 0;
+            remainder <<= 1;
+            if (remainderCarry) {
+                // the shifted remainder exceeds 64 bits and therefore the divisor
+                remainder -= divisor;
+            }
+        }
+        if (Long.compareUnsigned(remainder, divisor) >= 0) {
+            remainder -= divisor;
+        }
+        return roundAndPack(getSign(), divisorExponent, remainder, 0);
+    }
+
+    private static LLVM80BitFloat addOrSub(LLVM80BitFloat left, LLVM80BitFloat right, boolean rightSign) {
+        if (!left.isFiniteOperand() || !right.isFiniteOperand()) {
+            if (left.isInvalidOperand() || right.isInvalidOperand()) {
+                return new LLVM80BitFloat(DEFAULT_NAN);
+            } else if (left.isNaN() || right.isNaN()) {
+                return propagateNaN(left, right);
+            } else if (left.isInfinity()) {
+                if (right.isInfinity() && left.getSign() != rightSign) {
+                    // infinity minus infinity
+                    return new LLVM80BitFloat(DEFAULT_NAN);
+                }
+                return new LLVM80BitFloat(left);
+            }
+            return infinity(rightSign);
+        }
+        int leftExponent = left.getEffectiveExponent();
+        int rightExponent = right.getEffectiveExponent();
+        long leftSignificand = left.getFraction();
+        long rightSignificand = right.getFraction();
+        boolean leftIsLarger = leftExponent > rightExponent || (leftExponent == rightExponent && Long.compareUnsigned(leftSignificand, rightSignificand) >= 0);
+        boolean resultSign = leftIsLarger ? left.getSign() : rightSign;
+        int largerExponent = leftIsLarger ? leftExponent : rightExponent;
+        long largerSignificand = leftIsLarger ? leftSignificand : rightSignificand;
+        long smallerSignificand = leftIsLarger ? rightSignificand : leftSignificand;
+        int shift = Math.abs(leftExponent - rightExponent);
+
+        long smallerHigh = shiftRightHigh(smallerSignificand, shift);
+        long smallerLow = shiftRightLowSticky(smallerSignificand, 0, shift);
+        if (left.getSign() == rightSign) {
+            long high = largerSignificand + smallerHigh;
+            long low = smallerLow;
+            if (Long.compareUnsigned(high, largerSignificand) < 0) {
+                // the carry out of the high part becomes the new leading one
+                low = (low >>> 1) | (high << (Long.SIZE - 1)) | (low & 1);
+                high = (high >>> 1) | EXPLICIT_INTEGER_BIT;
+                largerExponent++;
+            }
+            return roundAndPack(resultSign, largerExponent, high, low);
+        } else {
+            long low = -smallerLow;
+            long high = largerSignificand - smallerHigh - (smallerLow != 0 ? 1 : 0);
+            if (high == 0 && low == 0) {
+                // exact cancellation yields positive zero when rounding to nearest
+                return zero(false);
+            }
+            return roundAndPack(resultSign, largerExponent, high, low);
+        }
+    }
 
-        @Specialization
-        @TruffleBoundary
-        protected LLVM80BitFloat doCall(LLVM80BitFloat x, LLVM80BitFloat y) {
-            // imprecise workaround for cases in which NFI isn't available
-            double xDouble = x.getDoubleValue();
-            double yDouble = y.getDoubleValue();
-            double result;
-            switch (name) {
-                case "add":
-                    result = xDouble + yDouble;
-                    break;
-                case "sub":
-                    result = xDouble - yDouble;
-                    break;
-                case "mul":
-                    result = xDouble * yDouble;
-                    break;
-                case "div":
-                    result = xDouble / yDouble;
-                    break;
-                case "mod":
-                    result = xDouble % yDouble;
-                    break;
-                default:
-                    throw new AssertionError("unexpected 80 bit float operation: " + name);
+    /**
+     * Normalizes, rounds and packs the unsigned 128 bit significand (high, low) with the value
+     * {@code (high, low) * 2^(exponent - EXPONENT_BIAS - 127)}.
+     */
+    private static LLVM80BitFloat roundAndPack(boolean resultSign, int exponent, long significandHigh, long significandLow) {
+        long high = significandHigh;
+        long low = significandLow;
+        if (high == 0 && low == 0) {
+            return zero(resultSign);
+        }
+        int shift = high != 0 ? Long.numberOfLeadingZeros(high) : Long.SIZE + Long.numberOfLeadingZeros(low);
+        if (shift >= Long.SIZE) {
+            high = low << (shift - Long.SIZE);
+            low = 0;
+        } else if (shift > 0) {
+            high = (high << shift) | (low >>> (Long.SIZE - shift));
+            low <<= shift;
+        }
+        int resultExponent = exponent - shift;
+        if (resultExponent <= 0) {
+            // gradual underflow: denormalize before rounding
+            int denormalizeShift = 1 - resultExponent;
+            long denormalizedHigh = shiftRightHigh(high, denormalizeShift);
+            low = shiftRightLowSticky(high, low, denormalizeShift);
+            high = denormalizedHigh;
+            resultExponent = 0;
+        }
+        // round to nearest, ties to even; the sign bit of the low part is the guard bit
+        if (low < 0 && ((low & Long.MAX_VALUE) != 0 || (high & 1) != 0)) {
+            high++;
+            if (high == 0) {
+                high = EXPLICIT_INTEGER_BIT;
+                resultExponent++;
+            } else if (resultExponent == 0 && high < 0) {
+                // rounded up from the largest denormal to the smallest normal number
+                resultExponent = 1;
             }
-            return LLVM80BitFloat.fromDouble(result);
         }
+        if (resultExponent >= ALL_ONE_EXPONENT) {
+            return infinity(resultSign);
+        }
+        return new LLVM80BitFloat(resultSign, resultExponent, high);
+    }
 
-        @Override
-        public String toString() {
-            return "fp80 " + name;
+    private static long shiftRightHigh(long high, int shift) {
+        if (shift == 0) {
+            return high;
+        } else if (shift >= Long.SIZE) {
+            return 0;
+        } else {
+            return high >>> shift;
+        }
+    }
+
+    private static long shiftRightLowSticky(long high, long low, int shift) {
+        if (shift == 0) {
+            return low;
+        } else if (shift < Long.SIZE) {
+            long sticky = (low << (Long.SIZE - shift)) != 0 ? 1 : 0;
+            return (low >>> shift) | (high << (Long.SIZE - shift)) | sticky;
+        } else if (shift == Long.SIZE) {
+            return high | (low != 0 ? 1 : 0);
+        } else if (shift < 2 * Long.SIZE) {
+            long sticky = (low != 0 || (high << (2 * Long.SIZE - shift)) != 0) ? 1 : 0;
+            return (high >>> (shift - Long.SIZE)) | sticky;
+        } else {
+            return (high != 0 || low != 0) ? 1 : 0;
         }
     }
 
-    static class LLVM80BitFloatOpNode extends LLVMArithmeticOpNode {
-        @Child private LLVM80BitFloatNativeCallNode node;
+    private static long unsignedMultiplyHigh(long x, long y) {
+        long x0 = x & BinaryHelper.INT_MASK;
+        long x1 = x >>> Integer.SIZE;
+        long y0 = y & BinaryHelper.INT_MASK;
+        long y1 = y >>> Integer.SIZE;
+        long p00 = x0 * y0;
+        long p01 = x0 * y1;
+        long p10 = x1 * y0;
+        long p11 = x1 * y1;
+        long middle = (p00 >>> Integer.SIZE) + (p01 & BinaryHelper.INT_MASK) + (p10 & BinaryHelper.INT_MASK);
+        return p11 + (p01 >>> Integer.SIZE) + (p10 >>> Integer.SIZE) + (middle >>> Integer.SIZE);
+    }
 
-        LLVM80BitFloatOpNode(String op) {
-            node = LLVM80BitFloatNativeCallNodeGen.create(op);
+    /**
+     * Selects the result for operations with NaN operands like the x87 FPU: signaling NaNs are
+     * quieted, and of two NaNs the quiet one, or the one with the larger significand, wins. Ties
+     * are resolved in favor of the positive NaN.
+     */
+    private static LLVM80BitFloat propagateNaN(LLVM80BitFloat left, LLVM80BitFloat right) {
+        LLVM80BitFloat result;
+        if (!left.isNaN()) {
+            result = right;
+        } else if (!right.isNaN()) {
+            result = left;
+        } else if (left.isQNaN() != right.isQNaN()) {
+            result = left.isQNaN() ? left : right;
+        } else {
+            int cmp = Long.compareUnsigned(left.getFraction(), right.getFraction());
+            result = cmp > 0 || (cmp == 0 && !left.getSign()) ? left : right;
         }
+        return new LLVM80BitFloat(result.getSign(), ALL_ONE_EXPONENT, result.getFraction() | QUIET_NAN_BIT);
+    }
+
+    private static LLVM80BitFloat zero(boolean resultSign) {
+        return new LLVM80BitFloat(resultSign ? NEGATIVE_ZERO : POSITIVE_ZERO);
+    }
+
+    private static LLVM80BitFloat infinity(boolean resultSign) {
+        return new LLVM80BitFloat(resultSign ? NEGATIVE_INFINITY : POSITIVE_INFINITY);
+    }
+
+    private int getEffectiveExponent() {
+        // denormals share the exponent of the smallest normal number
+        return biasedExponent == 0 ? 1 : biasedExponent;
+    }
+
+    private boolean isFiniteOperand() {
+        return biasedExponent != ALL_ONE_EXPONENT && !isInvalidOperand();
+    }
+
+    /**
+     * Unnormals, pseudo-NaNs and pseudo-infinities have a cleared explicit integer bit and are
+     * rejected as invalid operands by the x87 FPU.
+     */
+    private boolean isInvalidOperand() {
+        return biasedExponent != 0 && (fraction & EXPLICIT_INTEGER_BIT) == 0;
+    }
+
+    abstract static class LLVM80BitFloatOpNode extends LLVMArithmeticOpNode {
 
         @Override
         public boolean canCompute(Object x, Object y) {
@@ -729,35 +983,60 @@ public final class LLVM80BitFloat implements LLVMArithmetic {
 
         @Override
         public LLVM80BitFloat execute(Object x, Object y) {
-            LLVM80BitFloat a = (LLVM80BitFloat) x;
-            LLVM80BitFloat b = (LLVM80BitFloat) y;
-            return node.execute(a, b);
+            return execute((LLVM80BitFloat) x, (LLVM80BitFloat) y);
         }
+
+        protected abstract LLVM80BitFloat execute(LLVM80BitFloat x, LLVM80BitFloat y);
     }
 
     @Override
     public LLVMArithmeticOpNode createAddNode() {
-        return new LLVM80BitFloatOpNode("add");
+        return new LLVM80BitFloatOpNode() {
+            @Override
+            protected LLVM80BitFloat execute(LLVM80BitFloat x, LLVM80BitFloat y) {
+                return x.add(y);
+            }
+        };
     }
 
     @Override
     public LLVMArithmeticOpNode createSubNode() {
-        return new LLVM80BitFloatOpNode("sub");
+        return new LLVM80BitFloatOpNode() {
+            @Override
+            protected LLVM80BitFloat execute(LLVM80BitFloat x, LLVM80BitFloat y) {
+                return x.sub(y);
+            }
+        };
     }
 
     @Override
     public LLVMArithmeticOpNode createMulNode() {
-        return new LLVM80BitFloatOpNode("mul");
+        return new LLVM80BitFloatOpNode() {
+            @Override
+            protected LLVM80BitFloat execute(LLVM80BitFloat x, LLVM80BitFloat y) {
+                return x.mul(y);
+            }
+        };
     }
 
     @Override
     public LLVMArithmeticOpNode createDivNode() {
-        return new LLVM80BitFloatOpNode("div");
+        return new LLVM80BitFloatOpNode() {
+            @Override
+            protected LLVM80BitFloat execute(LLVM80BitFloat x, LLVM80BitFloat y) {
+                return x.div(y);
+            }
+        };
     }
 
     @Override
     public LLVMArithmeticOpNode createRemNode() {
-        return new LLVM80BitFloatOpNode("mod");
+        return new LLVM80BitFloatOpNode() {
+            @Override
+            protected LLVM80BitFloat execute(LLVM80BitFloat x, LLVM80BitFloat y) {
+                return x.rem(y);
+            }
+        };
     }
 
     @Override
@@ -33,6 +33,7 @@ import com.oracle.truffle.api.CompilerDirectives;
 import com.oracle.truffle.api.dsl.Specialization;
 import com.oracle.truffle.api.interop.TruffleObject;
 import com.oracle.truffle.llvm.runtime.LLVMBoxedPrimitive;
+import com.oracle.truffle.llvm.runtime.LLVMI128;
 import com.oracle.truffle.llvm.runtime.LLVMIVarBit;
 import com.oracle.truffle.llvm.runtime.LLVMVirtualAllocationAddress;
 import com.oracle.truffle.llvm.runtime.LLVMVirtualAllocationAddress.LLVMVirtualAllocationAddressTruffleObject;
@@ -169,6 +170,13 @@ public abstract class LLVMDataEscapeNode extends LLVMNode {
         throw new IllegalStateException("Exporting Vectors is not yet supported!");
     }
 
+    @Specialization
+    @SuppressWarnings("unused")
+    protected TruffleObject escapingI128(LLVMI128 value, LLVMInteropType.Structured typer) {
+        CompilerDirectives.transferToInterpreter();
+        throw new IllegalStateException("Exporting i128 is not yet supported!");
+    }
+
     @Specialization
     @SuppressWarnings("unused")
     protected TruffleObject escapingVarbit(LLVMIVarBit vecto, LLVMInteropType.Structured typer) {
@@ -34,6 +34,7 @@ import java.util.function.IntBinaryOperator;
 import java.util.function.LongBinaryOperator;
 
 import com.oracle.truffle.api.CompilerDirectives.ValueType;
+import com.oracle.truffle.llvm.runtime.LLVMI128;
 import com.oracle.truffle.llvm.runtime.LLVMIVarBit;
 import com.oracle.truffle.llvm.runtime.floating.LLVM80BitFloat;
 import com.oracle.truffle.llvm.runtime.pointer.LLVMNativePointer;
@@ -76,6 +77,8 @@ public abstract class LLVMMemory {
 
     public abstract int getI32(long ptr);
 
+    public abstract LLVMI128 getI128(LLVMNativePointer addr);
+
     public abstract LLVMIVarBit getIVarBit(LLVMNativePointer addr, int bitWidth);
 
     public abstract long getI64(LLVMNativePointer addr);
@@ -116,6 +119,8 @@ public abstract class LLVMMemory {
 
     public abstract void putI64(long ptr, long value);
 
+    public abstract void putI128(LLVMNativePointer addr, LLVMI128 value);
+
     public abstract void putIVarBit(LLVMNativePointer addr, LLVMIVarBit value);
 
     public abstract void putFloat(LLVMNativePointer addr, float value);
@@ -142,6 +147,11 @@ public abstract class LLVMMemory {
 
     public abstract void putByteArray(long ptr, byte[] bytes);
 
+    /**
+     * Copies {@code length} bytes at {@code ptr} to {@code bytes}, starting at {@code offset}.
+     */
+    public abstract void getByteArray(long ptr, byte[] bytes, int offset, int length);
+
     public abstract CMPXCHGI32 compareAndSwapI32(LLVMNativePointer p, int comparisonValue, int newValue);
 
     public abstract CMPXCHGI64 compareAndSwapI64(LLVMNativePointer p, long comparisonValue, long newValue);
@@ -30,6 +30,8 @@
 package com.oracle.truffle.llvm.runtime.memory;
 
 import java.lang.reflect.Field;
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.function.BinaryOperator;
 import java.util.function.IntBinaryOperator;
 import java.util.function.LongBinaryOperator;
@@ -37,7 +39,9 @@ import java.util.function.LongBinaryOperator;
 import com.oracle.truffle.api.Assumption;
 import com.oracle.truffle.api.CompilerAsserts;
 import com.oracle.truffle.api.CompilerDirectives;
+import com.oracle.truffle.api.CompilerDirectives.TruffleBoundary;
 import com.oracle.truffle.api.Truffle;
+import com.oracle.truffle.llvm.runtime.LLVMI128;
 import com.oracle.truffle.llvm.runtime.LLVMIVarBit;
 import com.oracle.truffle.llvm.runtime.LLVMLanguage;
 import com.oracle.truffle.llvm.runtime.floating.LLVM80BitFloat;
@@ -55,23 +59,24 @@ public final class LLVMNativeMemory extends LLVMMemory {
 
     private static final Unsafe unsafe = getUnsafe();
 
-    private final Object freeListLock = new Object();
-    private FreeListNode freeList;
+    /* number of deref handle slots whose free list links share one array */
+    private static final int SLOT_CHUNK_BITS = 12;
+    private static final int SLOT_CHUNK_SIZE = 1 << SLOT_CHUNK_BITS;
+    private static final int SLOT_CHUNK_MASK = SLOT_CHUNK_SIZE - 1;
 
-    private final Object derefSpaceTopLock = new Object();
-    private long derefSpaceTop = DEREF_HANDLE_SPACE_START;
-
-    private final Assumption noDerefHandleAssumption = Truffle.getRuntime().createAssumption("no deref handle assumption");
+    /*
+     * Free deref handle slots form a lock-free stack. The lower half of the head contains the
+     * index of the topmost free slot plus one (zero means empty), the upper half is a version
+     * counter that protects against ABA. The links between the slots are stored in int arrays
+     * indexed by slot number, so that releasing a handle does not allocate.
+     */
+    private final AtomicLong freeSlotsHead = new AtomicLong(0);
+    private final Object slotLinksLock = new Object();
+    private volatile int[][] slotLinks = new int[0][];
 
-    private static final class FreeListNode {
-        protected FreeListNode(long address, FreeListNode next) {
-            this.address = address;
-            this.next = next;
-        }
+    private final AtomicLong derefSpaceTop = new AtomicLong(DEREF_HANDLE_SPACE_START);
 
-        private final long address;
-        private final FreeListNode next;
-    }
+    private final Assumption noDerefHandleAssumption = Truffle.getRuntime().createAssumption("no deref handle assumption");
 
     private static Unsafe getUnsafe() {
         CompilerAsserts.neverPartOfCompilation();
@@ -125,12 +130,10 @@ public final class LLVMNativeMemory extends LLVMMemory {
 
     @Override
     public void free(long address) {
-        if (address <= DEREF_HANDLE_SPACE_START && address > DEREF_HANDLE_SPACE_END) {
+        if (isInDerefHandleSpace(address)) {
             assert isAllocated(address) : "double-free of " + Long.toHexString(address);
-            synchronized (freeListLock) {
-                // We need to mask because we allow creating handles with an offset.
-                freeList = new FreeListNode(address & ~DEREF_HANDLE_OBJECT_MASK, freeList);
-            }
+            // We need to mask because we allow creating handles with an offset.
+            pushFreeSlot(getDerefHandleSlot(address & ~DEREF_HANDLE_OBJECT_MASK));
         } else {
             try {
                 unsafe.freeMemory(address);
@@ -175,26 +178,88 @@ public final class LLVMNativeMemory extends LLVMMemory {
         noDerefHandleAssumption.invalidate();
 
         // preferably consume from free list
-        synchronized (freeListLock) {
-            if (freeList != null) {
-                FreeListNode n = freeList;
-                freeList = n.next;
-                return LLVMNativePointer.create(n.address);
-            }
+        int slot = popFreeSlot();
+        if (slot >= 0) {
+            return LLVMNativePointer.create(getDerefHandleAddress(slot));
         }
 
-        synchronized (derefSpaceTopLock) {
-            LLVMNativePointer addr = LLVMNativePointer.create(derefSpaceTop);
-            assert derefSpaceTop > 0L;
-            derefSpaceTop -= DEREF_HANDLE_OBJECT_SIZE;
-            if (derefSpaceTop < DEREF_HANDLE_SPACE_END) {
-                CompilerDirectives.transferToInterpreter();
-                throw new OutOfMemoryError();
+        long addr = derefSpaceTop.getAndAdd(-DEREF_HANDLE_OBJECT_SIZE);
+        assert addr > 0L;
+        if (addr - DEREF_HANDLE_OBJECT_SIZE < DEREF_HANDLE_SPACE_END) {
+            CompilerDirectives.transferToInterpreter();
+            throw new OutOfMemoryError();
+        }
+        return LLVMNativePointer.create(addr);
+    }
+
+    private static boolean isInDerefHandleSpace(long address) {
+        return address < DEREF_HANDLE_SPACE_START + DEREF_HANDLE_OBJECT_SIZE && address > DEREF_HANDLE_SPACE_END;
+    }
+
+    private static int getDerefHandleSlot(long address) {
+        return (int) ((DEREF_HANDLE_SPACE_START - address) / DEREF_HANDLE_OBJECT_SIZE);
+    }
+
+    private static long getDerefHandleAddress(int slot) {
+        return DEREF_HANDLE_SPACE_START - slot * DEREF_HANDLE_OBJECT_SIZE;
+    }
+
+    private int[] getSlotLinks(int slot) {
+        int chunk = slot >>> SLOT_CHUNK_BITS;
+        int[][] links = slotLinks;
+        if (chunk < links.length && links[chunk] != null) {
+            return links[chunk];
+        }
+        return createSlotLinks(chunk);
+    }
+
+    @TruffleBoundary
+    private int[] createSlotLinks(int chunk) {
+        synchronized (slotLinksLock) {
+            int[][] links = slotLinks;
+            if (chunk >= links.length) {
+                links = Arrays.copyOf(links, Math.max(chunk + 1, links.length * 2));
+            } else if (links[chunk] != null) {
+                return links[chunk];
+            } else {
+                links = links.clone();
             }
-            return addr;
+            links[chunk] = new int[SLOT_CHUNK_SIZE];
+            slotLinks = links;
+            return links[chunk];
         }
     }
 
+    private void pushFreeSlot(int slot) {
+        int[] links = getSlotLinks(slot);
+        long head;
+        long newHead;
+        do {
+            head = freeSlotsHead.get();
+            links[slot & SLOT_CHUNK_MASK] = (int) head;
+            newHead = ((head >>> Integer.SIZE) + 1) << Integer.SIZE | (slot + 1);
+        } while (!freeSlotsHead.compareAndSet(head, newHead));
+    }
+
+    /**
+     * Returns -1 if there is no free slot.
+     */
+    private int popFreeSlot() {
+        long head;
+        long newHead;
+        int slot;
+        do {
+            head = freeSlotsHead.get();
+            if ((int) head == 0) {
+                return -1;
+            }
+            slot = (int) head - 1;
+            int next = getSlotLinks(slot)[slot & SLOT_CHUNK_MASK];
+            newHead = ((head >>> Integer.SIZE) + 1) << Integer.SIZE | (next & 0xFFFFFFFFL);
+        } while (!freeSlotsHead.compareAndSet(head, newHead));
+        return slot;
+    }
+
     @Override
     public boolean getI1(LLVMNativePointer addr) {
         return getI1(addr.asNative());
@@ -239,6 +304,12 @@ public final class LLVMNativeMemory extends LLVMMemory {
         return unsafe.getInt(ptr);
     }
 
+    @Override
+    public LLVMI128 getI128(LLVMNativePointer addr) {
+        long ptr = addr.asNative();
+        return LLVMI128.create(getI64(ptr + Long.BYTES), getI64(ptr));
+    }
+
     @Override
     public LLVMIVarBit getIVarBit(LLVMNativePointer addr, int bitWidth) {
         if (bitWidth % Byte.SIZE != 0) {
@@ -365,6 +436,13 @@ public final class LLVMNativeMemory extends LLVMMemory {
         unsafe.putLong(ptr, value);
     }
 
+    @Override
+    public void putI128(LLVMNativePointer addr, LLVMI128 value) {
+        long ptr = addr.asNative();
+        putI64(ptr, value.getLow());
+        putI64(ptr + Long.BYTES, value.getHigh());
+    }
+
     @Override
     public void putIVarBit(LLVMNativePointer addr, LLVMIVarBit value) {
         byte[] bytes = value.getBytes();
@@ -375,6 +453,13 @@ public final class LLVMNativeMemory extends LLVMMemory {
         }
     }
 
+    @Override
+    public void getByteArray(long ptr, byte[] bytes, int offset, int length) {
+        assert ptr != 0 || length == 0;
+        assert offset >= 0 && length >= 0 && offset + length <= bytes.length;
+        unsafe.copyMemory(null, ptr, bytes, Unsafe.ARRAY_BYTE_BASE_OFFSET + offset, length);
+    }
+
     @Override
     public void putByteArray(LLVMNativePointer addr, byte[] bytes) {
         putByteArray(addr.asNative(), bytes);
@@ -655,18 +740,30 @@ public final class LLVMNativeMemory extends LLVMMemory {
         return DEREF_HANDLE_OBJECT_SIZE - 1;
     }
 
+    /**
+     * Returns a dense index for the deref handle that contains the given address, or -1 if the
+     * address is not in the deref handle space.
+     */
+    public static int getDerefHandleIndex(long address) {
+        if (isInDerefHandleSpace(address)) {
+            return getDerefHandleSlot(address & ~DEREF_HANDLE_OBJECT_MASK);
+        }
+        return -1;
+    }
+
+    /**
+     * Only used in assertions, concurrent modifications of the free list are not taken into
+     * account.
+     */
     private boolean isAllocated(long address) {
-        synchronized (derefSpaceTopLock) {
-            if (address <= derefSpaceTop) {
-                return false;
-            }
+        if (address <= derefSpaceTop.get()) {
+            return false;
         }
 
-        synchronized (freeListLock) {
-            for (FreeListNode cur = freeList; cur != null; cur = cur.next) {
-                if (cur.address == address) {
-                    return false;
-                }
+        int slot = getDerefHandleSlot(address & ~DEREF_HANDLE_OBJECT_MASK);
+        for (int cur = (int) freeSlotsHead.get(); cur != 0; cur = getSlotLinks(cur - 1)[(cur - 1) & SLOT_CHUNK_MASK]) {
+            if (cur - 1 == slot) {
+                return false;
             }
         }
         return true;
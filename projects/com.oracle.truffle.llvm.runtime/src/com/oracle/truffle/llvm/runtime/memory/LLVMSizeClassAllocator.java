@@ -0,0 +1,364 @@
+/*
+ * Copyright (c) 2018, Oracle and/or its affiliates.
+ *
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification, are
+ * permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this list of
+ * conditions and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice, this list of
+ * conditions and the following disclaimer in the documentation and/or other materials provided
+ * with the distribution.
+ *
+ * 3. Neither the name of the copyright holder nor the names of its contributors may be used to
+ * endorse or promote products derived from this software without specific prior written
+ * permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY EXPRESS
+ * OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE
+ * COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ * EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE
+ * GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED
+ * AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED
+ * OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.oracle.truffle.llvm.runtime.memory;
+
+import java.lang.reflect.Field;
+import java.util.Arrays;
+
+import com.oracle.truffle.api.CompilerAsserts;
+import com.oracle.truffle.api.CompilerDirectives.TruffleBoundary;
+import com.oracle.truffle.llvm.runtime.pointer.LLVMNativePointer;
+
+import sun.misc.Unsafe;
+
+/**
+ * A thread-caching size-class allocator that backs the {@code malloc} family of intrinsics if
+ * {@code llvm.sizeClassAllocator} is enabled. Every context has its own allocator.
+ *
+ * Requests up to {@link #MAX_SMALL_SIZE} bytes are rounded up to one of a fixed set of size
+ * classes. Every size class owns a number of large native regions from which blocks are carved.
+ * Freed blocks are kept in intrusive per-thread free lists (the first word of a free block points
+ * to the next free block), so that the common malloc/free pair neither takes a lock nor calls into
+ * native code. Thread caches exchange blocks with a central per-class free list in batches. Larger
+ * requests are forwarded to {@link Unsafe#allocateMemory(long)}.
+ *
+ * Regions are given back to the operating system only when the allocator is {@linkplain #dispose()
+ * disposed} together with its context. Blocks that were allocated by this allocator must only be
+ * released and resized through this allocator, pointers that do not belong to any region are passed
+ * on to {@link Unsafe}.
+ */
+public final class LLVMSizeClassAllocator {
+
+    /* all blocks are aligned to 16 bytes, just like the blocks returned by the system malloc */
+    private static final int GRANULE_SHIFT = 4;
+    private static final long GRANULE = 1L << GRANULE_SHIFT;
+
+    /* 16 byte steps up to 256 bytes, then four classes per power of two */
+    private static final long LINEAR_CLASSES_LIMIT = 256;
+    private static final int CLASSES_PER_DOUBLING = 4;
+    static final long MAX_SMALL_SIZE = 32 * 1024;
+
+    private static final long REGION_SIZE = 1L << 20;
+
+    /* number of bytes that are moved between a thread cache and the central free list at once */
+    private static final long TRANSFER_BYTES = 16 * 1024;
+    private static final int MIN_TRANSFER_BLOCKS = 2;
+    private static final int MAX_TRANSFER_BLOCKS = 64;
+
+    private static final Unsafe unsafe = getUnsafe();
+
+    private static final long[] CLASS_SIZES = createClassSizes();
+    private static final byte[] CLASS_INDEX = createClassIndex(CLASS_SIZES);
+
+    private final SizeClass[] sizeClasses;
+
+    private final ThreadLocal<ThreadCache> threadCache = ThreadLocal.withInitial(ThreadCache::new);
+
+    private final Object regionsLock = new Object();
+    /* sorted by base address, copy-on-write */
+    private volatile Region[] regions = new Region[0];
+    private volatile boolean disposed;
+
+    private static final class Region {
+        private final long base;
+        private final int sizeClass;
+
+        Region(long base, int sizeClass) {
+            this.base = base;
+            this.sizeClass = sizeClass;
+        }
+    }
+
+    private static final class SizeClass {
+        private final int index;
+        private final long blockSize;
+        private final int transferBlocks;
+
+        /* guarded by this */
+        private long freeList;
+        private long carveTop;
+        private long carveEnd;
+
+        SizeClass(int index, long blockSize) {
+            this.index = index;
+            this.blockSize = blockSize;
+            this.transferBlocks = (int) Math.max(MIN_TRANSFER_BLOCKS, Math.min(MAX_TRANSFER_BLOCKS, TRANSFER_BYTES / blockSize));
+        }
+    }
+
+    private static final class ThreadCache {
+        private final long[] freeLists = new long[CLASS_SIZES.length];
+        private final int[] counts = new int[CLASS_SIZES.length];
+    }
+
+    private static Unsafe getUnsafe() {
+        CompilerAsserts.neverPartOfCompilation();
+        try {
+            Field theUnsafe = Unsafe.class.getDeclaredField("theUnsafe");
+            theUnsafe.setAccessible(true);
+            return (Unsafe) theUnsafe.get(null);
+        } catch (Exception e) {
+            throw new AssertionError();
+        }
+    }
+
+    private static long[] createClassSizes() {
+        long[] sizes = new long[64];
+        int count = 0;
+        for (long size = GRANULE; size <= LINEAR_CLASSES_LIMIT; size += GRANULE) {
+            sizes[count++] = size;
+        }
+        for (long base = LINEAR_CLASSES_LIMIT; base < MAX_SMALL_SIZE; base <<= 1) {
+            long step = base / CLASSES_PER_DOUBLING;
+            for (int i = 1; i <= CLASSES_PER_DOUBLING; i++) {
+                sizes[count++] = base + i * step;
+            }
+        }
+        return Arrays.copyOf(sizes, count);
+    }
+
+    private static byte[] createClassIndex(long[] classSizes) {
+        byte[] index = new byte[(int) (MAX_SMALL_SIZE >>> GRANULE_SHIFT) + 1];
+        int sizeClass = 0;
+        for (int i = 0; i < index.length; i++) {
+            long size = (long) i << GRANULE_SHIFT;
+            while (classSizes[sizeClass] < size) {
+                sizeClass++;
+            }
+            index[i] = (byte) sizeClass;
+        }
+        return index;
+    }
+
+    public LLVMSizeClassAllocator() {
+        sizeClasses = new SizeClass[CLASS_SIZES.length];
+        for (int i = 0; i < sizeClasses.length; i++) {
+            sizeClasses[i] = new SizeClass(i, CLASS_SIZES[i]);
+        }
+    }
+
+    private static boolean isSmall(long size) {
+        return size >= 0 && size <= MAX_SMALL_SIZE;
+    }
+
+    private static int getSizeClass(long size) {
+        assert isSmall(size);
+        return CLASS_INDEX[(int) ((size + GRANULE - 1) >>> GRANULE_SHIFT)];
+    }
+
+    @TruffleBoundary
+    public LLVMNativePointer allocate(long size) {
+        if (isSmall(size)) {
+            return LLVMNativePointer.create(allocateSmall(getSizeClass(size)));
+        } else {
+            return LLVMNativePointer.create(unsafe.allocateMemory(size));
+        }
+    }
+
+    @TruffleBoundary
+    public LLVMNativePointer reallocate(LLVMNativePointer addr, long size) {
+        long address = addr.asNative();
+        if (address == 0) {
+            return allocate(size);
+        }
+        Region region = findRegion(address);
+        if (region == null) {
+            return LLVMNativePointer.create(unsafe.reallocateMemory(address, size));
+        }
+
+        long capacity = CLASS_SIZES[region.sizeClass];
+        if (isSmall(size) && getSizeClass(size) == region.sizeClass) {
+            return addr;
+        }
+        long newAddress = isSmall(size) ? allocateSmall(getSizeClass(size)) : unsafe.allocateMemory(size);
+        unsafe.copyMemory(address, newAddress, Math.min(capacity, size));
+        freeSmall(address, region.sizeClass);
+        return LLVMNativePointer.create(newAddress);
+    }
+
+    @TruffleBoundary
+    public void free(LLVMNativePointer addr) {
+        long address = addr.asNative();
+        if (address == 0) {
+            return;
+        }
+        Region region = findRegion(address);
+        if (region == null) {
+            unsafe.freeMemory(address);
+        } else {
+            freeSmall(address, region.sizeClass);
+        }
+    }
+
+    /**
+     * Moves all blocks cached by the current thread to the central free lists. Needs to be called
+     * before a thread that used this allocator terminates, otherwise its cached blocks are lost.
+     */
+    @TruffleBoundary
+    public void releaseThreadCache() {
+        if (!disposed) {
+            ThreadCache cache = threadCache.get();
+            for (int i = 0; i < sizeClasses.length; i++) {
+                while (cache.counts[i] > 0) {
+                    releaseBatch(cache, sizeClasses[i], Math.min(cache.counts[i], sizeClasses[i].transferBlocks));
+                }
+            }
+        }
+        threadCache.remove();
+    }
+
+    /**
+     * Gives all regions back to the operating system. Must only be called when the context is
+     * disposed and no other thread uses the allocator anymore, because all blocks become invalid.
+     */
+    @TruffleBoundary
+    public void dispose() {
+        synchronized (regionsLock) {
+            disposed = true;
+            for (Region region : regions) {
+                unsafe.freeMemory(region.base);
+            }
+            regions = new Region[0];
+        }
+    }
+
+    private long allocateSmall(int sizeClass) {
+        ThreadCache cache = threadCache.get();
+        long block = cache.freeLists[sizeClass];
+        if (block == 0) {
+            refill(cache, sizeClasses[sizeClass]);
+            block = cache.freeLists[sizeClass];
+        }
+        cache.freeLists[sizeClass] = unsafe.getAddress(block);
+        cache.counts[sizeClass]--;
+        return block;
+    }
+
+    private void freeSmall(long address, int sizeClass) {
+        ThreadCache cache = threadCache.get();
+        unsafe.putAddress(address, cache.freeLists[sizeClass]);
+        cache.freeLists[sizeClass] = address;
+        SizeClass c = sizeClasses[sizeClass];
+        if (++cache.counts[sizeClass] > 2 * c.transferBlocks) {
+            releaseBatch(cache, c, c.transferBlocks);
+        }
+    }
+
+    /**
+     * Fills the (empty) thread cache of the given class with a batch of blocks, preferably from the
+     * central free list.
+     */
+    private void refill(ThreadCache cache, SizeClass c) {
+        assert cache.freeLists[c.index] == 0 && cache.counts[c.index] == 0;
+        synchronized (c) {
+            if (c.freeList != 0) {
+                long first = c.freeList;
+                long last = first;
+                int count = 1;
+                long next = unsafe.getAddress(last);
+                while (count < c.transferBlocks && next != 0) {
+                    last = next;
+                    next = unsafe.getAddress(last);
+                    count++;
+                }
+                c.freeList = next;
+                unsafe.putAddress(last, 0);
+                cache.freeLists[c.index] = first;
+                cache.counts[c.index] = count;
+                return;
+            }
+
+            if (c.carveTop + c.blockSize > c.carveEnd) {
+                long base = unsafe.allocateMemory(REGION_SIZE);
+                registerRegion(new Region(base, c.index));
+                c.carveTop = base;
+                c.carveEnd = base + REGION_SIZE;
+            }
+            long head = 0;
+            int count = 0;
+            while (count < c.transferBlocks && c.carveTop + c.blockSize <= c.carveEnd) {
+                unsafe.putAddress(c.carveTop, head);
+                head = c.carveTop;
+                c.carveTop += c.blockSize;
+                count++;
+            }
+            cache.freeLists[c.index] = head;
+            cache.counts[c.index] = count;
+        }
+    }
+
+    private static void releaseBatch(ThreadCache cache, SizeClass c, int count) {
+        assert count > 0 && count <= cache.counts[c.index];
+        long first = cache.freeLists[c.index];
+        long last = first;
+        for (int i = 1; i < count; i++) {
+            last = unsafe.getAddress(last);
+        }
+        cache.freeLists[c.index] = unsafe.getAddress(last);
+        cache.counts[c.index] -= count;
+        synchronized (c) {
+            unsafe.putAddress(last, c.freeList);
+            c.freeList = first;
+        }
+    }
+
+    private void registerRegion(Region region) {
+        synchronized (regionsLock) {
+            Region[] current = regions;
+            Region[] updated = new Region[current.length + 1];
+            int insert = 0;
+            while (insert < current.length && current[insert].base < region.base) {
+                insert++;
+            }
+            System.arraycopy(current, 0, updated, 0, insert);
+            updated[insert] = region;
+            System.arraycopy(current, insert, updated, insert + 1, current.length - insert);
+            regions = updated;
+        }
+    }
+
+    private Region findRegion(long address) {
+        Region[] current = regions;
+        int low = 0;
+        int high = current.length - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            Region region = current[mid];
+            if (address < region.base) {
+                high = mid - 1;
+            } else if (address - region.base >= REGION_SIZE) {
+                low = mid + 1;
+            } else {
+                return region;
+            }
+        }
+        return null;
+    }
+}
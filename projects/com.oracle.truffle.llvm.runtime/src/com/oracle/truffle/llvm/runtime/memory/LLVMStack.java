@@ -30,23 +30,35 @@
 package com.oracle.truffle.llvm.runtime.memory;
 
 import com.oracle.truffle.api.CompilerAsserts;
+import com.oracle.truffle.api.CompilerDirectives;
 import com.oracle.truffle.api.CompilerDirectives.TruffleBoundary;
 import com.oracle.truffle.api.frame.FrameSlot;
 import com.oracle.truffle.api.frame.FrameUtil;
 import com.oracle.truffle.api.frame.VirtualFrame;
+import com.oracle.truffle.api.nodes.Node;
+import com.oracle.truffle.llvm.runtime.except.LLVMStackOverflowException;
 
 /**
  * Implements a stack that grows from the top to the bottom. The stack is allocated lazily when it
  * is accessed for the first time.
+ *
+ * The memory of the stack is only reserved: it is never written during allocation, so the
+ * operating system commits its pages when they are touched for the first time. The lowest
+ * {@link #GUARD_SIZE} bytes are a guard area. Moving the stack pointer into the guard area raises
+ * an {@link LLVMStackOverflowException}, which leaves some slack for code that writes below the stack
+ * pointer without adjusting it first.
  */
 public final class LLVMStack {
 
     public static final String FRAME_ID = "<stackpointer>";
 
+    static final long GUARD_SIZE = 64 * 1024;
+
     private final int stackSize;
 
     private long lowerBounds;
     private long upperBounds;
+    private long stackLimit;
     private boolean isAllocated;
 
     private long stackPointer;
@@ -57,6 +69,7 @@ public final class LLVMStack {
 
         lowerBounds = 0;
         upperBounds = 0;
+        stackLimit = 0;
         stackPointer = 0;
         uniquesRegionPointer = 0;
         isAllocated = false;
@@ -79,7 +92,11 @@ public final class LLVMStack {
             return stackPointer;
         }
 
-        public void set(long sp) {
+        public void set(long sp, Node location) {
+            if (CompilerDirectives.injectBranchProbability(CompilerDirectives.SLOWPATH_PROBABILITY, sp < stackLimit)) {
+                CompilerDirectives.transferToInterpreter();
+                throw stackOverflow(location);
+            }
             stackPointer = sp;
         }
 
@@ -148,7 +165,7 @@ public final class LLVMStack {
                 this.uniquesRegionAlignment = uniquesRegionAlignment;
             }
 
-            void allocate(VirtualFrame frame, LLVMMemory memory, FrameSlot stackPointerSlot) {
+            void allocate(Node location, VirtualFrame frame, LLVMMemory memory, FrameSlot stackPointerSlot) {
                 if (uniquesRegionSize == 0) {
                     // UniquesRegion is empty - nothing to allocate
                     return;
@@ -159,7 +176,7 @@ public final class LLVMStack {
                 long uniquesRegionPointer = getAlignedBasePointer(stackPointer);
                 basePointer.setUniquesRegionPointer(uniquesRegionPointer);
                 long alignedAllocation = getAlignedAllocation(uniquesRegionPointer, uniquesRegionSize, NO_ALIGNMENT_REQUIREMENTS);
-                basePointer.set(alignedAllocation);
+                basePointer.set(alignedAllocation, location);
             }
 
             long getAlignedBasePointer(long address) {
@@ -188,13 +205,23 @@ public final class LLVMStack {
     @TruffleBoundary
     private void allocate(LLVMMemory memory) {
         long size = stackSize * 1024L;
+        if (size <= GUARD_SIZE) {
+            throw new IllegalArgumentException("The stack size needs to be larger than " + GUARD_SIZE / 1024 + " KB.");
+        }
+        // large allocations are backed by anonymous mappings, whose pages are committed on demand
         long stackAllocation = memory.allocateMemory(size).asNative();
         lowerBounds = stackAllocation;
         upperBounds = stackAllocation + size;
+        stackLimit = lowerBounds + GUARD_SIZE;
         isAllocated = true;
         stackPointer = upperBounds;
     }
 
+    @TruffleBoundary
+    private LLVMStackOverflowException stackOverflow(Node location) {
+        return new LLVMStackOverflowException(location, String.format("Stack overflow (stack size %d KB).", stackSize));
+    }
+
     private long getStackPointer(LLVMMemory memory) {
         if (!isAllocated) {
             allocate(memory);
@@ -206,6 +233,14 @@ public final class LLVMStack {
         return new StackPointer(stackPointer, uniquesRegionPointer);
     }
 
+    /**
+     * Prepares the stack for being used by another thread. The memory of the stack is kept.
+     */
+    void reset() {
+        stackPointer = upperBounds;
+        uniquesRegionPointer = 0;
+    }
+
     @TruffleBoundary
     public void free(LLVMMemory memory) {
         if (isAllocated) {
@@ -215,6 +250,7 @@ public final class LLVMStack {
             memory.free(lowerBounds);
             lowerBounds = 0;
             upperBounds = 0;
+            stackLimit = 0;
             stackPointer = 0;
             isAllocated = false;
         }
@@ -222,12 +258,12 @@ public final class LLVMStack {
 
     public static final int NO_ALIGNMENT_REQUIREMENTS = 1;
 
-    public static long allocateStackMemory(VirtualFrame frame, LLVMMemory memory, FrameSlot stackPointerSlot, final long size, final int alignment) {
+    public static long allocateStackMemory(Node location, VirtualFrame frame, LLVMMemory memory, FrameSlot stackPointerSlot, final long size, final int alignment) {
         StackPointer basePointer = (StackPointer) FrameUtil.getObjectSafe(frame, stackPointerSlot);
         long stackPointer = basePointer.get(memory);
         assert stackPointer != 0;
         long alignedAllocation = getAlignedAllocation(stackPointer, size, alignment);
-        basePointer.set(alignedAllocation);
+        basePointer.set(alignedAllocation, location);
         return alignedAllocation;
     }
 
@@ -29,42 +29,104 @@
  */
 package com.oracle.truffle.llvm.runtime.memory;
 
-import java.util.HashMap;
-import java.util.Map;
+import java.util.ArrayDeque;
+import java.util.concurrent.ConcurrentHashMap;
 
+import com.oracle.truffle.api.CompilerAsserts;
+import com.oracle.truffle.api.CompilerDirectives.CompilationFinal;
 import com.oracle.truffle.api.CompilerDirectives.TruffleBoundary;
 
 /**
  * Holds the (lazily allocated) stacks of all threads that are active in one particular LLVMContext.
+ *
+ * The stack of the main thread is kept in a field, so that looking it up only needs to compare the
+ * current thread. The stacks of other threads are cached in slots that are indexed by the id of the
+ * thread, so that looking them up is an array read and a comparison as long as the ids of the
+ * running threads do not collide. Stacks of other threads that terminate are kept in a bounded pool
+ * and handed to new threads, so that thread churn does not need to allocate and free a stack for
+ * each thread.
  */
 public final class LLVMThreadingStack {
+    private static final int MAX_POOLED_STACKS = 16;
+    private static final int THREAD_SLOTS = 64;
+
     // we are not able to clean up a thread local properly, so we are using a map instead
-    private final Map<Thread, LLVMStack> threadMap;
+    private final ConcurrentHashMap<Thread, LLVMStack> threadMap;
+    private final ThreadSlot[] threadSlots;
+    private final ArrayDeque<LLVMStack> pool;
     private final int stackSize;
-    private final Thread mainThread;
+    @CompilationFinal private Thread mainThread;
+    private final LLVMStack mainStack;
 
     public LLVMThreadingStack(Thread mainTread, int stackSize) {
         this.mainThread = mainTread;
         this.stackSize = stackSize;
-        this.threadMap = new HashMap<>();
+        this.threadMap = new ConcurrentHashMap<>();
+        this.threadSlots = new ThreadSlot[THREAD_SLOTS];
+        this.pool = new ArrayDeque<>();
+        this.mainStack = new LLVMStack(stackSize);
+    }
+
+    /**
+     * Makes the current thread the main thread of a context that was pre-initialized on another
+     * thread, which must not have used a stack.
+     */
+    public void setMainThread(Thread thread) {
+        CompilerAsserts.neverPartOfCompilation();
+        assert threadMap.isEmpty();
+        mainThread = thread;
+    }
+
+    /**
+     * The stack of a thread other than the main thread. A slot is immutable, so that a thread that
+     * reads the slot of another thread without synchronization sees both fields.
+     */
+    private static final class ThreadSlot {
+        private final Thread thread;
+        private final LLVMStack stack;
+
+        private ThreadSlot(Thread thread, LLVMStack stack) {
+            this.thread = thread;
+            this.stack = stack;
+        }
+    }
+
+    private static int getSlotIndex(Thread thread) {
+        return (int) (thread.getId() & (THREAD_SLOTS - 1));
     }
 
     public LLVMStack getStack() {
-        LLVMStack s = getCurrentStack();
-        if (s == null) {
-            s = createNewStack();
+        Thread currentThread = Thread.currentThread();
+        if (currentThread == mainThread) {
+            return mainStack;
         }
-        return s;
+        ThreadSlot slot = threadSlots[getSlotIndex(currentThread)];
+        if (slot != null && slot.thread == currentThread) {
+            return slot.stack;
+        }
+        return getStackSlowPath(currentThread);
     }
 
     @TruffleBoundary
-    private LLVMStack getCurrentStack() {
-        return threadMap.get(Thread.currentThread());
+    private LLVMStack getStackSlowPath(Thread currentThread) {
+        LLVMStack s = threadMap.get(currentThread);
+        if (s == null) {
+            s = createNewStack();
+        }
+        // a thread with a colliding id may take the slot over later and then uses the map again
+        threadSlots[getSlotIndex(currentThread)] = new ThreadSlot(currentThread, s);
+        return s;
     }
 
     @TruffleBoundary
-    private synchronized LLVMStack createNewStack() {
-        LLVMStack s = new LLVMStack(stackSize);
+    private LLVMStack createNewStack() {
+        LLVMStack s;
+        synchronized (pool) {
+            s = pool.poll();
+        }
+        if (s == null) {
+            s = new LLVMStack(stackSize);
+        }
         threadMap.put(Thread.currentThread(), s);
         return s;
     }
@@ -75,21 +137,38 @@ public final class LLVMThreadingStack {
          * Do not free the stack of the main thread: Sulong#disposeThread runs before
          * Sulong#disposeContext, which needs to call destructors that need a SP.
          */
-        if (mainThread != Thread.currentThread()) {
-            free(memory, thread);
+        if (mainThread != Thread.currentThread() && thread != mainThread) {
+            int index = getSlotIndex(thread);
+            ThreadSlot slot = threadSlots[index];
+            if (slot != null && slot.thread == thread) {
+                // the stack may be handed to another thread
+                threadSlots[index] = null;
+            }
+            LLVMStack s = threadMap.remove(thread);
+            if (s != null) {
+                synchronized (pool) {
+                    if (pool.size() < MAX_POOLED_STACKS) {
+                        s.reset();
+                        pool.push(s);
+                        return;
+                    }
+                }
+                s.free(memory);
+            }
         }
     }
 
+    /**
+     * Frees the stack of the main thread and all pooled stacks.
+     */
     @TruffleBoundary
     public void freeMainStack(LLVMMemory memory) {
-        free(memory, mainThread);
-    }
-
-    private synchronized void free(LLVMMemory memory, Thread thread) {
-        LLVMStack s = threadMap.get(thread);
-        if (s != null) {
-            s.free(memory);
-            threadMap.remove(thread);
+        mainStack.free(memory);
+        synchronized (pool) {
+            for (LLVMStack s : pool) {
+                s.free(memory);
+            }
+            pool.clear();
         }
     }
 }
@@ -59,7 +59,7 @@ public abstract class LLVMUniquesRegionAllocNode extends LLVMNode {
 
     @Specialization
     protected void doOp(VirtualFrame frame, @Cached("getLLVMMemory()") LLVMMemory memory) {
-        allocator.allocate(frame, memory, getStackPointerSlot());
+        allocator.allocate(this, frame, memory, getStackPointerSlot());
     }
 
 }
@@ -35,6 +35,7 @@ import com.oracle.truffle.api.instrumentation.InstrumentableNode;
 import com.oracle.truffle.api.instrumentation.ProbeNode;
 import com.oracle.truffle.api.interop.TruffleObject;
 import com.oracle.truffle.api.nodes.UnexpectedResultException;
+import com.oracle.truffle.llvm.runtime.LLVMI128;
 import com.oracle.truffle.llvm.runtime.LLVMIVarBit;
 import com.oracle.truffle.llvm.runtime.floating.LLVM80BitFloat;
 import com.oracle.truffle.llvm.runtime.interop.LLVMInternalTruffleObject;
@@ -124,6 +125,10 @@ public abstract class LLVMExpressionNode extends LLVMNode implements Instrumenta
         return LLVMTypesGen.expectLong(executeGeneric(frame));
     }
 
+    public LLVMI128 executeLLVMI128(VirtualFrame frame) throws UnexpectedResultException {
+        return LLVMTypesGen.expectLLVMI128(executeGeneric(frame));
+    }
+
     public LLVMIVarBit executeLLVMIVarBit(VirtualFrame frame) throws UnexpectedResultException {
         return LLVMTypesGen.expectLLVMIVarBit(executeGeneric(frame));
     }
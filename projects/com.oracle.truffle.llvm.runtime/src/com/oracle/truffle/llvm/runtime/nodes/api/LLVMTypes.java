@@ -33,6 +33,7 @@ import com.oracle.truffle.api.dsl.TypeCast;
 import com.oracle.truffle.api.dsl.TypeCheck;
 import com.oracle.truffle.api.dsl.TypeSystem;
 import com.oracle.truffle.api.interop.TruffleObject;
+import com.oracle.truffle.llvm.runtime.LLVMI128;
 import com.oracle.truffle.llvm.runtime.LLVMIVarBit;
 import com.oracle.truffle.llvm.runtime.floating.LLVM80BitFloat;
 import com.oracle.truffle.llvm.runtime.pointer.LLVMManagedPointer;
@@ -51,7 +52,7 @@ import com.oracle.truffle.llvm.runtime.vector.LLVMPointerVector;
                 LLVMI1Vector.class, LLVMI8Vector.class, LLVMI16Vector.class, LLVMI32Vector.class, LLVMI64Vector.class,
                 LLVMPointerVector.class, LLVMFloatVector.class, LLVMDoubleVector.class,
                 LLVMNativePointer.class, LLVMManagedPointer.class, LLVMPointer.class,
-                LLVMIVarBit.class, LLVM80BitFloat.class, TruffleObject.class})
+                LLVMI128.class, LLVMIVarBit.class, LLVM80BitFloat.class, TruffleObject.class})
 public class LLVMTypes {
 
     @TypeCheck(LLVMPointer.class)
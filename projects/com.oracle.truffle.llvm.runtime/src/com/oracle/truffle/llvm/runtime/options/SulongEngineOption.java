@@ -82,6 +82,11 @@ public final class SulongEngineOption {
     public static final String PRINT_LIFE_TIME_ANALYSIS_STATS_NAME = "llvm.printLifetimeAnalysisStats";
     public static final String PRINT_LIFE_TIME_ANALYSIS_STATS_INFO = "Prints the results of the lifetime analysis. Can be \'true\', \'false\', \'stdout\', \'stderr\' or a filepath.";
 
+    public static final OptionKey<String> PRINT_PARSING_STATS = new OptionKey<>(String.valueOf(false));
+    public static final String PRINT_PARSING_STATS_NAME = "llvm.printParsingStats";
+    public static final String PRINT_PARSING_STATS_INFO = "Prints the wall time and allocated bytes of the parsing phases per library and of the slowest function conversions when the context " +
+                    "is disposed. Can be \'true\', \'false\', \'stdout\', \'stderr\' or a filepath, to which the statistics are written as JSON.";
+
     public static final OptionKey<Boolean> PARSE_ONLY = new OptionKey<>(false);
     public static final String PARSE_ONLY_NAME = "llvm.parseOnly";
     public static final String PARSE_ONLY_INFO = "Only parses a bc file; execution is not possible.";
@@ -90,6 +95,11 @@ public final class SulongEngineOption {
     public static final String ENABLE_LVI_NAME = "llvm.enableLVI";
     public static final String ENABLE_LVI_INFO = "Enable source-level inspection of local variables.";
 
+    public static final OptionKey<Boolean> LAZY_LVI = new OptionKey<>(false);
+    public static final String LAZY_LVI_NAME = "llvm.lazyLVI";
+    public static final String LAZY_LVI_INFO = "Build the runtime information for source-level inspection of local variables only when a debugger first inspects a function. " +
+                    "The function is then converted again, and variables of its running activation that the previous version has already cleared are shown as unavailable.";
+
     public static final OptionKey<Boolean> LAZY_PARSING = new OptionKey<>(true);
     public static final String LAZY_PARSING_NAME = "llvm.lazyParsing";
     public static final String LAZY_PARSING_INFO = "Enable lazy parsing of LLVM bitcode files.";
@@ -106,6 +116,34 @@ public final class SulongEngineOption {
     public static final String STACKTRACE_ON_ABORT_NAME = "llvm.printStackTraceOnAbort";
     public static final String STACKTRACE_ON_ABORT_INFO = "Prints a C stack trace when abort() is called.";
 
+    public static final OptionKey<Boolean> SIZE_CLASS_ALLOCATOR = new OptionKey<>(false);
+    public static final String SIZE_CLASS_ALLOCATOR_NAME = "llvm.sizeClassAllocator";
+    public static final String SIZE_CLASS_ALLOCATOR_INFO = "Serve small malloc/calloc/realloc requests from thread-cached size classes instead of the system allocator. " +
+                    "Memory allocated this way must not be freed by native code.";
+
+    public static final OptionKey<Boolean> LOOP_OSR = new OptionKey<>(false);
+    public static final String LOOP_OSR_NAME = "llvm.loopOSR";
+    public static final String LOOP_OSR_INFO = "Execute natural loops of LLVM functions as Truffle loops so that long running loops can be compiled with on-stack replacement.";
+
+    public static final OptionKey<String> SCAN_CACHE = new OptionKey<>("");
+    public static final String SCAN_CACHE_NAME = "llvm.scanCache";
+    public static final String SCAN_CACHE_INFO = "A directory in which the scans of bitcode files are cached, so that later runs do not need to decode unchanged files again (disabled if empty).";
+
+    public static final OptionKey<Boolean> SPECULATIVE_CONVERSION = new OptionKey<>(false);
+    public static final String SPECULATIVE_CONVERSION_NAME = "llvm.speculativeConversion";
+    public static final String SPECULATIVE_CONVERSION_INFO = "Convert the functions that are statically reachable from main on a background thread before they are called for the first time. " +
+                    "Only has an effect with lazy parsing.";
+
+    public static final OptionKey<Integer> PARSING_PARALLELISM = new OptionKey<>(0);
+    public static final String PARSING_PARALLELISM_NAME = "llvm.parsingParallelism";
+    public static final String PARSING_PARALLELISM_INFO = "The number of threads that convert the functions of a library when lazy parsing is disabled " +
+                    "(0 uses the common fork-join pool, 1 converts them on the parsing thread).";
+
+    public static final OptionKey<Integer> STDIO_BUFFER_SIZE = new OptionKey<>(0);
+    public static final String STDIO_BUFFER_SIZE_NAME = "llvm.stdioBufferSize";
+    public static final String STDIO_BUFFER_SIZE_INFO = "The size in bytes of a buffer for the writes to stdout and stderr, which then go to the output streams of the polyglot engine " +
+                    "instead of the native file descriptors (0 disables the buffer).";
+
     public static List<OptionDescriptor> describeOptions() {
         ArrayList<OptionDescriptor> options = new ArrayList<>();
         options.add(OptionDescriptor.newBuilder(CONFIGURATION, CONFIGURATION_NAME).help(CONFIGURATION_INFO).category(OptionCategory.USER).build());
@@ -116,12 +154,20 @@ public final class SulongEngineOption {
         options.add(OptionDescriptor.newBuilder(DEBUG_SYSCALLS, DEBUG_SYSCALLS_NAME).help(DEBUG_SYSCALLS_INFO).category(OptionCategory.USER).build());
         options.add(OptionDescriptor.newBuilder(NATIVE_CALL_STATS, NATIVE_CALL_STATS_NAME).help(NATIVE_CALL_STATS_INFO).category(OptionCategory.USER).build());
         options.add(OptionDescriptor.newBuilder(PRINT_LIFE_TIME_ANALYSIS_STATS, PRINT_LIFE_TIME_ANALYSIS_STATS_NAME).help(PRINT_LIFE_TIME_ANALYSIS_STATS_INFO).category(OptionCategory.USER).build());
+        options.add(OptionDescriptor.newBuilder(PRINT_PARSING_STATS, PRINT_PARSING_STATS_NAME).help(PRINT_PARSING_STATS_INFO).category(OptionCategory.USER).build());
         options.add(OptionDescriptor.newBuilder(PARSE_ONLY, PARSE_ONLY_NAME).help(PARSE_ONLY_INFO).category(OptionCategory.EXPERT).build());
         options.add(OptionDescriptor.newBuilder(ENABLE_LVI, ENABLE_LVI_NAME).help(ENABLE_LVI_INFO).category(OptionCategory.DEBUG).build());
+        options.add(OptionDescriptor.newBuilder(LAZY_LVI, LAZY_LVI_NAME).help(LAZY_LVI_INFO).category(OptionCategory.DEBUG).build());
         options.add(OptionDescriptor.newBuilder(LAZY_PARSING, LAZY_PARSING_NAME).help(LAZY_PARSING_INFO).category(OptionCategory.EXPERT).build());
         options.add(OptionDescriptor.newBuilder(LL_DEBUG, LL_DEBUG_NAME).help(LL_DEBUG_INFO).category(OptionCategory.DEBUG).build());
         options.add(OptionDescriptor.newBuilder(LL_DEBUG_SOURCES, LL_DEBUG_SOURCES_NAME).help(LL_DEBUG_SOURCES_INFO).category(OptionCategory.DEBUG).build());
         options.add(OptionDescriptor.newBuilder(STACKTRACE_ON_ABORT, STACKTRACE_ON_ABORT_NAME).help(STACKTRACE_ON_ABORT_INFO).category(OptionCategory.DEBUG).build());
+        options.add(OptionDescriptor.newBuilder(SIZE_CLASS_ALLOCATOR, SIZE_CLASS_ALLOCATOR_NAME).help(SIZE_CLASS_ALLOCATOR_INFO).category(OptionCategory.EXPERT).build());
+        options.add(OptionDescriptor.newBuilder(LOOP_OSR, LOOP_OSR_NAME).help(LOOP_OSR_INFO).category(OptionCategory.EXPERT).build());
+        options.add(OptionDescriptor.newBuilder(SCAN_CACHE, SCAN_CACHE_NAME).help(SCAN_CACHE_INFO).category(OptionCategory.EXPERT).build());
+        options.add(OptionDescriptor.newBuilder(SPECULATIVE_CONVERSION, SPECULATIVE_CONVERSION_NAME).help(SPECULATIVE_CONVERSION_INFO).category(OptionCategory.EXPERT).build());
+        options.add(OptionDescriptor.newBuilder(PARSING_PARALLELISM, PARSING_PARALLELISM_NAME).help(PARSING_PARALLELISM_INFO).category(OptionCategory.EXPERT).build());
+        options.add(OptionDescriptor.newBuilder(STDIO_BUFFER_SIZE, STDIO_BUFFER_SIZE_NAME).help(STDIO_BUFFER_SIZE_INFO).category(OptionCategory.EXPERT).build());
         return options;
     }
 
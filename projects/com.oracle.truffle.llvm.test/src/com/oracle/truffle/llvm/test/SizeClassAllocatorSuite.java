@@ -0,0 +1,98 @@
+/*
+ * Copyright (c) 2018, Oracle and/or its affiliates.
+ *
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification, are
+ * permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this list of
+ * conditions and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice, this list of
+ * conditions and the following disclaimer in the documentation and/or other materials provided
+ * with the distribution.
+ *
+ * 3. Neither the name of the copyright holder nor the names of its contributors may be used to
+ * endorse or promote products derived from this software without specific prior written
+ * permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY EXPRESS
+ * OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE
+ * COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ * EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE
+ * GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED
+ * AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED
+ * OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.oracle.truffle.llvm.test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Map;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import org.junit.runner.RunWith;
+import org.junit.runners.Parameterized;
+import org.junit.runners.Parameterized.Parameter;
+import org.junit.runners.Parameterized.Parameters;
+
+import com.oracle.truffle.llvm.test.options.TestOptions;
+
+/**
+ * Runs the stdlib tests of the Sulong test suite with {@code llvm.sizeClassAllocator} enabled, so
+ * that {@code malloc}, {@code calloc}, {@code realloc} and {@code free} go through the size-class
+ * allocator instead of the system allocator.
+ */
+@RunWith(Parameterized.class)
+public final class SizeClassAllocatorSuite extends BaseSuiteHarness {
+
+    private static final boolean IS_MAC = System.getProperty("os.name").toLowerCase().indexOf("mac") >= 0;
+    private static final String OPTION_SIZE_CLASS_ALLOCATOR = "llvm.sizeClassAllocator";
+    private static final Path STDLIB_TESTS = Paths.get(TestOptions.TEST_SUITE_PATH, "c", "stdlib");
+
+    @Parameter(value = 0) public Path path;
+    @Parameter(value = 1) public String testName;
+
+    @Parameters(name = "{1}")
+    public static Collection<Object[]> data() {
+        try {
+            Stream<Path> destDirs = Files.walk(STDLIB_TESTS).filter(path -> path.endsWith("ref.out")).map(Path::getParent);
+            return destDirs.map(testPath -> new Object[]{testPath, STDLIB_TESTS.relativize(testPath).toString()}).collect(Collectors.toList());
+        } catch (IOException e) {
+            throw new AssertionError("Test cases not found", e);
+        }
+    }
+
+    @Override
+    protected Map<String, String> getContextOptions() {
+        return Collections.singletonMap(OPTION_SIZE_CLASS_ALLOCATOR, String.valueOf(true));
+    }
+
+    @Override
+    protected Predicate<? super Path> getIsSulongFilter() {
+        return f -> {
+            boolean isBC = f.getFileName().toString().endsWith(".bc");
+            boolean isOut = f.getFileName().toString().endsWith(".out");
+            return isBC || (isOut && !IS_MAC);
+        };
+    }
+
+    @Override
+    protected Path getTestDirectory() {
+        return path;
+    }
+
+    @Override
+    protected String getTestName() {
+        return testName;
+    }
+}
@@ -0,0 +1,103 @@
+/*
+ * Copyright (c) 2018, Oracle and/or its affiliates.
+ *
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification, are
+ * permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this list of
+ * conditions and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice, this list of
+ * conditions and the following disclaimer in the documentation and/or other materials provided
+ * with the distribution.
+ *
+ * 3. Neither the name of the copyright holder nor the names of its contributors may be used to
+ * endorse or promote products derived from this software without specific prior written
+ * permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY EXPRESS
+ * OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE
+ * COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ * EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE
+ * GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED
+ * AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED
+ * OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.oracle.truffle.llvm.test.debug;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Collection;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import com.oracle.truffle.llvm.test.options.TestOptions;
+import org.graalvm.polyglot.Context;
+import org.junit.runner.RunWith;
+import org.junit.runners.Parameterized;
+import org.junit.runners.Parameterized.Parameters;
+
+/**
+ * Runs the source-level debug tests with deferred debug information. The first stop in every
+ * function materializes the information while the activation is suspended. That activation keeps
+ * running the body without debug information, which may already have cleared the values of some
+ * variables, so those are accepted as unavailable. Only unoptimized bitcode is used, in which the
+ * local variables live in allocations.
+ */
+@RunWith(Parameterized.class)
+public final class LLVMLazyLVIDebugTest extends LLVMDebugTestBase {
+
+    private static final String CONFIGURATION = "O0.bc";
+
+    private static final Path BC_DIR_PATH = Paths.get(TestOptions.TEST_SUITE_PATH, "debug");
+    private static final Path SRC_DIR_PATH = Paths.get(TestOptions.PROJECT_ROOT, "..", "tests", "com.oracle.truffle.llvm.tests.debug", "debug");
+    private static final Path TRACE_DIR_PATH = Paths.get(TestOptions.PROJECT_ROOT, "..", "tests", "com.oracle.truffle.llvm.tests.debug", "trace");
+
+    private static final String OPTION_ENABLE_LVI = "llvm.enableLVI";
+    private static final String OPTION_LAZY_LVI = "llvm.lazyLVI";
+
+    @Parameters(name = "{0}")
+    public static Collection<Object[]> getConfigurations() {
+        try (Stream<Path> dirs = Files.walk(BC_DIR_PATH)) {
+            return dirs.filter(path -> path.endsWith(CONFIGURATION)).map(path -> new Object[]{path.getParent().getFileName().toString(), CONFIGURATION}).collect(Collectors.toSet());
+        } catch (IOException e) {
+            throw new AssertionError("Error while finding tests!", e);
+        }
+    }
+
+    public LLVMLazyLVIDebugTest(String testName, String configuration) {
+        super(testName, configuration);
+    }
+
+    @Override
+    void setContextOptions(Context.Builder contextBuilder) {
+        contextBuilder.option(OPTION_ENABLE_LVI, String.valueOf(true));
+        contextBuilder.option(OPTION_LAZY_LVI, String.valueOf(true));
+    }
+
+    @Override
+    boolean acceptsUnavailableValues() {
+        return true;
+    }
+
+    @Override
+    Path getBitcodePath() {
+        return BC_DIR_PATH;
+    }
+
+    @Override
+    Path getSourcePath() {
+        return SRC_DIR_PATH;
+    }
+
+    @Override
+    Path getTracePath() {
+        return TRACE_DIR_PATH;
+    }
+}
@@ -0,0 +1,136 @@
+/*
+ * Copyright (c) 2018, Oracle and/or its affiliates.
+ *
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification, are
+ * permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this list of
+ * conditions and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice, this list of
+ * conditions and the following disclaimer in the documentation and/or other materials provided
+ * with the distribution.
+ *
+ * 3. Neither the name of the copyright holder nor the names of its contributors may be used to
+ * endorse or promote products derived from this software without specific prior written
+ * permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY EXPRESS
+ * OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE
+ * COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ * EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE
+ * GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED
+ * AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED
+ * OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.oracle.truffle.llvm.test.runtime;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.lang.reflect.Method;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+import org.graalvm.polyglot.Context;
+import org.graalvm.polyglot.Engine;
+import org.graalvm.polyglot.Source;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.oracle.truffle.llvm.Runner.DefaultLibraries;
+import com.oracle.truffle.llvm.Sulong;
+import com.oracle.truffle.llvm.runtime.LLVMLanguage;
+import com.oracle.truffle.llvm.runtime.options.SulongEngineOption;
+import com.oracle.truffle.llvm.test.options.TestOptions;
+
+public class ContextPreInitializationTest {
+
+    private static final Path BITCODE = Paths.get(TestOptions.TEST_SUITE_PATH, "runtime", "pre-init", "O0.bc");
+    private static final int EXPECTED_RESULT = 42;
+
+    // the options of the image builder, which are also used by the contexts of the image
+    private static final String[][] OPTIONS = {{SulongEngineOption.STDIO_BUFFER_SIZE_NAME, "64"}};
+
+    private Source source;
+
+    @Before
+    public void setUp() throws IOException {
+        for (String[] option : OPTIONS) {
+            System.setProperty("polyglot." + option[0], option[1]);
+        }
+        source = Source.newBuilder("llvm", BITCODE.toFile()).build();
+    }
+
+    @After
+    public void tearDown() throws ReflectiveOperationException {
+        for (String[] option : OPTIONS) {
+            System.clearProperty("polyglot." + option[0]);
+        }
+        invokeEngineHolder("resetPreInitializedEngine");
+    }
+
+    @Test
+    public void testPatchedContextUsesParsedLibraries() throws ReflectiveOperationException {
+        preInitialize();
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (Context context = Context.newBuilder().arguments("llvm", new String[]{"patched"}).out(out).allowAllAccess(true).build()) {
+            Assert.assertEquals(EXPECTED_RESULT, context.eval(source).execute().asInt());
+
+            // the default libraries that were parsed in the pre-initialized context were reused
+            DefaultLibraries libraries = getPreInitializedLibraries(context);
+            Assert.assertNotNull("The context was not patched.", libraries);
+            Assert.assertTrue(libraries.isInitialized());
+            Assert.assertFalse(libraries.getLibraryNames().isEmpty());
+        }
+        // the arguments and the output stream are those of the patched context
+        Assert.assertEquals("patched\n", new String(out.toByteArray(), StandardCharsets.UTF_8));
+    }
+
+    @Test
+    public void testDifferentOptionsCreateNewContext() throws ReflectiveOperationException {
+        preInitialize();
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (Context context = Context.newBuilder().option(SulongEngineOption.STACK_SIZE_KB_NAME, "40960").arguments("llvm", new String[]{"patched"}).out(out).allowAllAccess(true).build()) {
+            Assert.assertEquals(EXPECTED_RESULT, context.eval(source).execute().asInt());
+
+            // the new context parsed the default libraries itself
+            Assert.assertNull(getPreInitializedLibraries(context));
+        }
+        Assert.assertEquals("patched\n", new String(out.toByteArray(), StandardCharsets.UTF_8));
+    }
+
+    private static DefaultLibraries getPreInitializedLibraries(Context context) {
+        context.enter();
+        try {
+            return ((Sulong) LLVMLanguage.getLLVMContextReference().get().getLanguage()).getPreInitializedLibraries();
+        } finally {
+            context.leave();
+        }
+    }
+
+    private static void preInitialize() throws ReflectiveOperationException {
+        System.setProperty("polyglot.engine.PreinitializeContexts", "llvm");
+        try {
+            invokeEngineHolder("preInitializeEngine");
+        } finally {
+            System.clearProperty("polyglot.engine.PreinitializeContexts");
+        }
+    }
+
+    private static void invokeEngineHolder(String name) throws ReflectiveOperationException {
+        // this is what the native image builder does
+        Class<?> holder = Class.forName("org.graalvm.polyglot.Engine$ImplHolder", true, Engine.class.getClassLoader());
+        Method method = holder.getDeclaredMethod(name);
+        method.setAccessible(true);
+        method.invoke(null);
+    }
+}
@@ -0,0 +1,184 @@
+/*
+ * Copyright (c) 2018, Oracle and/or its affiliates.
+ *
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification, are
+ * permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this list of
+ * conditions and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice, this list of
+ * conditions and the following disclaimer in the documentation and/or other materials provided
+ * with the distribution.
+ *
+ * 3. Neither the name of the copyright holder nor the names of its contributors may be used to
+ * endorse or promote products derived from this software without specific prior written
+ * permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY EXPRESS
+ * OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE
+ * COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ * EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE
+ * GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED
+ * AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED
+ * OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.oracle.truffle.llvm.test.runtime;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.FileTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.graalvm.polyglot.Context;
+import org.graalvm.polyglot.Value;
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import com.oracle.truffle.api.source.Source;
+import com.oracle.truffle.llvm.parser.model.ModelModule;
+import com.oracle.truffle.llvm.parser.model.functions.FunctionDeclaration;
+import com.oracle.truffle.llvm.parser.model.functions.FunctionDefinition;
+import com.oracle.truffle.llvm.parser.model.symbols.globals.GlobalAlias;
+import com.oracle.truffle.llvm.parser.model.symbols.globals.GlobalVariable;
+import com.oracle.truffle.llvm.parser.scanner.LLVMScanner;
+import com.oracle.truffle.llvm.parser.scanner.ScanCache;
+import com.oracle.truffle.llvm.runtime.LLVMLanguage;
+import com.oracle.truffle.llvm.runtime.options.SulongEngineOption;
+import com.oracle.truffle.llvm.test.options.TestOptions;
+
+public class ScanCacheTest {
+
+    private static final Path TEST_DIR = Paths.get(TestOptions.TEST_SUITE_PATH, "runtime");
+    private static final Path BITCODE = TEST_DIR.resolve("scan-cache").resolve("O0.bc");
+    private static final int EXPECTED_RESULT = 32;
+    private static final Path OTHER_BITCODE = TEST_DIR.resolve("threading-stack").resolve("O0.bc");
+    private static final int OTHER_EXPECTED_RESULT = 0;
+
+    @Rule public TemporaryFolder cacheDirectory = new TemporaryFolder();
+    @Rule public TemporaryFolder bitcodeDirectory = new TemporaryFolder();
+
+    @Test
+    public void testReplayBuildsSameModel() throws IOException {
+        final ByteBuffer bytes = ByteBuffer.wrap(Files.readAllBytes(BITCODE));
+        final Source source = Source.newBuilder(BITCODE.toString()).mimeType(LLVMLanguage.LLVM_BITCODE_MIME_TYPE).name(BITCODE.getFileName().toString()).build();
+        final List<String> expected = describe(LLVMScanner.scan(bytes, source).getIncompleteModel());
+
+        // replays are repeatable
+        final ByteBuffer recorded = ScanCache.record(bytes, source);
+        Assert.assertEquals(expected, describe(ScanCache.replay(bytes, source, recorded).getIncompleteModel()));
+        Assert.assertEquals(expected, describe(ScanCache.replay(bytes, source, recorded).getIncompleteModel()));
+    }
+
+    @Test
+    public void testEntriesAreKeyedByContent() throws IOException {
+        final Path first = bitcodeDirectory.getRoot().toPath().resolve("first.bc");
+        final Path second = bitcodeDirectory.getRoot().toPath().resolve("second.bc");
+        Files.copy(BITCODE, first);
+        Files.copy(BITCODE, second);
+        Files.setLastModifiedTime(second, FileTime.fromMillis(1));
+
+        // copies of the same bitcode share an entry, as do the default libraries of both runs
+        Assert.assertEquals(EXPECTED_RESULT, run(first));
+        final int entries = listEntries().size();
+        Assert.assertEquals(EXPECTED_RESULT, run(second));
+        Assert.assertEquals(entries, listEntries().size());
+
+        // a file that is replaced without changing its modification time gets a new entry
+        final FileTime modified = Files.getLastModifiedTime(first);
+        Files.copy(OTHER_BITCODE, first, StandardCopyOption.REPLACE_EXISTING);
+        Files.setLastModifiedTime(first, modified);
+        Assert.assertEquals(OTHER_EXPECTED_RESULT, run(first));
+        Assert.assertEquals(entries + 1, listEntries().size());
+    }
+
+    @Test
+    public void testCorruptedEntriesAreScannedAgain() throws IOException {
+        Assert.assertEquals(EXPECTED_RESULT, run());
+        final List<Path> entries = listEntries();
+        Assert.assertFalse("No scan was persisted.", entries.isEmpty());
+
+        final List<byte[]> corrupted = new ArrayList<>();
+        for (int i = 0; i < entries.size(); i++) {
+            final byte[] entry = Files.readAllBytes(entries.get(i));
+            final byte[] broken;
+            switch (i % 3) {
+                case 0:
+                    // breaks the checksum
+                    broken = entry.clone();
+                    broken[broken.length - 1] ^= 0x5a;
+                    break;
+                case 1:
+                    // breaks the length
+                    broken = Arrays.copyOf(entry, entry.length / 2);
+                    break;
+                default:
+                    // breaks the header
+                    broken = new byte[]{1, 2, 3};
+                    break;
+            }
+            Files.write(entries.get(i), broken);
+            corrupted.add(broken);
+        }
+
+        Assert.assertEquals(EXPECTED_RESULT, run());
+        for (int i = 0; i < entries.size(); i++) {
+            Assert.assertFalse(entries.get(i) + " was not replaced.", Arrays.equals(corrupted.get(i), Files.readAllBytes(entries.get(i))));
+        }
+    }
+
+    private int run() {
+        return run(BITCODE);
+    }
+
+    private int run(Path bitcode) {
+        try (Context context = Context.newBuilder().option(SulongEngineOption.SCAN_CACHE_NAME, cacheDirectory.getRoot().getAbsolutePath()).allowAllAccess(true).build()) {
+            final Value main = context.eval(org.graalvm.polyglot.Source.newBuilder("llvm", bitcode.toFile()).build());
+            return main.execute().asInt();
+        } catch (IOException e) {
+            throw new AssertionError(e);
+        }
+    }
+
+    private List<Path> listEntries() throws IOException {
+        final List<Path> entries = new ArrayList<>();
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(cacheDirectory.getRoot().toPath(), "*.scan")) {
+            for (Path entry : stream) {
+                entries.add(entry);
+            }
+        }
+        return entries;
+    }
+
+    private static List<String> describe(ModelModule model) {
+        final List<String> description = new ArrayList<>();
+        description.add("layout " + (model.getTargetDataLayout() == null ? null : model.getTargetDataLayout().getDataLayout()));
+        for (FunctionDefinition define : model.getDefinedFunctions()) {
+            description.add("define " + define.getLinkage() + " " + define.getName() + " " + define.getType() + " " + (model.getFunctionParser(define) != null));
+        }
+        for (FunctionDeclaration declare : model.getDeclaredFunctions()) {
+            description.add("declare " + declare.getLinkage() + " " + declare.getName() + " " + declare.getType());
+        }
+        for (GlobalVariable global : model.getGlobalVariables()) {
+            description.add("global " + global.getLinkage() + " " + global.getName() + " " + global.getType() + " " + global.getAlign());
+        }
+        for (GlobalAlias alias : model.getAliases()) {
+            description.add("alias " + alias.getLinkage() + " " + alias.getName() + " " + alias.getType());
+        }
+        description.add("libraries " + model.getLibraries() + " " + model.getLibraryPaths());
+        return description;
+    }
+}
@@ -0,0 +1,151 @@
+/*
+ * Copyright (c) 2018, Oracle and/or its affiliates.
+ *
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification, are
+ * permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this list of
+ * conditions and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice, this list of
+ * conditions and the following disclaimer in the documentation and/or other materials provided
+ * with the distribution.
+ *
+ * 3. Neither the name of the copyright holder nor the names of its contributors may be used to
+ * endorse or promote products derived from this software without specific prior written
+ * permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY EXPRESS
+ * OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE
+ * COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ * EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE
+ * GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED
+ * AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED
+ * OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.oracle.truffle.llvm.test.runtime;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.graalvm.polyglot.Context;
+import org.graalvm.polyglot.Source;
+import org.graalvm.polyglot.Value;
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import com.oracle.truffle.llvm.runtime.LLVMLanguage;
+import com.oracle.truffle.llvm.runtime.options.SulongEngineOption;
+import com.oracle.truffle.llvm.test.options.TestOptions;
+
+public class StdioBufferTest {
+
+    private static final Path TEST_DIR = Paths.get(TestOptions.TEST_SUITE_PATH, "runtime");
+
+    @Rule public TemporaryFolder tempFolder = new TemporaryFolder();
+
+    @Test
+    public void testFlushPoints() throws IOException {
+        Path marker = tempFolder.newFile("marker").toPath();
+        RecordingStream out = new RecordingStream(marker);
+        RecordingStream err = new RecordingStream(marker);
+        Assert.assertEquals(0, run(64, marker, out, err));
+
+        // switching to stderr, stdin reads, dup2 and exit flush stdout, fsync flushes stderr
+        Assert.assertEquals(Arrays.asList("a: out1 ", "abcd: out2 ", "abcdef: out3 "), out.getWrites());
+        Assert.assertEquals(Arrays.asList("ab: err1 ", "abcdefghij: err2"), err.getWrites());
+        // the writes after dup2 go to the native file descriptor
+        Assert.assertEquals("abcdefghij", read(marker));
+    }
+
+    @Test
+    public void testSmallBuffer() throws IOException {
+        Path marker = tempFolder.newFile("marker").toPath();
+        RecordingStream out = new RecordingStream(marker);
+        RecordingStream err = new RecordingStream(marker);
+        Assert.assertEquals(0, run(2, marker, out, err));
+
+        // a full buffer is flushed when the next byte arrives, the rest waits for the next flush
+        Assert.assertEquals(Arrays.asList("a: out1 ", "abc: out2", "abcd:  ", "abcde: out3", "abcdef:  "), out.getWrites());
+        Assert.assertEquals(Arrays.asList("a: err1", "ab:  ", "abcdefghi: er", "abcdefghij: r2"), err.getWrites());
+    }
+
+    @Test
+    public void testWithoutBuffer() throws IOException {
+        Path marker = tempFolder.newFile("marker").toPath();
+        RecordingStream out = new RecordingStream(marker);
+        RecordingStream err = new RecordingStream(marker);
+        Assert.assertEquals(0, run(0, marker, out, err));
+
+        // the program writes to the native file descriptors
+        Assert.assertEquals(new ArrayList<>(), out.getWrites());
+        Assert.assertEquals(new ArrayList<>(), err.getWrites());
+        Assert.assertEquals("abcdefghij", read(marker));
+    }
+
+    private static int run(int bufferSize, Path marker, OutputStream out, OutputStream err) throws IOException {
+        File file = TEST_DIR.resolve("stdio-buffer").resolve("O0.bc").toFile();
+        try (Context context = Context.newBuilder().option(SulongEngineOption.STDIO_BUFFER_SIZE_NAME, String.valueOf(bufferSize)).arguments(LLVMLanguage.NAME,
+                        new String[]{marker.toString()}).out(out).err(err).allowAllAccess(true).build()) {
+            Value main = context.eval(Source.newBuilder("llvm", file).build());
+            return main.execute().asInt();
+        }
+    }
+
+    private static String read(Path marker) throws IOException {
+        return new String(Files.readAllBytes(marker), StandardCharsets.US_ASCII);
+    }
+
+    /**
+     * Records the steps of the program that it has reached when the output arrives.
+     */
+    private static final class RecordingStream extends OutputStream {
+
+        private final Path marker;
+        private final List<String> steps = new ArrayList<>();
+        private final List<StringBuilder> writes = new ArrayList<>();
+
+        RecordingStream(Path marker) {
+            this.marker = marker;
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            write(new byte[]{(byte) b}, 0, 1);
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            String step = read(marker);
+            int last = steps.size() - 1;
+            if (last < 0 || !steps.get(last).equals(step)) {
+                steps.add(step);
+                writes.add(new StringBuilder());
+                last++;
+            }
+            writes.get(last).append(new String(b, off, len, StandardCharsets.US_ASCII));
+        }
+
+        List<String> getWrites() {
+            List<String> result = new ArrayList<>();
+            for (int i = 0; i < steps.size(); i++) {
+                result.add(steps.get(i) + ": " + writes.get(i));
+            }
+            return result;
+        }
+    }
+}
@@ -0,0 +1,89 @@
+/*
+ * Copyright (c) 2018, Oracle and/or its affiliates.
+ *
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification, are
+ * permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this list of
+ * conditions and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice, this list of
+ * conditions and the following disclaimer in the documentation and/or other materials provided
+ * with the distribution.
+ *
+ * 3. Neither the name of the copyright holder nor the names of its contributors may be used to
+ * endorse or promote products derived from this software without specific prior written
+ * permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY EXPRESS
+ * OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE
+ * COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ * EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE
+ * GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED
+ * AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED
+ * OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.oracle.truffle.llvm.test.runtime;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.graalvm.polyglot.Context;
+import org.graalvm.polyglot.Source;
+import org.graalvm.polyglot.Value;
+import org.junit.Assert;
+import org.junit.Test;
+
+import com.oracle.truffle.llvm.test.options.TestOptions;
+
+public class ThreadingStackTest {
+
+    private static final Path BITCODE = Paths.get(TestOptions.TEST_SUITE_PATH, "runtime", "threading-stack", "O0.bc");
+    private static final int THREADS = 8;
+    private static final int CALLS = 50;
+    private static final int ROUNDS = 10;
+
+    @Test
+    public void testThreadsUseOwnStacks() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        try (Context context = Context.newBuilder().allowAllAccess(true).build()) {
+            Value fillAndCheck = context.eval(Source.newBuilder("llvm", BITCODE.toFile()).build()).getMember("fill_and_check");
+            List<Future<Long>> results = new ArrayList<>();
+            for (int t = 0; t < THREADS; t++) {
+                long seed = t * 1000L;
+                results.add(executor.submit(() -> {
+                    long address = fillAndCheck.execute(seed, ROUNDS).asLong();
+                    for (int i = 1; i < CALLS; i++) {
+                        // every call of a thread uses the same stack
+                        Assert.assertEquals(address, fillAndCheck.execute(seed, ROUNDS).asLong());
+                    }
+                    return address;
+                }));
+            }
+
+            Set<Long> addresses = new HashSet<>();
+            for (Future<Long> result : results) {
+                long address = result.get();
+                Assert.assertNotEquals("A thread overwrote the stack of another thread.", -1, address);
+                addresses.add(address);
+            }
+            Assert.assertEquals("Threads shared a stack.", THREADS, addresses.size());
+        } catch (IOException e) {
+            throw new AssertionError(e);
+        } finally {
+            executor.shutdown();
+        }
+    }
+}
@@ -0,0 +1,149 @@
+/*
+ * Copyright (c) 2018, Oracle and/or its affiliates.
+ *
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification, are
+ * permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this list of
+ * conditions and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice, this list of
+ * conditions and the following disclaimer in the documentation and/or other materials provided
+ * with the distribution.
+ *
+ * 3. Neither the name of the copyright holder nor the names of its contributors may be used to
+ * endorse or promote products derived from this software without specific prior written
+ * permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY EXPRESS
+ * OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE
+ * COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ * EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE
+ * GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED
+ * AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED
+ * OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.oracle.truffle.llvm.types.floating.test;
+
+import static org.junit.Assert.assertEquals;
+
+import org.junit.Test;
+
+import com.oracle.truffle.llvm.runtime.floating.LLVM80BitFloat;
+
+/**
+ * The expected values were computed natively with the x87 FPU ({@code long double} arithmetic and
+ * {@code fmodl}), which serves as the reference for the Java implementation.
+ */
+public class LLVM80BitArithmeticTest extends LLVM80BitTest {
+
+    // left, right, left + right, left - right, left * right, left / right, fmodl(left, right)
+    private static final String[][] ARITHMETIC = {
+                    {"3fff8000000000000000", "3fff8000000000000001", "40008000000000000000", "bfc08000000000000000", "3fff8000000000000001", "3ffefffffffffffffffe", "3fff8000000000000000"},
+                    {"3fff8000000000000000", "3fbf8000000000000000", "3fff8000000000000000", "3ffeffffffffffffffff", "3fbf8000000000000000", "403f8000000000000000", "00000000000000000000"},
+                    {"3fff8000000000000001", "3fbf8000000000000000", "3fff8000000000000002", "3fff8000000000000000", "3fbf8000000000000001", "403f8000000000000001", "00000000000000000000"},
+                    {"3fffffffffffffffffff", "3fbf8000000000000000", "40008000000000000000", "3ffffffffffffffffffe", "3fbfffffffffffffffff", "403fffffffffffffffff", "00000000000000000000"},
+                    {"40008000000000000000", "bfff8000000000000001", "3ffefffffffffffffffe", "4000c000000000000000", "c0008000000000000001", "bffffffffffffffffffe", "3ffefffffffffffffffe"},
+                    {"3fffc90fdaa22168c235", "4000adf85458a2bb4a9b", "4001894020d4d9b7d5db", "bfff92e0ce0f240dd301", "400188a2c05a2ea3a4f3", "3ffe93eedfb138edef7f", "3fffc90fdaa22168c235"},
+                    {"4000c90fdaa22168c235", "4000adf85458a2bb4a9b", "4001bb84177d62120668", "3ffdd8bc324bf56bbcd0", "400288a2c05a2ea3a4f3", "3fff93eedfb138edef7f", "3ffdd8bc324bf56bbcd0"},
+                    {"3ffeb17217f7d1cf79ac", "3fffb504f333f9de6484", "400086deff97f16310ad", "bffeb897ce7021ed4f5c", "3ffefaf2329bd5c83570", "3ffdfaf2329bd5c83571", "3ffeb17217f7d1cf79ac"},
+                    {"7ffeffffffffffffffff", "7ffeffffffffffffffff", "7fff8000000000000000", "00000000000000000000", "7fff8000000000000000", "3fff8000000000000000", "00000000000000000000"},
+                    {"00018000000000000000", "3ffe8000000000000000", "3ffe8000000000000000", "bffe8000000000000000", "00004000000000000000", "00028000000000000000", "00018000000000000000"},
+                    {"00018000000000000001", "3ffe8000000000000000", "3ffe8000000000000000", "bffe8000000000000000", "00004000000000000000", "00028000000000000001", "00018000000000000001"},
+                    {"00004000000000000000", "00004000000000000000", "00018000000000000000", "00000000000000000000", "00000000000000000000", "3fff8000000000000000", "00000000000000000000"},
+                    {"00000000000000000001", "3fff8000000000000000", "3fff8000000000000000", "bfff8000000000000000", "00000000000000000001", "00000000000000000001", "00000000000000000001"},
+                    {"3fff8000000000000000", "00000000000000000000", "3fff8000000000000000", "3fff8000000000000000", "00000000000000000000", "7fff8000000000000000", "ffffc000000000000000"},
+                    {"00000000000000000000", "00000000000000000000", "00000000000000000000", "00000000000000000000", "00000000000000000000", "ffffc000000000000000", "ffffc000000000000000"},
+                    {"80000000000000000000", "80000000000000000000", "80000000000000000000", "00000000000000000000", "00000000000000000000", "ffffc000000000000000", "ffffc000000000000000"},
+                    {"7fff8000000000000000", "ffff8000000000000000", "ffffc000000000000000", "7fff8000000000000000", "ffff8000000000000000", "ffffc000000000000000", "ffffc000000000000000"},
+                    {"7fff8000000000000000", "00000000000000000000", "7fff8000000000000000", "7fff8000000000000000", "ffffc000000000000000", "7fff8000000000000000", "ffffc000000000000000"},
+                    {"7fffc000000000001234", "3fff8000000000000000", "7fffc000000000001234", "7fffc000000000001234", "7fffc000000000001234", "7fffc000000000001234", "7fffc000000000001234"},
+                    {"7fffa000000000000000", "3fff8000000000000000", "7fffe000000000000000", "7fffe000000000000000", "7fffe000000000000000", "7fffe000000000000000", "7fffe000000000000000"},
+                    {"403e8000000000000000", "3fffc000000000000000", "403e8000000000000002", "403dfffffffffffffffd", "403ec000000000000000", "403daaaaaaaaaaaaaaab", "3ffe8000000000000000"},
+                    {"bffdaaaaaaaaaaaaaaab", "3ffbcccccccccccccccd", "bffceeeeeeeeeeeeeef0", "bffdddddddddddddddde", "bffa8888888888888889", "c000d555555555555556", "bffa888888888888888a"},
+    };
+
+    // value, (double) value, (float) value
+    private static final String[][] CONVERSIONS = {
+                    {"3fff8000000000000000", "3ff0000000000000", "3f800000"},
+                    {"3fff8000000000000001", "3ff0000000000000", "3f800000"},
+                    {"3fffffffffffffffffff", "4000000000000000", "40000000"},
+                    {"40008000000000000000", "4000000000000000", "40000000"},
+                    {"3fffc90fdaa22168c235", "3ff921fb54442d18", "3fc90fdb"},
+                    {"4000c90fdaa22168c235", "400921fb54442d18", "40490fdb"},
+                    {"3ffeb17217f7d1cf79ac", "3fe62e42fefa39ef", "3f317218"},
+                    {"7ffeffffffffffffffff", "7ff0000000000000", "7f800000"},
+                    {"00018000000000000000", "0000000000000000", "00000000"},
+                    {"00018000000000000001", "0000000000000000", "00000000"},
+                    {"00004000000000000000", "0000000000000000", "00000000"},
+                    {"00000000000000000001", "0000000000000000", "00000000"},
+                    {"00000000000000000000", "0000000000000000", "00000000"},
+                    {"80000000000000000000", "8000000000000000", "80000000"},
+                    {"403e8000000000000000", "43e0000000000000", "5f000000"},
+                    {"bffdaaaaaaaaaaaaaaab", "bfd5555555555555", "beaaaaab"},
+    };
+
+    private static void assertHexEquals(String expected, LLVM80BitFloat actual) {
+        StringBuilder hex = new StringBuilder();
+        for (byte b : actual.getBytesBigEndian()) {
+            hex.append(String.format("%02x", b));
+        }
+        assertEquals(expected, hex.toString());
+    }
+
+    @Test
+    public void testAdd() {
+        for (String[] row : ARITHMETIC) {
+            assertHexEquals(row[2], LLVM80BitFloat.fromString(row[0]).add(LLVM80BitFloat.fromString(row[1])));
+        }
+    }
+
+    @Test
+    public void testSub() {
+        for (String[] row : ARITHMETIC) {
+            assertHexEquals(row[3], LLVM80BitFloat.fromString(row[0]).sub(LLVM80BitFloat.fromString(row[1])));
+        }
+    }
+
+    @Test
+    public void testMul() {
+        for (String[] row : ARITHMETIC) {
+            assertHexEquals(row[4], LLVM80BitFloat.fromString(row[0]).mul(LLVM80BitFloat.fromString(row[1])));
+        }
+    }
+
+    @Test
+    public void testDiv() {
+        for (String[] row : ARITHMETIC) {
+            assertHexEquals(row[5], LLVM80BitFloat.fromString(row[0]).div(LLVM80BitFloat.fromString(row[1])));
+        }
+    }
+
+    @Test
+    public void testRem() {
+        for (String[] row : ARITHMETIC) {
+            assertHexEquals(row[6], LLVM80BitFloat.fromString(row[0]).rem(LLVM80BitFloat.fromString(row[1])));
+        }
+    }
+
+    @Test
+    public void testConversions() {
+        for (String[] row : CONVERSIONS) {
+            LLVM80BitFloat value = LLVM80BitFloat.fromString(row[0]);
+            assertBitEquals(Double.longBitsToDouble(Long.parseUnsignedLong(row[1], 16)), value.getDoubleValue());
+            assertBitEquals(Float.intBitsToFloat(Integer.parseUnsignedInt(row[2], 16)), value.getFloatValue());
+        }
+    }
+
+    @Test
+    public void testCompare() {
+        assertEquals(0, LLVM80BitFloat.compare(zero(), minusZero()));
+        assertEquals(-1, LLVM80BitFloat.compare(val(-2), minusOne()));
+        assertEquals(1, LLVM80BitFloat.compare(minusOne(), val(-2)));
+        assertEquals(1, LLVM80BitFloat.compare(LLVM80BitFloat.fromString("3fffffffffffffffffff"), LLVM80BitFloat.fromString("3fff8000000000000000")));
+    }
+}
@@ -0,0 +1,133 @@
+/*
+ * Copyright (c) 2018, Oracle and/or its affiliates.
+ *
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification, are
+ * permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this list of
+ * conditions and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice, this list of
+ * conditions and the following disclaimer in the documentation and/or other materials provided
+ * with the distribution.
+ *
+ * 3. Neither the name of the copyright holder nor the names of its contributors may be used to
+ * endorse or promote products derived from this software without specific prior written
+ * permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY EXPRESS
+ * OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE
+ * COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ * EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE
+ * GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED
+ * AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED
+ * OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.oracle.truffle.llvm.types.floating.test;
+
+import static org.junit.Assert.assertEquals;
+
+import java.math.BigInteger;
+import java.util.Random;
+
+import org.junit.Test;
+
+import com.oracle.truffle.llvm.runtime.LLVMI128;
+
+public class LLVMI128Test {
+
+    private static final BigInteger MODULUS = BigInteger.ONE.shiftLeft(LLVMI128.BIT_WIDTH);
+    private static final int ITERATIONS = 10000;
+
+    private static BigInteger wrap(BigInteger value) {
+        BigInteger result = value.mod(MODULUS);
+        return result.testBit(LLVMI128.BIT_WIDTH - 1) ? result.subtract(MODULUS) : result;
+    }
+
+    private static long randomHalf(Random random) {
+        switch (random.nextInt(5)) {
+            case 0:
+                return 0;
+            case 1:
+                return -1;
+            case 2:
+                return random.nextInt(10) - 5;
+            case 3:
+                return Long.MIN_VALUE;
+            default:
+                return random.nextLong();
+        }
+    }
+
+    private static LLVMI128 random(Random random) {
+        return LLVMI128.create(randomHalf(random), randomHalf(random));
+    }
+
+    @Test
+    public void testAddSubMul() {
+        Random random = new Random(42);
+        for (int i = 0; i < ITERATIONS; i++) {
+            LLVMI128 a = random(random);
+            LLVMI128 b = random(random);
+            assertEquals(wrap(a.asBigInteger().add(b.asBigInteger())), a.add(b).asBigInteger());
+            assertEquals(wrap(a.asBigInteger().subtract(b.asBigInteger())), a.sub(b).asBigInteger());
+            assertEquals(wrap(a.asBigInteger().multiply(b.asBigInteger())), a.mul(b).asBigInteger());
+        }
+    }
+
+    @Test
+    public void testDivRem() {
+        Random random = new Random(43);
+        for (int i = 0; i < ITERATIONS; i++) {
+            LLVMI128 a = random(random);
+            LLVMI128 b = random(random);
+            if (b.isZero()) {
+                continue;
+            }
+            assertEquals(wrap(a.asBigInteger().divide(b.asBigInteger())), a.div(b).asBigInteger());
+            assertEquals(wrap(a.asBigInteger().remainder(b.asBigInteger())), a.rem(b).asBigInteger());
+            assertEquals(a.asUnsignedBigInteger().divide(b.asUnsignedBigInteger()), a.unsignedDiv(b).asUnsignedBigInteger());
+            assertEquals(a.asUnsignedBigInteger().remainder(b.asUnsignedBigInteger()), a.unsignedRem(b).asUnsignedBigInteger());
+        }
+    }
+
+    @Test
+    public void testShifts() {
+        Random random = new Random(44);
+        for (int i = 0; i < ITERATIONS; i++) {
+            LLVMI128 a = random(random);
+            int amount = random.nextInt(LLVMI128.BIT_WIDTH);
+            assertEquals(wrap(a.asBigInteger().shiftLeft(amount)), a.leftShift(amount).asBigInteger());
+            assertEquals(a.asBigInteger().shiftRight(amount), a.arithmeticRightShift(amount).asBigInteger());
+            assertEquals(a.asUnsignedBigInteger().shiftRight(amount), a.logicalRightShift(amount).asUnsignedBigInteger());
+        }
+    }
+
+    @Test
+    public void testCompare() {
+        Random random = new Random(45);
+        for (int i = 0; i < ITERATIONS; i++) {
+            LLVMI128 a = random(random);
+            LLVMI128 b = random(random);
+            assertEquals(a.asBigInteger().compareTo(b.asBigInteger()), Integer.signum(a.signedCompare(b)));
+            assertEquals(a.asUnsignedBigInteger().compareTo(b.asUnsignedBigInteger()), Integer.signum(a.unsignedCompare(b)));
+        }
+    }
+
+    @Test
+    public void testConversions() {
+        Random random = new Random(46);
+        for (int i = 0; i < ITERATIONS; i++) {
+            LLVMI128 a = random(random);
+            assertEquals(a, LLVMI128.fromBytes(a.getBytes()));
+            assertEquals(a, LLVMI128.fromBigInteger(a.asBigInteger()));
+            assertEquals(a, LLVMI128.fromBigInteger(a.asUnsignedBigInteger()));
+        }
+        assertEquals(BigInteger.valueOf(-5), LLVMI128.fromLong(-5).asBigInteger());
+        assertEquals(BigInteger.valueOf(0xFB), LLVMI128.createZeroExt((byte) -5).asBigInteger());
+    }
+}
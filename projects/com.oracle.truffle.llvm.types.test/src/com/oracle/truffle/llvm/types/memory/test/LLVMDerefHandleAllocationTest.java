@@ -0,0 +1,110 @@
+/*
+ * Copyright (c) 2018, Oracle and/or its affiliates.
+ *
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification, are
+ * permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this list of
+ * conditions and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice, this list of
+ * conditions and the following disclaimer in the documentation and/or other materials provided
+ * with the distribution.
+ *
+ * 3. Neither the name of the copyright holder nor the names of its contributors may be used to
+ * endorse or promote products derived from this software without specific prior written
+ * permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY EXPRESS
+ * OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE
+ * COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ * EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE
+ * GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED
+ * AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED
+ * OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.oracle.truffle.llvm.types.memory.test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.Test;
+
+import com.oracle.truffle.llvm.runtime.memory.LLVMNativeMemory;
+
+/**
+ * Allocates and releases deref handles from several threads at once and checks that no handle is
+ * handed out twice while it is still in use.
+ */
+public class LLVMDerefHandleAllocationTest {
+
+    private static final int THREADS = 8;
+    private static final int HANDLES_PER_THREAD = 64;
+    private static final int ITERATIONS = 200000;
+
+    @SuppressWarnings("deprecation")
+    private static LLVMNativeMemory getMemory() {
+        return LLVMNativeMemory.getInstance();
+    }
+
+    @Test
+    public void testReuse() {
+        LLVMNativeMemory memory = getMemory();
+        long handle = memory.allocateDerefMemory().asNative();
+        assertTrue(memory.isDerefMemory(handle));
+        // handles may be released with an offset
+        memory.free(handle + 8);
+        assertEquals(handle, memory.allocateDerefMemory().asNative());
+        memory.free(handle);
+    }
+
+    @Test
+    public void testConcurrentAllocation() throws Exception {
+        LLVMNativeMemory memory = getMemory();
+        ConcurrentHashMap<Long, Thread> live = new ConcurrentHashMap<>();
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        try {
+            List<Future<?>> results = new ArrayList<>();
+            for (int t = 0; t < THREADS; t++) {
+                results.add(executor.submit(() -> {
+                    long[] handles = new long[HANDLES_PER_THREAD];
+                    for (int i = 0; i < ITERATIONS; i++) {
+                        int slot = (i * 31) % HANDLES_PER_THREAD;
+                        if (handles[slot] == 0) {
+                            handles[slot] = memory.allocateDerefMemory().asNative();
+                            assertNull(live.put(handles[slot], Thread.currentThread()));
+                        } else {
+                            live.remove(handles[slot]);
+                            memory.free(handles[slot]);
+                            handles[slot] = 0;
+                        }
+                    }
+                    for (long handle : handles) {
+                        if (handle != 0) {
+                            live.remove(handle);
+                            memory.free(handle);
+                        }
+                    }
+                }));
+            }
+            for (Future<?> result : results) {
+                result.get();
+            }
+        } finally {
+            executor.shutdown();
+        }
+        assertTrue(live.isEmpty());
+    }
+}
@@ -70,7 +70,7 @@ public final class BasicConfiguration implements Configuration {
         result.add(new BasicIntrinsicsProvider(context).collectIntrinsics());
         result.add(new BasicSystemContextExtension());
         if (context.getEnv().getOptions().get(SulongEngineOption.ENABLE_NFI)) {
-            result.add(new NFIContextExtension(context.getEnv()));
+            result.add(new NFIContextExtension(context.getEnv(), Runner::readExportedSymbols));
         }
         return result;
     }
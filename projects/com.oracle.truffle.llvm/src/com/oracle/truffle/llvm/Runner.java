@@ -30,19 +30,28 @@
 package com.oracle.truffle.llvm;
 
 import java.io.IOException;
+import java.nio.BufferUnderflowException;
 import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+import java.nio.channels.SeekableByteChannel;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
 import java.util.ArrayDeque;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Base64;
+import java.util.Collections;
 import java.util.Comparator;
+import java.util.EnumSet;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.UUID;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
 
 import org.graalvm.collections.EconomicMap;
 import org.graalvm.collections.EconomicSet;
@@ -78,6 +87,8 @@ import com.oracle.truffle.llvm.parser.LLVMParser;
 import com.oracle.truffle.llvm.parser.LLVMParserResult;
 import com.oracle.truffle.llvm.parser.LLVMParserRuntime;
 import com.oracle.truffle.llvm.parser.StackManager;
+import com.oracle.truffle.llvm.parser.elf.ElfFile;
+import com.oracle.truffle.llvm.parser.elf.ElfSymbolTable;
 import com.oracle.truffle.llvm.parser.model.ModelModule;
 import com.oracle.truffle.llvm.parser.model.SymbolImpl;
 import com.oracle.truffle.llvm.parser.model.functions.FunctionSymbol;
@@ -86,15 +97,22 @@ import com.oracle.truffle.llvm.parser.model.symbols.constants.aggregate.Structur
 import com.oracle.truffle.llvm.parser.model.symbols.globals.GlobalVariable;
 import com.oracle.truffle.llvm.parser.nodes.LLVMSymbolReadResolver;
 import com.oracle.truffle.llvm.parser.scanner.LLVMScanner;
+import com.oracle.truffle.llvm.parser.scanner.LLVMScanner.ScanResult;
+import com.oracle.truffle.llvm.parser.scanner.ScanCache;
 import com.oracle.truffle.llvm.parser.util.Pair;
 import com.oracle.truffle.llvm.runtime.GetStackSpaceFactory;
 import com.oracle.truffle.llvm.runtime.LLVMAlias;
 import com.oracle.truffle.llvm.runtime.LLVMContext;
 import com.oracle.truffle.llvm.runtime.LLVMContext.ExternalLibrary;
 import com.oracle.truffle.llvm.runtime.LLVMFunctionDescriptor;
+import com.oracle.truffle.llvm.runtime.LLVMFunctionDescriptor.LazyLLVMIRFunction;
 import com.oracle.truffle.llvm.runtime.LLVMIntrinsicProvider;
 import com.oracle.truffle.llvm.runtime.LLVMLanguage;
+import com.oracle.truffle.llvm.runtime.LLVMParsingStatistics;
+import com.oracle.truffle.llvm.runtime.LLVMParsingStatistics.Measurement;
+import com.oracle.truffle.llvm.runtime.LLVMParsingStatistics.Phase;
 import com.oracle.truffle.llvm.runtime.LLVMScope;
+import com.oracle.truffle.llvm.runtime.LLVMSpeculativeFunctionConverter;
 import com.oracle.truffle.llvm.runtime.LLVMSymbol;
 import com.oracle.truffle.llvm.runtime.NFIContextExtension;
 import com.oracle.truffle.llvm.runtime.NFIContextExtension.NativeLookupResult;
@@ -316,9 +334,12 @@ public final class Runner {
     }
 
     private final LLVMContext context;
+    private final ScanCache scanCache;
 
     public Runner(LLVMContext context) {
         this.context = context;
+        String directory = context.getEnv().getOptions().get(SulongEngineOption.SCAN_CACHE);
+        this.scanCache = directory.isEmpty() ? null : new ScanCache(context.getEnv().getTruffleFile(directory), LLVMLanguage.VERSION);
     }
 
     /**
@@ -332,6 +353,53 @@ public final class Runner {
         }
     }
 
+    /**
+     * Parses and links the default libraries and the libraries that were passed on the command
+     * line. This is done when a context is pre-initialized while building a native image, so that
+     * the parsed libraries and the call targets of their initializers are part of the image.
+     * Allocating the globals, binding the native symbols and running the initializers creates
+     * native state that cannot be stored in the image, so this is left to
+     * {@link #initializeDefaultLibraries}, which must be called when the context is patched. For
+     * the same reason, the bitcode is read into heap buffers instead of being memory-mapped.
+     */
+    public DefaultLibraries parseDefaultLibraries() {
+        synchronized (context.getGlobalScope()) {
+            assert !context.areDefaultLibrariesLoaded();
+            List<LLVMParserResult> parserResults = new ArrayList<>();
+            ArrayDeque<ExternalLibrary> dependencyQueue = new ArrayDeque<>();
+
+            ExternalLibrary[] sulongLibraries = parseDefaultLibraries(parserResults, dependencyQueue);
+            parseIndirectDependencies(parserResults, dependencyQueue);
+
+            addExternalSymbolsToScopes(parserResults);
+            InitializationOrder initializationOrder = computeInitializationOrder(parserResults, sulongLibraries);
+            overrideSulongLibraryFunctionsWithIntrinsics(initializationOrder.sulongLibraries);
+
+            parseFunctionsEagerly(parserResults);
+            registerDynamicLinkChain(parserResults);
+            return new DefaultLibraries(parserResults, createInitializers(initializationOrder.sulongLibraries), createInitializers(initializationOrder.otherLibraries));
+        }
+    }
+
+    /**
+     * Finishes loading the default libraries that were parsed by {@link #parseDefaultLibraries}.
+     */
+    public void initializeDefaultLibraries(DefaultLibraries defaultLibraries) {
+        assert !defaultLibraries.isInitialized();
+        synchronized (context.getGlobalScope()) {
+            allocateGlobals(defaultLibraries.parserResults);
+            bindUnresolvedSymbols(defaultLibraries.parserResults);
+            if (!context.getEnv().getOptions().get(SulongEngineOption.PARSE_ONLY)) {
+                initialize(defaultLibraries.sulongInitializers);
+                context.initialize();
+                initialize(defaultLibraries.otherInitializers);
+            }
+            defaultLibraries.parserResults = null;
+            defaultLibraries.sulongInitializers = null;
+            defaultLibraries.otherInitializers = null;
+        }
+    }
+
     private ParserInput getParserData(Source source) {
         ByteBuffer bytes;
         ExternalLibrary library;
@@ -378,8 +446,11 @@ public final class Runner {
     }
 
     private void allocateGlobals(List<LLVMParserResult> parserResults) {
+        LLVMParsingStatistics statistics = context.getParsingStatistics();
         for (LLVMParserResult res : parserResults) {
+            Measurement measurement = statistics.start();
             allocateGlobals(res);
+            statistics.record(res.getRuntime().getLibrary().getName(), Phase.GLOBALS, measurement);
         }
     }
 
@@ -468,55 +539,64 @@ public final class Runner {
      */
     private ExternalLibrary[] parseDependencies(List<LLVMParserResult> parserResults, ArrayDeque<ExternalLibrary> dependencyQueue) {
         // at first, we are only parsing the direct dependencies of the main bitcode file
-        int directDependencies = dependencyQueue.size();
-        for (int i = 0; i < directDependencies; i++) {
-            ExternalLibrary lib = dependencyQueue.removeFirst();
-            parse(parserResults, dependencyQueue, lib);
-        }
+        parse(parserResults, dependencyQueue, removeAll(dependencyQueue));
 
         // then, we are parsing the default libraries
         ExternalLibrary[] sulongLibraries;
         if (!context.areDefaultLibrariesLoaded()) {
-            context.setDefaultLibrariesLoaded();
-            Env env = context.getEnv();
-
-            // There could be conflicts between Sulong's default libraries and the ones that are
-            // passed on the command-line. To resolve that, we add ours first but parse them later
-            // on.
-            String[] sulongLibraryNames = context.getContextExtension(SystemContextExtension.class).getSulongDefaultLibraries();
-            sulongLibraries = new ExternalLibrary[sulongLibraryNames.length];
-            for (int i = 0; i < sulongLibraries.length; i++) {
-                sulongLibraries[i] = context.addExternalLibrary(sulongLibraryNames[i], false);
-            }
+            sulongLibraries = parseDefaultLibraries(parserResults, dependencyQueue);
+        } else {
+            sulongLibraries = new ExternalLibrary[0];
+        }
 
-            // parse all libraries that were passed on the command-line
-            List<String> externals = SulongEngineOption.getPolyglotOptionExternalLibraries(env);
-            for (String external : externals) {
-                // assume that the library is a native one until we parsed it and can say for sure
-                ExternalLibrary lib = context.addExternalLibrary(external, true);
-                if (lib != null) {
-                    parse(parserResults, dependencyQueue, lib);
-                }
-            }
+        parseIndirectDependencies(parserResults, dependencyQueue);
+        return sulongLibraries;
+    }
 
-            // now parse the default Sulong libraries
-            // TODO (chaeubl): we have an ordering issue here... - the search order for native
-            // code comes last, which is not necessarily correct...
-            LLVMParserResult[] sulongLibraryResults = new LLVMParserResult[sulongLibraries.length];
-            for (int i = 0; i < sulongLibraries.length; i++) {
-                sulongLibraryResults[i] = parse(parserResults, dependencyQueue, sulongLibraries[i]);
+    private ExternalLibrary[] parseDefaultLibraries(List<LLVMParserResult> parserResults, ArrayDeque<ExternalLibrary> dependencyQueue) {
+        context.setDefaultLibrariesLoaded();
+        Env env = context.getEnv();
+
+        // There could be conflicts between Sulong's default libraries and the ones that are
+        // passed on the command-line. To resolve that, we add ours first but parse them later
+        // on.
+        String[] sulongLibraryNames = context.getContextExtension(SystemContextExtension.class).getSulongDefaultLibraries();
+        ExternalLibrary[] sulongLibraries = new ExternalLibrary[sulongLibraryNames.length];
+        for (int i = 0; i < sulongLibraries.length; i++) {
+            sulongLibraries[i] = context.addExternalLibrary(sulongLibraryNames[i], false);
+        }
+
+        // parse all libraries that were passed on the command-line
+        List<String> externals = SulongEngineOption.getPolyglotOptionExternalLibraries(env);
+        List<ExternalLibrary> externalLibraries = new ArrayList<>(externals.size());
+        for (String external : externals) {
+            // assume that the library is a native one until we parsed it and can say for sure
+            ExternalLibrary lib = context.addExternalLibrary(external, true);
+            if (lib != null) {
+                externalLibraries.add(lib);
             }
-            combineSulongLibraries(sulongLibraryResults);
-        } else {
-            sulongLibraries = new ExternalLibrary[0];
         }
+        parse(parserResults, dependencyQueue, externalLibraries);
+
+        // now parse the default Sulong libraries
+        // TODO (chaeubl): we have an ordering issue here... - the search order for native
+        // code comes last, which is not necessarily correct...
+        LLVMParserResult[] sulongLibraryResults = parse(parserResults, dependencyQueue, Arrays.asList(sulongLibraries));
+        combineSulongLibraries(sulongLibraryResults);
+        return sulongLibraries;
+    }
 
-        // finally we are dealing with all indirect dependencies
+    private void parseIndirectDependencies(List<LLVMParserResult> parserResults, ArrayDeque<ExternalLibrary> dependencyQueue) {
+        // finally we are dealing with all indirect dependencies, one level at a time
         while (!dependencyQueue.isEmpty()) {
-            ExternalLibrary lib = dependencyQueue.removeFirst();
-            parse(parserResults, dependencyQueue, lib);
+            parse(parserResults, dependencyQueue, removeAll(dependencyQueue));
         }
-        return sulongLibraries;
+    }
+
+    private static List<ExternalLibrary> removeAll(ArrayDeque<ExternalLibrary> dependencyQueue) {
+        List<ExternalLibrary> libraries = new ArrayList<>(dependencyQueue);
+        dependencyQueue.clear();
+        return libraries;
     }
 
     private void combineSulongLibraries(LLVMParserResult[] sulongLibraryResults) {
@@ -605,7 +685,54 @@ public final class Runner {
         return "@__" + libraryName + "_" + functionName.substring(1);
     }
 
-    private LLVMParserResult parse(List<LLVMParserResult> parserResults, ArrayDeque<ExternalLibrary> dependencyQueue, ExternalLibrary lib) {
+    /**
+     * Parses independent libraries. The bitcode files are scanned in parallel because scanning does
+     * not depend on the context. Everything else, i.e., registering the symbols and queuing the
+     * dependencies, happens in the order of the given list, just as if the libraries were parsed
+     * one after another.
+     *
+     * @return The parser results in the order of the given libraries, with {@code null} for native
+     *         libraries.
+     */
+    private LLVMParserResult[] parse(List<LLVMParserResult> parserResults, ArrayDeque<ExternalLibrary> dependencyQueue, List<ExternalLibrary> libs) {
+        Source[] sources = new Source[libs.size()];
+        List<ForkJoinTask<ScanResult>> scans = new ArrayList<>(libs.size());
+        for (int i = 0; i < libs.size(); i++) {
+            ExternalLibrary lib = libs.get(i);
+            ByteBuffer bytes = readLibrary(lib);
+            if (bytes == null) {
+                scans.add(null);
+            } else {
+                Source source = createLibrarySource(lib.getPath());
+                sources[i] = source;
+                scans.add(ForkJoinTask.adapt(() -> scan(bytes, source, lib)));
+            }
+        }
+
+        // the calling thread scans the first library itself while the pool takes the others
+        for (int i = 1; i < scans.size(); i++) {
+            if (scans.get(i) != null) {
+                ForkJoinPool.commonPool().execute(scans.get(i));
+            }
+        }
+
+        LLVMParserResult[] results = new LLVMParserResult[libs.size()];
+        for (int i = 0; i < libs.size(); i++) {
+            ForkJoinTask<ScanResult> scan = scans.get(i);
+            if (scan != null) {
+                ScanResult scanResult = i == 0 ? scan.invoke() : scan.join();
+                ModelModule module = scanResult == null ? null : complete(scanResult, libs.get(i));
+                results[i] = parse(parserResults, dependencyQueue, sources[i], libs.get(i), module);
+            }
+        }
+        return results;
+    }
+
+    /**
+     * @return The content of the library, or {@code null} if it is not a file and therefore
+     *         assumed to be a native library.
+     */
+    private ByteBuffer readLibrary(ExternalLibrary lib) {
         if (lib.getPath() == null || !lib.getPath().toFile().isFile()) {
             if (!lib.isNative()) {
                 throw new LLVMParserException("'" + lib.getPath() + "' is not a file or does not exist.");
@@ -616,20 +743,55 @@ public final class Runner {
         }
 
         Path path = lib.getPath();
-        byte[] bytes;
         try {
-            bytes = context.getEnv().getTruffleFile(path.toString()).readAllBytes();
+            ByteBuffer bytes = readBitcode(context.getEnv().getTruffleFile(path.toString()));
+            if (context.getEnv().isPreInitialization() && bytes.isDirect()) {
+                // the lazy parsers keep the bitcode, and the image heap cannot hold mapped buffers
+                ByteBuffer copy = ByteBuffer.allocate(bytes.remaining());
+                copy.put(bytes);
+                copy.flip();
+                return copy;
+            }
+            return bytes;
         } catch (IOException | SecurityException | OutOfMemoryError ex) {
             throw new LLVMParserException("Error reading file " + path + ".");
         }
+    }
+
+    private static Source createLibrarySource(Path path) {
         // at the moment, we don't need the bitcode as the content of the source
-        Source source = Source.newBuilder(path.toString()).mimeType(LLVMLanguage.LLVM_BITCODE_MIME_TYPE).name(path.getFileName().toString()).build();
-        return parse(parserResults, dependencyQueue, source, lib, ByteBuffer.wrap(bytes));
+        return Source.newBuilder(path.toString()).mimeType(LLVMLanguage.LLVM_BITCODE_MIME_TYPE).name(path.getFileName().toString()).build();
     }
 
     private LLVMParserResult parse(List<LLVMParserResult> parserResults, ArrayDeque<ExternalLibrary> dependencyQueue, Source source,
                     ExternalLibrary library, ByteBuffer bytes) {
-        ModelModule module = LLVMScanner.parse(bytes, source, context);
+        ScanResult scanResult = scan(bytes, source, library);
+        ModelModule module = scanResult == null ? null : complete(scanResult, library);
+        return parse(parserResults, dependencyQueue, source, library, module);
+    }
+
+    private ScanResult scan(ByteBuffer bytes, Source source, ExternalLibrary library) {
+        assert !context.getEnv().isPreInitialization() || !bytes.isDirect() : "a pre-initialized context must not keep a direct buffer: " + library.getName();
+        Measurement measurement = context.getParsingStatistics().start();
+        ScanResult result;
+        if (scanCache == null) {
+            result = LLVMScanner.scan(bytes, source);
+        } else {
+            result = scanCache.scan(bytes, source);
+        }
+        context.getParsingStatistics().record(library.getName(), Phase.SCAN, measurement);
+        return result;
+    }
+
+    private ModelModule complete(ScanResult scanResult, ExternalLibrary library) {
+        Measurement measurement = context.getParsingStatistics().start();
+        ModelModule module = scanResult.complete(context);
+        context.getParsingStatistics().record(library.getName(), Phase.MODEL, measurement);
+        return module;
+    }
+
+    private LLVMParserResult parse(List<LLVMParserResult> parserResults, ArrayDeque<ExternalLibrary> dependencyQueue, Source source,
+                    ExternalLibrary library, ModelModule module) {
         if (module != null) {
             library.setIsNative(false);
             context.addLibraryPaths(module.getLibraryPaths());
@@ -640,11 +802,13 @@ public final class Runner {
                     dependencyQueue.addLast(dependency);
                 }
             }
+            Measurement measurement = context.getParsingStatistics().start();
             LLVMScope fileScope = new LLVMScope();
             LLVMParserRuntime runtime = new LLVMParserRuntime(context, library, fileScope);
             LLVMParser parser = new LLVMParser(source, runtime);
             LLVMParserResult parserResult = parser.parse(module);
             parserResults.add(parserResult);
+            context.getParsingStatistics().record(library.getName(), Phase.MODEL, measurement);
             return parserResult;
         } else if (!library.isNative()) {
             throw new LLVMParserException("The file is not a bitcode file nor an ELF File with a .llvmbc section.");
@@ -657,7 +821,9 @@ public final class Runner {
         // TODO (chaeubl): in here, we should validate if the return type/argument type/global
         // types match
         LLVMScope globalScope = context.getGlobalScope();
+        LLVMParsingStatistics statistics = context.getParsingStatistics();
         for (LLVMParserResult parserResult : parserResults) {
+            Measurement measurement = statistics.start();
             LLVMScope fileScope = parserResult.getRuntime().getFileScope();
             for (FunctionSymbol function : parserResult.getExternalFunctions()) {
                 LLVMSymbol globalSymbol = globalScope.get(function.getName());
@@ -691,13 +857,16 @@ public final class Runner {
                     fileScope.register(globalSymbol);
                 }
             }
+            statistics.record(parserResult.getRuntime().getLibrary().getName(), Phase.LINK, measurement);
         }
     }
 
     private void bindUnresolvedSymbols(List<LLVMParserResult> parserResults) {
         NFIContextExtension nfiContextExtension = context.getContextExtensionOrNull(NFIContextExtension.class);
         LLVMIntrinsicProvider intrinsicProvider = context.getContextExtensionOrNull(LLVMIntrinsicProvider.class);
+        LLVMParsingStatistics statistics = context.getParsingStatistics();
         for (LLVMParserResult parserResult : parserResults) {
+            Measurement measurement = statistics.start();
             for (LLVMSymbol symbol : parserResult.getRuntime().getFileScope().values()) {
                 if (!symbol.isDefined()) {
                     if (symbol instanceof LLVMGlobal) {
@@ -713,6 +882,7 @@ public final class Runner {
                     }
                 }
             }
+            statistics.record(parserResult.getRuntime().getLibrary().getName(), Phase.LINK, measurement);
         }
     }
 
@@ -834,35 +1004,47 @@ public final class Runner {
 
     private void callStructors(InitializationOrder initializationOrder) {
         if (!context.getEnv().getOptions().get(SulongEngineOption.PARSE_ONLY)) {
-            initialize(initializationOrder.sulongLibraries);
+            initialize(createInitializers(initializationOrder.sulongLibraries));
             context.initialize();
-            initialize(initializationOrder.otherLibraries);
+            initialize(createInitializers(initializationOrder.otherLibraries));
         }
     }
 
-    private void initialize(List<LLVMParserResult> parserResults) {
+    private List<LibraryInitializer> createInitializers(List<LLVMParserResult> parserResults) {
+        LLVMParsingStatistics statistics = context.getParsingStatistics();
+        List<LibraryInitializer> initializers = new ArrayList<>(parserResults.size());
         for (LLVMParserResult parserResult : parserResults) {
+            Measurement measurement = statistics.start();
+            String name = parserResult.getRuntime().getLibrary().getName();
+            initializers.add(new LibraryInitializer(name, createDestructor(parserResult), createGlobalVariableInitializer(parserResult), createConstructor(parserResult)));
+            statistics.record(name, Phase.CONSTRUCTORS, measurement);
+        }
+        return initializers;
+    }
+
+    private void initialize(List<LibraryInitializer> initializers) {
+        LLVMParsingStatistics statistics = context.getParsingStatistics();
+        for (LibraryInitializer initializer : initializers) {
+            Measurement measurement = statistics.start();
             // register destructor function so that we can execute it when exit is called
-            RootCallTarget destructor = createDestructor(parserResult);
-            if (destructor != null) {
-                context.registerDestructorFunctions(destructor);
+            if (initializer.destructor != null) {
+                context.registerDestructorFunctions(initializer.destructor);
             }
 
             // initialize global variables
-            RootCallTarget globalVarInit = createGlobalVariableInitializer(parserResult);
-            if (globalVarInit != null) {
+            if (initializer.globalVarInit != null) {
                 try (StackPointer stackPointer = context.getThreadingStack().getStack().newFrame()) {
-                    globalVarInit.call(stackPointer);
+                    initializer.globalVarInit.call(stackPointer);
                 }
             }
 
             // execute constructor function
-            RootCallTarget constructor = createConstructor(parserResult);
-            if (constructor != null) {
+            if (initializer.constructor != null) {
                 try (StackPointer stackPointer = context.getThreadingStack().getStack().newFrame()) {
-                    constructor.call(stackPointer);
+                    initializer.constructor.call(stackPointer);
                 }
             }
+            statistics.record(initializer.name, Phase.CONSTRUCTORS, measurement);
         }
     }
 
@@ -988,12 +1170,47 @@ public final class Runner {
     private ByteBuffer read(String filename) {
         try {
             TruffleFile truffleFile = context.getEnv().getTruffleFile(filename);
-            return ByteBuffer.wrap(truffleFile.readAllBytes());
+            return readBitcode(truffleFile);
         } catch (IOException | SecurityException | OutOfMemoryError ignore) {
             return ByteBuffer.allocate(0);
         }
     }
 
+    /**
+     * Maps the file into memory if it is backed by a {@link FileChannel}, so that large bitcode
+     * files are neither copied onto the Java heap nor kept alive there by the lazy function
+     * parsers. Other files are read into a heap buffer. Neither can hold files of 2GB or more,
+     * which are reported as parser errors.
+     */
+    private static ByteBuffer readBitcode(TruffleFile file) throws IOException {
+        try (SeekableByteChannel channel = file.newByteChannel(EnumSet.of(StandardOpenOption.READ))) {
+            if (channel.size() > Integer.MAX_VALUE) {
+                throw new LLVMParserException("Bitcode file " + file.getPath() + " is too large (" + channel.size() + " bytes).");
+            }
+            if (channel instanceof FileChannel) {
+                // the mapping stays valid after the channel is closed
+                return ((FileChannel) channel).map(MapMode.READ_ONLY, 0, channel.size());
+            }
+        }
+        return ByteBuffer.wrap(file.readAllBytes());
+    }
+
+    /**
+     * Reads the exported symbols of a native library from its dynamic symbol table.
+     *
+     * @return The names of the exported symbols, or {@code null} if the library is not an ELF file
+     *         or cannot be read.
+     */
+    static List<String> readExportedSymbols(TruffleFile file) {
+        try {
+            // other formats, e.g., Mach-O, are rejected by the ELF parser
+            ElfSymbolTable symbolTable = ElfFile.create(readBitcode(file)).getDynamicSymbolTable();
+            return symbolTable == null ? null : symbolTable.getExportedSymbols();
+        } catch (IOException | SecurityException | IllegalArgumentException | IndexOutOfBoundsException | BufferUnderflowException e) {
+            return null;
+        }
+    }
+
     private CallTarget createLibraryCallTarget(String name, List<LLVMParserResult> parserResults) {
         RootCallTarget mainFunctionCallTarget = null;
         LLVMFunctionDescriptor mainFunctionDescriptor = findMainMethod(parserResults);
@@ -1008,6 +1225,11 @@ public final class Runner {
         if (context.getEnv().getOptions().get(SulongEngineOption.PARSE_ONLY)) {
             return Truffle.getRuntime().createCallTarget(RootNode.createConstantNode(0));
         } else {
+            if (mainFunctionCallTarget != null && context.getEnv().getOptions().get(SulongEngineOption.LAZY_PARSING) &&
+                            context.getEnv().getOptions().get(SulongEngineOption.SPECULATIVE_CONVERSION) &&
+                            mainFunctionDescriptor.getFunction() instanceof LazyLLVMIRFunction) {
+                LLVMSpeculativeFunctionConverter.start(context, mainFunctionDescriptor);
+            }
             LLVMScope scope = combineScopes(parserResults);
             SulongLibrary lib = new SulongLibrary(name, scope, mainFunctionCallTarget);
             return Truffle.getRuntime().createCallTarget(RootNode.createConstantNode(lib));
@@ -1069,11 +1291,11 @@ public final class Runner {
 
     private void parseFunctionsEagerly(List<LLVMParserResult> parserResults) {
         if (!context.getEnv().getOptions().get(SulongEngineOption.LAZY_PARSING)) {
+            List<LLVMFunctionDescriptor> functions = new ArrayList<>();
             for (LLVMParserResult parserResult : parserResults) {
                 for (LLVMSymbol symbol : parserResult.getRuntime().getFileScope().values()) {
                     if (symbol instanceof LLVMFunctionDescriptor) {
-                        LLVMFunctionDescriptor function = (LLVMFunctionDescriptor) symbol;
-                        function.resolveIfLazyLLVMIRFunction();
+                        functions.add((LLVMFunctionDescriptor) symbol);
                     } else if (symbol instanceof LLVMGlobal || symbol instanceof LLVMAlias) {
                         // nothing to do
                     } else {
@@ -1081,6 +1303,35 @@ public final class Runner {
                     }
                 }
             }
+
+            int parallelism = context.getEnv().getOptions().get(SulongEngineOption.PARSING_PARALLELISM);
+            if (parallelism == 1 || functions.size() <= 1) {
+                for (LLVMFunctionDescriptor function : functions) {
+                    function.resolveIfLazyLLVMIRFunction();
+                }
+            } else {
+                convertInParallel(functions, parallelism == 0 ? ForkJoinPool.commonPool() : new ForkJoinPool(parallelism));
+            }
+        }
+    }
+
+    /**
+     * Converts functions concurrently. Every function has its own frame and analysis results, and
+     * the module-level state that the conversion reads does not change anymore at this point.
+     */
+    private static void convertInParallel(List<LLVMFunctionDescriptor> functions, ForkJoinPool pool) {
+        try {
+            List<ForkJoinTask<?>> conversions = new ArrayList<>(functions.size());
+            for (LLVMFunctionDescriptor function : functions) {
+                conversions.add(pool.submit(function::resolveIfLazyLLVMIRFunction));
+            }
+            for (ForkJoinTask<?> conversion : conversions) {
+                conversion.join();
+            }
+        } finally {
+            if (pool != ForkJoinPool.commonPool()) {
+                pool.shutdown();
+            }
         }
     }
 
@@ -1094,6 +1345,51 @@ public final class Runner {
         }
     }
 
+    /**
+     * The default libraries of a context that was pre-initialized while building a native image.
+     * They are parsed and linked, but their globals are not allocated and their initializers have
+     * not run yet.
+     */
+    public static final class DefaultLibraries {
+        private final List<String> libraryNames;
+        // released once the libraries are initialized
+        private List<LLVMParserResult> parserResults;
+        private List<LibraryInitializer> sulongInitializers;
+        private List<LibraryInitializer> otherInitializers;
+
+        private DefaultLibraries(List<LLVMParserResult> parserResults, List<LibraryInitializer> sulongInitializers, List<LibraryInitializer> otherInitializers) {
+            this.libraryNames = new ArrayList<>(parserResults.size());
+            for (LLVMParserResult parserResult : parserResults) {
+                libraryNames.add(parserResult.getRuntime().getLibrary().getName());
+            }
+            this.parserResults = parserResults;
+            this.sulongInitializers = sulongInitializers;
+            this.otherInitializers = otherInitializers;
+        }
+
+        public List<String> getLibraryNames() {
+            return Collections.unmodifiableList(libraryNames);
+        }
+
+        public boolean isInitialized() {
+            return parserResults == null;
+        }
+    }
+
+    private static final class LibraryInitializer {
+        private final String name;
+        private final RootCallTarget destructor;
+        private final RootCallTarget globalVarInit;
+        private final RootCallTarget constructor;
+
+        private LibraryInitializer(String name, RootCallTarget destructor, RootCallTarget globalVarInit, RootCallTarget constructor) {
+            this.name = name;
+            this.destructor = destructor;
+            this.globalVarInit = globalVarInit;
+            this.constructor = constructor;
+        }
+    }
+
     private static final class ParserInput {
         private final ByteBuffer bytes;
         private final ExternalLibrary library;
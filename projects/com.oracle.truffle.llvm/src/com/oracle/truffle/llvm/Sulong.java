@@ -32,11 +32,13 @@ package com.oracle.truffle.llvm;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
+import java.util.Objects;
 import java.util.ServiceLoader;
 
 import com.oracle.truffle.llvm.runtime.debug.LLVMDebuggerValue;
 import org.graalvm.options.OptionDescriptor;
 import org.graalvm.options.OptionDescriptors;
+import org.graalvm.options.OptionKey;
 
 import com.oracle.truffle.api.CallTarget;
 import com.oracle.truffle.api.CompilerDirectives.TruffleBoundary;
@@ -47,9 +49,11 @@ import com.oracle.truffle.api.frame.Frame;
 import com.oracle.truffle.api.instrumentation.ProvidedTags;
 import com.oracle.truffle.api.instrumentation.StandardTags;
 import com.oracle.truffle.api.nodes.Node;
+import com.oracle.truffle.api.nodes.RootNode;
 import com.oracle.truffle.api.source.Source;
 import com.oracle.truffle.api.source.SourceSection;
 import com.oracle.truffle.llvm.Runner.SulongLibrary;
+import com.oracle.truffle.llvm.nodes.func.LLVMFunctionStartNode;
 import com.oracle.truffle.llvm.runtime.Configuration;
 import com.oracle.truffle.llvm.runtime.LLVMContext;
 import com.oracle.truffle.llvm.runtime.LLVMLanguage;
@@ -61,10 +65,11 @@ import com.oracle.truffle.llvm.runtime.debug.value.LLVMDebugObject;
 import com.oracle.truffle.llvm.runtime.interop.LLVMInternalTruffleObject;
 import com.oracle.truffle.llvm.runtime.interop.access.LLVMInteropType;
 import com.oracle.truffle.llvm.runtime.memory.LLVMMemory;
+import com.oracle.truffle.llvm.runtime.memory.LLVMSizeClassAllocator;
 import com.oracle.truffle.llvm.runtime.options.SulongEngineOption;
 import com.oracle.truffle.llvm.runtime.pointer.LLVMPointer;
 
-@TruffleLanguage.Registration(id = "llvm", name = "llvm", version = "6.0.0", mimeType = {Sulong.LLVM_SULONG_TYPE, Sulong.LLVM_BITCODE_MIME_TYPE, Sulong.LLVM_BITCODE_BASE64_MIME_TYPE,
+@TruffleLanguage.Registration(id = "llvm", name = "llvm", version = Sulong.VERSION, mimeType = {Sulong.LLVM_SULONG_TYPE, Sulong.LLVM_BITCODE_MIME_TYPE, Sulong.LLVM_BITCODE_BASE64_MIME_TYPE,
                 Sulong.SULONG_LIBRARY_MIME_TYPE, Sulong.LLVM_ELF_SHARED_MIME_TYPE, Sulong.LLVM_ELF_EXEC_MIME_TYPE}, internal = false, interactive = false)
 // TODO: remove Sulong.SULONG_LIBRARY_MIME_TYPE after GR-5904 is closed.
 @ProvidedTags({StandardTags.StatementTag.class, StandardTags.CallTag.class, StandardTags.RootTag.class, DebuggerTags.AlwaysHalt.class})
@@ -99,6 +104,48 @@ public final class Sulong extends LLVMLanguage {
         return newContext;
     }
 
+    /**
+     * The default libraries that were parsed when the context was pre-initialized, or {@code null}
+     * if the context was not pre-initialized or could not be patched. Only the exclusive context
+     * policy is supported, so the language and the context belong together.
+     */
+    private Runner.DefaultLibraries preInitializedLibraries = null;
+
+    public Runner.DefaultLibraries getPreInitializedLibraries() {
+        return preInitializedLibraries;
+    }
+
+    @Override
+    protected void initializeContext(LLVMContext context) {
+        if (context.getEnv().isPreInitialization()) {
+            preInitializedLibraries = new Runner(context).parseDefaultLibraries();
+        }
+    }
+
+    @Override
+    protected boolean patchContext(LLVMContext context, com.oracle.truffle.api.TruffleLanguage.Env newEnv) {
+        // the libraries were parsed and linked according to the options of the image builder
+        if (getActiveConfiguration(newEnv) != context.getActiveConfiguration() || !areOptionsCompatible(context.getEnv(), newEnv)) {
+            preInitializedLibraries = null;
+            return false;
+        }
+        context.patchContext(newEnv, getLanguageHome());
+        if (preInitializedLibraries != null) {
+            new Runner(context).initializeDefaultLibraries(preInitializedLibraries);
+        }
+        return true;
+    }
+
+    private boolean areOptionsCompatible(Env oldEnv, Env newEnv) {
+        for (OptionDescriptor descriptor : getOptionDescriptors()) {
+            OptionKey<?> key = descriptor.getKey();
+            if (!Objects.equals(oldEnv.getOptions().get(key), newEnv.getOptions().get(key))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
     @Override
     protected void disposeContext(LLVMContext context) {
         LLVMMemory memory = getCapability(LLVMMemory.class);
@@ -210,6 +257,10 @@ public final class Sulong extends LLVMLanguage {
     protected void disposeThread(LLVMContext context, Thread thread) {
         super.disposeThread(context, thread);
         context.getThreadingStack().freeStack(getCapability(LLVMMemory.class), thread);
+        LLVMSizeClassAllocator allocator = context.getSizeClassAllocator();
+        if (allocator != null && thread == Thread.currentThread()) {
+            allocator.releaseThreadCache();
+        }
     }
 
     @Override
@@ -229,6 +280,14 @@ public final class Sulong extends LLVMLanguage {
     @Override
     protected Iterable<Scope> findLocalScopes(LLVMContext context, Node node, Frame frame) {
         if (context.getEnv().getOptions().get(SulongEngineOption.ENABLE_LVI)) {
+            if (context.getSourceContext().isDebugInfoDeferred()) {
+                context.getSourceContext().materializeStatics();
+                RootNode rootNode = node.getRootNode();
+                if (rootNode instanceof LLVMFunctionStartNode) {
+                    // the frame of the suspended activation stays valid for the new body
+                    ((LLVMFunctionStartNode) rootNode).materializeDebugInfo();
+                }
+            }
             return LLVMDebuggerScopeFactory.createSourceLevelScope(node, frame, context);
         } else {
             return LLVMDebuggerScopeFactory.createIRLevelScope(node, frame, context);
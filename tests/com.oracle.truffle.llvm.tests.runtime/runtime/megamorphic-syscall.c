@@ -0,0 +1,61 @@
+/*
+ * Copyright (c) 2018, Oracle and/or its affiliates.
+ *
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification, are
+ * permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this list of
+ * conditions and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice, this list of
+ * conditions and the following disclaimer in the documentation and/or other materials provided
+ * with the distribution.
+ *
+ * 3. Neither the name of the copyright holder nor the names of its contributors may be used to
+ * endorse or promote products derived from this software without specific prior written
+ * permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY EXPRESS
+ * OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE
+ * COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ * EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE
+ * GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED
+ * AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED
+ * OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+#include <stdint.h>
+#include <sys/syscall.h>
+
+/*
+ * A single syscall site that sees more syscall numbers than its inline cache holds, like the
+ * generic syscall() function of libc.
+ */
+static int64_t raw_syscall(int64_t id, int64_t a1) {
+  int64_t result;
+  __asm__ volatile("syscall" : "=a"(result) : "a"(id), "D"(a1) : "memory", "rcx", "r11");
+  return result;
+}
+
+static const int64_t ids[] = { SYS_getpid, SYS_getppid, SYS_getuid, SYS_geteuid, SYS_getgid,
+                               SYS_getegid, SYS_gettid, SYS_getpgid, SYS_sched_yield, SYS_getpid };
+
+#define COUNT (sizeof(ids) / sizeof(ids[0]))
+
+int main(void) {
+  int64_t first[COUNT];
+  for (unsigned i = 0; i < COUNT; i++) {
+    first[i] = raw_syscall(ids[i], 0);
+  }
+  for (int round = 0; round < 3; round++) {
+    for (unsigned i = 0; i < COUNT; i++) {
+      if (raw_syscall(ids[i], 0) != first[i]) {
+        return i + 1;
+      }
+    }
+  }
+  return first[0] == first[COUNT - 1] && first[0] > 0 ? 0 : 100;
+}
@@ -0,0 +1,79 @@
+/*
+ * Copyright (c) 2018, Oracle and/or its affiliates.
+ *
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification, are
+ * permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this list of
+ * conditions and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice, this list of
+ * conditions and the following disclaimer in the documentation and/or other materials provided
+ * with the distribution.
+ *
+ * 3. Neither the name of the copyright holder nor the names of its contributors may be used to
+ * endorse or promote products derived from this software without specific prior written
+ * permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY EXPRESS
+ * OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE
+ * COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ * EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE
+ * GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED
+ * AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED
+ * OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+#include <fcntl.h>
+#include <stdlib.h>
+#include <string.h>
+#include <unistd.h>
+
+/*
+ * Writes the steps of the program to the file given as argument, so that the test can check at
+ * which step the output of stdout and stderr arrives.
+ */
+static int marker;
+
+static void mark(const char *step) {
+  write(marker, step, strlen(step));
+}
+
+int main(int argc, char **argv) {
+  char c;
+  int saved;
+  if (argc < 2 || (marker = open(argv[1], O_WRONLY | O_CREAT | O_TRUNC, 0644)) < 0) {
+    return 1;
+  }
+
+  mark("a");
+  write(1, "out1 ", 5);
+  // switching to stderr flushes stdout
+  write(2, "err1 ", 5);
+  mark("b");
+  fsync(2);
+  mark("c");
+  write(1, "out2 ", 5);
+  mark("d");
+  read(0, &c, 0);
+  mark("e");
+  write(1, "out3 ", 5);
+  mark("f");
+
+  // stdout refers to the marker file until it is restored, and is not buffered anymore
+  saved = dup(1);
+  dup2(marker, 1);
+  write(1, "g", 1);
+  dup2(saved, 1);
+  close(saved);
+  mark("h");
+  write(1, "out4\n", 5);
+
+  mark("i");
+  write(2, "err2", 4);
+  mark("j");
+  exit(0);
+}
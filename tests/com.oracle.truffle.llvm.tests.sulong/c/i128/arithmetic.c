@@ -0,0 +1,74 @@
+/*
+ * Copyright (c) 2018, Oracle and/or its affiliates.
+ *
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification, are
+ * permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this list of
+ * conditions and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice, this list of
+ * conditions and the following disclaimer in the documentation and/or other materials provided
+ * with the distribution.
+ *
+ * 3. Neither the name of the copyright holder nor the names of its contributors may be used to
+ * endorse or promote products derived from this software without specific prior written
+ * permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY EXPRESS
+ * OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE
+ * COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ * EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE
+ * GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED
+ * AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED
+ * OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+#include <stdio.h>
+
+typedef __int128 i128;
+typedef unsigned __int128 u128;
+
+static void print(u128 value) {
+  printf("%016lx%016lx\n", (unsigned long) (value >> 64), (unsigned long) value);
+}
+
+int main() {
+  volatile u128 a = ((u128) 0x0123456789abcdefUL << 64) | 0xfedcba9876543210UL;
+  volatile u128 b = 0xffffffffffffffffUL;
+  volatile i128 c = -((i128) 1 << 100) - 12345;
+  volatile i128 d = 987654321;
+
+  print(a + b);
+  print(a - b);
+  print(a * b);
+  print((u128) 0xffffffffffffffffUL * 0xffffffffffffffffUL);
+  print(a / b);
+  print(a % b);
+  print(a / 10);
+  print(c / d);
+  print(c % d);
+  print(c * d);
+  print(a & ~b);
+  print(a | b);
+  print(a ^ b);
+  print(a << 68);
+  print(a >> 68);
+  print(c >> 68);
+  print(c >> 3);
+  print((u128) (long) c);
+  print((u128) (unsigned) a);
+  printf("%d %d %d %d\n", a > b, c < d, (u128) c > a, c == d);
+
+  u128 fib[2] = { 0, 1 };
+  for (int i = 0; i < 180; i++) {
+    u128 next = fib[0] + fib[1];
+    fib[0] = fib[1];
+    fib[1] = next;
+  }
+  print(fib[1]);
+  return 0;
+}
@@ -0,0 +1,80 @@
+/*
+ * Copyright (c) 2018, Oracle and/or its affiliates.
+ *
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification, are
+ * permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this list of
+ * conditions and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice, this list of
+ * conditions and the following disclaimer in the documentation and/or other materials provided
+ * with the distribution.
+ *
+ * 3. Neither the name of the copyright holder nor the names of its contributors may be used to
+ * endorse or promote products derived from this software without specific prior written
+ * permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY EXPRESS
+ * OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE
+ * COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ * EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE
+ * GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED
+ * AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED
+ * OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+#include <stdio.h>
+
+typedef __int128 i128;
+typedef unsigned __int128 u128;
+
+static void print(u128 value) {
+  printf("%016lx%016lx\n", (unsigned long) (value >> 64), (unsigned long) value);
+}
+
+static void roundtrip(i128 value) {
+  volatile long double ld = value;
+  print((i128) ld);
+}
+
+static void unsignedRoundtrip(u128 value) {
+  volatile long double ld = value;
+  print((u128) ld);
+}
+
+int main() {
+  /* exactly representable with a 64 bit significand */
+  roundtrip(0);
+  roundtrip(1);
+  roundtrip(-1);
+  roundtrip(0x7fffffffffffffffL);
+  roundtrip((i128) 1 << 100);
+  roundtrip(-((i128) 1 << 90) + ((i128) 1 << 40));
+  roundtrip((i128) 1 << 127);
+  unsignedRoundtrip(0xffffffffffffffffUL);
+  unsignedRoundtrip((u128) 0xfedcba9876543210UL << 64);
+
+  /* rounded to nearest-even */
+  roundtrip(((i128) 0x0123456789abcdefL << 64) | 0xfedcba9876543210UL);
+  roundtrip(-(((i128) 0x0123456789abcdefL << 64) | 0xfedcba9876543210UL));
+  roundtrip(((i128) 1 << 65) + 1);
+  roundtrip(((i128) 1 << 65) + 3);
+  roundtrip(((i128) 1 << 64) * 3 + ((i128) 1 << 63) - 1);
+  unsignedRoundtrip(~(u128) 0 >> 1);
+  unsignedRoundtrip(((u128) 0xffffffffffffffffUL << 64) | 0x7fffffffffffffffUL);
+
+  /* truncated towards zero */
+  volatile long double fraction = 12345.75L;
+  print((i128) fraction);
+  print((i128) -fraction);
+  print((u128) fraction);
+  volatile long double large = 1e30L;
+  print((i128) large);
+  print((i128) -large);
+  print((u128) large);
+  return 0;
+}
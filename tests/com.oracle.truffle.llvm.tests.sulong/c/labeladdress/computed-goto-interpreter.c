@@ -0,0 +1,97 @@
+/*
+ * Copyright (c) 2018, Oracle and/or its affiliates.
+ *
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification, are
+ * permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this list of
+ * conditions and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice, this list of
+ * conditions and the following disclaimer in the documentation and/or other materials provided
+ * with the distribution.
+ *
+ * 3. Neither the name of the copyright holder nor the names of its contributors may be used to
+ * endorse or promote products derived from this software without specific prior written
+ * permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY EXPRESS
+ * OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE
+ * COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ * EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE
+ * GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED
+ * AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED
+ * OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+#include <stdio.h>
+
+/*
+ * A threaded-code interpreter in the style of CPython's ceval loop: every
+ * instruction ends with an indirect branch to the handler of the next one.
+ * The program computes a checksum over a pseudo random sequence and doubles
+ * as a benchmark for indirectbr dispatch.
+ */
+
+enum { OP_LOAD, OP_MUL, OP_ADD, OP_XOR, OP_SHR, OP_MASK, OP_ACC, OP_DEC, OP_JNZ, OP_HALT };
+
+static long run(const int *code, long iterations) {
+  static void *dispatch[] = { &&op_load, &&op_mul, &&op_add, &&op_xor, &&op_shr, &&op_mask, &&op_acc, &&op_dec, &&op_jnz, &&op_halt };
+  long counter = iterations;
+  long x = 1;
+  long tmp = 0;
+  long acc = 0;
+  const int *pc = code;
+
+#define DISPATCH() goto *dispatch[*pc++]
+
+  DISPATCH();
+op_load:
+  tmp = x;
+  DISPATCH();
+op_mul:
+  tmp *= *pc++;
+  DISPATCH();
+op_add:
+  tmp += *pc++;
+  DISPATCH();
+op_xor:
+  x ^= tmp;
+  DISPATCH();
+op_shr:
+  x = (long) ((unsigned long) x >> *pc++);
+  DISPATCH();
+op_mask:
+  x &= 0xffffffffL;
+  DISPATCH();
+op_acc:
+  acc += x & 0xff;
+  DISPATCH();
+op_dec:
+  counter--;
+  DISPATCH();
+op_jnz:
+  if (counter != 0) {
+    pc = code + *pc;
+  } else {
+    pc++;
+  }
+  DISPATCH();
+op_halt:
+  return acc ^ x;
+#undef DISPATCH
+}
+
+int main(void) {
+  static const int code[] = {
+    /* 0 */ OP_LOAD, OP_MUL, 1103515245, OP_ADD, 12345, OP_XOR, OP_MASK,
+    /* 7 */ OP_LOAD, OP_MUL, 69069, OP_XOR, OP_SHR, 1, OP_MASK,
+    /* 14 */ OP_ACC, OP_DEC, OP_JNZ, 0,
+    /* 18 */ OP_HALT
+  };
+  printf("%ld\n", run(code, 100000));
+  return 0;
+}
@@ -0,0 +1,84 @@
+/*
+ * Copyright (c) 2018, Oracle and/or its affiliates.
+ *
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification, are
+ * permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this list of
+ * conditions and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice, this list of
+ * conditions and the following disclaimer in the documentation and/or other materials provided
+ * with the distribution.
+ *
+ * 3. Neither the name of the copyright holder nor the names of its contributors may be used to
+ * endorse or promote products derived from this software without specific prior written
+ * permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY EXPRESS
+ * OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE
+ * COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ * EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE
+ * GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED
+ * AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED
+ * OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+#include <math.h>
+#include "longdouble.h"
+
+struct fp80 {
+  uint64_t fraction;
+  uint16_t signAndExponent;
+};
+
+/* operands that exercise rounding, cancellation, gradual underflow and overflow */
+static struct fp80 operands[][2] = {
+  { { 0x8000000000000000ull, 0x3fff }, { 0x8000000000000001ull, 0x3fff } },
+  { { 0x8000000000000000ull, 0x3fff }, { 0x8000000000000000ull, 0x3fbf } },
+  { { 0x8000000000000001ull, 0x3fff }, { 0x8000000000000000ull, 0x3fbf } },
+  { { 0xffffffffffffffffull, 0x3fff }, { 0x8000000000000000ull, 0x3fbf } },
+  { { 0x8000000000000000ull, 0x4000 }, { 0x8000000000000001ull, 0xbfff } },
+  { { 0xc90fdaa22168c235ull, 0x3fff }, { 0xadf85458a2bb4a9bull, 0x4000 } },
+  { { 0xb17217f7d1cf79acull, 0x3ffe }, { 0xb504f333f9de6484ull, 0x3fff } },
+  { { 0xffffffffffffffffull, 0x7ffe }, { 0xffffffffffffffffull, 0x7ffe } },
+  { { 0x8000000000000001ull, 0x0001 }, { 0x8000000000000000ull, 0x3ffe } },
+  { { 0x4000000000000000ull, 0x0000 }, { 0x4000000000000000ull, 0x0000 } },
+  { { 0x0000000000000001ull, 0x0000 }, { 0x8000000000000000ull, 0x3fff } },
+  { { 0x8000000000000000ull, 0x403e }, { 0xc000000000000000ull, 0x3fff } },
+  { { 0xaaaaaaaaaaaaaaabull, 0xbffd }, { 0xcccccccccccccccdull, 0x3ffb } },
+  { { 0x8000000000000000ull, 0x7fff }, { 0x8000000000000000ull, 0x3fff } },
+};
+
+static long double load(struct fp80 *value) {
+  long double x;
+  memset(&x, 0, sizeof(x));
+  memcpy(&x, &value->fraction, sizeof(value->fraction));
+  memcpy((char *)&x + sizeof(value->fraction), &value->signAndExponent, sizeof(value->signAndExponent));
+  return x;
+}
+
+int main(void) {
+  int i;
+  for (i = 0; i < sizeof(operands) / sizeof(operands[0]); i++) {
+    long double x = load(&operands[i][0]);
+    long double y = load(&operands[i][1]);
+    long double z;
+    memset(&z, 0, sizeof(z));
+    z = x + y;
+    printfp("add", &z);
+    z = x - y;
+    printfp("sub", &z);
+    z = x * y;
+    printfp("mul", &z);
+    z = x / y;
+    printfp("div", &z);
+    z = fmodl(x, y);
+    printfp("rem", &z);
+    printf("double: %a float: %a\n", (double)x, (float)x);
+  }
+  return 0;
+}
@@ -0,0 +1,96 @@
+/*
+ * Copyright (c) 2018, Oracle and/or its affiliates.
+ *
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification, are
+ * permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this list of
+ * conditions and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice, this list of
+ * conditions and the following disclaimer in the documentation and/or other materials provided
+ * with the distribution.
+ *
+ * 3. Neither the name of the copyright holder nor the names of its contributors may be used to
+ * endorse or promote products derived from this software without specific prior written
+ * permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY EXPRESS
+ * OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE
+ * COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ * EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE
+ * GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED
+ * AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED
+ * OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+#include <stdio.h>
+
+/*
+ * Loops that are left in several ways: through break, continue, goto out of a
+ * nested loop, a switch inside the loop, and return.
+ */
+
+static int find(int *values, int length, int value) {
+  for (int i = 0; i < length; i++) {
+    if (values[i] == value) {
+      return i;
+    }
+  }
+  return -1;
+}
+
+int main(void) {
+  int values[64];
+  long sum = 0;
+  int i, j;
+
+  for (i = 0; i < 64; i++) {
+    values[i] = (i * 37) % 64;
+  }
+
+  for (i = 0; i < 1000; i++) {
+    if (i % 3 == 0) {
+      continue;
+    }
+    switch (i % 5) {
+    case 0:
+      sum += i;
+      break;
+    case 1:
+      sum -= i / 2;
+      break;
+    case 4:
+      sum ^= i;
+      break;
+    default:
+      sum += find(values, 64, i % 64);
+      break;
+    }
+    if (sum > 100000) {
+      break;
+    }
+  }
+  printf("%ld %d\n", sum, i);
+
+  for (i = 0; i < 64; i++) {
+    for (j = 0; j < 64; j++) {
+      if (values[i] + values[j] == 101) {
+        goto found;
+      }
+    }
+  }
+  i = -1;
+  j = -1;
+found:
+  printf("%d %d\n", i, j);
+
+  do {
+    sum = sum / 3 + 1;
+  } while (sum > 10);
+  printf("%ld\n", sum);
+  return 0;
+}
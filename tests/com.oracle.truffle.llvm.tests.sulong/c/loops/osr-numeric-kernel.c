@@ -0,0 +1,76 @@
+/*
+ * Copyright (c) 2018, Oracle and/or its affiliates.
+ *
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification, are
+ * permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this list of
+ * conditions and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice, this list of
+ * conditions and the following disclaimer in the documentation and/or other materials provided
+ * with the distribution.
+ *
+ * 3. Neither the name of the copyright holder nor the names of its contributors may be used to
+ * endorse or promote products derived from this software without specific prior written
+ * permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY EXPRESS
+ * OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE
+ * COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ * EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE
+ * GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED
+ * AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED
+ * OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+#include <stdio.h>
+
+/*
+ * A single long running main with a hot numeric loop nest. The function is
+ * entered only once, so its loops can only be compiled with on-stack
+ * replacement. The time to peak of a similar kernel is measured by
+ * LLVMLoopOSRBenchmark.
+ */
+
+#define N 128
+#define ITERATIONS 200
+
+static double a[N][N];
+static double x[N];
+static double y[N];
+
+int main(void) {
+  int i, j, k;
+  double norm = 0;
+
+  for (i = 0; i < N; i++) {
+    for (j = 0; j < N; j++) {
+      a[i][j] = 1.0 / ((i + j) * (i + j + 1) / 2 + i + 1);
+    }
+    x[i] = 1;
+  }
+
+  for (k = 0; k < ITERATIONS; k++) {
+    for (i = 0; i < N; i++) {
+      double sum = 0;
+      for (j = 0; j < N; j++) {
+        sum += a[i][j] * x[j];
+      }
+      y[i] = sum;
+    }
+    norm = 0;
+    for (i = 0; i < N; i++) {
+      norm += y[i] * y[i];
+    }
+    for (i = 0; i < N; i++) {
+      x[i] = y[i] / norm;
+    }
+  }
+
+  printf("%.9f\n", norm);
+  return 0;
+}
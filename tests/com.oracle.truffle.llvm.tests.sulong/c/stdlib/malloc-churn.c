@@ -0,0 +1,95 @@
+/*
+ * Copyright (c) 2018, Oracle and/or its affiliates.
+ *
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification, are
+ * permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this list of
+ * conditions and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice, this list of
+ * conditions and the following disclaimer in the documentation and/or other materials provided
+ * with the distribution.
+ *
+ * 3. Neither the name of the copyright holder nor the names of its contributors may be used to
+ * endorse or promote products derived from this software without specific prior written
+ * permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY EXPRESS
+ * OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE
+ * COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ * EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE
+ * GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED
+ * AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED
+ * OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+#include <stdlib.h>
+#include <stdio.h>
+#include <string.h>
+
+/*
+ * Allocation-heavy workload that mixes malloc, calloc, realloc and free over small and large
+ * block sizes. SizeClassAllocatorSuite also runs it with --llvm.sizeClassAllocator.
+ */
+
+#define SLOTS 512
+#define ROUNDS 200000
+
+static unsigned int next(unsigned int *state) {
+  *state = *state * 1103515245u + 12345u;
+  return (*state >> 16) & 0x7fff;
+}
+
+static size_t pickSize(unsigned int *state) {
+  unsigned int r = next(state);
+  if (r % 64 == 0) {
+    return 40000 + r;
+  } else if (r % 8 == 0) {
+    return 256 + r % 4096;
+  } else {
+    return 1 + r % 128;
+  }
+}
+
+int main(void) {
+  unsigned char *slots[SLOTS] = { 0 };
+  size_t sizes[SLOTS] = { 0 };
+  unsigned int state = 42;
+  unsigned long checksum = 0;
+
+  for (int i = 0; i < ROUNDS; i++) {
+    unsigned int k = next(&state) % SLOTS;
+    if (slots[k] == NULL) {
+      size_t size = pickSize(&state);
+      if (next(&state) % 4 == 0) {
+        slots[k] = calloc(size, 1);
+        checksum += slots[k][size - 1];
+      } else {
+        slots[k] = malloc(size);
+      }
+      memset(slots[k], k & 0xff, size);
+      sizes[k] = size;
+    } else if (next(&state) % 8 == 0) {
+      size_t size = pickSize(&state);
+      size_t keep = size < sizes[k] ? size : sizes[k];
+      slots[k] = realloc(slots[k], size);
+      checksum += slots[k][keep - 1];
+      memset(slots[k], k & 0xff, size);
+      sizes[k] = size;
+    } else {
+      checksum += slots[k][0] + slots[k][sizes[k] - 1];
+      free(slots[k]);
+      slots[k] = NULL;
+    }
+  }
+
+  for (int k = 0; k < SLOTS; k++) {
+    free(slots[k]);
+  }
+  printf("%lu\n", checksum);
+  return 0;
+}
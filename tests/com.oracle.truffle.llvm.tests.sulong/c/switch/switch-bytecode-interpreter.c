@@ -0,0 +1,212 @@
+/*
+ * Copyright (c) 2018, Oracle and/or its affiliates.
+ *
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification, are
+ * permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this list of
+ * conditions and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice, this list of
+ * conditions and the following disclaimer in the documentation and/or other materials provided
+ * with the distribution.
+ *
+ * 3. Neither the name of the copyright holder nor the names of its contributors may be used to
+ * endorse or promote products derived from this software without specific prior written
+ * permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY EXPRESS
+ * OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE
+ * COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ * EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE
+ * GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED
+ * AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED
+ * OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+#include <stdio.h>
+
+/*
+ * A small stack machine whose dispatch loop is a dense switch, followed by
+ * sparse switches over different integer widths.
+ */
+
+enum {
+  OP_PUSH,
+  OP_ADD,
+  OP_SUB,
+  OP_MUL,
+  OP_DUP,
+  OP_SWAP,
+  OP_DROP,
+  OP_JNZ,
+  OP_DEC,
+  OP_OVER,
+  OP_XOR,
+  OP_SHL,
+  OP_SHR,
+  OP_AND,
+  OP_OR,
+  OP_NEG,
+  OP_HALT
+};
+
+static long run(const int *code) {
+  long stack[64];
+  int sp = 0;
+  int pc = 0;
+  for (;;) {
+    switch (code[pc++]) {
+    case OP_PUSH:
+      stack[sp++] = code[pc++];
+      break;
+    case OP_ADD:
+      sp--;
+      stack[sp - 1] += stack[sp];
+      break;
+    case OP_SUB:
+      sp--;
+      stack[sp - 1] -= stack[sp];
+      break;
+    case OP_MUL:
+      sp--;
+      stack[sp - 1] *= stack[sp];
+      break;
+    case OP_DUP:
+      stack[sp] = stack[sp - 1];
+      sp++;
+      break;
+    case OP_SWAP: {
+      long tmp = stack[sp - 1];
+      stack[sp - 1] = stack[sp - 2];
+      stack[sp - 2] = tmp;
+      break;
+    }
+    case OP_DROP:
+      sp--;
+      break;
+    case OP_JNZ:
+      if (stack[--sp] != 0) {
+        pc = code[pc];
+      } else {
+        pc++;
+      }
+      break;
+    case OP_DEC:
+      stack[sp - 1]--;
+      break;
+    case OP_OVER:
+      stack[sp] = stack[sp - 2];
+      sp++;
+      break;
+    case OP_XOR:
+      sp--;
+      stack[sp - 1] ^= stack[sp];
+      break;
+    case OP_SHL:
+      stack[sp - 1] <<= 1;
+      break;
+    case OP_SHR:
+      stack[sp - 1] = (long) ((unsigned long) stack[sp - 1] >> 3);
+      break;
+    case OP_AND:
+      sp--;
+      stack[sp - 1] &= stack[sp];
+      break;
+    case OP_OR:
+      sp--;
+      stack[sp - 1] |= stack[sp];
+      break;
+    case OP_NEG:
+      stack[sp - 1] = -stack[sp - 1];
+      break;
+    case OP_HALT:
+      return stack[sp - 1];
+    default:
+      return -1;
+    }
+  }
+}
+
+static int sparse32(int value) {
+  switch (value) {
+  case -1000000:
+    return 1;
+  case -7:
+    return 2;
+  case 0:
+    return 3;
+  case 13:
+    return 4;
+  case 4096:
+    return 5;
+  case 65537:
+    return 6;
+  case 2147483647:
+    return 7;
+  default:
+    return 0;
+  }
+}
+
+static int sparse64(long value) {
+  switch (value) {
+  case -9223372036854775807L - 1:
+    return 1;
+  case -1:
+    return 2;
+  case 1L << 40:
+    return 3;
+  case 9223372036854775807L:
+    return 4;
+  default:
+    return 0;
+  }
+}
+
+static int small8(signed char value) {
+  switch (value) {
+  case -128:
+    return 1;
+  case -1:
+    return 2;
+  case 127:
+    return 3;
+  default:
+    return 0;
+  }
+}
+
+int main(void) {
+  /* acc = 1; counter = 20000; do { acc = (acc * 3) ^ (acc >> 3); acc &= 0xffffff; } while (--counter); */
+  static const int code[] = {
+    OP_PUSH, 1,                       /* acc */
+    OP_PUSH, 20000,                   /* acc counter */
+    /* loop: 4 */
+    OP_SWAP,                          /* counter acc */
+    OP_DUP, OP_PUSH, 3, OP_MUL,       /* counter acc acc*3 */
+    OP_SWAP, OP_SHR, OP_XOR,          /* counter acc' */
+    OP_PUSH, 0xffffff, OP_AND,        /* counter acc' */
+    OP_SWAP, OP_DEC,                  /* acc' counter-1 */
+    OP_DUP, OP_JNZ, 4,
+    OP_DROP, OP_HALT
+  };
+  int i;
+  int sum = 0;
+
+  printf("%ld\n", run(code));
+
+  for (i = -2000000; i < 2000000; i += 997) {
+    sum += sparse32(i);
+  }
+  sum += sparse32(-1000000) + sparse32(-7) + sparse32(13) + sparse32(4096) + sparse32(65537) + sparse32(2147483647);
+  sum += sparse64(-9223372036854775807L - 1) + sparse64(-1) + sparse64(1L << 40) + sparse64(9223372036854775807L) + sparse64(5);
+  for (i = -128; i < 128; i++) {
+    sum += small8((signed char) i);
+  }
+  printf("%d\n", sum);
+  return 0;
+}